@@ -5,11 +5,19 @@ const createEventEmitterMock = () => vi.fn(() => ({ remove: vi.fn() }));
 const mockRNOneSignal = {
   initialize: vi.fn(),
   login: vi.fn(),
+  loginWithProfile: vi.fn(),
   logout: vi.fn(),
   setPrivacyConsentRequired: vi.fn(),
   setPrivacyConsentGiven: vi.fn(),
+  setEventBatching: vi.fn(),
+  setEventReplayBuffer: vi.fn(),
+  setNotificationDeduplication: vi.fn(),
   setLogLevel: vi.fn(),
   setAlertLevel: vi.fn(),
+  getNativeMetrics: vi.fn(),
+  resetNativeMetrics: vi.fn(),
+  flushPendingOperations: vi.fn(),
+  executeBatch: vi.fn(),
   enterLiveActivity: vi.fn(),
   exitLiveActivity: vi.fn(),
   setPushToStartToken: vi.fn(),
@@ -18,13 +26,18 @@ const mockRNOneSignal = {
   startDefaultLiveActivity: vi.fn(),
   addPushSubscriptionObserver: vi.fn(),
   getPushSubscriptionId: vi.fn(),
+  getPushSubscriptionIdSync: vi.fn(),
   getPushSubscriptionToken: vi.fn(),
+  getPushSubscriptionTokenSync: vi.fn(),
   getOptedIn: vi.fn(),
+  getOptedInSync: vi.fn(),
   optOut: vi.fn(),
   optIn: vi.fn(),
   addUserStateObserver: vi.fn(),
   getOnesignalId: vi.fn(),
+  getOnesignalIdSync: vi.fn(),
   getExternalId: vi.fn(),
+  getExternalIdSync: vi.fn(),
   setLanguage: vi.fn(),
   addAlias: vi.fn(),
   addAliases: vi.fn(),
@@ -39,7 +52,10 @@ const mockRNOneSignal = {
   addTags: vi.fn(),
   removeTags: vi.fn(),
   getTags: vi.fn(),
+  setTagCoalescingWindow: vi.fn(),
+  flushTags: vi.fn(),
   hasNotificationPermission: vi.fn(),
+  hasNotificationPermissionSync: vi.fn(),
   requestNotificationPermission: vi.fn(),
   canRequestNotificationPermission: vi.fn(),
   registerForProvisionalAuthorization: vi.fn(),
@@ -50,24 +66,37 @@ const mockRNOneSignal = {
   clearAllNotifications: vi.fn(),
   removeNotification: vi.fn(),
   removeGroupedNotifications: vi.fn(),
+  removeNotifications: vi.fn(),
+  removeGroupedNotificationsBatch: vi.fn(),
   addInAppMessageClickListener: vi.fn(),
   addInAppMessagesLifecycleListener: vi.fn(),
   addTrigger: vi.fn(),
   addTriggers: vi.fn(),
+  setTriggers: vi.fn(),
   removeTrigger: vi.fn(),
   removeTriggers: vi.fn(),
   clearTriggers: vi.fn(),
   paused: vi.fn(),
   getPaused: vi.fn(),
+  getPausedSync: vi.fn(),
   requestLocationPermission: vi.fn(),
   setLocationShared: vi.fn(),
   isLocationShared: vi.fn(),
   addOutcome: vi.fn(),
   addUniqueOutcome: vi.fn(),
   addOutcomeWithValue: vi.fn(),
+  setOutcomeAggregation: vi.fn(),
+  flushOutcomes: vi.fn(),
   displayNotification: vi.fn(),
   preventDefault: vi.fn(),
+  setNotificationWillDisplayTimeout: vi.fn(),
+  setNotificationRawPayloadIncluded: vi.fn(),
+  setNotificationFieldProjection: vi.fn(),
+  setNotificationJsonEncoding: vi.fn(),
+  setGroupedNotificationLimit: vi.fn(),
+  getNotificationRawPayload: vi.fn(),
   trackEvent: vi.fn(),
+  setTrackEventQueue: vi.fn(),
   onPermissionChanged: createEventEmitterMock(),
   onSubscriptionChanged: createEventEmitterMock(),
   onUserStateChanged: createEventEmitterMock(),
@@ -78,6 +107,7 @@ const mockRNOneSignal = {
   onInAppMessageDidDisplay: createEventEmitterMock(),
   onInAppMessageWillDismiss: createEventEmitterMock(),
   onInAppMessageDidDismiss: createEventEmitterMock(),
+  onEventBatch: createEventEmitterMock(),
 };
 
 const mockPlatform = {
@@ -0,0 +1,81 @@
+package com.onesignal.rnonesignalandroid;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Removing {@code count} notifications or groups with one module call each against one batch call, until the
+ * SDK has been called for all of them. This covers the native side only: the batch also saves {@code count - 1}
+ * bridge crossings, which have to be measured on a device.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RNOneSignalTrayBenchmark {
+    @Param({"10", "50"})
+    public int count;
+
+    private RNOneSignalHarness harness;
+    private JavaOnlyArray ids;
+    private JavaOnlyArray groupKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        harness = new RNOneSignalHarness();
+        ids = new JavaOnlyArray();
+        groupKeys = new JavaOnlyArray();
+        for (int i = 0; i < count; i++) {
+            ids.pushInt(i);
+            groupKeys.pushString("group-" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Benchmark
+    public void removeNotificationsOneByOne() {
+        for (int i = 0; i < count; i++) {
+            harness.module.removeNotification(i);
+        }
+        harness.awaitOperations();
+    }
+
+    @Benchmark
+    public void removeNotificationsBatch() {
+        harness.module.removeNotifications(ids);
+        harness.awaitOperations();
+    }
+
+    @Benchmark
+    public void removeGroupedNotificationsOneByOne() {
+        for (int i = 0; i < count; i++) {
+            harness.module.removeGroupedNotifications("group-" + i);
+        }
+        harness.awaitOperations();
+    }
+
+    @Benchmark
+    public void removeGroupedNotificationsBatch() {
+        harness.module.removeGroupedNotificationsBatch(groupKeys);
+        harness.awaitOperations();
+    }
+}
@@ -0,0 +1,175 @@
+package com.onesignal.rnonesignalandroid;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+import com.onesignal.inAppMessages.IInAppMessageClickEvent;
+import com.onesignal.inAppMessages.IInAppMessageWillDisplayEvent;
+import com.onesignal.notifications.INotification;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the RNUtils conversions that run for every notification and in-app message event. Run with the
+ * GC profiler (see {@link RNUtilsBenchmarkRunner}) to also get {@code gc.alloc.rate.norm}, the bytes allocated
+ * per operation.
+ *
+ * <p>The JSON-string benchmarks only cover the native half of {@link NotificationJsonEncoding}. Where it pays off
+ * overall also depends on what JS saves by running {@code JSON.parse} instead of materializing the map, which
+ * has to be measured on a device.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RNUtilsBenchmark {
+    private static final int GROUP_SIZE = 20;
+
+    @Param({"PLAIN_200B", "NESTED_1KB", "NESTED_2KB", "NESTED_4KB"})
+    public String payloadSize;
+
+    private INotification notification;
+    private JSONObject additionalData;
+    private HashMap<String, Object> notificationHashMap;
+    private NotificationConversionOptions projectedOptions;
+    private NotificationConversionOptions additionalDataAsJsonOptions;
+    private NotificationConversionOptions notificationAsJsonOptions;
+    private ReadableMap tags;
+    private IInAppMessageClickEvent inAppMessageClickEvent;
+    private IInAppMessageWillDisplayEvent inAppMessageWillDisplayEvent;
+    private INotification groupSummary;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JSONException {
+        JvmBridge.install();
+
+        notification = NotificationPayloads.notification(NotificationPayloads.Size.valueOf(payloadSize));
+        additionalData = notification.getAdditionalData();
+        notificationHashMap = RNUtils.convertNotificationToMap(notification);
+        projectedOptions = NotificationConversionOptions.DEFAULT
+                .withRawPayloadIncluded(false)
+                .withProjection(NotificationProjection.parse(
+                        Arrays.asList("title", "additionalData.section_0.deepLink", "additionalData.section_1.id")));
+        additionalDataAsJsonOptions =
+                NotificationConversionOptions.DEFAULT.withJsonEncoding(new NotificationJsonEncoding(0, false));
+        notificationAsJsonOptions =
+                NotificationConversionOptions.DEFAULT.withJsonEncoding(new NotificationJsonEncoding(0, true));
+
+        JavaOnlyMap tagMap = new JavaOnlyMap();
+        for (int i = 0; i < 20; i++) {
+            tagMap.putString("tag_" + i, "value_" + i);
+        }
+        tagMap.putInt("not_a_string", 1);
+        tags = tagMap;
+
+        inAppMessageClickEvent =
+                SdkFakes.inAppMessageClickEvent("iam-1", "button-primary", "https://example.com/offer");
+        inAppMessageWillDisplayEvent = SdkFakes.inAppMessageWillDisplayEvent("iam-1");
+
+        List<INotification> children = new ArrayList<>();
+        for (int i = 0; i < GROUP_SIZE; i++) {
+            children.add(NotificationPayloads.notification(
+                    NotificationPayloads.Size.valueOf(payloadSize), "child-" + i));
+        }
+        groupSummary = SdkFakes.summaryNotification("summary", "benchmark-group", children);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RNUtils.getGroupedNotificationCache().clear();
+        JvmBridge.uninstall();
+    }
+
+    @Benchmark
+    public HashMap<String, Object> convertNotificationToMap() throws JSONException {
+        return RNUtils.convertNotificationToMap(notification);
+    }
+
+    /** The two-step path notification events used to take: SDK object to HashMap to WritableMap. */
+    @Benchmark
+    public WritableMap convertNotificationToMapThenWritableMap() throws JSONException {
+        return RNUtils.convertHashMapToWritableMap(RNUtils.convertNotificationToMap(notification));
+    }
+
+    @Benchmark
+    public WritableMap convertNotificationToWritableMap() throws JSONException {
+        return RNUtils.convertNotificationToWritableMap(notification, NotificationConversionOptions.DEFAULT);
+    }
+
+    /** What a listener that reads the title and two additionalData keys costs with a field projection. */
+    @Benchmark
+    public WritableMap convertNotificationToWritableMapProjected() throws JSONException {
+        return RNUtils.convertNotificationToWritableMap(notification, projectedOptions);
+    }
+
+    /** additionalData sent as one JSON string, whatever its size. */
+    @Benchmark
+    public WritableMap convertNotificationToWritableMapJsonAdditionalData() throws JSONException {
+        return RNUtils.convertNotificationToWritableMap(notification, additionalDataAsJsonOptions);
+    }
+
+    /** The whole notification sent as one JSON string, whatever its size. */
+    @Benchmark
+    public WritableMap convertNotificationToWritableMapJsonNotification() throws JSONException {
+        return RNUtils.convertNotificationToWritableMap(notification, notificationAsJsonOptions);
+    }
+
+    /** A summary whose children were all converted for an earlier summary of the same group. */
+    @Benchmark
+    public WritableMap convertGroupSummaryReusingChildren() throws JSONException {
+        return RNUtils.convertNotificationToWritableMap(groupSummary, NotificationConversionOptions.DEFAULT);
+    }
+
+    /** The same summary with nothing remembered, as for the first summary of a group. */
+    @Benchmark
+    public WritableMap convertGroupSummaryFromScratch() throws JSONException {
+        RNUtils.getGroupedNotificationCache().clear();
+        return RNUtils.convertNotificationToWritableMap(groupSummary, NotificationConversionOptions.DEFAULT);
+    }
+
+    @Benchmark
+    public HashMap<String, Object> convertJSONObjectToHashMap() throws JSONException {
+        return RNUtils.convertJSONObjectToHashMap(additionalData);
+    }
+
+    @Benchmark
+    public WritableMap convertHashMapToWritableMap() throws JSONException {
+        return RNUtils.convertHashMapToWritableMap(notificationHashMap);
+    }
+
+    @Benchmark
+    public HashMap<String, String> convertReadableMapIntoStringMap() {
+        return RNUtils.convertReadableMapIntoStringMap(tags);
+    }
+
+    @Benchmark
+    public WritableMap convertInAppMessageClickEvent() throws JSONException {
+        return RNUtils.convertHashMapToWritableMap(RNUtils.convertInAppMessageClickEventToMap(inAppMessageClickEvent));
+    }
+
+    @Benchmark
+    public WritableMap convertInAppMessageWillDisplayEvent() throws JSONException {
+        return RNUtils.convertHashMapToWritableMap(
+                RNUtils.convertInAppMessageWillDisplayEventToMap(inAppMessageWillDisplayEvent));
+    }
+}
@@ -0,0 +1,76 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import org.junit.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link RNUtilsBenchmark} and {@link RNOneSignalTrayBenchmark} from the unit test task. The full JMH run
+ * only happens with {@code -Ponesignal.benchmarks=true}; a normal test run just calls each benchmark once so they
+ * cannot rot.
+ */
+public class RNUtilsBenchmarkRunner {
+    @Test
+    public void benchmarksRunOnce() throws Exception {
+        for (NotificationPayloads.Size size : NotificationPayloads.Size.values()) {
+            RNUtilsBenchmark benchmark = new RNUtilsBenchmark();
+            benchmark.payloadSize = size.name();
+            benchmark.setUp();
+            try {
+                assertNotNull(benchmark.convertNotificationToMap());
+                assertNotNull(benchmark.convertNotificationToMapThenWritableMap());
+                assertNotNull(benchmark.convertNotificationToWritableMap());
+                assertNotNull(benchmark.convertNotificationToWritableMapProjected());
+                assertNotNull(benchmark.convertNotificationToWritableMapJsonAdditionalData());
+                assertNotNull(benchmark.convertNotificationToWritableMapJsonNotification());
+                assertNotNull(benchmark.convertGroupSummaryReusingChildren());
+                assertNotNull(benchmark.convertGroupSummaryFromScratch());
+                assertNotNull(benchmark.convertJSONObjectToHashMap());
+                assertNotNull(benchmark.convertHashMapToWritableMap());
+                assertNotNull(benchmark.convertReadableMapIntoStringMap());
+                assertNotNull(benchmark.convertInAppMessageClickEvent());
+                assertNotNull(benchmark.convertInAppMessageWillDisplayEvent());
+            } finally {
+                benchmark.tearDown();
+            }
+        }
+    }
+
+    @Test
+    public void trayBenchmarksRunOnce() {
+        RNOneSignalTrayBenchmark benchmark = new RNOneSignalTrayBenchmark();
+        benchmark.count = 3;
+        benchmark.setUp();
+        try {
+            benchmark.removeNotificationsOneByOne();
+            benchmark.removeNotificationsBatch();
+            benchmark.removeGroupedNotificationsOneByOne();
+            benchmark.removeGroupedNotificationsBatch();
+        } finally {
+            benchmark.tearDown();
+        }
+    }
+
+    @Test
+    public void runBenchmarks() throws Exception {
+        assumeTrue(Boolean.getBoolean("onesignal.benchmarks"));
+
+        File reportDir = new File("build/reports/jmh");
+        reportDir.mkdirs();
+        Options options = new OptionsBuilder()
+                .include(RNUtilsBenchmark.class.getSimpleName())
+                .include(RNOneSignalTrayBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(new File(reportDir, "rnutils.json").getPath())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,189 @@
+package com.onesignal.rnonesignalandroid;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insertion-ordered map with a size cap and a per-entry time limit. Used to hold SDK objects (such as
+ * foreground notification events) while JS decides what to do with them, without letting them pile up for the
+ * lifetime of the process. Once {@code maxSize} is reached the oldest entry is evicted, and entries older than
+ * {@code ttlMs} are dropped the next time the cache is touched.
+ */
+public class BoundedExpiringCache<K, V> {
+    private static final class Entry<V> {
+        final V value;
+        final long insertedAtMs;
+
+        Entry(V value, long insertedAtMs) {
+            this.value = value;
+            this.insertedAtMs = insertedAtMs;
+        }
+    }
+
+    private final int maxSize;
+    private final long ttlMs;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>();
+
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    public BoundedExpiringCache(int maxSize, long ttlMs) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+    }
+
+    public synchronized void put(K key, V value) {
+        putAndEvict(key, value);
+    }
+
+    /** Like {@link #put}, but returns the values evicted by this call, expired or over the size cap, oldest first. */
+    public synchronized List<V> putAndEvict(K key, V value) {
+        long now = now();
+        List<V> evicted = evictExpired(now);
+        entries.remove(key);
+        entries.put(key, new Entry<>(value, now));
+
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            V oldest = iterator.next().getValue().value;
+            iterator.remove();
+            evictionCount++;
+            if (evicted.isEmpty()) {
+                evicted = new ArrayList<>();
+            }
+            evicted.add(oldest);
+        }
+        return evicted;
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = lookup(key, false);
+        return entry != null ? entry.value : null;
+    }
+
+    /** Removes and returns the entry for {@code key}, counting the lookup as a hit or miss. */
+    public synchronized V remove(K key) {
+        Entry<V> entry = lookup(key, true);
+        return entry != null ? entry.value : null;
+    }
+
+    /** Removes the entry for {@code key} only if it still maps to {@code expected}. */
+    public synchronized boolean remove(K key, V expected) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.value != expected) {
+            return false;
+        }
+        entries.remove(key);
+        return !isExpired(entry, now());
+    }
+
+    public synchronized boolean containsKey(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return false;
+        }
+        if (isExpired(entry, now())) {
+            entries.remove(key);
+            evictionCount++;
+            return false;
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        evictExpired(now());
+        return entries.size();
+    }
+
+    /** A snapshot of the live values, oldest first. */
+    public synchronized List<V> values() {
+        evictExpired(now());
+        List<V> values = new ArrayList<>(entries.size());
+        for (Entry<V> entry : entries.values()) {
+            values.add(entry.value);
+        }
+        return values;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public synchronized void resetCounters() {
+        hitCount = 0;
+        missCount = 0;
+        evictionCount = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "size=" + entries.size() + ", hits=" + hitCount + ", misses=" + missCount + ", evictions="
+                + evictionCount;
+    }
+
+    private Entry<V> lookup(K key, boolean remove) {
+        Entry<V> entry = remove ? entries.remove(key) : entries.get(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        if (isExpired(entry, now())) {
+            if (!remove) {
+                entries.remove(key);
+            }
+            evictionCount++;
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry;
+    }
+
+    private List<V> evictExpired(long now) {
+        List<V> evicted = Collections.emptyList();
+        // Entries are kept in insertion order, so the first live entry ends the scan.
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry<V> entry = iterator.next();
+            if (!isExpired(entry, now)) {
+                break;
+            }
+            iterator.remove();
+            evictionCount++;
+            if (evicted.isEmpty()) {
+                evicted = new ArrayList<>();
+            }
+            evicted.add(entry.value);
+        }
+        return evicted;
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return ttlMs > 0 && now - entry.insertedAtMs >= ttlMs;
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+}
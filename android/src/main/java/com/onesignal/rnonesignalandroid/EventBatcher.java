@@ -0,0 +1,103 @@
+package com.onesignal.rnonesignalandroid;
+
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in queue that collects native events and hands them to JS as one {@code onEventBatch} payload per
+ * interval, so bursts such as an in-app message show/dismiss cycle cost one bridge crossing instead of four.
+ * Events keep their original order, both within a batch and across batches.
+ */
+public class EventBatcher {
+    public static final long DEFAULT_INTERVAL_MS = 16;
+
+    public interface BatchEmitter {
+        void emitBatch(WritableMap batch);
+    }
+
+    private static final class QueuedEvent {
+        final String eventName;
+        final WritableMap payload;
+
+        QueuedEvent(String eventName, WritableMap payload) {
+            this.eventName = eventName;
+            this.payload = payload;
+        }
+    }
+
+    private final BatchEmitter emitter;
+    private final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "OneSignal-RN-EventBatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ArrayList<QueuedEvent> queue = new ArrayList<>();
+    private boolean enabled = false;
+    private boolean flushScheduled = false;
+    private long intervalMs = DEFAULT_INTERVAL_MS;
+
+    public EventBatcher(BatchEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    /** Turns batching on or off. Turning it off delivers anything still queued first. */
+    public synchronized void setEnabled(boolean enabled, long intervalMs) {
+        this.intervalMs = intervalMs > 0 ? intervalMs : DEFAULT_INTERVAL_MS;
+        if (!enabled) {
+            flush();
+        }
+        this.enabled = enabled;
+    }
+
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Queues the event if batching is on. Returns false if the caller should emit it directly. */
+    public synchronized boolean offer(String eventName, WritableMap payload) {
+        if (!enabled) {
+            return false;
+        }
+
+        queue.add(new QueuedEvent(eventName, payload));
+        if (!flushScheduled) {
+            flushScheduled = true;
+            flushScheduler.schedule(this::flush, intervalMs, TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    /** Emits everything queued so far as a single batch. */
+    public synchronized void flush() {
+        flushScheduled = false;
+        if (queue.isEmpty()) {
+            return;
+        }
+
+        ArrayList<QueuedEvent> events = queue;
+        queue = new ArrayList<>();
+
+        WritableArray eventArray = RNUtils.createArray();
+        for (QueuedEvent event : events) {
+            WritableMap entry = RNUtils.createMap();
+            entry.putString("type", event.eventName);
+            entry.putMap("payload", event.payload);
+            eventArray.pushMap(entry);
+        }
+
+        WritableMap batch = RNUtils.createMap();
+        batch.putArray("events", eventArray);
+        emitter.emitBatch(batch);
+    }
+
+    public synchronized void shutdown() {
+        enabled = false;
+        queue.clear();
+        flushScheduler.shutdownNow();
+    }
+}
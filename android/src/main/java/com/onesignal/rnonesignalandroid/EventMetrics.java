@@ -0,0 +1,211 @@
+package com.onesignal.rnonesignalandroid;
+
+import androidx.annotation.Nullable;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-event numbers for the native event path: how often each event fires, how long RNUtils takes to build its
+ * payload, how large the payload is, how long it takes from the SDK callback until the event is handed off
+ * towards JS, how often building the payload fails, and how often an event is dropped as a duplicate.
+ *
+ * <p>Measuring a payload walks the whole native map, which costs about as much as building it, so payload sizes
+ * are only recorded once {@link #startMeasuringPayloads} has been called.
+ */
+public class EventMetrics {
+    /** Number of keys, at every level, and the approximate JSON size of a payload. */
+    public static final class PayloadSize {
+        public final long keys;
+        public final long bytes;
+
+        PayloadSize(long keys, long bytes) {
+            this.keys = keys;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class EventStats {
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong duplicates = new AtomicLong();
+        final Histogram conversionMicros = new Histogram();
+        final Histogram emitLatencyMicros = new Histogram();
+        final Histogram payloadKeys = new Histogram();
+        final Histogram payloadBytes = new Histogram();
+    }
+
+    // Rough sizes of JSON values that are not worth formatting just to measure.
+    private static final int NUMBER_BYTES = 8;
+    private static final int LITERAL_BYTES = 5;
+
+    private final ConcurrentHashMap<String, EventStats> stats = new ConcurrentHashMap<>();
+    private volatile long sinceNanos = System.nanoTime();
+    private volatile boolean measuringPayloads = false;
+
+    public void startMeasuringPayloads() {
+        measuringPayloads = true;
+    }
+
+    public boolean isMeasuringPayloads() {
+        return measuringPayloads;
+    }
+
+    /**
+     * Measures a payload. Call before emitting it: once a native map has been handed to React it can no longer
+     * be read.
+     */
+    public static PayloadSize measure(ReadableMap payload) {
+        long[] size = new long[2];
+        measureMap(payload, size);
+        return new PayloadSize(size[0], size[1]);
+    }
+
+    /** Records an emitted event. {@code size} is null when payloads are not being measured. */
+    public void record(String eventName, long conversionNanos, @Nullable PayloadSize size, long emitLatencyNanos) {
+        EventStats eventStats = statsFor(eventName);
+        eventStats.count.incrementAndGet();
+        eventStats.conversionMicros.record(TimeUnit.NANOSECONDS.toMicros(conversionNanos));
+        eventStats.emitLatencyMicros.record(TimeUnit.NANOSECONDS.toMicros(emitLatencyNanos));
+        if (size != null) {
+            eventStats.payloadKeys.record(size.keys);
+            eventStats.payloadBytes.record(size.bytes);
+        }
+    }
+
+    public void recordFailure(String eventName) {
+        statsFor(eventName).failures.incrementAndGet();
+    }
+
+    public void recordDuplicate(String eventName) {
+        statsFor(eventName).duplicates.incrementAndGet();
+    }
+
+    public long getCount(String eventName) {
+        EventStats eventStats = stats.get(eventName);
+        return eventStats != null ? eventStats.count.get() : 0;
+    }
+
+    public long getFailureCount(String eventName) {
+        EventStats eventStats = stats.get(eventName);
+        return eventStats != null ? eventStats.failures.get() : 0;
+    }
+
+    public long getDuplicateCount(String eventName) {
+        EventStats eventStats = stats.get(eventName);
+        return eventStats != null ? eventStats.duplicates.get() : 0;
+    }
+
+    public void reset() {
+        stats.clear();
+        sinceNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns {@code {sinceMs, events: {<eventName>: {count, failures, duplicates, conversionMicros,
+     * emitLatencyMicros, payloadKeys, payloadBytes}}}}, where each histogram is
+     * {@code {count, mean, p50, p90, p99, max, buckets}}.
+     */
+    public WritableMap toWritableMap() {
+        WritableMap events = RNUtils.createMap();
+        for (Map.Entry<String, EventStats> entry : stats.entrySet()) {
+            EventStats eventStats = entry.getValue();
+            WritableMap event = RNUtils.createMap();
+            event.putDouble("count", eventStats.count.get());
+            event.putDouble("failures", eventStats.failures.get());
+            event.putDouble("duplicates", eventStats.duplicates.get());
+            event.putMap("conversionMicros", toWritableMap(eventStats.conversionMicros));
+            event.putMap("emitLatencyMicros", toWritableMap(eventStats.emitLatencyMicros));
+            event.putMap("payloadKeys", toWritableMap(eventStats.payloadKeys));
+            event.putMap("payloadBytes", toWritableMap(eventStats.payloadBytes));
+            events.putMap(entry.getKey(), event);
+        }
+
+        WritableMap metrics = RNUtils.createMap();
+        metrics.putDouble("sinceMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sinceNanos));
+        metrics.putMap("events", events);
+        return metrics;
+    }
+
+    private EventStats statsFor(String eventName) {
+        EventStats eventStats = stats.get(eventName);
+        if (eventStats == null) {
+            eventStats = stats.computeIfAbsent(eventName, key -> new EventStats());
+        }
+        return eventStats;
+    }
+
+    static WritableMap toWritableMap(Histogram histogram) {
+        WritableMap map = RNUtils.createMap();
+        map.putDouble("count", histogram.getCount());
+        map.putDouble("mean", histogram.getMean());
+        map.putDouble("p50", histogram.getPercentile(50));
+        map.putDouble("p90", histogram.getPercentile(90));
+        map.putDouble("p99", histogram.getPercentile(99));
+        map.putDouble("max", histogram.getMax());
+        WritableArray buckets = RNUtils.createArray();
+        for (long bucket : histogram.getBuckets()) {
+            buckets.pushDouble(bucket);
+        }
+        map.putArray("buckets", buckets);
+        return map;
+    }
+
+    private static void measureMap(ReadableMap map, long[] size) {
+        size[1] += 2;
+        ReadableMapKeySetIterator iterator = map.keySetIterator();
+        while (iterator.hasNextKey()) {
+            String key = iterator.nextKey();
+            size[0]++;
+            // Quotes, colon and separator.
+            size[1] += key.length() + 4;
+            switch (map.getType(key)) {
+                case String:
+                    size[1] += map.getString(key).length() + 2;
+                    break;
+                case Number:
+                    size[1] += NUMBER_BYTES;
+                    break;
+                case Map:
+                    measureMap(map.getMap(key), size);
+                    break;
+                case Array:
+                    measureArray(map.getArray(key), size);
+                    break;
+                default:
+                    size[1] += LITERAL_BYTES;
+                    break;
+            }
+        }
+    }
+
+    private static void measureArray(ReadableArray array, long[] size) {
+        size[1] += 2;
+        for (int i = 0; i < array.size(); i++) {
+            size[1] += 1;
+            switch (array.getType(i)) {
+                case String:
+                    size[1] += array.getString(i).length() + 2;
+                    break;
+                case Number:
+                    size[1] += NUMBER_BYTES;
+                    break;
+                case Map:
+                    measureMap(array.getMap(i), size);
+                    break;
+                case Array:
+                    measureArray(array.getArray(i), size);
+                    break;
+                default:
+                    size[1] += LITERAL_BYTES;
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.onesignal.rnonesignalandroid;
+
+import com.facebook.react.bridge.WritableMap;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event ring buffer for events the SDK fires before JS has attached a listener for them, for example the
+ * notification click that cold-starts the app. Events are held until the matching {@code add...Listener} call
+ * attaches the event, then replayed in the order they were recorded. Each event type keeps at most
+ * {@code capacity} events; the oldest is dropped first, and events older than {@code maxAgeMs} are never
+ * replayed.
+ */
+public class EventReplayBuffer {
+    public static final int DEFAULT_CAPACITY = 10;
+    public static final long DEFAULT_MAX_AGE_MS = 60 * 1000;
+
+    public interface Replayer {
+        void replay(String eventName, WritableMap payload);
+    }
+
+    private static final class BufferedEvent {
+        final WritableMap payload;
+        final long recordedAtMs;
+
+        BufferedEvent(WritableMap payload, long recordedAtMs) {
+            this.payload = payload;
+            this.recordedAtMs = recordedAtMs;
+        }
+    }
+
+    private final HashMap<String, ArrayDeque<BufferedEvent>> buffers = new HashMap<>();
+    private final HashSet<String> attachedEvents = new HashSet<>();
+
+    private int capacity = DEFAULT_CAPACITY;
+    private long maxAgeMs = DEFAULT_MAX_AGE_MS;
+    private long droppedCount = 0;
+
+    /** A capacity of 0 turns buffering off. A max age of 0 keeps events until they are replayed or pushed out. */
+    public synchronized void configure(int capacity, long maxAgeMs) {
+        this.capacity = Math.max(capacity, 0);
+        this.maxAgeMs = Math.max(maxAgeMs, 0);
+
+        long now = now();
+        for (ArrayDeque<BufferedEvent> buffer : buffers.values()) {
+            trim(buffer, now);
+        }
+    }
+
+    /**
+     * Records the event if JS has not attached a listener for it yet. Returns false if the caller should emit
+     * it directly.
+     */
+    public synchronized boolean offer(String eventName, WritableMap payload) {
+        if (capacity == 0 || attachedEvents.contains(eventName)) {
+            return false;
+        }
+
+        ArrayDeque<BufferedEvent> buffer = buffers.get(eventName);
+        if (buffer == null) {
+            buffer = new ArrayDeque<>();
+            buffers.put(eventName, buffer);
+        }
+        long now = now();
+        buffer.addLast(new BufferedEvent(payload, now));
+        trim(buffer, now);
+        return true;
+    }
+
+    /**
+     * Marks the event as having a JS listener and replays anything buffered for it. Replay happens under the
+     * buffer lock so that an event arriving concurrently is emitted after the replayed ones, not before.
+     */
+    public synchronized void attach(String eventName, Replayer replayer) {
+        attachedEvents.add(eventName);
+
+        ArrayDeque<BufferedEvent> buffer = buffers.remove(eventName);
+        if (buffer == null) {
+            return;
+        }
+        trim(buffer, now());
+        for (BufferedEvent event : buffer) {
+            replayer.replay(eventName, event.payload);
+        }
+    }
+
+    /** Called when the JS context goes away, so events are buffered again until the next attach. */
+    public synchronized void detachAll() {
+        attachedEvents.clear();
+    }
+
+    public synchronized int size(String eventName) {
+        ArrayDeque<BufferedEvent> buffer = buffers.get(eventName);
+        if (buffer == null) {
+            return 0;
+        }
+        trim(buffer, now());
+        return buffer.size();
+    }
+
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public synchronized void clear() {
+        buffers.clear();
+        attachedEvents.clear();
+    }
+
+    private void trim(ArrayDeque<BufferedEvent> buffer, long now) {
+        while (buffer.size() > capacity) {
+            buffer.removeFirst();
+            droppedCount++;
+        }
+        while (maxAgeMs > 0 && !buffer.isEmpty() && now - buffer.peekFirst().recordedAtMs >= maxAgeMs) {
+            buffer.removeFirst();
+            droppedCount++;
+        }
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+}
@@ -0,0 +1,237 @@
+package com.onesignal.rnonesignalandroid;
+
+import androidx.annotation.Nullable;
+import com.facebook.react.bridge.WritableMap;
+import com.onesignal.debug.internal.logging.Logging;
+import com.onesignal.notifications.INotificationWillDisplayEvent;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks foreground notifications that are waiting for a display decision from JS.
+ *
+ * <p>The SDK callback only parks the event here and returns, so a slow or missing JS handler never blocks
+ * notification processing. JS settles an event through {@link #display} or {@link #preventDefault}; if JS has not
+ * answered by the decision timeout, or the event is pushed out of the pending store by newer ones, the timeout
+ * policy is applied instead: display the notification, or drop it.
+ */
+public class ForegroundDisplayCoordinator {
+    public static final long DEFAULT_DECISION_TIMEOUT_MS = 25 * 1000;
+    private static final int MAX_PENDING_EVENTS = 64;
+    private static final long PENDING_EVENT_TTL_MS = 5 * 60 * 1000;
+
+    private static final class PendingEvent {
+        final INotificationWillDisplayEvent event;
+        final long heldAtMs;
+        volatile @Nullable ScheduledFuture<?> deadline;
+
+        PendingEvent(INotificationWillDisplayEvent event, long heldAtMs) {
+            this.event = event;
+            this.heldAtMs = heldAtMs;
+        }
+
+        void cancelDeadline() {
+            ScheduledFuture<?> scheduled = deadline;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+
+    // Events JS has not answered yet. They do not expire here: every event has a scheduled deadline.
+    private final BoundedExpiringCache<String, PendingEvent> pendingEvents =
+            new BoundedExpiringCache<>(MAX_PENDING_EVENTS, 0);
+    // Events JS prevented; kept so a later display() call can still show the notification.
+    private final BoundedExpiringCache<String, INotificationWillDisplayEvent> preventedEvents =
+            new BoundedExpiringCache<>(MAX_PENDING_EVENTS, PENDING_EVENT_TTL_MS);
+
+    private final ScheduledThreadPoolExecutor timeoutScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "OneSignal-RN-WillDisplayTimeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ForegroundDisplayCoordinator() {
+        // Answered events cancel their deadline; do not keep them queued until it would have fired.
+        timeoutScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    private final Histogram decisionLatencyMs = new Histogram();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    private volatile long decisionTimeoutMs = DEFAULT_DECISION_TIMEOUT_MS;
+    private volatile boolean displayOnTimeout = true;
+
+    /**
+     * Sets how long JS has to call display or preventDefault, and whether the notification is displayed when it
+     * does not. A timeout of 0 or less waits for as long as an unanswered event is kept, five minutes.
+     */
+    public void setDecisionTimeout(long timeoutMs, boolean displayOnTimeout) {
+        this.decisionTimeoutMs = timeoutMs;
+        this.displayOnTimeout = displayOnTimeout;
+    }
+
+    /**
+     * Prevents the default display and parks the event until JS decides. Returns immediately. After {@link #shutdown}
+     * no deadline can be scheduled, so the notification is displayed instead of being held.
+     */
+    public void hold(INotificationWillDisplayEvent event) {
+        String notificationId = event.getNotification().getNotificationId();
+        if (timeoutScheduler.isShutdown()) {
+            displayUnheld(event);
+            return;
+        }
+        PendingEvent pending = new PendingEvent(event, now());
+
+        event.preventDefault();
+        List<PendingEvent> evicted = pendingEvents.putAndEvict(notificationId, pending);
+
+        long timeoutMs = decisionTimeoutMs > 0 ? decisionTimeoutMs : PENDING_EVENT_TTL_MS;
+        try {
+            pending.deadline = timeoutScheduler.schedule(
+                    () -> onDecisionTimeout(notificationId, pending), timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shut down after the check above; an event without a deadline would never be settled.
+            pendingEvents.remove(notificationId, pending);
+            displayUnheld(event);
+        }
+
+        for (PendingEvent oldest : evicted) {
+            oldest.cancelDeadline();
+            evictedCount.incrementAndGet();
+            applyTimeoutPolicy(oldest, "too many notifications waiting for a display decision");
+        }
+    }
+
+    /** Displays a held or prevented notification. Returns false if no event is known for the id. */
+    public boolean display(String notificationId) {
+        PendingEvent pending = pendingEvents.remove(notificationId);
+        INotificationWillDisplayEvent event;
+        if (pending != null) {
+            pending.cancelDeadline();
+            decisionLatencyMs.record(now() - pending.heldAtMs);
+            event = pending.event;
+        } else {
+            event = preventedEvents.remove(notificationId);
+        }
+
+        if (event == null) {
+            return false;
+        }
+        event.getNotification().display();
+        return true;
+    }
+
+    /** Marks a held notification as prevented. Returns false if no event is known for the id. */
+    public boolean preventDefault(String notificationId) {
+        PendingEvent pending = pendingEvents.remove(notificationId);
+        if (pending == null) {
+            return preventedEvents.containsKey(notificationId);
+        }
+
+        pending.cancelDeadline();
+        decisionLatencyMs.record(now() - pending.heldAtMs);
+        pending.event.preventDefault();
+        preventedEvents.put(notificationId, pending.event);
+        return true;
+    }
+
+    /** Number of events still waiting for a decision from JS. */
+    public int getPendingCount() {
+        return pendingEvents.size();
+    }
+
+    /** Number of prevented events kept for a later display call. */
+    public int getPreventedCount() {
+        return preventedEvents.size();
+    }
+
+    public Histogram getDecisionLatencyMs() {
+        return decisionLatencyMs;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    /**
+     * Returns {@code {decisionLatencyMs, timeouts, evicted, pending, pendingCache, preventedCache}}; the two cache
+     * maps hold the {@code hits, misses, evictions} of the pending and prevented event stores.
+     */
+    public WritableMap toWritableMap() {
+        WritableMap map = RNUtils.createMap();
+        map.putMap("decisionLatencyMs", EventMetrics.toWritableMap(decisionLatencyMs));
+        map.putDouble("timeouts", timeoutCount.get());
+        map.putDouble("evicted", evictedCount.get());
+        map.putDouble("pending", pendingEvents.size());
+        map.putMap("pendingCache", cacheToWritableMap(pendingEvents));
+        map.putMap("preventedCache", cacheToWritableMap(preventedEvents));
+        return map;
+    }
+
+    public void resetCounters() {
+        decisionLatencyMs.reset();
+        timeoutCount.set(0);
+        evictedCount.set(0);
+        pendingEvents.resetCounters();
+        preventedEvents.resetCounters();
+    }
+
+    public void clear() {
+        pendingEvents.clear();
+        preventedEvents.clear();
+    }
+
+    public void shutdown() {
+        timeoutScheduler.shutdownNow();
+        clear();
+    }
+
+    @Override
+    public String toString() {
+        return "pending [" + pendingEvents + "], prevented [" + preventedEvents + "], decision latency ms ["
+                + decisionLatencyMs + "], timeouts=" + timeoutCount.get() + ", evicted=" + evictedCount.get();
+    }
+
+    private static WritableMap cacheToWritableMap(BoundedExpiringCache<?, ?> cache) {
+        WritableMap map = RNUtils.createMap();
+        map.putDouble("hits", cache.getHitCount());
+        map.putDouble("misses", cache.getMissCount());
+        map.putDouble("evictions", cache.getEvictionCount());
+        return map;
+    }
+
+    private void onDecisionTimeout(String notificationId, PendingEvent pending) {
+        if (!pendingEvents.remove(notificationId, pending)) {
+            return;
+        }
+
+        timeoutCount.incrementAndGet();
+        applyTimeoutPolicy(pending, "no display decision from JS in time");
+    }
+
+    private void applyTimeoutPolicy(PendingEvent pending, String reason) {
+        String notificationId = pending.event.getNotification().getNotificationId();
+        if (displayOnTimeout) {
+            Logging.debug(reason + ", displaying notification: " + notificationId, null);
+            pending.event.getNotification().display();
+        } else {
+            Logging.debug(reason + ", dropping notification: " + notificationId, null);
+        }
+    }
+
+    private void displayUnheld(INotificationWillDisplayEvent event) {
+        Logging.debug("Not holding notification after shutdown, displaying it: "
+                + event.getNotification().getNotificationId(), null);
+        event.getNotification().display();
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+}
@@ -0,0 +1,105 @@
+package com.onesignal.rnonesignalandroid;
+
+import androidx.annotation.Nullable;
+import com.facebook.react.bridge.WritableArray;
+import com.onesignal.notifications.INotification;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.json.JSONException;
+
+/**
+ * Converts the grouped children of a summary notification, keeping each child's fields as a plain map so the
+ * next summary of the same group only reads the children it has not seen yet from the SDK. Each summary event
+ * re-sends every child still in the group, so without this a group of n notifications costs O(n) conversions,
+ * additionalData parsing included, per new message. The bridge maps themselves are built once per event from the
+ * plain maps, since a bridge map cannot be shared between events.
+ *
+ * <p>Children are remembered per group key and by notification id, for the children of the latest summary only,
+ * so dismissed children are forgotten. At most {@code limit} children are sent, the first ones in the SDK's order;
+ * the number of groups remembered is bounded and they expire after a while.
+ */
+public class GroupedNotificationCache {
+    public static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_GROUPS = 16;
+    private static final long GROUP_TTL_MS = 10 * 60 * 1000;
+
+    interface ChildConverter {
+        HashMap<String, Object> convert(INotification child) throws JSONException;
+    }
+
+    // Group key to the converted children of its latest summary. Neither the inner maps nor the children's maps
+    // are changed once stored.
+    private final BoundedExpiringCache<String, Map<String, HashMap<String, Object>>> groups =
+            new BoundedExpiringCache<>(MAX_GROUPS, GROUP_TTL_MS);
+    private final AtomicLong convertedCount = new AtomicLong();
+    private final AtomicLong reusedCount = new AtomicLong();
+    private volatile int limit = DEFAULT_LIMIT;
+
+    /** Caps how many grouped children are sent per notification. Negative values count as 0. */
+    public void setLimit(int limit) {
+        this.limit = Math.max(limit, 0);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public WritableArray convert(
+            @Nullable String groupKey, List<INotification> children, ChildConverter converter) throws JSONException {
+        WritableArray array = RNUtils.createArray();
+        int count = Math.min(children.size(), limit);
+        Map<String, HashMap<String, Object>> previous = groupKey != null ? groups.get(groupKey) : null;
+        Map<String, HashMap<String, Object>> current = new HashMap<>();
+
+        for (int i = 0; i < count; i++) {
+            INotification child = children.get(i);
+            String notificationId = child.getNotificationId();
+            HashMap<String, Object> converted =
+                    previous != null && notificationId != null ? previous.get(notificationId) : null;
+            if (converted == null) {
+                converted = converter.convert(child);
+                convertedCount.incrementAndGet();
+            } else {
+                reusedCount.incrementAndGet();
+            }
+            if (notificationId != null) {
+                current.put(notificationId, converted);
+            }
+            array.pushMap(RNUtils.convertHashMapToWritableMap(converted));
+        }
+
+        if (groupKey != null) {
+            groups.put(groupKey, current);
+        }
+        return array;
+    }
+
+    /** Number of converted children held across all groups. */
+    public int size() {
+        int size = 0;
+        for (Map<String, HashMap<String, Object>> children : groups.values()) {
+            size += children.size();
+        }
+        return size;
+    }
+
+    public void clear() {
+        groups.clear();
+    }
+
+    long getConvertedCount() {
+        return convertedCount.get();
+    }
+
+    long getReusedCount() {
+        return reusedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "limit=" + limit + ", groups=" + groups.size() + ", converted=" + convertedCount + ", reused="
+                + reusedCount;
+    }
+}
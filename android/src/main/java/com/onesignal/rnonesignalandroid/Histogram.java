@@ -0,0 +1,82 @@
+package com.onesignal.rnonesignalandroid;
+
+/**
+ * Fixed-size histogram with power-of-two buckets, cheap enough to record on every SDK callback. Bucket {@code i}
+ * counts values in {@code [2^(i-1), 2^i)}, with bucket 0 holding zero and the last bucket holding everything larger.
+ */
+public class Histogram {
+    private static final int BUCKET_COUNT = 24;
+
+    private final long[] buckets = new long[BUCKET_COUNT];
+    private long count = 0;
+    private long sum = 0;
+    private long max = 0;
+
+    public synchronized void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        int bucket = value == 0 ? 0 : Math.min(64 - Long.numberOfLeadingZeros(value), BUCKET_COUNT - 1);
+        buckets[bucket]++;
+        count++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getSum() {
+        return sum;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    public synchronized double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /** Returns the upper bound of the bucket containing the given percentile (0-100). */
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets[i];
+            if (seen >= Math.max(target, 1)) {
+                return i == BUCKET_COUNT - 1 ? max : Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    public synchronized long[] getBuckets() {
+        return buckets.clone();
+    }
+
+    public synchronized void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = 0;
+        }
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "count=" + count + ", mean=" + getMean() + ", p50=" + getPercentile(50) + ", p99="
+                + getPercentile(99) + ", max=" + max;
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket == 0 ? 0 : (1L << bucket) - 1;
+    }
+}
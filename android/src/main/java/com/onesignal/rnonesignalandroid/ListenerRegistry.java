@@ -0,0 +1,105 @@
+package com.onesignal.rnonesignalandroid;
+
+import java.util.EnumMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What RNOneSignal has registered with the SDK, and which events JS listens for. It is read and written from the
+ * JS module thread, SDK callback threads and host lifecycle callbacks at once.
+ *
+ * <p>Each SDK registration moves between registered and unregistered in one atomic step on its own map entry.
+ * The SDK call is made after that step, outside the map, so an SDK that calls back into the registry sees the new
+ * state and no map lock is held while the SDK runs. Calls for the same listener are still made one at a time, in
+ * the order of their steps, under that listener's own lock. A concurrent add and remove of the same listener
+ * therefore cannot leave it registered twice, or registered with the SDK while the registry thinks it is gone.
+ * Different listeners never wait for each other. Once retired, for a module instance replaced by a reload,
+ * nothing can be registered again.
+ */
+public class ListenerRegistry {
+    public enum SdkListener {
+        NOTIFICATION_CLICK,
+        NOTIFICATION_FOREGROUND,
+        IN_APP_MESSAGE_CLICK,
+        IN_APP_MESSAGE_LIFECYCLE,
+        STATE_OBSERVERS
+    }
+
+    // Registered listeners, each mapped to what removes it from the SDK.
+    private final ConcurrentHashMap<SdkListener, Runnable> registered = new ConcurrentHashMap<>();
+    // Held while a listener's state changes and its SDK call runs. Never changed after construction.
+    private final EnumMap<SdkListener, Object> locks = new EnumMap<>(SdkListener.class);
+    private final Set<String> jsListeners = ConcurrentHashMap.newKeySet();
+    private volatile boolean retired = false;
+
+    public ListenerRegistry() {
+        for (SdkListener listener : SdkListener.values()) {
+            locks.put(listener, new Object());
+        }
+    }
+
+    /**
+     * Runs {@code add} unless {@code listener} is already registered or the registry is retired, remembering
+     * {@code remove} for {@link #unregister}. Returns true if {@code add} ran. If it throws, nothing is recorded.
+     */
+    public boolean register(SdkListener listener, Runnable add, Runnable remove) {
+        synchronized (locks.get(listener)) {
+            if (retired || registered.putIfAbsent(listener, remove) != null) {
+                return false;
+            }
+            try {
+                add.run();
+            } catch (RuntimeException | Error e) {
+                registered.remove(listener, remove);
+                throw e;
+            }
+            return true;
+        }
+    }
+
+    /** Removes {@code listener} from the SDK if it is registered. Returns true if it was. */
+    public boolean unregister(SdkListener listener) {
+        synchronized (locks.get(listener)) {
+            Runnable remove = registered.remove(listener);
+            if (remove == null) {
+                return false;
+            }
+            remove.run();
+            return true;
+        }
+    }
+
+    public void unregisterAll() {
+        for (SdkListener listener : SdkListener.values()) {
+            unregister(listener);
+        }
+    }
+
+    /** Unregisters everything and refuses later registrations. */
+    public void retire() {
+        retired = true;
+        unregisterAll();
+    }
+
+    public boolean isRegistered(SdkListener listener) {
+        return registered.containsKey(listener);
+    }
+
+    /** Records that JS listens for {@code eventName}. */
+    public void listen(String eventName) {
+        jsListeners.add(eventName);
+    }
+
+    public boolean isListening(String eventName) {
+        return jsListeners.contains(eventName);
+    }
+
+    public void stopListening() {
+        jsListeners.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "registered=" + registered.keySet() + ", listening=" + jsListeners + (retired ? ", retired" : "");
+    }
+}
@@ -0,0 +1,53 @@
+package com.onesignal.rnonesignalandroid;
+
+import androidx.annotation.Nullable;
+
+/**
+ * How a notification event's payload is built: whether it carries rawPayload, which fields it reads (see
+ * {@link NotificationProjection}) and what it sends as JSON strings (see {@link NotificationJsonEncoding}).
+ * Immutable; RNOneSignal keeps one per notification event and swaps it when JS changes a setting.
+ */
+public final class NotificationConversionOptions {
+    /** Every field, rawPayload included, and no JSON encoding. */
+    public static final NotificationConversionOptions DEFAULT =
+            new NotificationConversionOptions(true, null, NotificationJsonEncoding.DISABLED);
+
+    private final boolean rawPayloadIncluded;
+    private final @Nullable NotificationProjection projection;
+    private final NotificationJsonEncoding jsonEncoding;
+
+    public NotificationConversionOptions(
+            boolean rawPayloadIncluded,
+            @Nullable NotificationProjection projection,
+            NotificationJsonEncoding jsonEncoding) {
+        this.rawPayloadIncluded = rawPayloadIncluded;
+        this.projection = projection;
+        this.jsonEncoding = jsonEncoding;
+    }
+
+    /** Whether rawPayload is sent: it has to be included and, with a projection, projected. */
+    public boolean includesRawPayload() {
+        return rawPayloadIncluded && (projection == null || projection.includes("rawPayload"));
+    }
+
+    /** The fields to read, or null for all of them. */
+    public @Nullable NotificationProjection getProjection() {
+        return projection;
+    }
+
+    public NotificationJsonEncoding getJsonEncoding() {
+        return jsonEncoding;
+    }
+
+    public NotificationConversionOptions withRawPayloadIncluded(boolean rawPayloadIncluded) {
+        return new NotificationConversionOptions(rawPayloadIncluded, projection, jsonEncoding);
+    }
+
+    public NotificationConversionOptions withProjection(@Nullable NotificationProjection projection) {
+        return new NotificationConversionOptions(rawPayloadIncluded, projection, jsonEncoding);
+    }
+
+    public NotificationConversionOptions withJsonEncoding(NotificationJsonEncoding jsonEncoding) {
+        return new NotificationConversionOptions(rawPayloadIncluded, projection, jsonEncoding);
+    }
+}
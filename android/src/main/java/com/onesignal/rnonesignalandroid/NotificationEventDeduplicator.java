@@ -0,0 +1,55 @@
+package com.onesignal.rnonesignalandroid;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Remembers which notifications each event was recently delivered for, so a repeat delivery is dropped before
+ * its payload is built. Repeats show up around JS reloads, while the listeners of the old and the new module
+ * instance overlap, and when FCM redelivers a message. The history is bounded by {@code capacity}, dropping the
+ * oldest entry first, and entries expire after {@code windowMs}.
+ */
+public class NotificationEventDeduplicator {
+    public static final int DEFAULT_CAPACITY = 128;
+    public static final long DEFAULT_WINDOW_MS = 60 * 1000;
+
+    private @Nullable BoundedExpiringCache<String, Boolean> recent =
+            new BoundedExpiringCache<>(DEFAULT_CAPACITY, DEFAULT_WINDOW_MS);
+
+    /**
+     * Replaces the history with an empty one. A capacity of 0 turns de-duplication off; a window of 0 keeps
+     * entries until they are pushed out by newer ones.
+     */
+    public synchronized void configure(int capacity, long windowMs) {
+        recent = capacity > 0 ? new BoundedExpiringCache<>(capacity, Math.max(windowMs, 0)) : null;
+    }
+
+    /**
+     * Records a delivery of {@code eventName} for {@code notificationId}. Returns false if the same delivery was
+     * already recorded within the window. {@code variant} tells apart deliveries that are distinct for the same
+     * notification, such as clicks on different action buttons.
+     */
+    public synchronized boolean firstDelivery(
+            String eventName, @Nullable String notificationId, @Nullable String variant) {
+        if (recent == null || notificationId == null) {
+            return true;
+        }
+        String key = eventName + ':' + notificationId;
+        if (variant != null) {
+            key += ':' + variant;
+        }
+        if (recent.containsKey(key)) {
+            return false;
+        }
+        recent.put(key, Boolean.TRUE);
+        return true;
+    }
+
+    public synchronized int size() {
+        return recent != null ? recent.size() : 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return recent != null ? recent.toString() : "disabled";
+    }
+}
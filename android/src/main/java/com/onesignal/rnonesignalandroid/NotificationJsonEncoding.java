@@ -0,0 +1,60 @@
+package com.onesignal.rnonesignalandroid;
+
+import androidx.annotation.Nullable;
+import com.onesignal.notifications.INotification;
+import org.json.JSONObject;
+
+/**
+ * When a notification event carries additionalData as one JSON string instead of a map. A deeply nested map costs
+ * a bridge write per value here and a conversion per value on the JS side, while a string crosses once and JS only
+ * runs {@code JSON.parse} on it when the data is first read. With {@code wholeNotification}, the whole
+ * notification is sent as a string once its additionalData qualifies. Off by default.
+ */
+public final class NotificationJsonEncoding {
+    public static final NotificationJsonEncoding DISABLED = new NotificationJsonEncoding(-1, false);
+
+    private final int minLength;
+    private final boolean wholeNotification;
+
+    /** Encodes additionalData whose JSON form is at least {@code minLength} characters. Negative turns it off. */
+    public NotificationJsonEncoding(int minLength, boolean wholeNotification) {
+        this.minLength = minLength;
+        this.wholeNotification = wholeNotification;
+    }
+
+    public boolean encodesWholeNotification() {
+        return wholeNotification;
+    }
+
+    /**
+     * The notification's additionalData as JSON if it should be sent as a string, otherwise null. Never encodes
+     * data that {@code projection} narrows down or leaves out, since the projection already keeps it small.
+     */
+    public @Nullable String encodeAdditionalData(
+            INotification notification, @Nullable NotificationProjection projection) {
+        if (minLength < 0) {
+            return null;
+        }
+        if (projection != null
+                && (!projection.includes("additionalData") || projection.child("additionalData") != null)) {
+            return null;
+        }
+        JSONObject additionalData = notification.getAdditionalData();
+        if (additionalData == null || additionalData.length() == 0) {
+            return null;
+        }
+
+        // The raw payload contains additionalData, so a shorter one rules it out without serializing anything.
+        String rawPayload = notification.getRawPayload();
+        if (rawPayload != null && rawPayload.length() < minLength) {
+            return null;
+        }
+        String json = additionalData.toString();
+        return json.length() >= minLength ? json : null;
+    }
+
+    @Override
+    public String toString() {
+        return minLength < 0 ? "disabled" : "minLength=" + minLength + ", wholeNotification=" + wholeNotification;
+    }
+}
@@ -0,0 +1,68 @@
+package com.onesignal.rnonesignalandroid;
+
+import androidx.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The notification fields JS listeners asked for, such as {@code ["title", "additionalData.orderId"]}. Paths
+ * form a tree: a node without children selects the whole value, a node with children selects only those keys of
+ * it. Only {@code additionalData} is nested deeper than the top level. {@code notificationId} is always selected,
+ * since displaying, preventing and fetching the raw payload of a notification all go by it.
+ */
+public final class NotificationProjection {
+    private final Map<String, NotificationProjection> children = new LinkedHashMap<>();
+
+    private NotificationProjection() {}
+
+    /** Builds a projection from dot-separated paths. */
+    public static NotificationProjection parse(Collection<String> paths) {
+        NotificationProjection root = new NotificationProjection();
+        root.children.put("notificationId", new NotificationProjection());
+        for (String path : paths) {
+            root.add(path.split("\\."), 0);
+        }
+        return root;
+    }
+
+    /** Keys selected at this level, in the order they were first listed. */
+    public Set<String> fields() {
+        return Collections.unmodifiableSet(children.keySet());
+    }
+
+    /** The selection below {@code field}, or null if it is selected as a whole or not at all. */
+    public @Nullable NotificationProjection child(String field) {
+        NotificationProjection child = children.get(field);
+        return child != null && !child.children.isEmpty() ? child : null;
+    }
+
+    public boolean includes(String field) {
+        return children.containsKey(field);
+    }
+
+    @Override
+    public String toString() {
+        return children.toString();
+    }
+
+    private void add(String[] segments, int index) {
+        NotificationProjection child = children.get(segments[index]);
+        boolean wholeAlready = child != null && child.children.isEmpty();
+        if (wholeAlready) {
+            return;
+        }
+        if (index == segments.length - 1) {
+            // Selecting the whole value replaces any narrower selection of it.
+            children.put(segments[index], new NotificationProjection());
+            return;
+        }
+        if (child == null) {
+            child = new NotificationProjection();
+            children.put(segments[index], child);
+        }
+        child.add(segments, index + 1);
+    }
+}
@@ -0,0 +1,95 @@
+package com.onesignal.rnonesignalandroid;
+
+import android.content.Context;
+import com.onesignal.OneSignal;
+import com.onesignal.debug.IDebugManager;
+import com.onesignal.inAppMessages.IInAppMessagesManager;
+import com.onesignal.location.ILocationManager;
+import com.onesignal.notifications.INotificationsManager;
+import com.onesignal.session.ISessionManager;
+import com.onesignal.user.IUserManager;
+
+/**
+ * The parts of the static {@link OneSignal} facade that RNOneSignal calls. Production code always uses
+ * {@link #FACADE}; tests pass their own implementation to drive the module without the SDK or a device.
+ */
+interface OneSignalSdk {
+    OneSignalSdk FACADE = new OneSignalSdk() {
+        @Override
+        public void initWithContext(Context context, String appId) {
+            OneSignal.initWithContext(context, appId);
+        }
+
+        @Override
+        public void login(String externalId) {
+            OneSignal.login(externalId);
+        }
+
+        @Override
+        public void logout() {
+            OneSignal.logout();
+        }
+
+        @Override
+        public void setConsentGiven(boolean value) {
+            OneSignal.setConsentGiven(value);
+        }
+
+        @Override
+        public void setConsentRequired(boolean required) {
+            OneSignal.setConsentRequired(required);
+        }
+
+        @Override
+        public IDebugManager getDebug() {
+            return OneSignal.getDebug();
+        }
+
+        @Override
+        public INotificationsManager getNotifications() {
+            return OneSignal.getNotifications();
+        }
+
+        @Override
+        public IInAppMessagesManager getInAppMessages() {
+            return OneSignal.getInAppMessages();
+        }
+
+        @Override
+        public IUserManager getUser() {
+            return OneSignal.getUser();
+        }
+
+        @Override
+        public ISessionManager getSession() {
+            return OneSignal.getSession();
+        }
+
+        @Override
+        public ILocationManager getLocation() {
+            return OneSignal.getLocation();
+        }
+    };
+
+    void initWithContext(Context context, String appId);
+
+    void login(String externalId);
+
+    void logout();
+
+    void setConsentGiven(boolean value);
+
+    void setConsentRequired(boolean required);
+
+    IDebugManager getDebug();
+
+    INotificationsManager getNotifications();
+
+    IInAppMessagesManager getInAppMessages();
+
+    IUserManager getUser();
+
+    ISessionManager getSession();
+
+    ILocationManager getLocation();
+}
@@ -0,0 +1,150 @@
+package com.onesignal.rnonesignalandroid;
+
+import androidx.annotation.Nullable;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes the operations executeBatch receives. Instead of one generic map per operation, the batch comes as two
+ * flat arrays: {@code ops} holds an operation code and an argument count for each operation, and {@code args}
+ * holds every argument, as strings, in the same order. Operations that take a map, such as addTags, take
+ * alternating keys and values. The codes must match OperationBatch.ts.
+ */
+public class OperationBatch {
+    public static final int LOGIN = 1;
+    public static final int LOGOUT = 2;
+    public static final int SET_LANGUAGE = 3;
+    public static final int ADD_ALIAS = 4;
+    public static final int ADD_ALIASES = 5;
+    public static final int REMOVE_ALIAS = 6;
+    public static final int REMOVE_ALIASES = 7;
+    public static final int ADD_EMAIL = 8;
+    public static final int REMOVE_EMAIL = 9;
+    public static final int ADD_SMS = 10;
+    public static final int REMOVE_SMS = 11;
+    public static final int ADD_TAG = 12;
+    public static final int ADD_TAGS = 13;
+    public static final int REMOVE_TAG = 14;
+    public static final int REMOVE_TAGS = 15;
+    public static final int ADD_OUTCOME = 16;
+    public static final int ADD_UNIQUE_OUTCOME = 17;
+    public static final int ADD_OUTCOME_WITH_VALUE = 18;
+    public static final int OPT_IN = 19;
+    public static final int OPT_OUT = 20;
+
+    // Argument counts by code: a fixed count, or one of the variable ones below.
+    private static final int PAIRS = -1;
+    private static final int ANY = -2;
+    private static final int[] ARGUMENT_COUNTS = {
+        0, // unused
+        1, // LOGIN
+        0, // LOGOUT
+        1, // SET_LANGUAGE
+        2, // ADD_ALIAS
+        PAIRS, // ADD_ALIASES
+        1, // REMOVE_ALIAS
+        ANY, // REMOVE_ALIASES
+        1, // ADD_EMAIL
+        1, // REMOVE_EMAIL
+        1, // ADD_SMS
+        1, // REMOVE_SMS
+        2, // ADD_TAG
+        PAIRS, // ADD_TAGS
+        1, // REMOVE_TAG
+        ANY, // REMOVE_TAGS
+        1, // ADD_OUTCOME
+        1, // ADD_UNIQUE_OUTCOME
+        2, // ADD_OUTCOME_WITH_VALUE
+        0, // OPT_IN
+        0, // OPT_OUT
+    };
+
+    public static final class Operation {
+        public final int code;
+        public final List<String> args;
+        /** Why the operation cannot be applied, or null if it can. */
+        public final @Nullable String error;
+
+        Operation(int code, List<String> args, @Nullable String error) {
+            this.code = code;
+            this.args = args;
+            this.error = error;
+        }
+
+        /** The arguments of a map operation, as alternating keys and values. */
+        public Map<String, String> map() {
+            Map<String, String> map = new HashMap<>();
+            for (int i = 0; i + 1 < args.size(); i += 2) {
+                map.put(args.get(i), args.get(i + 1));
+            }
+            return map;
+        }
+    }
+
+    private OperationBatch() {}
+
+    /**
+     * Decodes every operation, marking the ones that cannot be applied. Throws IllegalArgumentException if the
+     * arrays do not line up, since no operation after that point could be found.
+     */
+    public static List<Operation> decode(ReadableArray ops, ReadableArray args) {
+        if (ops.size() % 2 != 0) {
+            throw new IllegalArgumentException("ops must hold a code and an argument count per operation");
+        }
+        List<Operation> operations = new ArrayList<>(ops.size() / 2);
+        int argIndex = 0;
+        for (int i = 0; i < ops.size(); i += 2) {
+            int code = (int) ops.getDouble(i);
+            int count = (int) ops.getDouble(i + 1);
+            if (count < 0 || argIndex + count > args.size()) {
+                throw new IllegalArgumentException("operation " + i / 2 + " reads past the end of args");
+            }
+
+            String error = null;
+            String[] values = new String[count];
+            for (int j = 0; j < count; j++) {
+                if (args.getType(argIndex + j) == ReadableType.String) {
+                    values[j] = args.getString(argIndex + j);
+                } else {
+                    error = "argument " + j + " is not a string";
+                }
+            }
+            argIndex += count;
+
+            if (error == null) {
+                error = validate(code, values);
+            }
+            operations.add(new Operation(code, Arrays.asList(values), error));
+        }
+        if (argIndex != args.size()) {
+            throw new IllegalArgumentException("args holds " + (args.size() - argIndex) + " unused values");
+        }
+        return operations;
+    }
+
+    private static @Nullable String validate(int code, String[] values) {
+        if (code <= 0 || code >= ARGUMENT_COUNTS.length) {
+            return "unknown operation " + code;
+        }
+        int expected = ARGUMENT_COUNTS[code];
+        if (expected == PAIRS && values.length % 2 != 0) {
+            return "expected keys and values in pairs";
+        }
+        if (expected >= 0 && values.length != expected) {
+            return "expected " + expected + " arguments, got " + values.length;
+        }
+        if (code == ADD_OUTCOME_WITH_VALUE) {
+            try {
+                Double.parseDouble(values[1]);
+            } catch (NumberFormatException e) {
+                return "outcome value is not a number: " + values[1];
+            }
+        }
+        return null;
+    }
+}
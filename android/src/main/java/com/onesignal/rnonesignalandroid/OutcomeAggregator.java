@@ -0,0 +1,87 @@
+package com.onesignal.rnonesignalandroid;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional aggregation of {@code addOutcomeWithValue} calls. While enabled, values are summed per outcome name and
+ * handed to the SDK as one call per name when the window closes, when the app goes to the background, or when the
+ * module is torn down. Each flush counts once towards the outcome's count, so this trades per-call counts for
+ * far fewer SDK calls. A window of 0 only flushes on those lifecycle points.
+ */
+public class OutcomeAggregator {
+    public interface OutcomeSender {
+        void addOutcomeWithValue(String name, float value);
+    }
+
+    private final OutcomeSender sender;
+    private final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "OneSignal-RN-OutcomeAggregator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LinkedHashMap<String, Double> pendingSums = new LinkedHashMap<>();
+    private boolean enabled = false;
+    private long windowMs = 0;
+    private boolean flushScheduled = false;
+
+    private long valueCount = 0;
+    private long sentCallCount = 0;
+
+    public OutcomeAggregator(OutcomeSender sender) {
+        this.sender = sender;
+    }
+
+    /** Turning aggregation off sends anything pending and goes back to passing every call through. */
+    public synchronized void setAggregation(boolean enabled, long windowMs) {
+        this.enabled = enabled;
+        this.windowMs = Math.max(windowMs, 0);
+        if (!enabled) {
+            flush();
+        }
+    }
+
+    /** Returns false if the caller should send the outcome to the SDK directly. */
+    public synchronized boolean addOutcomeWithValue(String name, double value) {
+        if (!enabled) {
+            return false;
+        }
+        Double sum = pendingSums.get(name);
+        pendingSums.put(name, sum != null ? sum + value : value);
+        valueCount++;
+        if (windowMs > 0 && !flushScheduled) {
+            flushScheduled = true;
+            flushScheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    /** Sends everything pending to the SDK now. */
+    public synchronized void flush() {
+        flushScheduled = false;
+        for (Map.Entry<String, Double> entry : pendingSums.entrySet()) {
+            sender.addOutcomeWithValue(entry.getKey(), entry.getValue().floatValue());
+            sentCallCount++;
+        }
+        pendingSums.clear();
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingSums.size();
+    }
+
+    public synchronized void shutdown() {
+        flush();
+        flushScheduler.shutdownNow();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "enabled=" + enabled + ", windowMs=" + windowMs + ", values=" + valueCount + ", sdkCalls="
+                + sentCallCount + ", pending=" + pendingSums.size();
+    }
+}
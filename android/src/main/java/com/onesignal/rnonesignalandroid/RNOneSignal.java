@@ -37,16 +37,16 @@ package com.onesignal.rnonesignalandroid;
 
 import android.content.Context;
 import androidx.annotation.Nullable;
-import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.onesignal.Continue;
-import com.onesignal.OneSignal;
 import com.onesignal.common.OneSignalWrapper;
 import com.onesignal.debug.LogLevel;
 import com.onesignal.debug.internal.logging.Logging;
@@ -62,14 +62,24 @@ import com.onesignal.notifications.INotificationClickEvent;
 import com.onesignal.notifications.INotificationClickListener;
 import com.onesignal.notifications.INotificationLifecycleListener;
 import com.onesignal.notifications.INotificationWillDisplayEvent;
+import com.onesignal.notifications.INotificationsManager;
 import com.onesignal.notifications.IPermissionObserver;
 import com.onesignal.user.state.IUserStateObserver;
 import com.onesignal.user.state.UserChangedState;
 import com.onesignal.user.subscriptions.IPushSubscription;
 import com.onesignal.user.subscriptions.IPushSubscriptionObserver;
 import com.onesignal.user.subscriptions.PushSubscriptionChangedState;
+import com.onesignal.user.subscriptions.PushSubscriptionState;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.json.JSONException;
 
 public class RNOneSignal extends NativeOneSignalSpec
@@ -82,88 +92,300 @@ public class RNOneSignal extends NativeOneSignalSpec
     private static final String LOCATION_MODULE_NOT_AVAILABLE =
             "OneSignal location module is not available. Add the location dependency to use OneSignal.Location.";
 
-    private boolean oneSignalInitDone;
-    private boolean hasSetPermissionObserver = false;
-    private boolean hasSetPushSubscriptionObserver = false;
-    private boolean hasSetUserStateObserver = false;
+    /** Receives every event on its way to JS. Tests install their own to observe events without a React host. */
+    interface EventSink {
+        void emit(String eventName, WritableMap payload);
+    }
+
+    /** How the SDK was initialized and what it cost, reported under {@code startup} in getNativeMetrics. */
+    private static final class StartupMetrics {
+        final String mode;
+        final long initWithContextNanos;
+        final long initializeNanos;
+        // How long before JS called initialize the native initialization had finished.
+        final long nativeInitLeadNanos;
+
+        StartupMetrics(String mode, long initWithContextNanos, long initializeNanos, long nativeInitLeadNanos) {
+            this.mode = mode;
+            this.initWithContextNanos = initWithContextNanos;
+            this.initializeNanos = initializeNanos;
+            this.nativeInitLeadNanos = nativeInitLeadNanos;
+        }
+
+        WritableMap toWritableMap() {
+            WritableMap map = RNUtils.createMap();
+            map.putString("mode", mode);
+            map.putDouble("initWithContextMs", nanosToMillis(initWithContextNanos));
+            map.putDouble("initializeMs", nanosToMillis(initializeNanos));
+            map.putDouble("nativeInitLeadMs", nanosToMillis(nativeInitLeadNanos));
+            return map;
+        }
+
+        private static double nanosToMillis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    private final OneSignalSdk sdk;
+    private final EventSink eventSink;
+
+    private volatile boolean oneSignalInitDone;
+    // Set while initialize waits on the operations queue for a native initialization to finish. SDK listeners JS
+    // adds and promise reads meanwhile are queued behind it, and the *Sync getters return their defaults rather
+    // than read from an SDK that is still starting. See initialize.
+    private volatile boolean initializePending;
+    // How long the operations queue waits for an initialization RNOneSignalInitializer started before JS loaded.
+    private static final long NATIVE_INIT_TIMEOUT_MS = 5000;
+    private volatile @Nullable StartupMetrics startupMetrics = null;
+    // SDK listeners this instance registered, and which state events JS listens for. The state observers are
+    // registered with the SDK as soon as possible so that stateSnapshot stays current either way.
+    private final ListenerRegistry listeners = new ListenerRegistry();
+
+    // Answers the state getters without going back to the SDK. Null until initialize has seeded it, in which
+    // case the getters read the SDK directly.
+    private final AtomicReference<StateSnapshot> stateSnapshot = new AtomicReference<>();
+    // Logins and logouts queued but not yet applied; the snapshot's tags may belong to the previous user until then.
+    private final AtomicInteger pendingUserSwitches = new AtomicInteger();
+
+    // Native event names, as declared in NativeOneSignal.ts. Also used as the type of each batched event.
+    private static final String EVENT_PERMISSION_CHANGED = "onPermissionChanged";
+    private static final String EVENT_SUBSCRIPTION_CHANGED = "onSubscriptionChanged";
+    private static final String EVENT_USER_STATE_CHANGED = "onUserStateChanged";
+    private static final String EVENT_NOTIFICATION_WILL_DISPLAY = "onNotificationWillDisplay";
+    private static final String EVENT_NOTIFICATION_CLICKED = "onNotificationClicked";
+    private static final String EVENT_IN_APP_MESSAGE_CLICKED = "onInAppMessageClicked";
+    private static final String EVENT_IN_APP_MESSAGE_WILL_DISPLAY = "onInAppMessageWillDisplay";
+    private static final String EVENT_IN_APP_MESSAGE_DID_DISPLAY = "onInAppMessageDidDisplay";
+    private static final String EVENT_IN_APP_MESSAGE_WILL_DISMISS = "onInAppMessageWillDismiss";
+    private static final String EVENT_IN_APP_MESSAGE_DID_DISMISS = "onInAppMessageDidDismiss";
+    private static final String EVENT_EVENT_BATCH = "onEventBatch";
+
+    private final EventMetrics eventMetrics = new EventMetrics();
+
+    private final EventBatcher eventBatcher = new EventBatcher(this::emitEventBatch);
+
+    // Every bridge method that changes SDK state runs on this queue, in call order, including the writes the
+    // helpers below make on their own threads. State getters answer from stateSnapshot, which the bridge methods
+    // update before queueing, or are queued behind the writes when the snapshot does not hold the value, so reads
+    // see every earlier write.
+    private final SdkOperationQueue operations = new SdkOperationQueue();
+    // How long invalidate waits for queued operations to run.
+    private static final long OPERATIONS_SHUTDOWN_TIMEOUT_MS = 1000;
+
+    private final TagWriteBehind tagWriteBehind = new TagWriteBehind(new TagWriteBehind.TagWriter() {
+        @Override
+        public void addTags(Map<String, String> tags) {
+            operations.execute("addTags", () -> sdk.getUser().addTags(tags));
+        }
+
+        @Override
+        public void removeTags(Collection<String> keys) {
+            operations.execute("removeTags", () -> sdk.getUser().removeTags(keys));
+        }
+    });
 
-    private final HashMap<String, INotificationWillDisplayEvent> notificationWillDisplayCache = new HashMap<>();
-    private final HashMap<String, INotificationWillDisplayEvent> preventDefaultCache = new HashMap<>();
+    private final OutcomeAggregator outcomeAggregator = new OutcomeAggregator(new OutcomeAggregator.OutcomeSender() {
+        @Override
+        public void addOutcomeWithValue(String name, float value) {
+            operations.execute("addOutcomeWithValue", () -> sdk.getSession().addOutcomeWithValue(name, value));
+        }
+    });
+
+    // How long invalidate waits for queued trackEvent calls to reach the SDK.
+    private static final long TRACK_EVENT_FLUSH_TIMEOUT_MS = 1000;
+    private final TrackEventQueue trackEventQueue = new TrackEventQueue(new TrackEventQueue.EventSubmitter() {
+        @Override
+        public void trackEvent(String name, Map<String, Object> properties) {
+            sdk.getUser().trackEvent(name, properties);
+        }
+    }, operations);
 
-    private boolean hasAddedNotificationForegroundListener = false;
-    private boolean hasAddedInAppMessageLifecycleListener = false;
-    private boolean hasAddedNotificationClickListener = false;
-    private boolean hasAddedInAppMessageClickListener = false;
+    private final ForegroundDisplayCoordinator foregroundDisplayCoordinator = new ForegroundDisplayCoordinator();
+
+    // Raw payloads left off notification events because every JS listener opted out, kept for
+    // getNotificationRawPayload.
+    private static final int MAX_RAW_PAYLOADS = 32;
+    private static final long RAW_PAYLOAD_TTL_MS = 10 * 60 * 1000;
+    private final BoundedExpiringCache<String, String> rawPayloadCache =
+            new BoundedExpiringCache<>(MAX_RAW_PAYLOADS, RAW_PAYLOAD_TTL_MS);
+    // How each notification event's payload is built. Replaced, never changed, by the setNotification* setters,
+    // which JS calls one at a time.
+    private volatile NotificationConversionOptions conversionOnWillDisplay = NotificationConversionOptions.DEFAULT;
+    private volatile NotificationConversionOptions conversionOnClick = NotificationConversionOptions.DEFAULT;
 
     // Static reference to track current instance for cleanup on reload
-    private static RNOneSignal currentInstance = null;
+    private static final AtomicReference<RNOneSignal> currentInstance = new AtomicReference<>();
+
+    // Click events fired before JS attaches its listener, such as the tap that cold-starts the app. Static so
+    // that events fired while the JS context reloads are kept for the next instance.
+    private static final EventReplayBuffer eventReplayBuffer = new EventReplayBuffer();
+    // Static for the same reason: the old and the new instance can both be handed an event around a reload.
+    private static final NotificationEventDeduplicator notificationDeduplicator =
+            new NotificationEventDeduplicator();
+    // Static because the SDK keeps its triggers across JS reloads too.
+    private static final TriggerMirror triggerMirror = new TriggerMirror();
 
     private final IInAppMessageClickListener rnInAppClickListener = new IInAppMessageClickListener() {
         @Override
         public void onClick(IInAppMessageClickEvent event) {
-            try {
-                emitOnInAppMessageClicked(
-                        RNUtils.convertHashMapToWritableMap(RNUtils.convertInAppMessageClickEventToMap(event)));
-            } catch (JSONException e) {
-                logJSONException("onInAppMessageClicked", e);
-            }
+            emitConverted(
+                    EVENT_IN_APP_MESSAGE_CLICKED,
+                    System.nanoTime(),
+                    true,
+                    () -> RNUtils.convertHashMapToWritableMap(RNUtils.convertInAppMessageClickEventToMap(event)));
         }
     };
 
     private final IInAppMessageLifecycleListener rnInAppLifecycleListener = new IInAppMessageLifecycleListener() {
         @Override
         public void onWillDisplay(IInAppMessageWillDisplayEvent event) {
-            try {
-                emitOnInAppMessageWillDisplay(
-                        RNUtils.convertHashMapToWritableMap(RNUtils.convertInAppMessageWillDisplayEventToMap(event)));
-            } catch (JSONException e) {
-                logJSONException("onInAppMessageWillDisplay", e);
-            }
+            emitConverted(
+                    EVENT_IN_APP_MESSAGE_WILL_DISPLAY,
+                    System.nanoTime(),
+                    false,
+                    () -> RNUtils.convertHashMapToWritableMap(RNUtils.convertInAppMessageWillDisplayEventToMap(event)));
         }
 
         @Override
         public void onDidDisplay(IInAppMessageDidDisplayEvent event) {
-            try {
-                emitOnInAppMessageDidDisplay(
-                        RNUtils.convertHashMapToWritableMap(RNUtils.convertInAppMessageDidDisplayEventToMap(event)));
-            } catch (JSONException e) {
-                logJSONException("onInAppMessageDidDisplay", e);
-            }
+            emitConverted(
+                    EVENT_IN_APP_MESSAGE_DID_DISPLAY,
+                    System.nanoTime(),
+                    false,
+                    () -> RNUtils.convertHashMapToWritableMap(RNUtils.convertInAppMessageDidDisplayEventToMap(event)));
         }
 
         @Override
         public void onWillDismiss(IInAppMessageWillDismissEvent event) {
-            try {
-                emitOnInAppMessageWillDismiss(
-                        RNUtils.convertHashMapToWritableMap(RNUtils.convertInAppMessageWillDismissEventToMap(event)));
-            } catch (JSONException e) {
-                logJSONException("onInAppMessageWillDismiss", e);
-            }
+            emitConverted(
+                    EVENT_IN_APP_MESSAGE_WILL_DISMISS,
+                    System.nanoTime(),
+                    false,
+                    () -> RNUtils.convertHashMapToWritableMap(RNUtils.convertInAppMessageWillDismissEventToMap(event)));
         }
 
         @Override
         public void onDidDismiss(IInAppMessageDidDismissEvent event) {
-            try {
-                emitOnInAppMessageDidDismiss(
-                        RNUtils.convertHashMapToWritableMap(RNUtils.convertInAppMessageDidDismissEventToMap(event)));
-            } catch (JSONException e) {
-                logJSONException("onInAppMessageDidDismiss", e);
-            }
+            emitConverted(
+                    EVENT_IN_APP_MESSAGE_DID_DISMISS,
+                    System.nanoTime(),
+                    false,
+                    () -> RNUtils.convertHashMapToWritableMap(RNUtils.convertInAppMessageDidDismissEventToMap(event)));
         }
     };
 
     private final INotificationClickListener rnNotificationClickListener = new INotificationClickListener() {
         @Override
         public void onClick(INotificationClickEvent event) {
-            try {
-                emitOnNotificationClicked(
-                        RNUtils.convertHashMapToWritableMap(RNUtils.convertNotificationClickEventToMap(event)));
-            } catch (JSONException e) {
-                logJSONException("onNotificationClicked", e);
+            long callbackStartNanos = System.nanoTime();
+            INotification notification = event.getNotification();
+            if (!notificationDeduplicator.firstDelivery(
+                    EVENT_NOTIFICATION_CLICKED,
+                    notification.getNotificationId(),
+                    event.getResult().getActionId())) {
+                eventMetrics.recordDuplicate(EVENT_NOTIFICATION_CLICKED);
+                return;
             }
+            NotificationConversionOptions options = conversionOnClick;
+            if (!options.includesRawPayload()) {
+                cacheRawPayload(notification);
+            }
+            emitConverted(
+                    EVENT_NOTIFICATION_CLICKED,
+                    callbackStartNanos,
+                    true,
+                    () -> RNUtils.convertNotificationClickEventToWritableMap(event, options));
         }
     };
 
+    private interface PayloadConverter {
+        WritableMap convert() throws JSONException;
+    }
+
+    /**
+     * Builds an event's payload and hands it on towards JS, recording the conversion time, payload size, time
+     * since the SDK callback started and any serialization failure in eventMetrics.
+     */
+    private void emitConverted(
+            String eventName, long callbackStartNanos, boolean replayable, PayloadConverter converter) {
+        long conversionStartNanos = System.nanoTime();
+        WritableMap payload;
+        try {
+            payload = converter.convert();
+        } catch (JSONException e) {
+            eventMetrics.recordFailure(eventName);
+            logJSONException(eventName, e);
+            return;
+        }
+        long conversionNanos = System.nanoTime() - conversionStartNanos;
+        EventMetrics.PayloadSize payloadSize =
+                eventMetrics.isMeasuringPayloads() ? EventMetrics.measure(payload) : null;
+
+        if (replayable) {
+            emitReplayableEvent(eventName, payload);
+        } else {
+            emitEvent(eventName, payload);
+        }
+        eventMetrics.record(eventName, conversionNanos, payloadSize, System.nanoTime() - callbackStartNanos);
+    }
+
+    private void emitReplayableEvent(String eventName, WritableMap payload) {
+        if (!eventReplayBuffer.offer(eventName, payload)) {
+            emitEvent(eventName, payload);
+        }
+    }
+
+    private void emitEvent(String eventName, WritableMap payload) {
+        if (!eventBatcher.offer(eventName, payload)) {
+            eventSink.emit(eventName, payload);
+        }
+    }
+
+    private void emitEventBatch(WritableMap batch) {
+        eventSink.emit(EVENT_EVENT_BATCH, batch);
+    }
+
+    private void emitToJs(String eventName, WritableMap payload) {
+        switch (eventName) {
+            case EVENT_PERMISSION_CHANGED:
+                emitOnPermissionChanged(payload);
+                break;
+            case EVENT_SUBSCRIPTION_CHANGED:
+                emitOnSubscriptionChanged(payload);
+                break;
+            case EVENT_USER_STATE_CHANGED:
+                emitOnUserStateChanged(payload);
+                break;
+            case EVENT_NOTIFICATION_WILL_DISPLAY:
+                emitOnNotificationWillDisplay(payload);
+                break;
+            case EVENT_NOTIFICATION_CLICKED:
+                emitOnNotificationClicked(payload);
+                break;
+            case EVENT_IN_APP_MESSAGE_CLICKED:
+                emitOnInAppMessageClicked(payload);
+                break;
+            case EVENT_IN_APP_MESSAGE_WILL_DISPLAY:
+                emitOnInAppMessageWillDisplay(payload);
+                break;
+            case EVENT_IN_APP_MESSAGE_DID_DISPLAY:
+                emitOnInAppMessageDidDisplay(payload);
+                break;
+            case EVENT_IN_APP_MESSAGE_WILL_DISMISS:
+                emitOnInAppMessageWillDismiss(payload);
+                break;
+            case EVENT_IN_APP_MESSAGE_DID_DISMISS:
+                emitOnInAppMessageDidDismiss(payload);
+                break;
+            case EVENT_EVENT_BATCH:
+                emitOnEventBatch(payload);
+                break;
+            default:
+                Logging.error("Cannot emit unknown event: " + eventName, null);
+                break;
+        }
+    }
+
     private void logJSONException(String eventName, JSONException exception) {
         Logging.error("Failed to serialize payload for " + eventName, exception);
     }
@@ -173,42 +395,38 @@ public class RNOneSignal extends NativeOneSignalSpec
     }
 
     private void removeObservers() {
+        eventReplayBuffer.detachAll();
+
         if (!oneSignalInitDone) {
             Logging.debug("OneSignal React-Native SDK not initialized yet. Could not remove observers.", null);
             return;
         }
 
-        this.removePermissionObserver();
-        this.removePushSubscriptionObserver();
-        this.removeUserStateObserver();
+        this.removeStateObservers();
+        listeners.unregisterAll();
+    }
 
-        if (hasAddedInAppMessageClickListener) {
-            OneSignal.getInAppMessages().removeClickListener(rnInAppClickListener);
-            hasAddedInAppMessageClickListener = false;
-        }
-        if (hasAddedInAppMessageLifecycleListener) {
-            OneSignal.getInAppMessages().removeLifecycleListener(rnInAppLifecycleListener);
-            hasAddedInAppMessageLifecycleListener = false;
-        }
-        if (hasAddedNotificationClickListener) {
-            OneSignal.getNotifications().removeClickListener(rnNotificationClickListener);
-            hasAddedNotificationClickListener = false;
-        }
-        if (hasAddedNotificationForegroundListener) {
-            OneSignal.getNotifications().removeForegroundLifecycleListener(this);
-            hasAddedNotificationForegroundListener = false;
-        }
+    private void retire() {
+        listeners.retire();
+        removeObservers();
     }
 
     public RNOneSignal(ReactApplicationContext reactContext) {
+        this(reactContext, OneSignalSdk.FACADE, null);
+    }
+
+    RNOneSignal(ReactApplicationContext reactContext, OneSignalSdk sdk, @Nullable EventSink eventSink) {
         super(reactContext);
+        this.sdk = sdk;
+        this.eventSink = eventSink != null ? eventSink : this::emitToJs;
         reactContext.addLifecycleEventListener(this);
 
-        // Clean up previous instance if it exists (handles reload scenario)
-        if (currentInstance != null && currentInstance != this) {
-            currentInstance.removeObservers();
+        // Clean up previous instance if it exists (handles reload scenario). Retired rather than just cleaned up,
+        // so a call still in flight on it cannot register its listeners again.
+        RNOneSignal previousInstance = currentInstance.getAndSet(this);
+        if (previousInstance != null && previousInstance != this) {
+            previousInstance.retire();
         }
-        currentInstance = this;
     }
 
     @Override
@@ -218,11 +436,15 @@ public class RNOneSignal extends NativeOneSignalSpec
 
     @Override
     public void onHostDestroy() {
+        outcomeAggregator.flush();
         removeObservers();
     }
 
     @Override
-    public void onHostPause() {}
+    public void onHostPause() {
+        // The process may not come back from the background; send aggregated outcomes while it still can.
+        outcomeAggregator.flush();
+    }
 
     @Override
     public void onHostResume() {}
@@ -230,106 +452,423 @@ public class RNOneSignal extends NativeOneSignalSpec
     @Override
     public void invalidate() {
         removeObservers();
+        Logging.debug("Foreground notification decisions on invalidate: " + foregroundDisplayCoordinator, null);
+        foregroundDisplayCoordinator.shutdown();
+        rawPayloadCache.clear();
+        eventBatcher.shutdown();
+        Logging.debug("Tag writes on invalidate: " + tagWriteBehind, null);
+        tagWriteBehind.shutdown();
+        Logging.debug("Outcomes on invalidate: " + outcomeAggregator, null);
+        outcomeAggregator.shutdown();
+        trackEventQueue.shutdown(TRACK_EVENT_FLUSH_TIMEOUT_MS);
+        Logging.debug("trackEvent queue on invalidate: " + trackEventQueue, null);
+        operations.shutdown(OPERATIONS_SHUTDOWN_TIMEOUT_MS);
+        Logging.debug("SDK operations on invalidate: " + operations, null);
         super.invalidate();
     }
 
-    @Override
-    public void initialize(String appId) {
+    /** Sizes of the native stores that hold events and payloads on behalf of JS, for leak checks. */
+    Map<String, Integer> getRetainedSizes() {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        sizes.put("pendingWillDisplayEvents", foregroundDisplayCoordinator.getPendingCount());
+        sizes.put("preventedWillDisplayEvents", foregroundDisplayCoordinator.getPreventedCount());
+        sizes.put("rawPayloads", rawPayloadCache.size());
+        sizes.put("bufferedNotificationClicks", eventReplayBuffer.size(EVENT_NOTIFICATION_CLICKED));
+        sizes.put("bufferedInAppMessageClicks", eventReplayBuffer.size(EVENT_IN_APP_MESSAGE_CLICKED));
+        sizes.put("recentNotificationEvents", notificationDeduplicator.size());
+        sizes.put("groupedNotificationChildren", RNUtils.getGroupedNotificationCache().size());
+        sizes.put("inAppMessageTriggers", triggerMirror.size());
+        sizes.put("pendingTagWrites", tagWriteBehind.getPendingCount());
+        sizes.put("pendingOutcomes", outcomeAggregator.getPendingCount());
+        sizes.put("pendingTrackEvents", trackEventQueue.getPendingCount());
+        sizes.put("pendingOperations", operations.getPendingCount());
+        return sizes;
+    }
+
+    static void setWrapperInfo() {
         OneSignalWrapper.setSdkType("reactnative");
         OneSignalWrapper.setSdkVersion("050505");
+    }
 
-        if (oneSignalInitDone) {
+    @Override
+    public void initialize(String appId) {
+        long initializeStartNanos = System.nanoTime();
+        setWrapperInfo();
+
+        if (oneSignalInitDone || initializePending) {
             Logging.debug("Already initialized the OneSignal React-Native SDK", null);
             return;
         }
 
-        ReactApplicationContext reactContext = getReactApplicationContext();
-        Context context = reactContext.getCurrentActivity();
-        if (context == null) {
-            context = reactContext.getApplicationContext();
+        if (RNOneSignalInitializer.isRunning(appId)) {
+            // Wait for the native initialization on the operations queue rather than holding up this thread. The
+            // operations JS queues after initialize, and the SDK listeners it adds, run once it has finished.
+            initializePending = true;
+            operations.execute("initialize", () -> {
+                try {
+                    completeInitialize(appId, initializeStartNanos);
+                } finally {
+                    initializePending = false;
+                }
+            });
+            return;
         }
+        completeInitialize(appId, initializeStartNanos);
+    }
+
+    private void completeInitialize(String appId, long initializeStartNanos) {
+        String startupMode;
+        long initWithContextNanos;
+        long nativeInitLeadNanos = 0;
+        if (RNOneSignalInitializer.awaitInitialized(appId, NATIVE_INIT_TIMEOUT_MS)) {
+            Logging.debug("OneSignal was initialized natively, attaching to it", null);
+            startupMode = "native";
+            initWithContextNanos = RNOneSignalInitializer.getInitNanos();
+            nativeInitLeadNanos = initializeStartNanos - RNOneSignalInitializer.getEndNanos();
+        } else {
+            ReactApplicationContext reactContext = getReactApplicationContext();
+            Context context = reactContext.getCurrentActivity();
+            if (context == null) {
+                context = reactContext.getApplicationContext();
+            }
 
-        Logging.debug(
-                "OneSignal initialize using context: " + context.getClass().getSimpleName(), null);
-        OneSignal.initWithContext(context, appId);
+            Logging.debug(
+                    "OneSignal initialize using context: " + context.getClass().getSimpleName(), null);
+            long initStartNanos = System.nanoTime();
+            sdk.initWithContext(context, appId);
+            startupMode = "js";
+            initWithContextNanos = System.nanoTime() - initStartNanos;
+        }
         oneSignalInitDone = true;
+
+        // Register the click listeners now rather than when JS asks for them, so clicks fired before that are
+        // buffered here and replayed by addNotificationClickListener / addInAppMessageClickListener.
+        registerInAppMessageClickListener();
+        registerNotificationClickListener();
+
+        addStateObservers();
+        seedStateSnapshot();
+        startupMetrics = new StartupMetrics(
+                startupMode, initWithContextNanos, System.nanoTime() - initializeStartNanos, nativeInitLeadNanos);
+    }
+
+    /** Runs {@code action} now, or on the operations queue once a pending initialize has run. */
+    private void afterInitialize(String name, Runnable action) {
+        if (initializePending) {
+            operations.execute(name, action);
+        } else {
+            action.run();
+        }
+    }
+
+    private void addStateObservers() {
+        listeners.register(
+                ListenerRegistry.SdkListener.STATE_OBSERVERS,
+                () -> {
+                    sdk.getNotifications().addPermissionObserver(this);
+                    sdk.getUser().getPushSubscription().addObserver(this);
+                    sdk.getUser().addObserver(this);
+                },
+                () -> {
+                    sdk.getNotifications().removePermissionObserver(this);
+                    sdk.getUser().getPushSubscription().removeObserver(this);
+                    sdk.getUser().removeObserver(this);
+                });
+    }
+
+    private void removeStateObservers() {
+        listeners.stopListening();
+        stateSnapshot.set(null);
+        listeners.unregister(ListenerRegistry.SdkListener.STATE_OBSERVERS);
+    }
+
+    private void seedStateSnapshot() {
+        IPushSubscription pushSubscription = sdk.getUser().getPushSubscription();
+        stateSnapshot.set(new StateSnapshot(
+                sdk.getUser().getOnesignalId(),
+                sdk.getUser().getExternalId(),
+                pushSubscription.getId(),
+                pushSubscription.getToken(),
+                pushSubscription.getOptedIn(),
+                sdk.getNotifications().getPermission(),
+                sdk.getInAppMessages().getPaused(),
+                null));
+    }
+
+    private interface SnapshotUpdate {
+        StateSnapshot apply(StateSnapshot snapshot);
+    }
+
+    private void updateStateSnapshot(SnapshotUpdate update) {
+        StateSnapshot current;
+        do {
+            current = stateSnapshot.get();
+            if (current == null) {
+                return;
+            }
+        } while (!stateSnapshot.compareAndSet(current, update.apply(current)));
+    }
+
+    @Override
+    public void setEventReplayBuffer(double capacity, double maxAgeMs) {
+        eventReplayBuffer.configure((int) capacity, (long) maxAgeMs);
+    }
+
+    @Override
+    public void setNotificationDeduplication(double capacity, double windowMs) {
+        notificationDeduplicator.configure((int) capacity, (long) windowMs);
+    }
+
+    @Override
+    public void getNativeMetrics(Promise promise) {
+        // Payload sizes are only measured from the first time anyone asks for the numbers.
+        eventMetrics.startMeasuringPayloads();
+        WritableMap metrics = eventMetrics.toWritableMap();
+        metrics.putMap("trackEvents", trackEventQueue.toWritableMap());
+        metrics.putMap("foregroundWillDisplay", foregroundDisplayCoordinator.toWritableMap());
+        StartupMetrics startup = startupMetrics;
+        if (startup != null) {
+            metrics.putMap("startup", startup.toWritableMap());
+        }
+        promise.resolve(metrics);
+    }
+
+    @Override
+    public void resetNativeMetrics() {
+        eventMetrics.startMeasuringPayloads();
+        eventMetrics.reset();
+        trackEventQueue.resetCounters();
+        foregroundDisplayCoordinator.resetCounters();
+    }
+
+    @Override
+    public void setEventBatching(boolean enabled, double intervalMs) {
+        eventBatcher.setEnabled(enabled, (long) intervalMs);
     }
 
     @Override
     public void setPrivacyConsentGiven(boolean value) {
-        OneSignal.setConsentGiven(value);
+        // Applied straight away rather than queued: initialize calls the SDK directly, and consent has to be in
+        // place before the SDK can start sending requests.
+        sdk.setConsentGiven(value);
     }
 
     @Override
     public void setPrivacyConsentRequired(boolean required) {
-        OneSignal.setConsentRequired(required);
+        sdk.setConsentRequired(required);
+    }
+
+    @Override
+    public void flushPendingOperations(Promise promise) {
+        operations.whenIdle(() -> promise.resolve(null));
+    }
+
+    @Override
+    public void executeBatch(ReadableArray ops, ReadableArray args, Promise promise) {
+        List<OperationBatch.Operation> batch;
+        try {
+            batch = OperationBatch.decode(ops, args);
+        } catch (IllegalArgumentException e) {
+            promise.reject("Invalid operation batch: " + e.getMessage());
+            return;
+        }
+
+        // Each operation goes through the same path as its single call, so tag coalescing, outcome aggregation
+        // and the state snapshot treat it the same way.
+        WritableArray results = RNUtils.createArray();
+        for (OperationBatch.Operation operation : batch) {
+            String error = operation.error;
+            if (error == null) {
+                try {
+                    applyBatchOperation(operation);
+                } catch (Exception e) {
+                    error = e.toString();
+                }
+            }
+            if (error != null) {
+                Logging.warn("Skipped batch operation " + operation.code + ": " + error, null);
+                results.pushString(error);
+            } else {
+                results.pushNull();
+            }
+        }
+        // The promise resolves once every call has reached the SDK, including tag writes and outcomes still held
+        // for coalescing or aggregation.
+        tagWriteBehind.flush();
+        outcomeAggregator.flush();
+        operations.whenIdle(() -> promise.resolve(results));
+    }
+
+    private void applyBatchOperation(OperationBatch.Operation operation) {
+        List<String> args = operation.args;
+        switch (operation.code) {
+            case OperationBatch.LOGIN:
+                login(args.get(0));
+                break;
+            case OperationBatch.LOGOUT:
+                logout();
+                break;
+            case OperationBatch.SET_LANGUAGE:
+                setLanguage(args.get(0));
+                break;
+            case OperationBatch.ADD_ALIAS:
+                addAlias(args.get(0), args.get(1));
+                break;
+            case OperationBatch.ADD_ALIASES:
+                addAliasMap(operation.map());
+                break;
+            case OperationBatch.REMOVE_ALIAS:
+                removeAlias(args.get(0));
+                break;
+            case OperationBatch.REMOVE_ALIASES:
+                removeAliasLabels(args);
+                break;
+            case OperationBatch.ADD_EMAIL:
+                addEmail(args.get(0));
+                break;
+            case OperationBatch.REMOVE_EMAIL:
+                removeEmail(args.get(0));
+                break;
+            case OperationBatch.ADD_SMS:
+                addSms(args.get(0));
+                break;
+            case OperationBatch.REMOVE_SMS:
+                removeSms(args.get(0));
+                break;
+            case OperationBatch.ADD_TAG:
+                addTag(args.get(0), args.get(1));
+                break;
+            case OperationBatch.ADD_TAGS:
+                addTagMap(operation.map());
+                break;
+            case OperationBatch.REMOVE_TAG:
+                removeTag(args.get(0));
+                break;
+            case OperationBatch.REMOVE_TAGS:
+                removeTagKeys(args);
+                break;
+            case OperationBatch.ADD_OUTCOME:
+                addOutcome(args.get(0));
+                break;
+            case OperationBatch.ADD_UNIQUE_OUTCOME:
+                addUniqueOutcome(args.get(0));
+                break;
+            case OperationBatch.ADD_OUTCOME_WITH_VALUE:
+                addOutcomeWithValue(args.get(0), Double.parseDouble(args.get(1)));
+                break;
+            case OperationBatch.OPT_IN:
+                optIn();
+                break;
+            case OperationBatch.OPT_OUT:
+                optOut();
+                break;
+            default:
+                throw new IllegalArgumentException("unknown operation " + operation.code);
+        }
     }
 
     @Override
     public void setLogLevel(double logLevel) {
-        OneSignal.getDebug().setLogLevel(LogLevel.fromInt((int) logLevel));
+        sdk.getDebug().setLogLevel(LogLevel.fromInt((int) logLevel));
     }
 
     @Override
     public void setAlertLevel(double logLevel) {
-        OneSignal.getDebug().setAlertLevel(LogLevel.fromInt((int) logLevel));
+        sdk.getDebug().setAlertLevel(LogLevel.fromInt((int) logLevel));
     }
 
     @Override
     public void addInAppMessageClickListener() {
-        if (!hasAddedInAppMessageClickListener) {
-            OneSignal.getInAppMessages().addClickListener(rnInAppClickListener);
-            hasAddedInAppMessageClickListener = true;
-        }
+        afterInitialize("addInAppMessageClickListener", this::registerInAppMessageClickListener);
+        eventReplayBuffer.attach(EVENT_IN_APP_MESSAGE_CLICKED, this::emitEvent);
+    }
+
+    private void registerInAppMessageClickListener() {
+        listeners.register(
+                ListenerRegistry.SdkListener.IN_APP_MESSAGE_CLICK,
+                () -> sdk.getInAppMessages().addClickListener(rnInAppClickListener),
+                () -> sdk.getInAppMessages().removeClickListener(rnInAppClickListener));
     }
 
     @Override
     public void addInAppMessagesLifecycleListener() {
-        if (!hasAddedInAppMessageLifecycleListener) {
-            OneSignal.getInAppMessages().addLifecycleListener(rnInAppLifecycleListener);
-            hasAddedInAppMessageLifecycleListener = true;
-        }
+        afterInitialize("addInAppMessagesLifecycleListener", () -> listeners.register(
+                ListenerRegistry.SdkListener.IN_APP_MESSAGE_LIFECYCLE,
+                () -> sdk.getInAppMessages().addLifecycleListener(rnInAppLifecycleListener),
+                () -> sdk.getInAppMessages().removeLifecycleListener(rnInAppLifecycleListener)));
     }
 
     @Override
     public void getPaused(Promise promise) {
-        promise.resolve(OneSignal.getInAppMessages().getPaused());
+        afterInitialize("getPaused", () -> promise.resolve(getPausedSync()));
+    }
+
+    @Override
+    public boolean getPausedSync() {
+        StateSnapshot snapshot = stateSnapshot.get();
+        if (snapshot != null) {
+            return snapshot.paused;
+        }
+        return !initializePending && sdk.getInAppMessages().getPaused();
     }
 
     @Override
     public void paused(boolean pause) {
-        OneSignal.getInAppMessages().setPaused(pause);
+        operations.execute("paused", () -> sdk.getInAppMessages().setPaused(pause));
+        updateStateSnapshot(snapshot -> snapshot.withPaused(pause));
     }
 
     @Override
     public void addTrigger(String key, String value) {
-        OneSignal.getInAppMessages().addTrigger(key, value);
+        triggerMirror.put(key, value);
+        operations.execute("addTrigger", () -> sdk.getInAppMessages().addTrigger(key, value));
     }
 
     @Override
     public void addTriggers(ReadableMap triggers) {
-        OneSignal.getInAppMessages().addTriggers(RNUtils.convertReadableMapIntoStringMap(triggers));
+        // Bridge arguments are converted on the calling thread; they are only valid for the duration of the call.
+        Map<String, String> triggerMap = RNUtils.convertReadableMapIntoStringMap(triggers);
+        triggerMirror.putAll(triggerMap);
+        operations.execute("addTriggers", () -> sdk.getInAppMessages().addTriggers(triggerMap));
+    }
+
+    @Override
+    public void setTriggers(ReadableMap triggers) {
+        TriggerMirror.Diff diff = triggerMirror.replace(triggers);
+        if (diff == null) {
+            return;
+        }
+        if (!diff.removed.isEmpty()) {
+            operations.execute("removeTriggers", () -> sdk.getInAppMessages().removeTriggers(diff.removed));
+        }
+        if (!diff.changed.isEmpty()) {
+            operations.execute("addTriggers", () -> sdk.getInAppMessages().addTriggers(diff.changed));
+        }
     }
 
     @Override
     public void removeTrigger(String key) {
-        OneSignal.getInAppMessages().removeTrigger(key);
+        triggerMirror.remove(key);
+        operations.execute("removeTrigger", () -> sdk.getInAppMessages().removeTrigger(key));
     }
 
     @Override
     public void removeTriggers(ReadableArray keys) {
-        OneSignal.getInAppMessages().removeTriggers(RNUtils.convertReadableArrayIntoStringCollection(keys));
+        Collection<String> triggerKeys = RNUtils.convertReadableArrayIntoStringCollection(keys);
+        triggerMirror.removeAll(triggerKeys);
+        operations.execute("removeTriggers", () -> sdk.getInAppMessages().removeTriggers(triggerKeys));
     }
 
     @Override
     public void clearTriggers() {
-        OneSignal.getInAppMessages().clearTriggers();
+        triggerMirror.clear();
+        operations.execute("clearTriggers", () -> sdk.getInAppMessages().clearTriggers());
     }
 
     @Override
     public void requestLocationPermission() {
         try {
-            OneSignal.getLocation().requestPermission(Continue.none());
+            sdk.getLocation().requestPermission(Continue.none());
         } catch (Throwable t) {
             logLocationModuleNotAvailable(t);
         }
@@ -337,153 +876,227 @@ public class RNOneSignal extends NativeOneSignalSpec
 
     @Override
     public void isLocationShared(Promise promise) {
-        try {
-            promise.resolve(OneSignal.getLocation().isShared());
-        } catch (Throwable t) {
-            logLocationModuleNotAvailable(t);
-            promise.resolve(false);
-        }
+        // Queued behind setLocationShared, which the snapshot does not track.
+        operations.execute("isLocationShared", () -> {
+            try {
+                promise.resolve(sdk.getLocation().isShared());
+            } catch (Throwable t) {
+                logLocationModuleNotAvailable(t);
+                promise.resolve(false);
+            }
+        });
     }
 
     @Override
     public void setLocationShared(boolean shared) {
-        try {
-            OneSignal.getLocation().setShared(shared);
-        } catch (Throwable t) {
-            logLocationModuleNotAvailable(t);
-        }
+        operations.execute("setLocationShared", () -> {
+            try {
+                sdk.getLocation().setShared(shared);
+            } catch (Throwable t) {
+                logLocationModuleNotAvailable(t);
+            }
+        });
     }
 
     @Override
     public void addNotificationClickListener() {
-        if (this.hasAddedNotificationClickListener) {
-            return;
-        }
+        afterInitialize("addNotificationClickListener", this::registerNotificationClickListener);
+        eventReplayBuffer.attach(EVENT_NOTIFICATION_CLICKED, this::emitEvent);
+    }
 
-        OneSignal.getNotifications().addClickListener(rnNotificationClickListener);
-        hasAddedNotificationClickListener = true;
+    private void registerNotificationClickListener() {
+        listeners.register(
+                ListenerRegistry.SdkListener.NOTIFICATION_CLICK,
+                () -> sdk.getNotifications().addClickListener(rnNotificationClickListener),
+                () -> sdk.getNotifications().removeClickListener(rnNotificationClickListener));
     }
 
     @Override
     public void addNotificationForegroundLifecycleListener() {
-        if (this.hasAddedNotificationForegroundListener) {
+        afterInitialize("addNotificationForegroundLifecycleListener", () -> listeners.register(
+                ListenerRegistry.SdkListener.NOTIFICATION_FOREGROUND,
+                () -> sdk.getNotifications().addForegroundLifecycleListener(this),
+                () -> sdk.getNotifications().removeForegroundLifecycleListener(this)));
+    }
+
+    @Override
+    public void onWillDisplay(INotificationWillDisplayEvent event) {
+        long callbackStartNanos = System.nanoTime();
+        if (!listeners.isRegistered(ListenerRegistry.SdkListener.NOTIFICATION_FOREGROUND)) {
+            event.getNotification().display();
             return;
         }
 
-        OneSignal.getNotifications().addForegroundLifecycleListener(this);
-        hasAddedNotificationForegroundListener = true;
+        // The SDK displays an event nobody prevented, so a repeat is prevented here; the first delivery, which JS
+        // answers, decides whether the notification shows.
+        if (!notificationDeduplicator.firstDelivery(
+                EVENT_NOTIFICATION_WILL_DISPLAY, event.getNotification().getNotificationId(), null)) {
+            eventMetrics.recordDuplicate(EVENT_NOTIFICATION_WILL_DISPLAY);
+            event.preventDefault();
+            return;
+        }
+
+        // Park the event and return right away; JS answers through displayNotification or preventDefault.
+        foregroundDisplayCoordinator.hold(event);
+
+        NotificationConversionOptions options = conversionOnWillDisplay;
+        if (!options.includesRawPayload()) {
+            cacheRawPayload(event.getNotification());
+        }
+        emitConverted(
+                EVENT_NOTIFICATION_WILL_DISPLAY,
+                callbackStartNanos,
+                false,
+                () -> RNUtils.convertNotificationToWritableMap(event.getNotification(), options));
+    }
+
+    @Override
+    public void setNotificationWillDisplayTimeout(double timeoutMs, boolean displayOnTimeout) {
+        foregroundDisplayCoordinator.setDecisionTimeout((long) timeoutMs, displayOnTimeout);
     }
 
     @Override
-    public void onWillDisplay(INotificationWillDisplayEvent event) {
-        if (!this.hasAddedNotificationForegroundListener) {
-            event.getNotification().display();
+    public void setNotificationRawPayloadIncluded(String eventName, boolean included) {
+        if (EVENT_NOTIFICATION_WILL_DISPLAY.equals(eventName)) {
+            conversionOnWillDisplay = conversionOnWillDisplay.withRawPayloadIncluded(included);
+        } else if (EVENT_NOTIFICATION_CLICKED.equals(eventName)) {
+            conversionOnClick = conversionOnClick.withRawPayloadIncluded(included);
+        } else {
+            Logging.warn("Cannot set rawPayload option for unknown event: " + eventName, null);
         }
+    }
 
-        INotification notification = event.getNotification();
-        String notificationId = notification.getNotificationId();
-        notificationWillDisplayCache.put(notificationId, event);
-        event.preventDefault();
+    @Override
+    public void setNotificationFieldProjection(String eventName, @Nullable ReadableArray fields) {
+        NotificationProjection projection = fields != null
+                ? NotificationProjection.parse(RNUtils.convertReadableArrayIntoStringCollection(fields))
+                : null;
+        if (EVENT_NOTIFICATION_WILL_DISPLAY.equals(eventName)) {
+            conversionOnWillDisplay = conversionOnWillDisplay.withProjection(projection);
+        } else if (EVENT_NOTIFICATION_CLICKED.equals(eventName)) {
+            conversionOnClick = conversionOnClick.withProjection(projection);
+        } else {
+            Logging.warn("Cannot set field projection for unknown event: " + eventName, null);
+        }
+    }
 
-        try {
-            emitOnNotificationWillDisplay(
-                    RNUtils.convertHashMapToWritableMap(RNUtils.convertNotificationToMap(notification)));
+    @Override
+    public void setNotificationJsonEncoding(String eventName, double minLength, boolean wholeNotification) {
+        NotificationJsonEncoding encoding = minLength >= 0
+                ? new NotificationJsonEncoding((int) minLength, wholeNotification)
+                : NotificationJsonEncoding.DISABLED;
+        if (EVENT_NOTIFICATION_WILL_DISPLAY.equals(eventName)) {
+            conversionOnWillDisplay = conversionOnWillDisplay.withJsonEncoding(encoding);
+        } else if (EVENT_NOTIFICATION_CLICKED.equals(eventName)) {
+            conversionOnClick = conversionOnClick.withJsonEncoding(encoding);
+        } else {
+            Logging.warn("Cannot set JSON encoding for unknown event: " + eventName, null);
+        }
+    }
 
-            try {
-                synchronized (event) {
-                    while (preventDefaultCache.containsKey(notificationId)) {
-                        event.wait();
-                    }
-                }
-            } catch (InterruptedException e) {
-                Logging.error("InterruptedException: " + e.toString(), null);
-            }
-        } catch (JSONException e) {
-            logJSONException("onNotificationWillDisplay", e);
+    @Override
+    public void setGroupedNotificationLimit(double limit) {
+        RNUtils.getGroupedNotificationCache().setLimit((int) limit);
+    }
+
+    @Override
+    public void getNotificationRawPayload(String notificationId, Promise promise) {
+        promise.resolve(rawPayloadCache.get(notificationId));
+    }
+
+    private void cacheRawPayload(INotification notification) {
+        String notificationId = notification.getNotificationId();
+        if (notificationId != null) {
+            rawPayloadCache.put(notificationId, notification.getRawPayload());
         }
     }
 
     @Override
     public void displayNotification(String notificationId) {
-        INotificationWillDisplayEvent event = notificationWillDisplayCache.get(notificationId);
-        if (event == null) {
+        if (!foregroundDisplayCoordinator.display(notificationId)) {
             Logging.error(
                     "Could not find onWillDisplayNotification event for notification with id: " + notificationId, null);
-            return;
         }
-        event.getNotification().display();
     }
 
     @Override
     public void preventDefault(String notificationId) {
-        INotificationWillDisplayEvent event = notificationWillDisplayCache.get(notificationId);
-        if (event == null) {
+        if (!foregroundDisplayCoordinator.preventDefault(notificationId)) {
             Logging.error(
                     "Could not find onWillDisplayNotification event for notification with id: " + notificationId, null);
-            return;
         }
-        event.preventDefault();
-        this.preventDefaultCache.put(notificationId, event);
     }
 
     @Override
     public void addPermissionObserver() {
-        if (!hasSetPermissionObserver) {
-            OneSignal.getNotifications().addPermissionObserver(this);
-            hasSetPermissionObserver = true;
-        }
-    }
-
-    private void removePermissionObserver() {
-        if (hasSetPermissionObserver) {
-            OneSignal.getNotifications().removePermissionObserver(this);
-            hasSetPermissionObserver = false;
-        }
+        afterInitialize("addPermissionObserver", this::addStateObservers);
+        listeners.listen(EVENT_PERMISSION_CHANGED);
     }
 
     @Override
     public void onNotificationPermissionChange(boolean permission) {
-        try {
-            emitOnPermissionChanged(RNUtils.convertHashMapToWritableMap(RNUtils.convertPermissionToMap(permission)));
-            Logging.debug("Sending permission change event", null);
-        } catch (JSONException e) {
-            logJSONException("onPermissionChanged", e);
+        long callbackStartNanos = System.nanoTime();
+        updateStateSnapshot(snapshot -> snapshot.withPermission(permission));
+        if (!listeners.isListening(EVENT_PERMISSION_CHANGED)) {
+            return;
         }
+
+        emitConverted(
+                EVENT_PERMISSION_CHANGED,
+                callbackStartNanos,
+                false,
+                () -> RNUtils.convertHashMapToWritableMap(RNUtils.convertPermissionToMap(permission)));
+        Logging.debug("Sending permission change event", null);
     }
 
     @Override
     public void requestNotificationPermission(boolean fallbackToSettings, Promise promise) {
-        if (OneSignal.getNotifications().getPermission()) {
-            promise.resolve(true);
-            return;
-        }
-
-        OneSignal.getNotifications().requestPermission(fallbackToSettings, Continue.with(result -> {
-            if (result.isSuccess()) {
-                promise.resolve(result.getData());
-            } else {
-                promise.reject(result.getThrowable().getMessage());
+        afterInitialize("requestNotificationPermission", () -> {
+            if (sdk.getNotifications().getPermission()) {
+                promise.resolve(true);
+                return;
             }
-        }));
+
+            sdk.getNotifications().requestPermission(fallbackToSettings, Continue.with(result -> {
+                if (result.isSuccess()) {
+                    promise.resolve(result.getData());
+                } else {
+                    promise.reject(result.getThrowable().getMessage());
+                }
+            }));
+        });
     }
 
     @Override
     public void hasNotificationPermission(Promise promise) {
-        promise.resolve(OneSignal.getNotifications().getPermission());
+        afterInitialize("hasNotificationPermission", () -> promise.resolve(hasNotificationPermissionSync()));
     }
 
     @Override
-    public void permissionNative(Promise promise) {
-        if (OneSignal.getNotifications().getPermission()) {
-            promise.resolve(2);
-        } else {
-            promise.resolve(1);
+    public boolean hasNotificationPermissionSync() {
+        StateSnapshot snapshot = stateSnapshot.get();
+        if (snapshot != null) {
+            return snapshot.permission;
         }
+        return !initializePending && sdk.getNotifications().getPermission();
+    }
+
+    @Override
+    public void permissionNative(Promise promise) {
+        afterInitialize("permissionNative", () -> {
+            if (sdk.getNotifications().getPermission()) {
+                promise.resolve(2);
+            } else {
+                promise.resolve(1);
+            }
+        });
     }
 
     @Override
     public void canRequestNotificationPermission(Promise promise) {
-        promise.resolve(OneSignal.getNotifications().getCanRequestPermission());
+        afterInitialize(
+                "canRequestNotificationPermission",
+                () -> promise.resolve(sdk.getNotifications().getCanRequestPermission()));
     }
 
     @Override
@@ -493,17 +1106,51 @@ public class RNOneSignal extends NativeOneSignalSpec
 
     @Override
     public void clearAllNotifications() {
-        OneSignal.getNotifications().clearAllNotifications();
+        operations.execute("clearAllNotifications", () -> sdk.getNotifications().clearAllNotifications());
     }
 
     @Override
     public void removeNotification(double id) {
-        OneSignal.getNotifications().removeNotification((int) id);
+        operations.execute("removeNotification", () -> sdk.getNotifications().removeNotification((int) id));
     }
 
     @Override
     public void removeGroupedNotifications(String id) {
-        OneSignal.getNotifications().removeGroupedNotifications(id);
+        operations.execute("removeGroupedNotifications", () -> sdk.getNotifications().removeGroupedNotifications(id));
+    }
+
+    @Override
+    public void removeNotifications(ReadableArray ids) {
+        // Read on the calling thread, since the array belongs to the bridge. Repeated ids are removed once.
+        Set<Integer> notificationIds = new LinkedHashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            notificationIds.add((int) ids.getDouble(i));
+        }
+        operations.execute("removeNotifications", () -> {
+            INotificationsManager notifications = sdk.getNotifications();
+            for (int id : notificationIds) {
+                try {
+                    notifications.removeNotification(id);
+                } catch (Exception e) {
+                    Logging.warn("Failed to remove notification " + id, e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void removeGroupedNotificationsBatch(ReadableArray groupKeys) {
+        Set<String> keys = new LinkedHashSet<>(RNUtils.convertReadableArrayIntoStringCollection(groupKeys));
+        operations.execute("removeGroupedNotificationsBatch", () -> {
+            INotificationsManager notifications = sdk.getNotifications();
+            for (String key : keys) {
+                try {
+                    notifications.removeGroupedNotifications(key);
+                } catch (Exception e) {
+                    Logging.warn("Failed to remove notification group " + key, e);
+                }
+            }
+        });
     }
 
     // Live Activities stubs (iOS only)
@@ -539,124 +1186,289 @@ public class RNOneSignal extends NativeOneSignalSpec
 
     @Override
     public void getPushSubscriptionId(Promise promise) {
-        IPushSubscription pushSubscription = OneSignal.getUser().getPushSubscription();
+        afterInitialize("getPushSubscriptionId", () -> promise.resolve(getPushSubscriptionIdSync()));
+    }
+
+    @Override
+    public @Nullable String getPushSubscriptionIdSync() {
+        StateSnapshot snapshot = stateSnapshot.get();
+        if (snapshot != null) {
+            return snapshot.pushSubscriptionId;
+        }
+        if (initializePending) {
+            return null;
+        }
+
+        IPushSubscription pushSubscription = sdk.getUser().getPushSubscription();
         String pushId = pushSubscription.getId();
         if (pushId != null && !pushId.isEmpty()) {
-            promise.resolve(pushId);
+            return pushId;
         } else {
-            promise.resolve(null);
+            return null;
         }
     }
 
     @Override
     public void getPushSubscriptionToken(Promise promise) {
-        IPushSubscription pushSubscription = OneSignal.getUser().getPushSubscription();
+        afterInitialize("getPushSubscriptionToken", () -> promise.resolve(getPushSubscriptionTokenSync()));
+    }
+
+    @Override
+    public @Nullable String getPushSubscriptionTokenSync() {
+        StateSnapshot snapshot = stateSnapshot.get();
+        if (snapshot != null) {
+            return snapshot.pushSubscriptionToken;
+        }
+        if (initializePending) {
+            return null;
+        }
+
+        IPushSubscription pushSubscription = sdk.getUser().getPushSubscription();
         String pushToken = pushSubscription.getToken();
         if (pushToken != null && !pushToken.isEmpty()) {
-            promise.resolve(pushToken);
+            return pushToken;
         } else {
-            promise.resolve(null);
+            return null;
         }
     }
 
     @Override
     public void getOptedIn(Promise promise) {
-        IPushSubscription pushSubscription = OneSignal.getUser().getPushSubscription();
-        promise.resolve(pushSubscription.getOptedIn());
+        afterInitialize("getOptedIn", () -> promise.resolve(getOptedInSync()));
+    }
+
+    @Override
+    public boolean getOptedInSync() {
+        StateSnapshot snapshot = stateSnapshot.get();
+        if (snapshot != null) {
+            return snapshot.optedIn;
+        }
+        if (initializePending) {
+            return false;
+        }
+
+        IPushSubscription pushSubscription = sdk.getUser().getPushSubscription();
+        return pushSubscription.getOptedIn();
     }
 
     @Override
     public void optIn() {
-        IPushSubscription pushSubscription = OneSignal.getUser().getPushSubscription();
-        pushSubscription.optIn();
+        updateStateSnapshot(snapshot -> snapshot.withOptedIn(true));
+        operations.execute("optIn", () -> sdk.getUser().getPushSubscription().optIn());
     }
 
     @Override
     public void optOut() {
-        IPushSubscription pushSubscription = OneSignal.getUser().getPushSubscription();
-        pushSubscription.optOut();
+        updateStateSnapshot(snapshot -> snapshot.withOptedIn(false));
+        operations.execute("optOut", () -> sdk.getUser().getPushSubscription().optOut());
     }
 
     @Override
     public void addPushSubscriptionObserver() {
-        if (!hasSetPushSubscriptionObserver) {
-            OneSignal.getUser().getPushSubscription().addObserver(this);
-            hasSetPushSubscriptionObserver = true;
-        }
+        afterInitialize("addPushSubscriptionObserver", this::addStateObservers);
+        listeners.listen(EVENT_SUBSCRIPTION_CHANGED);
     }
 
     @Override
     public void onPushSubscriptionChange(PushSubscriptionChangedState pushSubscriptionChangedState) {
-        try {
-            emitOnSubscriptionChanged(RNUtils.convertHashMapToWritableMap(
-                    RNUtils.convertPushSubscriptionChangedStateToMap(pushSubscriptionChangedState)));
-            Logging.debug("Sending subscription change event", null);
-        } catch (JSONException e) {
-            logJSONException("onSubscriptionChanged", e);
+        long callbackStartNanos = System.nanoTime();
+        PushSubscriptionState current = pushSubscriptionChangedState.getCurrent();
+        updateStateSnapshot(
+                snapshot -> snapshot.withPushSubscription(current.getId(), current.getToken(), current.getOptedIn()));
+        if (!listeners.isListening(EVENT_SUBSCRIPTION_CHANGED)) {
+            return;
         }
-    }
 
-    private void removePushSubscriptionObserver() {
-        if (hasSetPushSubscriptionObserver) {
-            OneSignal.getUser().getPushSubscription().removeObserver(this);
-            hasSetPushSubscriptionObserver = false;
-        }
+        emitConverted(
+                EVENT_SUBSCRIPTION_CHANGED,
+                callbackStartNanos,
+                false,
+                () -> RNUtils.convertHashMapToWritableMap(
+                        RNUtils.convertPushSubscriptionChangedStateToMap(pushSubscriptionChangedState)));
+        Logging.debug("Sending subscription change event", null);
     }
 
     @Override
     public void addOutcome(String name) {
-        OneSignal.getSession().addOutcome(name);
+        operations.execute("addOutcome", () -> sdk.getSession().addOutcome(name));
     }
 
     @Override
     public void addUniqueOutcome(String name) {
-        OneSignal.getSession().addUniqueOutcome(name);
+        operations.execute("addUniqueOutcome", () -> sdk.getSession().addUniqueOutcome(name));
     }
 
     @Override
     public void addOutcomeWithValue(String name, double value) {
-        OneSignal.getSession().addOutcomeWithValue(name, (float) value);
+        if (!outcomeAggregator.addOutcomeWithValue(name, value)) {
+            operations.execute("addOutcomeWithValue", () -> sdk.getSession().addOutcomeWithValue(name, (float) value));
+        }
+    }
+
+    @Override
+    public void setOutcomeAggregation(boolean enabled, double windowMs) {
+        outcomeAggregator.setAggregation(enabled, (long) windowMs);
+    }
+
+    @Override
+    public void flushOutcomes() {
+        outcomeAggregator.flush();
     }
 
     @Override
     public void login(String externalUserId) {
-        OneSignal.login(externalUserId);
+        // Pending tags and outcomes belong to the user they were recorded for.
+        tagWriteBehind.flush();
+        outcomeAggregator.flush();
+        executeUserSwitch("login", () -> sdk.login(externalUserId));
+    }
+
+    @Override
+    public void loginWithProfile(String externalUserId, ReadableMap profile) {
+        Map<String, String> tags = profile.hasKey("tags") && profile.getType("tags") == ReadableType.Map
+                ? RNUtils.convertReadableMapIntoStringMap(profile.getMap("tags"))
+                : Collections.emptyMap();
+        Map<String, String> aliases = profile.hasKey("aliases") && profile.getType("aliases") == ReadableType.Map
+                ? RNUtils.convertReadableMapIntoStringMap(profile.getMap("aliases"))
+                : Collections.emptyMap();
+        Collection<String> emails = profile.hasKey("emails") && profile.getType("emails") == ReadableType.Array
+                ? RNUtils.convertReadableArrayIntoStringCollection(profile.getArray("emails"))
+                : Collections.emptyList();
+        Collection<String> smsNumbers = profile.hasKey("sms") && profile.getType("sms") == ReadableType.Array
+                ? RNUtils.convertReadableArrayIntoStringCollection(profile.getArray("sms"))
+                : Collections.emptyList();
+        String language = profile.hasKey("language") && profile.getType("language") == ReadableType.String
+                ? profile.getString("language")
+                : null;
+
+        tagWriteBehind.flush();
+        outcomeAggregator.flush();
+        // login switches the SDK's local user before it returns, so running the profile in the same operation
+        // applies it to the new user, with no other call in between.
+        executeUserSwitch("loginWithProfile", () -> {
+            sdk.login(externalUserId);
+            if (!aliases.isEmpty()) {
+                sdk.getUser().addAliases(aliases);
+            }
+            if (!tags.isEmpty()) {
+                sdk.getUser().addTags(tags);
+            }
+            for (String email : emails) {
+                sdk.getUser().addEmail(email);
+            }
+            for (String smsNumber : smsNumbers) {
+                sdk.getUser().addSms(smsNumber);
+            }
+            if (language != null) {
+                sdk.getUser().setLanguage(language);
+            }
+        });
     }
 
     @Override
     public void logout() {
-        OneSignal.logout();
+        tagWriteBehind.flush();
+        outcomeAggregator.flush();
+        executeUserSwitch("logout", () -> sdk.logout());
+    }
+
+    // The SDK switches its local user before login and logout return, and only reports the change through
+    // onUserStateChange once the backend has confirmed it, so the IDs are read back from the SDK right after the
+    // switch. That also covers logging in as the same user and logging out an anonymous one. The tags are dropped
+    // once the switch has run, after any getTags queued before it; getTags and the async ID getters do not answer
+    // from the snapshot while a switch is pending. Events still in trackEventQueue belong to the previous user, so
+    // they are handed to the operation queue ahead of the switch instead of being waited for here.
+    private void executeUserSwitch(String name, Runnable userSwitch) {
+        pendingUserSwitches.incrementAndGet();
+        trackEventQueue.handOffPending(() -> operations.execute(name, () -> {
+            try {
+                userSwitch.run();
+                String onesignalId = sdk.getUser().getOnesignalId();
+                String externalId = sdk.getUser().getExternalId();
+                updateStateSnapshot(snapshot -> snapshot.withUser(onesignalId, externalId));
+            } finally {
+                updateStateSnapshot(snapshot -> snapshot.withTags(null));
+                pendingUserSwitches.decrementAndGet();
+            }
+        }));
     }
 
     @Override
     public void setLanguage(String language) {
-        OneSignal.getUser().setLanguage(language);
+        operations.execute("setLanguage", () -> sdk.getUser().setLanguage(language));
     }
 
     @Override
     public void addTag(String key, String value) {
-        OneSignal.getUser().addTag(key, value);
+        if (!tagWriteBehind.addTag(key, value)) {
+            operations.execute("addTag", () -> sdk.getUser().addTag(key, value));
+        }
+        updateStateSnapshot(snapshot -> snapshot.withTagChanges(Collections.singletonMap(key, value), null));
     }
 
     @Override
     public void removeTag(String key) {
-        OneSignal.getUser().removeTag(key);
+        if (!tagWriteBehind.removeTag(key)) {
+            operations.execute("removeTag", () -> sdk.getUser().removeTag(key));
+        }
+        updateStateSnapshot(snapshot -> snapshot.withTagChanges(null, Collections.singleton(key)));
     }
 
     @Override
     public void addTags(ReadableMap tags) {
-        OneSignal.getUser().addTags(RNUtils.convertReadableMapIntoStringMap(tags));
+        addTagMap(RNUtils.convertReadableMapIntoStringMap(tags));
+    }
+
+    private void addTagMap(Map<String, String> tagMap) {
+        if (!tagWriteBehind.addTags(tagMap)) {
+            operations.execute("addTags", () -> sdk.getUser().addTags(tagMap));
+        }
+        updateStateSnapshot(snapshot -> snapshot.withTagChanges(tagMap, null));
     }
 
     @Override
     public void removeTags(ReadableArray tagKeys) {
-        OneSignal.getUser().removeTags(RNUtils.convertReadableArrayIntoStringCollection(tagKeys));
+        removeTagKeys(RNUtils.convertReadableArrayIntoStringCollection(tagKeys));
+    }
+
+    private void removeTagKeys(Collection<String> keys) {
+        if (!tagWriteBehind.removeTags(keys)) {
+            operations.execute("removeTags", () -> sdk.getUser().removeTags(keys));
+        }
+        updateStateSnapshot(snapshot -> snapshot.withTagChanges(null, keys));
+    }
+
+    @Override
+    public void setTagCoalescingWindow(double windowMs) {
+        tagWriteBehind.setWindow((long) windowMs);
+    }
+
+    @Override
+    public void flushTags() {
+        tagWriteBehind.flush();
     }
 
     @Override
     public void getTags(Promise promise) {
-        Map<String, String> tags = OneSignal.getUser().getTags();
-        WritableMap writableTags = Arguments.createMap();
+        StateSnapshot snapshot = stateSnapshot.get();
+        if (snapshot != null && snapshot.tags != null && pendingUserSwitches.get() == 0) {
+            // Local writes, including ones still pending in tagWriteBehind, are already applied to the snapshot.
+            resolveTags(promise, snapshot.tags);
+            return;
+        }
+
+        // Read your own writes: anything still pending would otherwise be missing from the result. The read is
+        // queued behind the writes instead of waiting for them here.
+        tagWriteBehind.flush();
+        operations.execute("getTags", () -> {
+            Map<String, String> sdkTags = sdk.getUser().getTags();
+            updateStateSnapshot(current -> current.withTags(sdkTags));
+            resolveTags(promise, sdkTags);
+        });
+    }
+
+    private static void resolveTags(Promise promise, Map<String, String> tags) {
+        WritableMap writableTags = RNUtils.createMap();
         for (Map.Entry<String, String> entry : tags.entrySet()) {
             writableTags.putString(entry.getKey(), entry.getValue());
         }
@@ -665,91 +1477,147 @@ public class RNOneSignal extends NativeOneSignalSpec
 
     @Override
     public void addEmail(String email) {
-        OneSignal.getUser().addEmail(email);
+        operations.execute("addEmail", () -> sdk.getUser().addEmail(email));
     }
 
     @Override
     public void removeEmail(String email) {
-        OneSignal.getUser().removeEmail(email);
+        operations.execute("removeEmail", () -> sdk.getUser().removeEmail(email));
     }
 
     @Override
     public void addSms(String smsNumber) {
-        OneSignal.getUser().addSms(smsNumber);
+        operations.execute("addSms", () -> sdk.getUser().addSms(smsNumber));
     }
 
     @Override
     public void removeSms(String smsNumber) {
-        OneSignal.getUser().removeSms(smsNumber);
+        operations.execute("removeSms", () -> sdk.getUser().removeSms(smsNumber));
     }
 
     @Override
     public void addAlias(String label, String id) {
-        OneSignal.getUser().addAlias(label, id);
+        operations.execute("addAlias", () -> sdk.getUser().addAlias(label, id));
     }
 
     @Override
     public void removeAlias(String label) {
-        OneSignal.getUser().removeAlias(label);
+        operations.execute("removeAlias", () -> sdk.getUser().removeAlias(label));
     }
 
     @Override
     public void addAliases(ReadableMap aliases) {
-        OneSignal.getUser().addAliases(RNUtils.convertReadableMapIntoStringMap(aliases));
+        addAliasMap(RNUtils.convertReadableMapIntoStringMap(aliases));
+    }
+
+    private void addAliasMap(Map<String, String> aliasMap) {
+        operations.execute("addAliases", () -> sdk.getUser().addAliases(aliasMap));
     }
 
     @Override
     public void removeAliases(ReadableArray aliasLabels) {
-        OneSignal.getUser().removeAliases(RNUtils.convertReadableArrayIntoStringCollection(aliasLabels));
+        removeAliasLabels(RNUtils.convertReadableArrayIntoStringCollection(aliasLabels));
+    }
+
+    private void removeAliasLabels(Collection<String> labels) {
+        operations.execute("removeAliases", () -> sdk.getUser().removeAliases(labels));
     }
 
     @Override
     public void getOnesignalId(Promise promise) {
-        String onesignalId = OneSignal.getUser().getOnesignalId();
+        if (pendingUserSwitches.get() > 0 || initializePending) {
+            operations.execute("getOnesignalId", () -> promise.resolve(getOnesignalIdSync()));
+            return;
+        }
+        promise.resolve(getOnesignalIdSync());
+    }
+
+    @Override
+    public @Nullable String getOnesignalIdSync() {
+        StateSnapshot snapshot = stateSnapshot.get();
+        if (snapshot != null) {
+            return snapshot.onesignalId;
+        }
+        if (initializePending) {
+            return null;
+        }
+
+        String onesignalId = sdk.getUser().getOnesignalId();
         if (onesignalId == null || onesignalId.isEmpty()) {
-            promise.resolve(null);
+            return null;
         } else {
-            promise.resolve(onesignalId);
+            return onesignalId;
         }
     }
 
     @Override
     public void getExternalId(Promise promise) {
-        String externalId = OneSignal.getUser().getExternalId();
+        if (pendingUserSwitches.get() > 0 || initializePending) {
+            operations.execute("getExternalId", () -> promise.resolve(getExternalIdSync()));
+            return;
+        }
+        promise.resolve(getExternalIdSync());
+    }
+
+    @Override
+    public @Nullable String getExternalIdSync() {
+        StateSnapshot snapshot = stateSnapshot.get();
+        if (snapshot != null) {
+            return snapshot.externalId;
+        }
+        if (initializePending) {
+            return null;
+        }
+
+        String externalId = sdk.getUser().getExternalId();
         if (externalId == null || externalId.isEmpty()) {
-            promise.resolve(null);
+            return null;
         } else {
-            promise.resolve(externalId);
+            return externalId;
         }
     }
 
     @Override
     public void addUserStateObserver() {
-        if (!hasSetUserStateObserver) {
-            OneSignal.getUser().addObserver(this);
-            hasSetUserStateObserver = true;
-        }
+        afterInitialize("addUserStateObserver", this::addStateObservers);
+        listeners.listen(EVENT_USER_STATE_CHANGED);
     }
 
     @Override
     public void onUserStateChange(UserChangedState state) {
-        try {
-            emitOnUserStateChanged(RNUtils.convertHashMapToWritableMap(RNUtils.convertUserChangedStateToMap(state)));
-            Logging.debug("Sending user state change event", null);
-        } catch (JSONException e) {
-            logJSONException("onUserStateChanged", e);
+        long callbackStartNanos = System.nanoTime();
+        // The SDK fetches the user's tags from the backend once the user is confirmed, so the next getTags reads
+        // them again.
+        updateStateSnapshot(snapshot -> snapshot.withUser(
+                        state.getCurrent().getOnesignalId(), state.getCurrent().getExternalId())
+                .withTags(null));
+        if (!listeners.isListening(EVENT_USER_STATE_CHANGED)) {
+            return;
         }
-    }
 
-    private void removeUserStateObserver() {
-        if (hasSetUserStateObserver) {
-            OneSignal.getUser().removeObserver(this);
-            hasSetUserStateObserver = false;
-        }
+        emitConverted(
+                EVENT_USER_STATE_CHANGED,
+                callbackStartNanos,
+                false,
+                () -> RNUtils.convertHashMapToWritableMap(RNUtils.convertUserChangedStateToMap(state)));
+        Logging.debug("Sending user state change event", null);
     }
 
     @Override
     public void trackEvent(String name, @Nullable ReadableMap properties) {
-        OneSignal.getUser().trackEvent(name, properties != null ? properties.toHashMap() : new HashMap<>());
+        // Bridge arguments are only valid for the duration of the call, so the properties are copied before the
+        // queue's thread gets to them.
+        trackEventQueue.enqueue(name, properties != null ? properties.toHashMap() : new HashMap<>());
     }
+
+    @Override
+    public void setTrackEventQueue(double capacity, String overflowPolicy) {
+        TrackEventQueue.OverflowPolicy policy = TrackEventQueue.OverflowPolicy.fromName(overflowPolicy);
+        if (policy == null) {
+            Logging.warn("Unknown trackEvent overflow policy: " + overflowPolicy, null);
+            return;
+        }
+        trackEventQueue.configure((int) capacity, policy);
+    }
+
 }
@@ -0,0 +1,147 @@
+package com.onesignal.rnonesignalandroid;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+import androidx.annotation.Nullable;
+import com.onesignal.debug.internal.logging.Logging;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the OneSignal SDK before the JS bundle has loaded, taking {@code initWithContext} off the cold-start
+ * critical path. Call {@link #initialize(Context)} from {@code Application.onCreate}: the SDK is initialized on a
+ * background thread, and {@code OneSignal.initialize} in JS then attaches to it instead of initializing again.
+ *
+ * <p>The app ID comes from the {@value #APP_ID_META_DATA} manifest meta-data entry, or is passed directly. It must
+ * match the one JS passes to {@code OneSignal.initialize}; if it does not, JS initializes the SDK as before. Apps
+ * that require privacy consent must call {@code OneSignal.setConsentRequired(true)} natively before this, as JS
+ * runs too late to do it.
+ */
+public final class RNOneSignalInitializer {
+    public static final String APP_ID_META_DATA = "com.onesignal.rnonesignalandroid.APP_ID";
+
+    private static final Object lock = new Object();
+    private static @Nullable String appId = null;
+    private static @Nullable CountDownLatch done = null;
+    private static volatile boolean succeeded = false;
+    private static volatile long startNanos = 0;
+    private static volatile long endNanos = 0;
+
+    private RNOneSignalInitializer() {}
+
+    /** Initializes the SDK with the app ID from the manifest meta-data. Does nothing if there is none. */
+    public static void initialize(Context context) {
+        String metaDataAppId = readAppId(context);
+        if (metaDataAppId == null || metaDataAppId.isEmpty()) {
+            Logging.debug("No " + APP_ID_META_DATA + " meta-data, OneSignal will be initialized from JS", null);
+            return;
+        }
+        initialize(context, metaDataAppId);
+    }
+
+    /** Initializes the SDK with {@code appId} on a background thread. Only the first call has an effect. */
+    public static void initialize(Context context, String appId) {
+        initialize(context, appId, OneSignalSdk.FACADE);
+    }
+
+    static void initialize(Context context, String appId, OneSignalSdk sdk) {
+        Context applicationContext = context.getApplicationContext();
+        CountDownLatch latch = new CountDownLatch(1);
+        synchronized (lock) {
+            if (RNOneSignalInitializer.appId != null) {
+                Logging.warn("OneSignal native initialization was already started", null);
+                return;
+            }
+            RNOneSignalInitializer.appId = appId;
+            done = latch;
+        }
+
+        Thread thread = new Thread(
+                () -> {
+                    startNanos = System.nanoTime();
+                    try {
+                        RNOneSignal.setWrapperInfo();
+                        sdk.initWithContext(applicationContext, appId);
+                        succeeded = true;
+                    } catch (RuntimeException e) {
+                        Logging.error("OneSignal native initialization failed, JS will initialize it instead", e);
+                    } finally {
+                        endNanos = System.nanoTime();
+                        latch.countDown();
+                    }
+                },
+                "OneSignal-RN-Init");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Whether a native initialization with {@code appId} was started and has not finished yet. */
+    static boolean isRunning(String appId) {
+        synchronized (lock) {
+            return appId.equals(RNOneSignalInitializer.appId) && done != null && done.getCount() > 0;
+        }
+    }
+
+    /**
+     * Waits up to {@code timeoutMs} for a native initialization with {@code appId}. Returns false if none was
+     * started for this app ID, it failed, or it did not finish in time.
+     */
+    static boolean awaitInitialized(String appId, long timeoutMs) {
+        String startedAppId;
+        CountDownLatch latch;
+        synchronized (lock) {
+            startedAppId = RNOneSignalInitializer.appId;
+            latch = done;
+        }
+        if (startedAppId == null || latch == null) {
+            return false;
+        }
+        if (!startedAppId.equals(appId)) {
+            Logging.warn("OneSignal was initialized natively with a different app ID than JS passed", null);
+            return false;
+        }
+
+        try {
+            if (!latch.await(timeoutMs, TimeUnit.MILLISECONDS)) {
+                Logging.warn("OneSignal native initialization is still running after " + timeoutMs + " ms", null);
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return succeeded;
+    }
+
+    /** Time {@code initWithContext} took, once {@link #awaitInitialized} has returned true. */
+    static long getInitNanos() {
+        return endNanos - startNanos;
+    }
+
+    /** {@link System#nanoTime} when the native initialization finished. */
+    static long getEndNanos() {
+        return endNanos;
+    }
+
+    /** Forgets any native initialization, so tests start from a process that has not run one. */
+    static void reset() {
+        synchronized (lock) {
+            appId = null;
+            done = null;
+            succeeded = false;
+            startNanos = 0;
+            endNanos = 0;
+        }
+    }
+
+    private static @Nullable String readAppId(Context context) {
+        try {
+            ApplicationInfo info = context.getPackageManager()
+                    .getApplicationInfo(context.getPackageName(), PackageManager.GET_META_DATA);
+            return info.metaData != null ? info.metaData.getString(APP_ID_META_DATA) : null;
+        } catch (PackageManager.NameNotFoundException e) {
+            return null;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.onesignal.rnonesignalandroid;
 
+import androidx.annotation.Nullable;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
@@ -14,6 +15,7 @@ import com.onesignal.inAppMessages.IInAppMessageDidDismissEvent;
 import com.onesignal.inAppMessages.IInAppMessageDidDisplayEvent;
 import com.onesignal.inAppMessages.IInAppMessageWillDismissEvent;
 import com.onesignal.inAppMessages.IInAppMessageWillDisplayEvent;
+import com.onesignal.notifications.IActionButton;
 import com.onesignal.notifications.INotification;
 import com.onesignal.notifications.INotificationClickEvent;
 import com.onesignal.notifications.INotificationClickResult;
@@ -32,8 +34,78 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 public class RNUtils {
+    private static final int VALUE_TYPE_OTHER = 0;
+    private static final int VALUE_TYPE_STRING = 1;
+    private static final int VALUE_TYPE_BOOLEAN = 2;
+    private static final int VALUE_TYPE_INTEGER = 3;
+    private static final int VALUE_TYPE_LONG = 4;
+    private static final int VALUE_TYPE_DOUBLE = 5;
+    private static final int VALUE_TYPE_FLOAT = 6;
+    private static final int VALUE_TYPE_JSON_OBJECT = 7;
+    private static final int VALUE_TYPE_JSON_ARRAY = 8;
+    private static final int VALUE_TYPE_NULL = 9;
+
+    // Resolves a JSON value's type with one map lookup instead of an instanceof chain.
+    private static final HashMap<Class<?>, Integer> JSON_VALUE_TYPES = new HashMap<>();
+
+    static {
+        JSON_VALUE_TYPES.put(String.class, VALUE_TYPE_STRING);
+        JSON_VALUE_TYPES.put(Boolean.class, VALUE_TYPE_BOOLEAN);
+        JSON_VALUE_TYPES.put(Integer.class, VALUE_TYPE_INTEGER);
+        JSON_VALUE_TYPES.put(Long.class, VALUE_TYPE_LONG);
+        JSON_VALUE_TYPES.put(Double.class, VALUE_TYPE_DOUBLE);
+        JSON_VALUE_TYPES.put(Float.class, VALUE_TYPE_FLOAT);
+        JSON_VALUE_TYPES.put(JSONObject.class, VALUE_TYPE_JSON_OBJECT);
+        JSON_VALUE_TYPES.put(JSONArray.class, VALUE_TYPE_JSON_ARRAY);
+        JSON_VALUE_TYPES.put(JSONObject.NULL.getClass(), VALUE_TYPE_NULL);
+    }
+
+    /**
+     * Creates the maps and arrays handed to the bridge. {@link Arguments} builds native-backed collections, which
+     * need the React Native runtime; JVM tests and benchmarks swap in {@code JavaOnlyMap}/{@code JavaOnlyArray}.
+     */
+    interface BridgeCollectionFactory {
+        WritableMap createMap();
+
+        WritableArray createArray();
+    }
+
+    private static final BridgeCollectionFactory ARGUMENTS_FACTORY = new BridgeCollectionFactory() {
+        @Override
+        public WritableMap createMap() {
+            return Arguments.createMap();
+        }
+
+        @Override
+        public WritableArray createArray() {
+            return Arguments.createArray();
+        }
+    };
+
+    private static volatile BridgeCollectionFactory bridgeCollectionFactory = ARGUMENTS_FACTORY;
+
+    /** Replaces the collection factory, or restores the default when passed null. */
+    static void setBridgeCollectionFactory(BridgeCollectionFactory factory) {
+        bridgeCollectionFactory = factory != null ? factory : ARGUMENTS_FACTORY;
+    }
+
+    // Grouped children's fields, reused across the summaries of a group. See GroupedNotificationCache.
+    private static final GroupedNotificationCache groupedNotificationCache = new GroupedNotificationCache();
+
+    static GroupedNotificationCache getGroupedNotificationCache() {
+        return groupedNotificationCache;
+    }
+
+    static WritableMap createMap() {
+        return bridgeCollectionFactory.createMap();
+    }
+
+    static WritableArray createArray() {
+        return bridgeCollectionFactory.createArray();
+    }
+
     public static WritableMap convertHashMapToWritableMap(HashMap<String, Object> hashMap) throws JSONException {
-        WritableMap writableMap = Arguments.createMap();
+        WritableMap writableMap = createMap();
         for (Map.Entry<String, Object> entry : hashMap.entrySet()) {
             String key = entry.getKey();
             Object value = entry.getValue();
@@ -84,7 +156,8 @@ public class RNUtils {
         if (notification.getGroupedNotifications() != null) {
             notificationHash.put("groupKey", notification.getGroupKey());
             notificationHash.put("groupMessage", notification.getGroupMessage());
-            notificationHash.put("groupedNotifications", notification.getGroupedNotifications());
+            notificationHash.put(
+                    "groupedNotifications", convertGroupedNotificationsToList(notification.getGroupedNotifications()));
         }
 
         notificationHash.put("notificationId", notification.getNotificationId());
@@ -111,13 +184,444 @@ public class RNUtils {
                 && notification.getAdditionalData().length() > 0)
             notificationHash.put("additionalData", convertJSONObjectToHashMap(notification.getAdditionalData()));
         if (notification.getActionButtons() != null) {
-            notificationHash.put("actionButtons", notification.getActionButtons());
+            notificationHash.put("actionButtons", convertActionButtonsToList(notification.getActionButtons()));
         }
         notificationHash.put("rawPayload", notification.getRawPayload());
 
         return notificationHash;
     }
 
+    /** Converts a click event, converting its notification as {@link #convertNotificationToWritableMap} does. */
+    public static WritableMap convertNotificationClickEventToWritableMap(
+            INotificationClickEvent event, NotificationConversionOptions options) throws JSONException {
+        WritableMap clickResultMap = createMap();
+        INotificationClickResult clickResult = event.getResult();
+        clickResultMap.putString("actionId", clickResult.getActionId());
+        clickResultMap.putString("url", clickResult.getUrl());
+
+        WritableMap map = createMap();
+        map.putMap("notification", convertNotificationToWritableMap(event.getNotification(), options));
+        map.putMap("result", clickResultMap);
+
+        return map;
+    }
+
+    private static WritableMap writeNotification(
+            INotification notification, boolean includeRawPayload, @Nullable String additionalDataJson)
+            throws JSONException {
+        WritableMap map = createMap();
+        map.putInt("androidNotificationId", notification.getAndroidNotificationId());
+
+        List<INotification> groupedNotifications = notification.getGroupedNotifications();
+        if (groupedNotifications != null) {
+            map.putString("groupKey", notification.getGroupKey());
+            map.putString("groupMessage", notification.getGroupMessage());
+            map.putArray(
+                    "groupedNotifications",
+                    convertGroupedNotificationsToWritableArray(notification.getGroupKey(), groupedNotifications));
+        }
+
+        map.putString("notificationId", notification.getNotificationId());
+        map.putString("title", notification.getTitle());
+
+        putIfNotNull(map, "body", notification.getBody());
+        putIfNotNull(map, "smallIcon", notification.getSmallIcon());
+        putIfNotNull(map, "largeIcon", notification.getLargeIcon());
+        putIfNotNull(map, "bigPicture", notification.getBigPicture());
+        putIfNotNull(map, "smallIconAccentColor", notification.getSmallIconAccentColor());
+        putIfNotNull(map, "launchURL", notification.getLaunchURL());
+        putIfNotNull(map, "sound", notification.getSound());
+        putIfNotNull(map, "ledColor", notification.getLedColor());
+        map.putInt("lockScreenVisibility", notification.getLockScreenVisibility());
+        putIfNotNull(map, "groupKey", notification.getGroupKey());
+        putIfNotNull(map, "groupMessage", notification.getGroupMessage());
+        putIfNotNull(map, "fromProjectNumber", notification.getFromProjectNumber());
+        putIfNotNull(map, "collapseId", notification.getCollapseId());
+        map.putInt("priority", notification.getPriority());
+
+        JSONObject additionalData = notification.getAdditionalData();
+        if (additionalDataJson != null) {
+            map.putString("additionalDataJson", additionalDataJson);
+        } else if (additionalData != null && additionalData.length() > 0) {
+            map.putMap("additionalData", convertJSONObjectToWritableMap(additionalData));
+        }
+
+        List<IActionButton> actionButtons = notification.getActionButtons();
+        if (actionButtons != null) {
+            map.putArray("actionButtons", convertActionButtonsToWritableArray(actionButtons));
+        }
+        if (includeRawPayload) {
+            map.putString("rawPayload", notification.getRawPayload());
+        }
+
+        return map;
+    }
+
+    /**
+     * Single-pass equivalent of {@code convertHashMapToWritableMap(convertNotificationToMap(notification))}: writes
+     * the notification and its additional data straight into a {@link WritableMap}. Reads only the fields in the
+     * options' projection, if there is one, and sends additionalData as a JSON string under
+     * {@code additionalDataJson} when their JSON encoding says so. When it encodes the whole notification and
+     * nothing is projected, the map only holds {@code notificationJson}.
+     */
+    public static WritableMap convertNotificationToWritableMap(
+            INotification notification, NotificationConversionOptions options) throws JSONException {
+        boolean includeRawPayload = options.includesRawPayload();
+        NotificationProjection projection = options.getProjection();
+        NotificationJsonEncoding jsonEncoding = options.getJsonEncoding();
+        String additionalDataJson = jsonEncoding.encodeAdditionalData(notification, projection);
+        if (additionalDataJson != null && projection == null && jsonEncoding.encodesWholeNotification()) {
+            WritableMap map = createMap();
+            map.putString(
+                    "notificationJson",
+                    convertNotificationToJSONString(notification, includeRawPayload, additionalDataJson));
+            return map;
+        }
+        if (projection == null) {
+            return writeNotification(notification, includeRawPayload, additionalDataJson);
+        }
+
+        WritableMap map = createMap();
+        for (String field : projection.fields()) {
+            switch (field) {
+                case "androidNotificationId":
+                    map.putInt(field, notification.getAndroidNotificationId());
+                    break;
+                case "notificationId":
+                    map.putString(field, notification.getNotificationId());
+                    break;
+                case "title":
+                    map.putString(field, notification.getTitle());
+                    break;
+                case "body":
+                    putIfNotNull(map, field, notification.getBody());
+                    break;
+                case "smallIcon":
+                    putIfNotNull(map, field, notification.getSmallIcon());
+                    break;
+                case "largeIcon":
+                    putIfNotNull(map, field, notification.getLargeIcon());
+                    break;
+                case "bigPicture":
+                    putIfNotNull(map, field, notification.getBigPicture());
+                    break;
+                case "smallIconAccentColor":
+                    putIfNotNull(map, field, notification.getSmallIconAccentColor());
+                    break;
+                case "launchURL":
+                    putIfNotNull(map, field, notification.getLaunchURL());
+                    break;
+                case "sound":
+                    putIfNotNull(map, field, notification.getSound());
+                    break;
+                case "ledColor":
+                    putIfNotNull(map, field, notification.getLedColor());
+                    break;
+                case "lockScreenVisibility":
+                    map.putInt(field, notification.getLockScreenVisibility());
+                    break;
+                case "groupKey":
+                    putIfNotNull(map, field, notification.getGroupKey());
+                    break;
+                case "groupMessage":
+                    putIfNotNull(map, field, notification.getGroupMessage());
+                    break;
+                case "fromProjectNumber":
+                    putIfNotNull(map, field, notification.getFromProjectNumber());
+                    break;
+                case "collapseId":
+                    putIfNotNull(map, field, notification.getCollapseId());
+                    break;
+                case "priority":
+                    map.putInt(field, notification.getPriority());
+                    break;
+                case "groupedNotifications":
+                    List<INotification> groupedNotifications = notification.getGroupedNotifications();
+                    if (groupedNotifications != null) {
+                        map.putArray(
+                                field,
+                                convertGroupedNotificationsToWritableArray(
+                                        notification.getGroupKey(), groupedNotifications));
+                    }
+                    break;
+                case "additionalData":
+                    JSONObject additionalData = notification.getAdditionalData();
+                    if (additionalDataJson != null) {
+                        map.putString("additionalDataJson", additionalDataJson);
+                    } else if (additionalData != null && additionalData.length() > 0) {
+                        map.putMap(field, convertJSONObjectToWritableMap(additionalData, projection.child(field)));
+                    }
+                    break;
+                case "actionButtons":
+                    List<IActionButton> actionButtons = notification.getActionButtons();
+                    if (actionButtons != null) {
+                        map.putArray(field, convertActionButtonsToWritableArray(actionButtons));
+                    }
+                    break;
+                case "rawPayload":
+                    if (includeRawPayload) {
+                        map.putString(field, notification.getRawPayload());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return map;
+    }
+
+    /**
+     * The JSON form of the map {@link #convertNotificationToWritableMap(INotification, NotificationConversionOptions)}
+     * builds. The already serialized additionalData is spliced in rather than serialized a second time.
+     */
+    private static String convertNotificationToJSONString(
+            INotification notification, boolean includeRawPayload, String additionalDataJson) throws JSONException {
+        // Never empty, since notificationId is always there, so it ends in a bare '}'.
+        String fields = convertNotificationFieldsToJSONObject(notification, includeRawPayload).toString();
+        return fields.substring(0, fields.length() - 1) + ",\"additionalData\":" + additionalDataJson + "}";
+    }
+
+    /** Every field of the JSON form except additionalData. */
+    private static JSONObject convertNotificationFieldsToJSONObject(
+            INotification notification, boolean includeRawPayload) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("androidNotificationId", notification.getAndroidNotificationId());
+
+        List<INotification> groupedNotifications = notification.getGroupedNotifications();
+        if (groupedNotifications != null) {
+            json.put("groupedNotifications", convertGroupedNotificationsToJSONArray(groupedNotifications));
+        }
+
+        putOrNull(json, "notificationId", notification.getNotificationId());
+        putOrNull(json, "title", notification.getTitle());
+
+        // JSONObject.put drops null values, matching putIfNotNull.
+        json.put("body", notification.getBody());
+        json.put("smallIcon", notification.getSmallIcon());
+        json.put("largeIcon", notification.getLargeIcon());
+        json.put("bigPicture", notification.getBigPicture());
+        json.put("smallIconAccentColor", notification.getSmallIconAccentColor());
+        json.put("launchURL", notification.getLaunchURL());
+        json.put("sound", notification.getSound());
+        json.put("ledColor", notification.getLedColor());
+        json.put("lockScreenVisibility", notification.getLockScreenVisibility());
+        json.put("groupKey", notification.getGroupKey());
+        json.put("groupMessage", notification.getGroupMessage());
+        json.put("fromProjectNumber", notification.getFromProjectNumber());
+        json.put("collapseId", notification.getCollapseId());
+        json.put("priority", notification.getPriority());
+
+        List<IActionButton> actionButtons = notification.getActionButtons();
+        if (actionButtons != null) {
+            json.put("actionButtons", convertActionButtonsToJSONArray(actionButtons));
+        }
+        if (includeRawPayload) {
+            putOrNull(json, "rawPayload", notification.getRawPayload());
+        }
+        return json;
+    }
+
+    private static void putOrNull(JSONObject json, String key, @Nullable String value) throws JSONException {
+        json.put(key, value != null ? value : JSONObject.NULL);
+    }
+
+    /** Converts a JSON object straight into a {@link WritableMap}, skipping null members. */
+    public static WritableMap convertJSONObjectToWritableMap(JSONObject object) throws JSONException {
+        WritableMap map = createMap();
+
+        if (object == null || object == JSONObject.NULL) return map;
+
+        Iterator<String> keys = object.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            putJSONValue(map, key, object.opt(key));
+        }
+
+        return map;
+    }
+
+    /**
+     * Converts only the keys of {@code object} that {@code selection} lists, or all of them if it is null. A path
+     * that continues below a value that is not an object selects nothing.
+     */
+    public static WritableMap convertJSONObjectToWritableMap(
+            JSONObject object, @Nullable NotificationProjection selection) throws JSONException {
+        if (selection == null) {
+            return convertJSONObjectToWritableMap(object);
+        }
+
+        WritableMap map = createMap();
+        for (String key : selection.fields()) {
+            Object value = object.opt(key);
+            if (value == null) {
+                continue;
+            }
+            NotificationProjection childSelection = selection.child(key);
+            if (childSelection == null) {
+                putJSONValue(map, key, value);
+            } else if (value instanceof JSONObject) {
+                map.putMap(key, convertJSONObjectToWritableMap((JSONObject) value, childSelection));
+            }
+        }
+
+        return map;
+    }
+
+    private static void putJSONValue(WritableMap map, String key, Object value) throws JSONException {
+        switch (jsonValueType(value)) {
+            case VALUE_TYPE_STRING:
+                map.putString(key, (String) value);
+                break;
+            case VALUE_TYPE_BOOLEAN:
+                map.putBoolean(key, (Boolean) value);
+                break;
+            case VALUE_TYPE_INTEGER:
+                map.putInt(key, (Integer) value);
+                break;
+            case VALUE_TYPE_LONG:
+            case VALUE_TYPE_DOUBLE:
+            case VALUE_TYPE_FLOAT:
+                map.putDouble(key, ((Number) value).doubleValue());
+                break;
+            case VALUE_TYPE_JSON_OBJECT:
+                map.putMap(key, convertJSONObjectToWritableMap((JSONObject) value));
+                break;
+            case VALUE_TYPE_JSON_ARRAY:
+                map.putArray(key, convertJSONArrayToWritableArray((JSONArray) value));
+                break;
+            case VALUE_TYPE_NULL:
+                break;
+            default:
+                map.putNull(key);
+                break;
+        }
+    }
+
+    /** Converts a JSON array straight into a {@link WritableArray}, keeping null elements. */
+    public static WritableArray convertJSONArrayToWritableArray(JSONArray array) throws JSONException {
+        WritableArray writableArray = createArray();
+
+        for (int i = 0; i < array.length(); i++) {
+            Object value = array.opt(i);
+
+            switch (jsonValueType(value)) {
+                case VALUE_TYPE_STRING:
+                    writableArray.pushString((String) value);
+                    break;
+                case VALUE_TYPE_BOOLEAN:
+                    writableArray.pushBoolean((Boolean) value);
+                    break;
+                case VALUE_TYPE_INTEGER:
+                    writableArray.pushInt((Integer) value);
+                    break;
+                case VALUE_TYPE_LONG:
+                case VALUE_TYPE_DOUBLE:
+                case VALUE_TYPE_FLOAT:
+                    writableArray.pushDouble(((Number) value).doubleValue());
+                    break;
+                case VALUE_TYPE_JSON_OBJECT:
+                    writableArray.pushMap(convertJSONObjectToWritableMap((JSONObject) value));
+                    break;
+                case VALUE_TYPE_JSON_ARRAY:
+                    writableArray.pushArray(convertJSONArrayToWritableArray((JSONArray) value));
+                    break;
+                default:
+                    writableArray.pushNull();
+                    break;
+            }
+        }
+
+        return writableArray;
+    }
+
+    private static int jsonValueType(Object value) {
+        if (value == null) return VALUE_TYPE_NULL;
+        Integer type = JSON_VALUE_TYPES.get(value.getClass());
+        return type != null ? type : VALUE_TYPE_OTHER;
+    }
+
+    private static void putIfNotNull(WritableMap map, String key, String value) {
+        if (value != null) map.putString(key, value);
+    }
+
+    /**
+     * Converts the children of a summary notification, up to the limit set on {@link GroupedNotificationCache}.
+     * Children are sent without their rawPayload, and children already converted for the same group are reused.
+     */
+    private static WritableArray convertGroupedNotificationsToWritableArray(
+            @Nullable String groupKey, List<INotification> children) throws JSONException {
+        return groupedNotificationCache.convert(groupKey, children, RNUtils::convertGroupedChildToMap);
+    }
+
+    private static HashMap<String, Object> convertGroupedChildToMap(INotification child) throws JSONException {
+        HashMap<String, Object> map = convertNotificationToMap(child);
+        map.remove("rawPayload");
+        return map;
+    }
+
+    private static JSONArray convertGroupedNotificationsToJSONArray(List<INotification> children)
+            throws JSONException {
+        JSONArray array = new JSONArray();
+        int count = Math.min(children.size(), groupedNotificationCache.getLimit());
+        for (int i = 0; i < count; i++) {
+            INotification child = children.get(i);
+            JSONObject json = convertNotificationFieldsToJSONObject(child, false);
+            JSONObject additionalData = child.getAdditionalData();
+            if (additionalData != null && additionalData.length() > 0) {
+                json.put("additionalData", additionalData);
+            }
+            array.put(json);
+        }
+        return array;
+    }
+
+    private static List<Object> convertGroupedNotificationsToList(List<INotification> children)
+            throws JSONException {
+        List<Object> list = new ArrayList<>();
+        int count = Math.min(children.size(), groupedNotificationCache.getLimit());
+        for (int i = 0; i < count; i++) {
+            list.add(convertGroupedChildToMap(children.get(i)));
+        }
+        return list;
+    }
+
+    private static WritableArray convertActionButtonsToWritableArray(List<IActionButton> buttons) {
+        WritableArray array = createArray();
+        for (IActionButton button : buttons) {
+            WritableMap map = createMap();
+            putIfNotNull(map, "id", button.getId());
+            putIfNotNull(map, "text", button.getText());
+            putIfNotNull(map, "icon", button.getIcon());
+            array.pushMap(map);
+        }
+        return array;
+    }
+
+    private static JSONArray convertActionButtonsToJSONArray(List<IActionButton> buttons) throws JSONException {
+        JSONArray array = new JSONArray();
+        for (IActionButton button : buttons) {
+            JSONObject json = new JSONObject();
+            json.put("id", button.getId());
+            json.put("text", button.getText());
+            json.put("icon", button.getIcon());
+            array.put(json);
+        }
+        return array;
+    }
+
+    private static List<Object> convertActionButtonsToList(List<IActionButton> buttons) {
+        List<Object> list = new ArrayList<>();
+        for (IActionButton button : buttons) {
+            HashMap<String, Object> hash = new HashMap<>();
+            if (button.getId() != null) hash.put("id", button.getId());
+            if (button.getText() != null) hash.put("text", button.getText());
+            if (button.getIcon() != null) hash.put("icon", button.getIcon());
+            list.add(hash);
+        }
+        return list;
+    }
+
     private static HashMap<String, Object> convertInAppMessageToMap(IInAppMessage message) {
         HashMap<String, Object> hash = new HashMap<>();
         hash.put("messageId", message.getMessageId());
@@ -292,7 +796,7 @@ public class RNUtils {
     }
 
     private static WritableArray convertListToWritableArray(List<Object> list) throws JSONException {
-        WritableArray writableArray = Arguments.createArray();
+        WritableArray writableArray = createArray();
         for (Object item : list) {
             if (item instanceof String) {
                 writableArray.pushString((String) item);
@@ -0,0 +1,104 @@
+package com.onesignal.rnonesignalandroid;
+
+import com.onesignal.debug.internal.logging.Logging;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the bridge methods that change SDK state on one background thread, so slow SDK work does not hold up the
+ * thread other native module calls share. Operations run one at a time, in the order they were queued. A failing
+ * operation is logged and does not stop the ones after it.
+ */
+public class SdkOperationQueue {
+    private volatile Thread thread;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "OneSignal-RN-Operations");
+        thread.setDaemon(true);
+        this.thread = thread;
+        return thread;
+    });
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /** Queues an operation. Failures are logged. */
+    public void execute(String name, Runnable operation) {
+        submit(name, operation);
+    }
+
+    /** Runs {@code callback} on the queue's thread once every operation queued so far has run. */
+    public void whenIdle(Runnable callback) {
+        try {
+            executor.execute(callback);
+        } catch (RejectedExecutionException e) {
+            // Shut down, so nothing is left to wait for.
+            callback.run();
+        }
+    }
+
+    /** Waits until every operation queued so far has run, or the timeout passes. Returns false on timeout. */
+    public boolean flush(long timeoutMs) {
+        if (Thread.currentThread() == thread) {
+            return true;
+        }
+
+        CountDownLatch idle = new CountDownLatch(1);
+        whenIdle(idle::countDown);
+        try {
+            return idle.await(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /** Runs what is already queued, waiting up to {@code timeoutMs}, then stops accepting operations. */
+    public void shutdown(long timeoutMs) {
+        flush(timeoutMs);
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return "completed=" + completedCount.get() + ", failed=" + failedCount.get() + ", pending="
+                + pendingCount.get();
+    }
+
+    /**
+     * Queues an operation without waiting for it. Returns what completes once it has run, or null if the queue is
+     * shut down. Failures are logged.
+     */
+    public Future<?> submit(String name, Runnable operation) {
+        pendingCount.incrementAndGet();
+        try {
+            return executor.submit(() -> run(name, operation));
+        } catch (RejectedExecutionException e) {
+            pendingCount.decrementAndGet();
+            Logging.warn("SDK operation queue is shut down, dropped " + name, null);
+            return null;
+        }
+    }
+
+    private void run(String name, Runnable operation) {
+        try {
+            operation.run();
+            completedCount.incrementAndGet();
+        } catch (RuntimeException e) {
+            failedCount.incrementAndGet();
+            Logging.error("Failed to run " + name, e);
+        } finally {
+            pendingCount.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.onesignal.rnonesignalandroid;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable copy of the user, push subscription, permission and in-app message state that the JS getters ask
+ * for. RNOneSignal swaps in a new instance whenever one of its SDK observers fires or JS writes a value, so the
+ * getters can answer without going back to the SDK. The user IDs are read back from the SDK after each login and
+ * logout, and updated again when the SDK reports the user. {@code tags} is null until it has been read from the SDK,
+ * and is reset on login, logout and every user state change, since the SDK may fetch newer tags from the backend.
+ */
+public final class StateSnapshot {
+    public final String onesignalId;
+    public final String externalId;
+    public final String pushSubscriptionId;
+    public final String pushSubscriptionToken;
+    public final boolean optedIn;
+    public final boolean permission;
+    public final boolean paused;
+    public final Map<String, String> tags;
+
+    public StateSnapshot(
+            String onesignalId,
+            String externalId,
+            String pushSubscriptionId,
+            String pushSubscriptionToken,
+            boolean optedIn,
+            boolean permission,
+            boolean paused,
+            Map<String, String> tags) {
+        this.onesignalId = emptyToNull(onesignalId);
+        this.externalId = emptyToNull(externalId);
+        this.pushSubscriptionId = emptyToNull(pushSubscriptionId);
+        this.pushSubscriptionToken = emptyToNull(pushSubscriptionToken);
+        this.optedIn = optedIn;
+        this.permission = permission;
+        this.paused = paused;
+        this.tags = tags != null ? Collections.unmodifiableMap(new HashMap<>(tags)) : null;
+    }
+
+    public StateSnapshot withUser(String onesignalId, String externalId) {
+        boolean sameUser = equal(emptyToNull(onesignalId), this.onesignalId)
+                && equal(emptyToNull(externalId), this.externalId);
+        return new StateSnapshot(
+                onesignalId,
+                externalId,
+                pushSubscriptionId,
+                pushSubscriptionToken,
+                optedIn,
+                permission,
+                paused,
+                sameUser ? tags : null);
+    }
+
+    public StateSnapshot withPushSubscription(String id, String token, boolean optedIn) {
+        return new StateSnapshot(onesignalId, externalId, id, token, optedIn, permission, paused, tags);
+    }
+
+    public StateSnapshot withOptedIn(boolean optedIn) {
+        return withPushSubscription(pushSubscriptionId, pushSubscriptionToken, optedIn);
+    }
+
+    public StateSnapshot withPermission(boolean permission) {
+        return new StateSnapshot(
+                onesignalId,
+                externalId,
+                pushSubscriptionId,
+                pushSubscriptionToken,
+                optedIn,
+                permission,
+                paused,
+                tags);
+    }
+
+    public StateSnapshot withPaused(boolean paused) {
+        return new StateSnapshot(
+                onesignalId,
+                externalId,
+                pushSubscriptionId,
+                pushSubscriptionToken,
+                optedIn,
+                permission,
+                paused,
+                tags);
+    }
+
+    public StateSnapshot withTags(Map<String, String> tags) {
+        return new StateSnapshot(
+                onesignalId,
+                externalId,
+                pushSubscriptionId,
+                pushSubscriptionToken,
+                optedIn,
+                permission,
+                paused,
+                tags);
+    }
+
+    /** Applies local tag writes. Does nothing until the tags have been read from the SDK once. */
+    public StateSnapshot withTagChanges(Map<String, String> added, Collection<String> removed) {
+        if (tags == null) {
+            return this;
+        }
+        HashMap<String, String> updated = new HashMap<>(tags);
+        if (removed != null) {
+            updated.keySet().removeAll(removed);
+        }
+        if (added != null) {
+            updated.putAll(added);
+        }
+        return withTags(updated);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
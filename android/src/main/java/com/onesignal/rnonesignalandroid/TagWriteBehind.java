@@ -0,0 +1,142 @@
+package com.onesignal.rnonesignalandroid;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional write-behind buffer for tag changes. While a coalescing window is set, tag writes are merged in memory
+ * (the last write per key wins, and a remove cancels a pending add of the same key) and handed to the SDK as at
+ * most one {@code removeTags} and one {@code addTags} call when the window closes. With a window of 0, every
+ * write goes straight to the SDK as before.
+ */
+public class TagWriteBehind {
+    public interface TagWriter {
+        void addTags(Map<String, String> tags);
+
+        void removeTags(Collection<String> keys);
+    }
+
+    private final TagWriter writer;
+    private final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "OneSignal-RN-TagWriteBehind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LinkedHashMap<String, String> pendingAdds = new LinkedHashMap<>();
+    private final LinkedHashSet<String> pendingRemoves = new LinkedHashSet<>();
+    private long windowMs = 0;
+    private boolean flushScheduled = false;
+
+    private long writeCount = 0;
+    private long flushedCallCount = 0;
+
+    public TagWriteBehind(TagWriter writer) {
+        this.writer = writer;
+    }
+
+    /** Sets the coalescing window. Setting it to 0 flushes anything pending and goes back to writing through. */
+    public synchronized void setWindow(long windowMs) {
+        this.windowMs = Math.max(windowMs, 0);
+        if (this.windowMs == 0) {
+            flush();
+        }
+    }
+
+    /** Returns false if the caller should write the tag to the SDK directly. */
+    public synchronized boolean addTag(String key, String value) {
+        if (windowMs == 0) {
+            return false;
+        }
+        pendingRemoves.remove(key);
+        pendingAdds.put(key, value);
+        onWrite();
+        return true;
+    }
+
+    /** Returns false if the caller should write the tags to the SDK directly. */
+    public synchronized boolean addTags(Map<String, String> tags) {
+        if (windowMs == 0) {
+            return false;
+        }
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            pendingRemoves.remove(tag.getKey());
+            pendingAdds.put(tag.getKey(), tag.getValue());
+        }
+        onWrite();
+        return true;
+    }
+
+    /** Returns false if the caller should remove the tag from the SDK directly. */
+    public synchronized boolean removeTag(String key) {
+        if (windowMs == 0) {
+            return false;
+        }
+        pendingAdds.remove(key);
+        pendingRemoves.add(key);
+        onWrite();
+        return true;
+    }
+
+    /** Returns false if the caller should remove the tags from the SDK directly. */
+    public synchronized boolean removeTags(Collection<String> keys) {
+        if (windowMs == 0) {
+            return false;
+        }
+        for (String key : keys) {
+            pendingAdds.remove(key);
+            pendingRemoves.add(key);
+        }
+        onWrite();
+        return true;
+    }
+
+    /** Writes everything pending to the SDK now. */
+    public synchronized void flush() {
+        flushScheduled = false;
+        // A key is never pending in both collections, so the order of the two calls does not matter.
+        if (!pendingRemoves.isEmpty()) {
+            writer.removeTags(new ArrayList<>(pendingRemoves));
+            pendingRemoves.clear();
+            flushedCallCount++;
+        }
+        if (!pendingAdds.isEmpty()) {
+            writer.addTags(new LinkedHashMap<>(pendingAdds));
+            pendingAdds.clear();
+            flushedCallCount++;
+        }
+    }
+
+    public synchronized boolean hasPendingWrites() {
+        return !pendingAdds.isEmpty() || !pendingRemoves.isEmpty();
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingAdds.size() + pendingRemoves.size();
+    }
+
+    public synchronized void shutdown() {
+        flush();
+        flushScheduler.shutdownNow();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "windowMs=" + windowMs + ", writes=" + writeCount + ", sdkCalls=" + flushedCallCount + ", pending="
+                + (pendingAdds.size() + pendingRemoves.size());
+    }
+
+    private void onWrite() {
+        writeCount++;
+        if (!flushScheduled) {
+            flushScheduled = true;
+            flushScheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+}
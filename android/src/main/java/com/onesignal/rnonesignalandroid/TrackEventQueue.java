@@ -0,0 +1,264 @@
+package com.onesignal.rnonesignalandroid;
+
+import androidx.annotation.Nullable;
+import com.facebook.react.bridge.WritableMap;
+import com.onesignal.debug.internal.logging.Logging;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded queue between JS and {@code trackEvent}. Callers only enqueue; a single background thread hands each
+ * event to the SDK operation queue, in call order, and waits for it to run before taking the next. When the queue
+ * is full the overflow policy decides whether the oldest event is dropped, the new event is dropped, or the caller
+ * waits for space. The default drops the oldest event, since waiting would hold up the native modules thread.
+ */
+public class TrackEventQueue {
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        DROP_NEWEST,
+        BLOCK;
+
+        /** Parses the policy names used by the JS API, such as {@code "dropOldest"}. */
+        public static @Nullable OverflowPolicy fromName(String name) {
+            switch (name) {
+                case "dropOldest":
+                    return DROP_OLDEST;
+                case "dropNewest":
+                    return DROP_NEWEST;
+                case "block":
+                    return BLOCK;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    public interface EventSubmitter {
+        /** Makes the SDK call. Runs on the operation queue. */
+        void trackEvent(String name, Map<String, Object> properties);
+    }
+
+    private static final class PendingEvent {
+        final String name;
+        final Map<String, Object> properties;
+
+        PendingEvent(String name, Map<String, Object> properties) {
+            this.name = name;
+            this.properties = properties;
+        }
+    }
+
+    private final EventSubmitter submitter;
+    private final SdkOperationQueue operations;
+    private final ExecutorService consumer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "OneSignal-RN-TrackEvent");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ArrayDeque<PendingEvent> queue = new ArrayDeque<>();
+    private int capacity = DEFAULT_CAPACITY;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+    private boolean draining = false;
+    private boolean shutdown = false;
+
+    private long queuedCount = 0;
+    private long droppedCount = 0;
+    private long submittedCount = 0;
+    private long failedCount = 0;
+
+    public TrackEventQueue(EventSubmitter submitter, SdkOperationQueue operations) {
+        this.submitter = submitter;
+        this.operations = operations;
+    }
+
+    public synchronized void configure(int capacity, OverflowPolicy overflowPolicy) {
+        this.capacity = Math.max(capacity, 1);
+        this.overflowPolicy = overflowPolicy;
+        while (queue.size() > this.capacity) {
+            queue.removeFirst();
+            droppedCount++;
+        }
+        // Callers blocked on a full queue re-check against the new capacity and policy.
+        notifyAll();
+    }
+
+    /**
+     * Queues the event for submission. Returns false if it was dropped. {@code properties} must already be a copy:
+     * bridge arguments are only valid for the duration of the call.
+     */
+    public synchronized boolean enqueue(String name, Map<String, Object> properties) {
+        while (!shutdown && queue.size() >= capacity) {
+            if (overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                droppedCount++;
+                return false;
+            }
+            if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+                queue.removeFirst();
+                droppedCount++;
+                break;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedCount++;
+                return false;
+            }
+        }
+        if (shutdown) {
+            droppedCount++;
+            return false;
+        }
+
+        queue.addLast(new PendingEvent(name, properties));
+        queuedCount++;
+        if (!draining) {
+            draining = true;
+            consumer.execute(this::drain);
+        }
+        return true;
+    }
+
+    /**
+     * Hands every queued event to the operation queue, then runs {@code next}, which queues the operation that has
+     * to follow them, such as a login. Does not wait for the events to reach the SDK.
+     */
+    public synchronized void handOffPending(Runnable next) {
+        PendingEvent event;
+        while ((event = queue.pollFirst()) != null) {
+            handOff(event);
+        }
+        // Wakes callers blocked on a full queue.
+        notifyAll();
+        next.run();
+    }
+
+    /**
+     * Waits until every event queued so far has been submitted, or the timeout passes. Returns false on timeout.
+     */
+    public synchronized boolean flush(long timeoutMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (draining) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) {
+                return false;
+            }
+            try {
+                wait(remainingMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public synchronized int getPendingCount() {
+        return queue.size();
+    }
+
+    public synchronized void resetCounters() {
+        queuedCount = 0;
+        droppedCount = 0;
+        submittedCount = 0;
+        failedCount = 0;
+    }
+
+    /** Returns {@code {queued, dropped, submitted, failed, pending}}. */
+    public synchronized WritableMap toWritableMap() {
+        WritableMap map = RNUtils.createMap();
+        map.putDouble("queued", queuedCount);
+        map.putDouble("dropped", droppedCount);
+        map.putDouble("submitted", submittedCount);
+        map.putDouble("failed", failedCount);
+        map.putDouble("pending", queue.size());
+        return map;
+    }
+
+    /** Submits what is already queued, waiting up to {@code timeoutMs}, then stops accepting events. */
+    public void shutdown(long timeoutMs) {
+        flush(timeoutMs);
+        synchronized (this) {
+            shutdown = true;
+            droppedCount += queue.size();
+            queue.clear();
+            notifyAll();
+        }
+        consumer.shutdownNow();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "capacity=" + capacity + ", policy=" + overflowPolicy + ", queued=" + queuedCount + ", dropped="
+                + droppedCount + ", submitted=" + submittedCount + ", failed=" + failedCount + ", pending="
+                + queue.size();
+    }
+
+    private void drain() {
+        while (true) {
+            Future<?> submission;
+            synchronized (this) {
+                PendingEvent event = queue.pollFirst();
+                if (event == null) {
+                    draining = false;
+                    // Wakes flush() callers.
+                    notifyAll();
+                    return;
+                }
+                // Wakes callers blocked on a full queue.
+                notifyAll();
+                // Handed off under the lock, so handOffPending cannot queue anything between the events.
+                submission = handOff(event);
+            }
+
+            // Waited for outside the lock: a busy operation queue holds back this thread, and through the bounded
+            // queue the callers, rather than the operation queued after the events.
+            if (submission == null) {
+                continue;
+            }
+            try {
+                submission.get();
+            } catch (ExecutionException e) {
+                // Already counted and logged by submit.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                synchronized (this) {
+                    draining = false;
+                    notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    // Called with the lock held.
+    private @Nullable Future<?> handOff(PendingEvent event) {
+        Future<?> submission = operations.submit("trackEvent", () -> submit(event));
+        if (submission == null) {
+            failedCount++;
+        }
+        return submission;
+    }
+
+    private void submit(PendingEvent event) {
+        try {
+            submitter.trackEvent(event.name, event.properties);
+            synchronized (this) {
+                submittedCount++;
+            }
+        } catch (RuntimeException e) {
+            Logging.error("Failed to submit trackEvent: " + event.name, e);
+            synchronized (this) {
+                failedCount++;
+            }
+        }
+    }
+}
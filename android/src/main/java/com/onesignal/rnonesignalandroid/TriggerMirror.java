@@ -0,0 +1,127 @@
+package com.onesignal.rnonesignalandroid;
+
+import androidx.annotation.Nullable;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.ReadableType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The in-app message triggers last sent to the SDK. Every trigger change makes the SDK re-evaluate its in-app
+ * messages, so {@link #replace} turns a complete trigger set into just the keys that were added, changed or
+ * removed, and into nothing at all when the set is unchanged.
+ *
+ * <p>Only triggers set through RNOneSignal are known here; triggers set on the SDK directly by native code are
+ * not.
+ */
+public class TriggerMirror {
+    /** What {@link #replace} has to send to the SDK. */
+    public static final class Diff {
+        public final Map<String, String> changed;
+        public final Collection<String> removed;
+
+        Diff(Map<String, String> changed, Collection<String> removed) {
+            this.changed = changed;
+            this.removed = removed;
+        }
+    }
+
+    private final Map<String, String> triggers = new HashMap<>();
+
+    /**
+     * Makes {@code newTriggers} the current triggers and returns how they differ from the previous ones, or null if
+     * they do not. Non-string values are skipped, as {@link RNUtils#convertReadableMapIntoStringMap} does, so a key
+     * whose value is no longer a string counts as removed.
+     */
+    public synchronized @Nullable Diff replace(ReadableMap newTriggers) {
+        Map<String, String> changed = Collections.emptyMap();
+        int unchanged = 0;
+        ReadableMapKeySetIterator iterator = newTriggers.keySetIterator();
+        while (iterator.hasNextKey()) {
+            String key = iterator.nextKey();
+            if (newTriggers.getType(key) != ReadableType.String) {
+                continue;
+            }
+            String value = newTriggers.getString(key);
+            if (value.equals(triggers.get(key))) {
+                unchanged++;
+            } else {
+                if (changed.isEmpty()) {
+                    changed = new HashMap<>();
+                }
+                changed.put(key, value);
+            }
+        }
+
+        // Every current key is still there with the same value, and nothing was added.
+        if (changed.isEmpty() && unchanged == triggers.size()) {
+            return null;
+        }
+
+        List<String> removed = new ArrayList<>();
+        if (unchanged + countExisting(changed) < triggers.size()) {
+            Set<String> kept = stringKeys(newTriggers);
+            for (String key : triggers.keySet()) {
+                if (!kept.contains(key)) {
+                    removed.add(key);
+                }
+            }
+            triggers.keySet().removeAll(removed);
+        }
+        triggers.putAll(changed);
+        return new Diff(changed, removed);
+    }
+
+    public synchronized void put(String key, String value) {
+        triggers.put(key, value);
+    }
+
+    public synchronized void putAll(Map<String, String> values) {
+        triggers.putAll(values);
+    }
+
+    public synchronized void remove(String key) {
+        triggers.remove(key);
+    }
+
+    public synchronized void removeAll(Collection<String> keys) {
+        triggers.keySet().removeAll(keys);
+    }
+
+    public synchronized void clear() {
+        triggers.clear();
+    }
+
+    public synchronized int size() {
+        return triggers.size();
+    }
+
+    private int countExisting(Map<String, String> changed) {
+        int count = 0;
+        for (String key : changed.keySet()) {
+            if (triggers.containsKey(key)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Set<String> stringKeys(ReadableMap map) {
+        Set<String> keys = new HashSet<>();
+        ReadableMapKeySetIterator iterator = map.keySetIterator();
+        while (iterator.hasNextKey()) {
+            String key = iterator.nextKey();
+            if (map.getType(key) == ReadableType.String) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,175 @@
+package com.onesignal.rnonesignalandroid;
+
+import android.content.Context;
+import com.onesignal.debug.IDebugManager;
+import com.onesignal.inAppMessages.IInAppMessagesManager;
+import com.onesignal.location.ILocationManager;
+import com.onesignal.notifications.INotificationsManager;
+import com.onesignal.session.ISessionManager;
+import com.onesignal.user.IUserManager;
+import com.onesignal.user.subscriptions.IPushSubscription;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory {@link OneSignalSdk}. Listeners and observers the module registers are kept so tests can fire SDK
+ * callbacks at them, every other manager call is counted, and getters answer from {@link #stub}.
+ */
+final class FakeOneSignalSdk implements OneSignalSdk {
+    // Keyed by the registration method's parameter type: RNOneSignal registers itself as several kinds of observer.
+    private final Map<Class<?>, List<Object>> listeners = new ConcurrentHashMap<>();
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> callCounts = new ConcurrentHashMap<>();
+    private final List<String> callLog = new ArrayList<>();
+
+    private final INotificationsManager notifications = manager(INotificationsManager.class);
+    private final IInAppMessagesManager inAppMessages = manager(IInAppMessagesManager.class);
+    private final IPushSubscription pushSubscription = manager(IPushSubscription.class);
+    private final IUserManager user = manager(IUserManager.class);
+    private final ISessionManager session = manager(ISessionManager.class);
+    private final ILocationManager location = manager(ILocationManager.class);
+    private final IDebugManager debug = manager(IDebugManager.class);
+
+    FakeOneSignalSdk() {
+        stub("IUserManager.getPushSubscription", pushSubscription);
+    }
+
+    /** Sets what a manager method returns, keyed as {@code "IUserManager.getExternalId"}. */
+    FakeOneSignalSdk stub(String method, Object value) {
+        values.put(method, value);
+        return this;
+    }
+
+    /** Listeners and observers registered as the given type, in registration order. */
+    <T> List<T> listeners(Class<T> type) {
+        List<T> result = new ArrayList<>();
+        for (Object listener : listeners.getOrDefault(type, Collections.emptyList())) {
+            result.add(type.cast(listener));
+        }
+        return result;
+    }
+
+    /** Every SDK method called, in call order, keyed like {@link #stub}. */
+    List<String> callLog() {
+        synchronized (callLog) {
+            return new ArrayList<>(callLog);
+        }
+    }
+
+    long callCount(String method) {
+        AtomicLong count = callCounts.get(method);
+        return count != null ? count.get() : 0;
+    }
+
+    @Override
+    public void initWithContext(Context context, String appId) {
+        count("OneSignal.initWithContext");
+    }
+
+    @Override
+    public void login(String externalId) {
+        count("OneSignal.login");
+    }
+
+    @Override
+    public void logout() {
+        count("OneSignal.logout");
+    }
+
+    @Override
+    public void setConsentGiven(boolean value) {
+        count("OneSignal.setConsentGiven");
+    }
+
+    @Override
+    public void setConsentRequired(boolean required) {
+        count("OneSignal.setConsentRequired");
+    }
+
+    @Override
+    public IDebugManager getDebug() {
+        return debug;
+    }
+
+    @Override
+    public INotificationsManager getNotifications() {
+        return notifications;
+    }
+
+    @Override
+    public IInAppMessagesManager getInAppMessages() {
+        return inAppMessages;
+    }
+
+    @Override
+    public IUserManager getUser() {
+        return user;
+    }
+
+    @Override
+    public ISessionManager getSession() {
+        return session;
+    }
+
+    @Override
+    public ILocationManager getLocation() {
+        return location;
+    }
+
+    private void count(String method) {
+        callCounts.computeIfAbsent(method, key -> new AtomicLong()).incrementAndGet();
+        synchronized (callLog) {
+            callLog.add(method);
+        }
+    }
+
+    private <T> T manager(Class<T> type) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return self == args[0];
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "toString":
+                    return "Fake" + type.getSimpleName();
+                default:
+                    break;
+            }
+
+            String key = type.getSimpleName() + "." + method.getName();
+            count(key);
+            if (isListenerRegistration(method, "add")) {
+                listeners.computeIfAbsent(method.getParameterTypes()[0], k -> new CopyOnWriteArrayList<>())
+                        .add(args[0]);
+                return null;
+            }
+            if (isListenerRegistration(method, "remove")) {
+                listeners.getOrDefault(method.getParameterTypes()[0], Collections.emptyList())
+                        .remove(args[0]);
+                return null;
+            }
+
+            Object value = values.get(key);
+            if (value instanceof SdkFakes.Answer) {
+                value = ((SdkFakes.Answer) value).answer(args != null ? args : new Object[0]);
+            }
+            return value != null ? value : SdkFakes.defaultValue(method.getReturnType());
+        });
+        return type.cast(proxy);
+    }
+
+    private static boolean isListenerRegistration(Method method, String prefix) {
+        if (!method.getName().startsWith(prefix) || method.getParameterCount() != 1) {
+            return false;
+        }
+        String parameterType = method.getParameterTypes()[0].getSimpleName();
+        return parameterType.endsWith("Listener") || parameterType.endsWith("Observer");
+    }
+}
@@ -0,0 +1,31 @@
+package com.onesignal.rnonesignalandroid;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+/** Points RNUtils at JavaOnlyMap/JavaOnlyArray so conversions run without the React Native runtime. */
+final class JvmBridge {
+    private static final RNUtils.BridgeCollectionFactory JAVA_ONLY_FACTORY = new RNUtils.BridgeCollectionFactory() {
+        @Override
+        public WritableMap createMap() {
+            return new JavaOnlyMap();
+        }
+
+        @Override
+        public WritableArray createArray() {
+            return new JavaOnlyArray();
+        }
+    };
+
+    private JvmBridge() {}
+
+    static void install() {
+        RNUtils.setBridgeCollectionFactory(JAVA_ONLY_FACTORY);
+    }
+
+    static void uninstall() {
+        RNUtils.setBridgeCollectionFactory(null);
+    }
+}
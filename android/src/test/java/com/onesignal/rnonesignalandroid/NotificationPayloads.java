@@ -0,0 +1,90 @@
+package com.onesignal.rnonesignalandroid;
+
+import com.onesignal.notifications.INotification;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/** Deterministic notification payloads of increasing size for tests and benchmarks. */
+final class NotificationPayloads {
+    enum Size {
+        /** Title and body only, about 200 bytes of raw payload. */
+        PLAIN_200B(0),
+        /** About 1 KB of nested additionalData. */
+        NESTED_1KB(1024),
+        /** About 2 KB of nested additionalData. */
+        NESTED_2KB(2048),
+        /** About 4 KB of nested additionalData, close to what fits in an FCM message. */
+        NESTED_4KB(4096);
+
+        final int additionalDataBytes;
+
+        Size(int additionalDataBytes) {
+            this.additionalDataBytes = additionalDataBytes;
+        }
+    }
+
+    static final String NOTIFICATION_ID = "a1b2c3d4-e5f6-4711-8899-aabbccddeeff";
+
+    private NotificationPayloads() {}
+
+    static INotification notification(Size size) {
+        return notification(size, NOTIFICATION_ID);
+    }
+
+    static INotification notification(Size size, String notificationId) {
+        try {
+            JSONObject additionalData = additionalData(size.additionalDataBytes);
+
+            JSONObject custom = new JSONObject();
+            custom.put("i", notificationId);
+            if (additionalData.length() > 0) {
+                custom.put("a", additionalData);
+            }
+            JSONObject raw = new JSONObject();
+            raw.put("title", "Your order has shipped");
+            raw.put("alert", "Tap to track your package. It should arrive on Thursday.");
+            raw.put("sound", "default");
+            raw.put("pri", 5);
+            raw.put("custom", custom);
+
+            return SdkFakes.notification(
+                    notificationId,
+                    "Your order has shipped",
+                    "Tap to track your package. It should arrive on Thursday.",
+                    additionalData,
+                    raw.toString());
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Builds nested additional data whose JSON form is at least {@code targetBytes} long. */
+    static JSONObject additionalData(int targetBytes) throws JSONException {
+        JSONObject data = new JSONObject();
+        for (int i = 0; data.toString().length() < targetBytes; i++) {
+            JSONObject meta = new JSONObject();
+            meta.put("source", "campaign-" + i);
+            meta.put("weight", i * 0.25);
+            meta.put("visible", i % 2 == 0);
+
+            JSONArray items = new JSONArray();
+            for (int j = 0; j < 3; j++) {
+                JSONObject item = new JSONObject();
+                item.put("sku", "SKU-" + i + "-" + j);
+                item.put("quantity", j + 1);
+                item.put("price", 9.99 + j);
+                items.put(item);
+            }
+
+            JSONObject section = new JSONObject();
+            section.put("id", i);
+            section.put("label", "section " + i);
+            section.put("deepLink", "myapp://orders/" + i);
+            section.put("meta", meta);
+            section.put("items", items);
+            data.put("section_" + i, section);
+        }
+        return data;
+    }
+}
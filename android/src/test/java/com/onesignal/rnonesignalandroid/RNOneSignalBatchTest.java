@@ -0,0 +1,142 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableArray;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RNOneSignalBatchTest {
+    private static final List<String> WRITES = Arrays.asList(
+            "OneSignal.login",
+            "OneSignal.logout",
+            "IUserManager.addTags",
+            "IUserManager.addEmail",
+            "IUserManager.setLanguage",
+            "ISessionManager.addOutcomeWithValue",
+            "IPushSubscription.optIn");
+
+    private RNOneSignalHarness harness;
+    private final CountDownLatch settled = new CountDownLatch(1);
+    private volatile ReadableArray results;
+    private volatile String rejection;
+
+    @Before
+    public void setUp() {
+        harness = new RNOneSignalHarness();
+        harness.awaitOperations();
+    }
+
+    @After
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Test
+    public void operationsReachTheSdkInBatchOrder() {
+        execute(
+                JavaOnlyArray.of(
+                        OperationBatch.ADD_TAGS, 4,
+                        OperationBatch.LOGIN, 1,
+                        OperationBatch.ADD_EMAIL, 1,
+                        OperationBatch.ADD_OUTCOME_WITH_VALUE, 2,
+                        OperationBatch.OPT_IN, 0),
+                JavaOnlyArray.of("level", "2", "plan", "pro", "user-2", "user@example.com", "revenue", "4.5"));
+
+        assertNull(rejection);
+        assertEquals(5, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertTrue(results.isNull(i));
+        }
+        assertEquals(
+                Arrays.asList(
+                        "IUserManager.addTags",
+                        "OneSignal.login",
+                        "IUserManager.addEmail",
+                        "ISessionManager.addOutcomeWithValue",
+                        "IPushSubscription.optIn"),
+                sdkWrites());
+    }
+
+    @Test
+    public void invalidOperationsAreSkippedAndReported() {
+        execute(
+                JavaOnlyArray.of(
+                        99, 0,
+                        OperationBatch.ADD_TAG, 1,
+                        OperationBatch.ADD_OUTCOME_WITH_VALUE, 2,
+                        OperationBatch.SET_LANGUAGE, 1),
+                JavaOnlyArray.of("level", "revenue", "lots", "de"));
+
+        assertEquals("unknown operation 99", results.getString(0));
+        assertEquals("expected 2 arguments, got 1", results.getString(1));
+        assertEquals("outcome value is not a number: lots", results.getString(2));
+        assertTrue(results.isNull(3));
+        assertEquals(Arrays.asList("IUserManager.setLanguage"), sdkWrites());
+    }
+
+    @Test
+    public void coalescedTagsAndAggregatedOutcomesReachTheSdkBeforeTheBatchResolves() {
+        harness.module.setTagCoalescingWindow(60_000);
+        harness.module.setOutcomeAggregation(true, 60_000);
+
+        execute(
+                JavaOnlyArray.of(OperationBatch.ADD_TAG, 2, OperationBatch.ADD_OUTCOME_WITH_VALUE, 2),
+                JavaOnlyArray.of("level", "2", "revenue", "4.5"));
+
+        assertNull(rejection);
+        assertEquals(Arrays.asList("IUserManager.addTags", "ISessionManager.addOutcomeWithValue"), sdkWrites());
+    }
+
+    @Test
+    public void misalignedArraysRejectTheWholeBatch() {
+        execute(JavaOnlyArray.of(OperationBatch.LOGIN, 1, OperationBatch.LOGOUT, 0), JavaOnlyArray.of("a", "b"));
+
+        assertEquals("Invalid operation batch: args holds 1 unused values", rejection);
+        harness.awaitOperations();
+        assertEquals(0, harness.sdk.callCount("OneSignal.login"));
+        assertEquals(0, harness.sdk.callCount("OneSignal.logout"));
+    }
+
+    private void execute(ReadableArray ops, ReadableArray args) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("resolve", (SdkFakes.Answer) a -> {
+            results = (ReadableArray) a[0];
+            settled.countDown();
+            return null;
+        });
+        values.put("reject", (SdkFakes.Answer) a -> {
+            rejection = (String) a[0];
+            settled.countDown();
+            return null;
+        });
+        harness.module.executeBatch(ops, args, SdkFakes.fake(Promise.class, values));
+        try {
+            assertTrue("batch did not settle", settled.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private List<String> sdkWrites() {
+        List<String> writes = new ArrayList<>();
+        for (String call : harness.sdk.callLog()) {
+            if (WRITES.contains(call)) {
+                writes.add(call);
+            }
+        }
+        return writes;
+    }
+}
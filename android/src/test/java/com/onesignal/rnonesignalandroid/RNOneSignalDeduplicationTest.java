@@ -0,0 +1,105 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertEquals;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.onesignal.notifications.INotification;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RNOneSignalDeduplicationTest {
+    private static final String WILL_DISPLAY = "onNotificationWillDisplay";
+    private static final String CLICKED = "onNotificationClicked";
+
+    private RNOneSignalHarness harness;
+
+    @Before
+    public void setUp() {
+        harness = new RNOneSignalHarness();
+        harness.module.addNotificationForegroundLifecycleListener();
+        harness.module.addNotificationClickListener();
+    }
+
+    @After
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Test
+    public void repeatedWillDisplayIsDroppedBeforeConversion() {
+        INotification notification = NotificationPayloads.notification(NotificationPayloads.Size.NESTED_1KB);
+
+        harness.fireWillDisplay(notification);
+        harness.fireWillDisplay(notification);
+
+        assertEquals(1, harness.emittedCount(WILL_DISPLAY));
+        ReadableMap metrics = harness.nativeMetrics().getMap("events").getMap(WILL_DISPLAY);
+        assertEquals(1, metrics.getInt("count"));
+        assertEquals(1, metrics.getInt("duplicates"));
+        assertEquals(1, (int) harness.module.getRetainedSizes().get("pendingWillDisplayEvents"));
+    }
+
+    @Test
+    public void repeatedWillDisplayIsNotLeftToTheSdkDefault() {
+        INotification notification = NotificationPayloads.notification(NotificationPayloads.Size.PLAIN_200B);
+
+        harness.fireWillDisplay(notification);
+        long heldForJs = harness.preventedCount();
+        harness.fireWillDisplay(notification);
+        assertEquals(heldForJs + 1, harness.preventedCount());
+
+        harness.module.preventDefault(notification.getNotificationId());
+        assertEquals(0, harness.displayedCount());
+    }
+
+    @Test
+    public void clicksOnDifferentActionsAreNotDuplicates() {
+        INotification notification = NotificationPayloads.notification(NotificationPayloads.Size.PLAIN_200B);
+
+        harness.fireNotificationClick(SdkFakes.notificationClickEvent(notification, "accept", null));
+        harness.fireNotificationClick(SdkFakes.notificationClickEvent(notification, "accept", null));
+        harness.fireNotificationClick(SdkFakes.notificationClickEvent(notification, "decline", null));
+        harness.fireNotificationClick(SdkFakes.notificationClickEvent(notification, null, null));
+
+        assertEquals(3, harness.emittedCount(CLICKED));
+        assertEquals(1, harness.nativeMetrics().getMap("events").getMap(CLICKED).getInt("duplicates"));
+    }
+
+    @Test
+    public void oldestDeliveriesAreForgottenFirst() {
+        harness.module.setNotificationDeduplication(2, 0);
+
+        for (String notificationId : new String[] {"id-1", "id-2", "id-3", "id-1", "id-3"}) {
+            harness.fireWillDisplay(
+                    NotificationPayloads.notification(NotificationPayloads.Size.PLAIN_200B, notificationId));
+        }
+
+        assertEquals(4, harness.emittedCount(WILL_DISPLAY));
+        assertEquals(2, (int) harness.module.getRetainedSizes().get("recentNotificationEvents"));
+    }
+
+    @Test
+    public void deliveriesAreForgottenAfterTheWindow() throws InterruptedException {
+        harness.module.setNotificationDeduplication(16, 20);
+        INotification notification = NotificationPayloads.notification(NotificationPayloads.Size.PLAIN_200B);
+
+        harness.fireWillDisplay(notification);
+        Thread.sleep(40);
+        harness.fireWillDisplay(notification);
+
+        assertEquals(2, harness.emittedCount(WILL_DISPLAY));
+    }
+
+    @Test
+    public void zeroCapacityTurnsDeduplicationOff() {
+        harness.module.setNotificationDeduplication(0, 0);
+        INotification notification = NotificationPayloads.notification(NotificationPayloads.Size.PLAIN_200B);
+
+        harness.fireWillDisplay(notification);
+        harness.fireWillDisplay(notification);
+
+        assertEquals(2, harness.emittedCount(WILL_DISPLAY));
+        assertEquals(0, (int) harness.module.getRetainedSizes().get("recentNotificationEvents"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertEquals;
+
+import com.facebook.react.bridge.ReadableMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RNOneSignalForegroundDisplayTest {
+    private RNOneSignalHarness harness;
+
+    @Before
+    public void setUp() {
+        harness = new RNOneSignalHarness();
+        harness.module.addNotificationForegroundLifecycleListener();
+    }
+
+    @After
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Test
+    public void answeredEventsAreReportedInMetrics() {
+        harness.fireWillDisplay(NotificationPayloads.notification(NotificationPayloads.Size.PLAIN_200B, "id-1"));
+        harness.module.displayNotification("id-1");
+
+        ReadableMap decisions = harness.nativeMetrics().getMap("foregroundWillDisplay");
+        assertEquals(1, harness.displayedCount());
+        assertEquals(1, decisions.getMap("decisionLatencyMs").getInt("count"));
+        assertEquals(0, decisions.getInt("timeouts"));
+        assertEquals(0, decisions.getInt("pending"));
+    }
+
+    @Test
+    public void unansweredEventsFollowTheTimeoutPolicy() throws InterruptedException {
+        harness.module.setNotificationWillDisplayTimeout(10, true);
+        harness.fireWillDisplay(NotificationPayloads.notification(NotificationPayloads.Size.PLAIN_200B, "id-1"));
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (harness.displayedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(1, harness.displayedCount());
+        assertEquals(1, harness.nativeMetrics().getMap("foregroundWillDisplay").getInt("timeouts"));
+    }
+
+    @Test
+    public void eventsPushedOutOfThePendingStoreFollowTheTimeoutPolicy() {
+        for (int i = 0; i <= 64; i++) {
+            harness.fireWillDisplay(NotificationPayloads.notification(NotificationPayloads.Size.PLAIN_200B, "id-" + i));
+        }
+
+        assertEquals(1, harness.displayedCount());
+        ReadableMap decisions = harness.nativeMetrics().getMap("foregroundWillDisplay");
+        assertEquals(1, decisions.getInt("evicted"));
+        assertEquals(64, decisions.getInt("pending"));
+
+        // The evicted event is no longer held, so a late answer for it changes nothing.
+        harness.module.displayNotification("id-0");
+        assertEquals(1, harness.displayedCount());
+    }
+
+    @Test
+    public void eventsArrivingAfterShutdownAreDisplayedInsteadOfHeld() {
+        ForegroundDisplayCoordinator coordinator = new ForegroundDisplayCoordinator();
+        coordinator.shutdown();
+
+        coordinator.hold(harness.willDisplayEvent(
+                NotificationPayloads.notification(NotificationPayloads.Size.PLAIN_200B, "id-1")));
+
+        assertEquals(1, harness.displayedCount());
+        assertEquals(0, coordinator.getPendingCount());
+    }
+}
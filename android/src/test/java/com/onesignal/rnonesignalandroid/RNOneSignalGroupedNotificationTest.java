@@ -0,0 +1,147 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.onesignal.notifications.INotification;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RNOneSignalGroupedNotificationTest {
+    private static final String WILL_DISPLAY = "onNotificationWillDisplay";
+    private static final String CLICKED = "onNotificationClicked";
+    private static final String GROUP_KEY = "orders";
+
+    private RNOneSignalHarness harness;
+    private int summaries = 0;
+
+    @Before
+    public void setUp() {
+        harness = new RNOneSignalHarness();
+        harness.module.addNotificationForegroundLifecycleListener();
+        harness.module.addNotificationClickListener();
+    }
+
+    @After
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Test
+    public void groupedChildrenAreSentAsNotifications() {
+        harness.fireWillDisplay(summary(children(0, 3)));
+
+        ReadableArray grouped = harness.lastPayload(WILL_DISPLAY).getArray("groupedNotifications");
+        assertEquals(3, grouped.size());
+        ReadableMap child = grouped.getMap(1);
+        assertEquals("child-1", child.getString("notificationId"));
+        assertEquals("Your order has shipped", child.getString("title"));
+        assertEquals("myapp://orders/0", child.getMap("additionalData").getMap("section_0").getString("deepLink"));
+        assertFalse(child.hasKey("rawPayload"));
+    }
+
+    @Test
+    public void growingGroupOnlyConvertsNewChildren() {
+        GroupedNotificationCache cache = RNUtils.getGroupedNotificationCache();
+        long converted = cache.getConvertedCount();
+        long reused = cache.getReusedCount();
+
+        harness.fireWillDisplay(summary(children(0, 5)));
+        assertEquals(5, cache.getConvertedCount() - converted);
+
+        harness.fireWillDisplay(summary(children(0, 7)));
+        assertEquals(7, cache.getConvertedCount() - converted);
+        assertEquals(5, cache.getReusedCount() - reused);
+
+        ReadableArray grouped = harness.lastPayload(WILL_DISPLAY).getArray("groupedNotifications");
+        assertEquals(7, grouped.size());
+        assertEquals("child-6", grouped.getMap(6).getString("notificationId"));
+    }
+
+    @Test
+    public void dismissedChildrenAreForgotten() {
+        long converted = RNUtils.getGroupedNotificationCache().getConvertedCount();
+
+        harness.fireWillDisplay(summary(children(0, 6)));
+        harness.fireWillDisplay(summary(children(4, 8)));
+
+        assertEquals(4, (int) harness.module.getRetainedSizes().get("groupedNotificationChildren"));
+        assertEquals(8, RNUtils.getGroupedNotificationCache().getConvertedCount() - converted);
+    }
+
+    @Test
+    public void limitCapsTheChildrenSent() {
+        harness.module.setGroupedNotificationLimit(2);
+        long converted = RNUtils.getGroupedNotificationCache().getConvertedCount();
+
+        harness.fireWillDisplay(summary(children(0, 5)));
+
+        ReadableArray grouped = harness.lastPayload(WILL_DISPLAY).getArray("groupedNotifications");
+        assertEquals(2, grouped.size());
+        assertEquals("child-0", grouped.getMap(0).getString("notificationId"));
+        assertEquals(2, RNUtils.getGroupedNotificationCache().getConvertedCount() - converted);
+    }
+
+    @Test
+    public void actionButtonsAreSentAsMaps() {
+        INotification notification = withActionButtons(
+                SdkFakes.actionButton("accept", "Accept", "ic_accept"), SdkFakes.actionButton("later", "Later", null));
+
+        harness.fireNotificationClick(SdkFakes.notificationClickEvent(notification, "accept", null));
+
+        ReadableArray buttons = harness.lastPayload(CLICKED).getMap("notification").getArray("actionButtons");
+        assertEquals(2, buttons.size());
+        assertEquals("accept", buttons.getMap(0).getString("id"));
+        assertEquals("Accept", buttons.getMap(0).getString("text"));
+        assertEquals("ic_accept", buttons.getMap(0).getString("icon"));
+        assertFalse(buttons.getMap(1).hasKey("icon"));
+    }
+
+    @Test
+    public void wholeNotificationJsonCarriesTheChildren() throws Exception {
+        harness.module.setNotificationJsonEncoding(WILL_DISPLAY, 0, true);
+        harness.module.setGroupedNotificationLimit(1);
+
+        harness.fireWillDisplay(summary(children(0, 2)));
+
+        JSONObject decoded = new JSONObject(harness.lastPayload(WILL_DISPLAY).getString("notificationJson"));
+        JSONArray grouped = decoded.getJSONArray("groupedNotifications");
+        assertEquals(1, grouped.length());
+        assertEquals("child-0", grouped.getJSONObject(0).getString("notificationId"));
+        assertEquals(
+                "myapp://orders/0",
+                grouped.getJSONObject(0)
+                        .getJSONObject("additionalData")
+                        .getJSONObject("section_0")
+                        .getString("deepLink"));
+    }
+
+    private INotification summary(List<INotification> children) {
+        summaries++;
+        return SdkFakes.summaryNotification("summary-" + summaries, GROUP_KEY, children);
+    }
+
+    private static List<INotification> children(int from, int to) {
+        List<INotification> children = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            children.add(NotificationPayloads.notification(NotificationPayloads.Size.NESTED_1KB, "child-" + i));
+        }
+        return children;
+    }
+
+    private static INotification withActionButtons(Object... buttons) {
+        Map<String, Object> values = SdkFakes.notificationValues(
+                NotificationPayloads.NOTIFICATION_ID, "New order", "Accept it?", new JSONObject(), "{}");
+        values.put("getActionButtons", Arrays.asList(buttons));
+        return SdkFakes.fake(INotification.class, values);
+    }
+}
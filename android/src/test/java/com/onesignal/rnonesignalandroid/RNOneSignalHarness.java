@@ -0,0 +1,230 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+import com.onesignal.inAppMessages.IInAppMessageClickEvent;
+import com.onesignal.inAppMessages.IInAppMessageClickListener;
+import com.onesignal.inAppMessages.IInAppMessageLifecycleListener;
+import com.onesignal.notifications.IDisplayableNotification;
+import com.onesignal.notifications.INotification;
+import com.onesignal.notifications.INotificationClickEvent;
+import com.onesignal.notifications.INotificationClickListener;
+import com.onesignal.notifications.INotificationLifecycleListener;
+import com.onesignal.notifications.INotificationWillDisplayEvent;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Drives a real {@link RNOneSignal} on the JVM: SDK calls go to a {@link FakeOneSignalSdk}, events bound for JS
+ * are recorded instead of emitted, and every fired SDK callback is timed. {@link #report} summarizes throughput,
+ * per-event latency and the module's retained store sizes.
+ */
+final class RNOneSignalHarness implements AutoCloseable {
+    static final String APP_ID = "00000000-0000-4000-8000-000000000000";
+
+    /** Number of events each load test pushes through; override with -Donesignal.load.events. */
+    static final int EVENT_COUNT = Integer.getInteger("onesignal.load.events", 5000);
+    /** Longest a single SDK callback may take before it counts as a stall. */
+    static final long STALL_BUDGET_MS = Long.getLong("onesignal.load.stallMs", 250);
+
+    final FakeOneSignalSdk sdk = new FakeOneSignalSdk();
+    final RNOneSignal module;
+
+    // Counts only, so the harness itself does not hold thousands of payloads and skew the GC behaviour it reports.
+    private final Map<String, AtomicLong> emittedCounts = new ConcurrentHashMap<>();
+    private final Map<String, WritableMap> lastPayloads = new ConcurrentHashMap<>();
+    private final Map<String, Consumer<WritableMap>> jsHandlers = new ConcurrentHashMap<>();
+    private final Histogram callbackLatencyMicros = new Histogram();
+    private final AtomicLong displayedCount = new AtomicLong();
+    private final AtomicLong preventedCount = new AtomicLong();
+    private long firedCount = 0;
+    private long firingNanos = 0;
+
+    RNOneSignalHarness() {
+        this(sdk -> {});
+    }
+
+    /** Runs {@code beforeInitialize} with the fake SDK before the module's {@code initialize}, as an app would. */
+    RNOneSignalHarness(Consumer<FakeOneSignalSdk> beforeInitialize) {
+        JvmBridge.install();
+
+        module = newModule();
+        // The replay buffer, de-duplication history, grouped children and trigger mirror outlive module instances;
+        // start each harness from the defaults.
+        module.setEventReplayBuffer(EventReplayBuffer.DEFAULT_CAPACITY, EventReplayBuffer.DEFAULT_MAX_AGE_MS);
+        module.setNotificationDeduplication(
+                NotificationEventDeduplicator.DEFAULT_CAPACITY, NotificationEventDeduplicator.DEFAULT_WINDOW_MS);
+        module.setGroupedNotificationLimit(GroupedNotificationCache.DEFAULT_LIMIT);
+        RNUtils.getGroupedNotificationCache().clear();
+        module.clearTriggers();
+        beforeInitialize.accept(sdk);
+        module.initialize(APP_ID);
+    }
+
+    /**
+     * Creates another module instance on the same fake SDK and event recording, as a JS reload does. It replaces
+     * {@link #module} as the current instance; the caller initializes and invalidates it.
+     */
+    RNOneSignal newModule() {
+        ReactApplicationContext reactContext = new ReactApplicationContext(new ContextWrapper(null)) {
+            @Override
+            public Context getApplicationContext() {
+                return this;
+            }
+        };
+        return new RNOneSignal(reactContext, sdk, this::record);
+    }
+
+    /** Runs {@code handler} synchronously whenever the module emits {@code eventName}, standing in for JS. */
+    void onJsEvent(String eventName, Consumer<WritableMap> handler) {
+        jsHandlers.put(eventName, handler);
+    }
+
+    long emittedCount(String eventName) {
+        AtomicLong count = emittedCounts.get(eventName);
+        return count != null ? count.get() : 0;
+    }
+
+    WritableMap lastPayload(String eventName) {
+        return lastPayloads.get(eventName);
+    }
+
+    long displayedCount() {
+        return displayedCount.get();
+    }
+
+    /** Number of will-display events whose default display was prevented. */
+    long preventedCount() {
+        return preventedCount.get();
+    }
+
+    Histogram getCallbackLatencyMicros() {
+        return callbackLatencyMicros;
+    }
+
+    void fireWillDisplay(INotification notification) {
+        INotificationWillDisplayEvent event = willDisplayEvent(notification);
+        for (INotificationLifecycleListener listener : sdk.listeners(INotificationLifecycleListener.class)) {
+            timed(() -> listener.onWillDisplay(event));
+        }
+    }
+
+    void fireNotificationClick(INotificationClickEvent event) {
+        for (INotificationClickListener listener : sdk.listeners(INotificationClickListener.class)) {
+            timed(() -> listener.onClick(event));
+        }
+    }
+
+    void fireInAppMessageClick(IInAppMessageClickEvent event) {
+        for (IInAppMessageClickListener listener : sdk.listeners(IInAppMessageClickListener.class)) {
+            timed(() -> listener.onClick(event));
+        }
+    }
+
+    /** Fires will display, did display, will dismiss and did dismiss for one message. */
+    void fireInAppMessageLifecycle(String messageId) {
+        for (IInAppMessageLifecycleListener listener : sdk.listeners(IInAppMessageLifecycleListener.class)) {
+            timed(() -> listener.onWillDisplay(SdkFakes.inAppMessageWillDisplayEvent(messageId)));
+            timed(() -> listener.onDidDisplay(SdkFakes.inAppMessageDidDisplayEvent(messageId)));
+            timed(() -> listener.onWillDismiss(SdkFakes.inAppMessageWillDismissEvent(messageId)));
+            timed(() -> listener.onDidDismiss(SdkFakes.inAppMessageDidDismissEvent(messageId)));
+        }
+    }
+
+    /** Resolves {@link RNOneSignal#getNativeMetrics} synchronously. */
+    ReadableMap nativeMetrics() {
+        Object[] resolved = new Object[1];
+        Map<String, Object> values = new HashMap<>();
+        values.put("resolve", (SdkFakes.Answer) args -> resolved[0] = args[0]);
+        module.getNativeMetrics(SdkFakes.fake(Promise.class, values));
+        return (ReadableMap) resolved[0];
+    }
+
+    /** Waits, through {@link RNOneSignal#flushPendingOperations}, until queued SDK calls have run. */
+    void awaitOperations() {
+        CountDownLatch done = new CountDownLatch(1);
+        Map<String, Object> values = new HashMap<>();
+        values.put("resolve", (SdkFakes.Answer) args -> {
+            done.countDown();
+            return null;
+        });
+        module.flushPendingOperations(SdkFakes.fake(Promise.class, values));
+        try {
+            assertTrue("SDK operations did not finish", done.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    void assertNoStalls() {
+        long maxMs = TimeUnit.MICROSECONDS.toMillis(callbackLatencyMicros.getMax());
+        assertTrue(
+                "slowest SDK callback took " + maxMs + " ms, budget is " + STALL_BUDGET_MS + " ms",
+                maxMs <= STALL_BUDGET_MS);
+    }
+
+    String report(String label) {
+        double seconds = firingNanos / 1e9;
+        long perSecond = seconds > 0 ? (long) (firedCount / seconds) : 0;
+        return label + ": " + firedCount + " callbacks, " + perSecond + "/s, latency us [" + callbackLatencyMicros
+                + "], emitted " + emittedCounts + ", retained " + module.getRetainedSizes();
+    }
+
+    @Override
+    public void close() {
+        module.setEventReplayBuffer(0, 0);
+        module.invalidate();
+        JvmBridge.uninstall();
+    }
+
+    private void record(String eventName, WritableMap payload) {
+        emittedCounts.computeIfAbsent(eventName, key -> new AtomicLong()).incrementAndGet();
+        lastPayloads.put(eventName, payload);
+        Consumer<WritableMap> handler = jsHandlers.get(eventName);
+        if (handler != null) {
+            handler.accept(payload);
+        }
+    }
+
+    private void timed(Runnable callback) {
+        long start = System.nanoTime();
+        callback.run();
+        long elapsed = System.nanoTime() - start;
+        firingNanos += elapsed;
+        firedCount++;
+        callbackLatencyMicros.record(TimeUnit.NANOSECONDS.toMicros(elapsed));
+    }
+
+    INotificationWillDisplayEvent willDisplayEvent(INotification notification) {
+        IDisplayableNotification displayable = (IDisplayableNotification) Proxy.newProxyInstance(
+                IDisplayableNotification.class.getClassLoader(),
+                new Class<?>[] {IDisplayableNotification.class},
+                (self, method, args) -> {
+                    if (method.getName().equals("display")) {
+                        displayedCount.incrementAndGet();
+                        return null;
+                    }
+                    return method.invoke(notification, args);
+                });
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("getNotification", displayable);
+        values.put("preventDefault", (SdkFakes.Answer) args -> {
+            preventedCount.incrementAndGet();
+            return null;
+        });
+        return SdkFakes.fake(INotificationWillDisplayEvent.class, values);
+    }
+}
@@ -0,0 +1,99 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.onesignal.notifications.INotification;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RNOneSignalJsonEncodingTest {
+    private static final String WILL_DISPLAY = "onNotificationWillDisplay";
+    private static final String CLICKED = "onNotificationClicked";
+
+    private RNOneSignalHarness harness;
+
+    @Before
+    public void setUp() {
+        harness = new RNOneSignalHarness();
+        harness.module.addNotificationForegroundLifecycleListener();
+        harness.module.addNotificationClickListener();
+    }
+
+    @After
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Test
+    public void largeAdditionalDataIsSentAsJson() throws Exception {
+        harness.module.setNotificationJsonEncoding(WILL_DISPLAY, 2048, false);
+        INotification notification = NotificationPayloads.notification(NotificationPayloads.Size.NESTED_4KB);
+
+        harness.fireWillDisplay(notification);
+
+        ReadableMap payload = harness.lastPayload(WILL_DISPLAY);
+        assertFalse(payload.hasKey("additionalData"));
+        assertEquals(notification.getAdditionalData().toString(), payload.getString("additionalDataJson"));
+        assertEquals(NotificationPayloads.NOTIFICATION_ID, payload.getString("notificationId"));
+    }
+
+    @Test
+    public void smallAdditionalDataIsSentAsAMap() {
+        harness.module.setNotificationJsonEncoding(WILL_DISPLAY, 2048, false);
+
+        harness.fireWillDisplay(NotificationPayloads.notification(NotificationPayloads.Size.NESTED_1KB));
+
+        ReadableMap payload = harness.lastPayload(WILL_DISPLAY);
+        assertTrue(payload.hasKey("additionalData"));
+        assertFalse(payload.hasKey("additionalDataJson"));
+    }
+
+    @Test
+    public void wholeNotificationIsSentAsJson() throws Exception {
+        harness.module.setNotificationJsonEncoding(CLICKED, 0, true);
+        harness.module.setNotificationRawPayloadIncluded(CLICKED, false);
+        INotification notification = NotificationPayloads.notification(NotificationPayloads.Size.NESTED_1KB);
+
+        harness.fireNotificationClick(SdkFakes.notificationClickEvent(notification, null, null));
+
+        ReadableMap wrapper = harness.lastPayload(CLICKED).getMap("notification");
+        assertEquals(1, wrapper.toHashMap().size());
+        JSONObject decoded = new JSONObject(wrapper.getString("notificationJson"));
+        assertEquals(NotificationPayloads.NOTIFICATION_ID, decoded.getString("notificationId"));
+        assertEquals(notification.getTitle(), decoded.getString("title"));
+        assertEquals(notification.getBody(), decoded.getString("body"));
+        assertEquals(
+                notification.getAdditionalData().toString(),
+                decoded.getJSONObject("additionalData").toString());
+        assertFalse(decoded.has("rawPayload"));
+    }
+
+    @Test
+    public void projectedAdditionalDataIsNotEncoded() {
+        harness.module.setNotificationJsonEncoding(WILL_DISPLAY, 0, true);
+        harness.module.setNotificationFieldProjection(WILL_DISPLAY, JavaOnlyArray.of("additionalData.section_0"));
+
+        harness.fireWillDisplay(NotificationPayloads.notification(NotificationPayloads.Size.NESTED_4KB));
+
+        ReadableMap payload = harness.lastPayload(WILL_DISPLAY);
+        assertFalse(payload.hasKey("notificationJson"));
+        assertFalse(payload.hasKey("additionalDataJson"));
+        assertTrue(payload.getMap("additionalData").hasKey("section_0"));
+    }
+
+    @Test
+    public void negativeLengthTurnsEncodingOff() {
+        harness.module.setNotificationJsonEncoding(WILL_DISPLAY, 0, false);
+        harness.module.setNotificationJsonEncoding(WILL_DISPLAY, -1, false);
+
+        harness.fireWillDisplay(NotificationPayloads.notification(NotificationPayloads.Size.NESTED_4KB));
+
+        assertFalse(harness.lastPayload(WILL_DISPLAY).hasKey("additionalDataJson"));
+    }
+}
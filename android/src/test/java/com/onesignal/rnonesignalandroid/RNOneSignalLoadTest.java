@@ -0,0 +1,127 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.onesignal.notifications.INotification;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Pushes {@link RNOneSignalHarness#EVENT_COUNT} synthetic SDK events through the real listener code and checks
+ * that nothing piles up in the module's stores and no single callback stalls.
+ */
+public class RNOneSignalLoadTest {
+    private static final int MAX_PENDING_WILL_DISPLAY_EVENTS = 64;
+    private static final int MAX_RAW_PAYLOADS = 32;
+
+    private RNOneSignalHarness harness;
+
+    @Before
+    public void setUp() {
+        harness = new RNOneSignalHarness();
+    }
+
+    @After
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Test
+    public void answeredWillDisplayEventsLeaveNothingBehind() {
+        harness.module.addNotificationForegroundLifecycleListener();
+        harness.onJsEvent(
+                "onNotificationWillDisplay",
+                payload -> harness.module.displayNotification(payload.getString("notificationId")));
+        for (int i = 0; i < RNOneSignalHarness.EVENT_COUNT; i++) {
+            harness.fireWillDisplay(NotificationPayloads.notification(NotificationPayloads.Size.NESTED_1KB, "id-" + i));
+        }
+
+        System.out.println(harness.report("willDisplay, answered"));
+        assertEquals(RNOneSignalHarness.EVENT_COUNT, harness.emittedCount("onNotificationWillDisplay"));
+        assertEquals(RNOneSignalHarness.EVENT_COUNT, harness.displayedCount());
+        assertRetained("pendingWillDisplayEvents", 0);
+        assertRetained("preventedWillDisplayEvents", 0);
+        harness.assertNoStalls();
+    }
+
+    @Test
+    public void unansweredWillDisplayEventsStayBounded() {
+        harness.module.addNotificationForegroundLifecycleListener();
+        harness.module.setNotificationRawPayloadIncluded("onNotificationWillDisplay", false);
+        for (int i = 0; i < RNOneSignalHarness.EVENT_COUNT; i++) {
+            harness.fireWillDisplay(NotificationPayloads.notification(NotificationPayloads.Size.NESTED_4KB, "id-" + i));
+        }
+
+        System.out.println(harness.report("willDisplay, unanswered"));
+        assertEquals(RNOneSignalHarness.EVENT_COUNT, harness.emittedCount("onNotificationWillDisplay"));
+        assertRetainedAtMost("pendingWillDisplayEvents", MAX_PENDING_WILL_DISPLAY_EVENTS);
+        // Events pushed out of the pending store get the timeout policy, which displays them by default.
+        int pending = harness.module.getRetainedSizes().get("pendingWillDisplayEvents");
+        assertEquals(RNOneSignalHarness.EVENT_COUNT - pending, harness.displayedCount());
+        assertRetainedAtMost("rawPayloads", MAX_RAW_PAYLOADS);
+        harness.assertNoStalls();
+    }
+
+    @Test
+    public void clicksBeforeJsListensAreBoundedThenReplayed() {
+        INotification notification = NotificationPayloads.notification(NotificationPayloads.Size.NESTED_1KB);
+
+        for (int i = 0; i < RNOneSignalHarness.EVENT_COUNT; i++) {
+            harness.fireNotificationClick(SdkFakes.notificationClickEvent(notification, "action-" + i, null));
+        }
+        assertRetained("bufferedNotificationClicks", EventReplayBuffer.DEFAULT_CAPACITY);
+        assertEquals(0, harness.emittedCount("onNotificationClicked"));
+
+        harness.module.addNotificationClickListener();
+        assertEquals(EventReplayBuffer.DEFAULT_CAPACITY, harness.emittedCount("onNotificationClicked"));
+
+        for (int i = 0; i < RNOneSignalHarness.EVENT_COUNT; i++) {
+            harness.fireNotificationClick(SdkFakes.notificationClickEvent(notification, "action-" + i, null));
+        }
+
+        System.out.println(harness.report("notification clicks"));
+        assertEquals(
+                EventReplayBuffer.DEFAULT_CAPACITY + RNOneSignalHarness.EVENT_COUNT,
+                harness.emittedCount("onNotificationClicked"));
+        assertRetained("bufferedNotificationClicks", 0);
+        harness.assertNoStalls();
+    }
+
+    @Test
+    public void inAppMessageEventsAreAllDelivered() {
+        harness.module.addInAppMessageClickListener();
+        harness.module.addInAppMessagesLifecycleListener();
+
+        for (int i = 0; i < RNOneSignalHarness.EVENT_COUNT; i++) {
+            String messageId = "message-" + i;
+            harness.fireInAppMessageLifecycle(messageId);
+            harness.fireInAppMessageClick(SdkFakes.inAppMessageClickEvent(messageId, "button", null));
+        }
+
+        System.out.println(harness.report("in-app messages"));
+        for (String eventName : new String[] {
+            "onInAppMessageWillDisplay",
+            "onInAppMessageDidDisplay",
+            "onInAppMessageWillDismiss",
+            "onInAppMessageDidDismiss",
+            "onInAppMessageClicked"
+        }) {
+            assertEquals(eventName, RNOneSignalHarness.EVENT_COUNT, harness.emittedCount(eventName));
+        }
+        assertRetained("bufferedInAppMessageClicks", 0);
+        harness.assertNoStalls();
+    }
+
+    private void assertRetained(String store, int expected) {
+        Map<String, Integer> sizes = harness.module.getRetainedSizes();
+        assertEquals(store + " in " + sizes, expected, (int) sizes.get(store));
+    }
+
+    private void assertRetainedAtMost(String store, int max) {
+        Map<String, Integer> sizes = harness.module.getRetainedSizes();
+        assertTrue(store + " in " + sizes, sizes.get(store) <= max);
+    }
+}
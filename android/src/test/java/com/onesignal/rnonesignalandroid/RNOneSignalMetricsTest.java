@@ -0,0 +1,102 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.facebook.react.bridge.ReadableMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RNOneSignalMetricsTest {
+    private RNOneSignalHarness harness;
+
+    @Before
+    public void setUp() {
+        harness = new RNOneSignalHarness();
+    }
+
+    @After
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Test
+    public void recordsCountsAndPayloadSizesPerEvent() {
+        harness.module.resetNativeMetrics();
+        harness.module.addNotificationForegroundLifecycleListener();
+        harness.module.addInAppMessagesLifecycleListener();
+        for (int i = 0; i < 3; i++) {
+            harness.fireWillDisplay(NotificationPayloads.notification(NotificationPayloads.Size.NESTED_1KB, "id-" + i));
+        }
+        harness.fireInAppMessageLifecycle("message-1");
+
+        ReadableMap events = harness.nativeMetrics().getMap("events");
+        ReadableMap willDisplay = events.getMap("onNotificationWillDisplay");
+        assertEquals(3, willDisplay.getInt("count"));
+        assertEquals(0, willDisplay.getInt("failures"));
+        assertEquals(3, willDisplay.getMap("conversionMicros").getInt("count"));
+        assertEquals(3, willDisplay.getMap("emitLatencyMicros").getInt("count"));
+        assertTrue(willDisplay.getMap("payloadKeys").getDouble("max") > 20);
+        assertTrue(willDisplay.getMap("payloadBytes").getDouble("max") > 1024);
+
+        assertEquals(1, events.getMap("onInAppMessageWillDisplay").getInt("count"));
+        assertEquals(1, events.getMap("onInAppMessageDidDismiss").getInt("count"));
+        assertFalse(events.hasKey("onNotificationClicked"));
+    }
+
+    @Test
+    public void payloadSizesAreOnlyMeasuredOnceMetricsAreRequested() {
+        harness.module.addInAppMessagesLifecycleListener();
+        harness.fireInAppMessageLifecycle("message-1");
+
+        ReadableMap willDisplay = harness.nativeMetrics().getMap("events").getMap("onInAppMessageWillDisplay");
+        assertEquals(1, willDisplay.getInt("count"));
+        assertEquals(0, willDisplay.getMap("payloadKeys").getInt("count"));
+
+        harness.fireInAppMessageLifecycle("message-2");
+        willDisplay = harness.nativeMetrics().getMap("events").getMap("onInAppMessageWillDisplay");
+        assertEquals(1, willDisplay.getMap("payloadKeys").getInt("count"));
+    }
+
+    @Test
+    public void eventsNotSentToJsAreNotCounted() {
+        harness.fireWillDisplay(NotificationPayloads.notification(NotificationPayloads.Size.PLAIN_200B));
+
+        assertFalse(harness.nativeMetrics().getMap("events").hasKey("onNotificationWillDisplay"));
+    }
+
+    @Test
+    public void reportsLookupsInTheWillDisplayStores() {
+        harness.module.addNotificationForegroundLifecycleListener();
+        for (int i = 0; i <= 64; i++) {
+            harness.fireWillDisplay(NotificationPayloads.notification(NotificationPayloads.Size.PLAIN_200B, "id-" + i));
+        }
+        harness.module.displayNotification("id-1");
+        harness.module.displayNotification("unknown");
+
+        ReadableMap decisions = harness.nativeMetrics().getMap("foregroundWillDisplay");
+        ReadableMap pendingCache = decisions.getMap("pendingCache");
+        assertEquals(1, pendingCache.getInt("hits"));
+        assertEquals(1, pendingCache.getInt("misses"));
+        assertEquals(1, pendingCache.getInt("evictions"));
+        assertEquals(1, decisions.getMap("preventedCache").getInt("misses"));
+
+        harness.module.resetNativeMetrics();
+
+        pendingCache = harness.nativeMetrics().getMap("foregroundWillDisplay").getMap("pendingCache");
+        assertEquals(0, pendingCache.getInt("hits"));
+        assertEquals(0, pendingCache.getInt("evictions"));
+    }
+
+    @Test
+    public void resetClearsEverything() {
+        harness.module.addInAppMessagesLifecycleListener();
+        harness.fireInAppMessageLifecycle("message-1");
+
+        harness.module.resetNativeMetrics();
+
+        assertFalse(harness.nativeMetrics().getMap("events").hasKey("onInAppMessageWillDisplay"));
+    }
+}
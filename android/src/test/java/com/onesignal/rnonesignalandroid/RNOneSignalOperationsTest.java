@@ -0,0 +1,251 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RNOneSignalOperationsTest {
+    private static final List<String> WRITES = Arrays.asList(
+            "OneSignal.login",
+            "OneSignal.logout",
+            "IUserManager.addTags",
+            "IUserManager.addAliases",
+            "IUserManager.removeAliases",
+            "IUserManager.addEmail",
+            "IUserManager.addSms",
+            "IUserManager.setLanguage",
+            "IInAppMessagesManager.addTriggers",
+            "IPushSubscription.optIn");
+
+    private RNOneSignalHarness harness;
+
+    @Before
+    public void setUp() {
+        harness = new RNOneSignalHarness();
+    }
+
+    @After
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Test
+    public void writesReachTheSdkInCallOrder() {
+        harness.module.addTags(JavaOnlyMap.of("level", "1"));
+        harness.module.login("user-2");
+        harness.module.addEmail("user@example.com");
+        harness.module.addAliases(JavaOnlyMap.of("crm", "42"));
+        harness.module.setLanguage("de");
+        harness.module.addTriggers(JavaOnlyMap.of("screen", "home"));
+        harness.module.removeAliases(JavaOnlyArray.of("crm"));
+        harness.module.optIn();
+        harness.module.logout();
+        harness.module.addSms("+15555550100");
+        harness.awaitOperations();
+
+        assertEquals(
+                Arrays.asList(
+                        "IUserManager.addTags",
+                        "OneSignal.login",
+                        "IUserManager.addEmail",
+                        "IUserManager.addAliases",
+                        "IUserManager.setLanguage",
+                        "IInAppMessagesManager.addTriggers",
+                        "IUserManager.removeAliases",
+                        "IPushSubscription.optIn",
+                        "OneSignal.logout",
+                        "IUserManager.addSms"),
+                writes());
+    }
+
+    @Test
+    public void slowSdkWorkDoesNotHoldUpTheCaller() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        harness.sdk.stub("IUserManager.setLanguage", (SdkFakes.Answer) args -> {
+            release.await();
+            return null;
+        });
+
+        long startNanos = System.nanoTime();
+        harness.module.setLanguage("de");
+        harness.module.login("user-2");
+        long callMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        assertTrue("calls took " + callMs + " ms", callMs < 100);
+        assertEquals(0, harness.sdk.callCount("OneSignal.login"));
+        assertTrue(harness.module.getRetainedSizes().get("pendingOperations") > 0);
+
+        release.countDown();
+        harness.awaitOperations();
+        assertEquals(1, harness.sdk.callCount("OneSignal.login"));
+        assertEquals(0, (int) harness.module.getRetainedSizes().get("pendingOperations"));
+    }
+
+    @Test
+    public void consentIsAppliedWithoutWaitingForQueuedWrites() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        harness.sdk.stub("IUserManager.setLanguage", (SdkFakes.Answer) args -> {
+            release.await();
+            return null;
+        });
+
+        harness.module.setLanguage("de");
+        harness.module.setPrivacyConsentRequired(true);
+        harness.module.setPrivacyConsentGiven(false);
+
+        assertEquals(1, harness.sdk.callCount("OneSignal.setConsentRequired"));
+        assertEquals(1, harness.sdk.callCount("OneSignal.setConsentGiven"));
+        release.countDown();
+        harness.awaitOperations();
+    }
+
+    @Test
+    public void optInIsReadBackBeforeTheSdkReportsIt() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        harness.sdk.stub("IUserManager.setLanguage", (SdkFakes.Answer) args -> {
+            release.await();
+            return null;
+        });
+
+        harness.module.setLanguage("de");
+        harness.module.optOut();
+        assertFalse(harness.module.getOptedInSync());
+        harness.module.optIn();
+        assertTrue(harness.module.getOptedInSync());
+        release.countDown();
+        harness.awaitOperations();
+    }
+
+    @Test
+    public void locationSharingIsReadAfterEarlierWrites() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        harness.sdk.stub("ILocationManager.setShared", (SdkFakes.Answer) args -> {
+            release.await();
+            harness.sdk.stub("ILocationManager.isShared", args[0]);
+            return null;
+        });
+        CountDownLatch resolved = new CountDownLatch(1);
+        Object[] shared = new Object[1];
+        Map<String, Object> values = new HashMap<>();
+        values.put("resolve", (SdkFakes.Answer) args -> {
+            shared[0] = args[0];
+            resolved.countDown();
+            return null;
+        });
+
+        harness.module.setLocationShared(true);
+        harness.module.isLocationShared(SdkFakes.fake(Promise.class, values));
+        release.countDown();
+
+        assertTrue("isLocationShared did not resolve", resolved.await(5, TimeUnit.SECONDS));
+        assertEquals(true, shared[0]);
+    }
+
+    @Test
+    public void aFailingWriteDoesNotStopLaterOnes() {
+        harness.sdk.stub("IUserManager.addEmail", (SdkFakes.Answer) args -> {
+            throw new IllegalArgumentException("invalid email");
+        });
+
+        harness.module.addEmail("not-an-email");
+        harness.module.addSms("+15555550100");
+        harness.awaitOperations();
+
+        assertEquals(Arrays.asList("IUserManager.addEmail", "IUserManager.addSms"), writes());
+    }
+
+    @Test
+    public void batchRemovalsRunInOneOperation() {
+        List<Object> removed = new ArrayList<>();
+        harness.sdk.stub("INotificationsManager.removeNotification", (SdkFakes.Answer) args -> {
+            removed.add(args[0]);
+            return null;
+        });
+        harness.sdk.stub("INotificationsManager.removeGroupedNotifications", (SdkFakes.Answer) args -> {
+            removed.add(args[0]);
+            return null;
+        });
+
+        harness.module.removeNotifications(JavaOnlyArray.of(3.0, 1.0, 3.0, 2.0));
+        harness.module.removeGroupedNotificationsBatch(JavaOnlyArray.of("orders", "messages"));
+        harness.module.clearAllNotifications();
+        harness.awaitOperations();
+
+        assertEquals(Arrays.asList(3, 1, 2, "orders", "messages"), removed);
+        assertEquals(1, harness.sdk.callCount("INotificationsManager.clearAllNotifications"));
+        List<String> calls = harness.sdk.callLog();
+        assertEquals("INotificationsManager.clearAllNotifications", calls.get(calls.size() - 1));
+    }
+
+    @Test
+    public void aFailingRemovalDoesNotStopTheBatch() {
+        harness.sdk.stub("INotificationsManager.removeNotification", (SdkFakes.Answer) args -> {
+            if ((int) args[0] == 1) {
+                throw new IllegalStateException("no such notification");
+            }
+            return null;
+        });
+
+        harness.module.removeNotifications(JavaOnlyArray.of(1.0, 2.0, 3.0));
+        harness.awaitOperations();
+
+        assertEquals(3, harness.sdk.callCount("INotificationsManager.removeNotification"));
+    }
+
+    @Test
+    public void loginWithProfileAppliesTheProfileRightAfterTheLogin() {
+        harness.module.loginWithProfile(
+                "user-2",
+                JavaOnlyMap.of(
+                        "tags", JavaOnlyMap.of("level", "2"),
+                        "aliases", JavaOnlyMap.of("crm", "42"),
+                        "emails", JavaOnlyArray.of("user@example.com"),
+                        "sms", JavaOnlyArray.of("+15555550100"),
+                        "language", "de"));
+        harness.module.logout();
+        harness.awaitOperations();
+
+        assertEquals(
+                Arrays.asList(
+                        "OneSignal.login",
+                        "IUserManager.addAliases",
+                        "IUserManager.addTags",
+                        "IUserManager.addEmail",
+                        "IUserManager.addSms",
+                        "IUserManager.setLanguage",
+                        "OneSignal.logout"),
+                writes());
+    }
+
+    @Test
+    public void loginWithProfileSkipsMissingFields() {
+        harness.module.loginWithProfile("user-2", JavaOnlyMap.of("language", "de", "tags", JavaOnlyMap.of()));
+        harness.awaitOperations();
+
+        assertEquals(Arrays.asList("OneSignal.login", "IUserManager.setLanguage"), writes());
+    }
+
+    private List<String> writes() {
+        List<String> writes = new ArrayList<>();
+        for (String call : harness.sdk.callLog()) {
+            if (WRITES.contains(call)) {
+                writes.add(call);
+            }
+        }
+        return writes;
+    }
+}
@@ -0,0 +1,120 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RNOneSignalOutcomeTest {
+    private RNOneSignalHarness harness;
+    // Value sent to the SDK per outcome name, summed if sent more than once.
+    private final Map<String, Float> sent = new LinkedHashMap<>();
+    private int sdkCalls = 0;
+
+    @Before
+    public void setUp() {
+        harness = new RNOneSignalHarness();
+        harness.sdk.stub("ISessionManager.addOutcomeWithValue", (SdkFakes.Answer) args -> {
+            synchronized (sent) {
+                sent.merge((String) args[0], (Float) args[1], Float::sum);
+                sdkCalls++;
+            }
+            return null;
+        });
+    }
+
+    @After
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Test
+    public void valuesPassStraightThroughByDefault() {
+        harness.module.addOutcomeWithValue("revenue", 1.5);
+        harness.module.addOutcomeWithValue("revenue", 2.5);
+        harness.awaitOperations();
+
+        assertEquals(2, sdkCalls);
+        assertEquals(4f, sent.get("revenue"), 0.001);
+    }
+
+    @Test
+    public void aggregatedValuesAreSentOncePerNameWhenTheAppIsPaused() {
+        harness.module.setOutcomeAggregation(true, 0);
+        for (int i = 0; i < 100; i++) {
+            harness.module.addOutcomeWithValue("revenue", 0.25);
+        }
+        harness.module.addOutcomeWithValue("items", 3);
+        assertEquals(0, sdkCalls);
+
+        harness.module.onHostPause();
+        harness.awaitOperations();
+
+        assertEquals(2, sdkCalls);
+        assertEquals(25f, sent.get("revenue"), 0.001);
+        assertEquals(3f, sent.get("items"), 0.001);
+    }
+
+    @Test
+    public void aggregatedValuesAreSentWhenTheWindowCloses() throws InterruptedException {
+        harness.module.setOutcomeAggregation(true, 20);
+        harness.module.addOutcomeWithValue("revenue", 1);
+        harness.module.addOutcomeWithValue("revenue", 2);
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (currentSdkCalls() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(1, currentSdkCalls());
+        assertEquals(3f, sent.get("revenue"), 0.001);
+    }
+
+    @Test
+    public void pendingValuesAreSentBeforeTheUserChanges() {
+        harness.module.setOutcomeAggregation(true, 0);
+        harness.module.addOutcomeWithValue("revenue", 5);
+
+        harness.module.login("user-2");
+        harness.awaitOperations();
+
+        List<String> calls = harness.sdk.callLog();
+        assertEquals(1, sdkCalls);
+        assertTrue(calls.indexOf("ISessionManager.addOutcomeWithValue") < calls.indexOf("OneSignal.login"));
+    }
+
+    @Test
+    public void disablingAggregationSendsPendingValues() {
+        harness.module.setOutcomeAggregation(true, 0);
+        harness.module.addOutcomeWithValue("revenue", 5);
+
+        harness.module.setOutcomeAggregation(false, 0);
+        harness.module.addOutcomeWithValue("revenue", 1);
+        harness.awaitOperations();
+
+        assertEquals(2, sdkCalls);
+        assertEquals(6f, sent.get("revenue"), 0.001);
+    }
+
+    @Test
+    public void pendingValuesAreSentOnInvalidate() {
+        harness.module.setOutcomeAggregation(true, 0);
+        harness.module.addOutcomeWithValue("revenue", 5);
+        assertEquals(1, (int) harness.module.getRetainedSizes().get("pendingOutcomes"));
+
+        harness.module.invalidate();
+
+        assertEquals(1, sdkCalls);
+    }
+
+    private int currentSdkCalls() {
+        synchronized (sent) {
+            return sdkCalls;
+        }
+    }
+}
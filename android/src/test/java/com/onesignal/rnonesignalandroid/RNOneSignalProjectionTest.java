@@ -0,0 +1,95 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.ReadableMap;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RNOneSignalProjectionTest {
+    private static final String WILL_DISPLAY = "onNotificationWillDisplay";
+    private static final String CLICKED = "onNotificationClicked";
+
+    private RNOneSignalHarness harness;
+
+    @Before
+    public void setUp() {
+        harness = new RNOneSignalHarness();
+        harness.module.addNotificationForegroundLifecycleListener();
+        harness.module.addNotificationClickListener();
+    }
+
+    @After
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Test
+    public void projectedEventsCarryOnlyTheListedFields() {
+        harness.module.setNotificationFieldProjection(
+                WILL_DISPLAY, JavaOnlyArray.of("title", "additionalData.section_0.deepLink", "additionalData.missing"));
+
+        harness.fireWillDisplay(NotificationPayloads.notification(NotificationPayloads.Size.NESTED_1KB));
+
+        ReadableMap payload = harness.lastPayload(WILL_DISPLAY);
+        assertEquals(keys("notificationId", "title", "additionalData"), keys(payload));
+        assertEquals(NotificationPayloads.NOTIFICATION_ID, payload.getString("notificationId"));
+        ReadableMap additionalData = payload.getMap("additionalData");
+        assertEquals(keys("section_0"), keys(additionalData));
+        assertEquals("myapp://orders/0", additionalData.getMap("section_0").getString("deepLink"));
+        assertEquals(keys("deepLink"), keys(additionalData.getMap("section_0")));
+    }
+
+    @Test
+    public void rawPayloadIsCachedWhenTheProjectionLeavesItOut() {
+        harness.module.setNotificationFieldProjection(CLICKED, JavaOnlyArray.of("title"));
+
+        harness.fireNotificationClick(SdkFakes.notificationClickEvent(
+                NotificationPayloads.notification(NotificationPayloads.Size.PLAIN_200B), null, null));
+
+        ReadableMap notification = harness.lastPayload(CLICKED).getMap("notification");
+        assertFalse(notification.hasKey("rawPayload"));
+        assertFalse(notification.hasKey("body"));
+        assertEquals(1, (int) harness.module.getRetainedSizes().get("rawPayloads"));
+    }
+
+    @Test
+    public void projectionShrinksThePayload() {
+        harness.fireWillDisplay(NotificationPayloads.notification(NotificationPayloads.Size.NESTED_4KB));
+        long fullBytes = EventMetrics.measure(harness.lastPayload(WILL_DISPLAY)).bytes;
+
+        harness.module.setNotificationFieldProjection(
+                WILL_DISPLAY, JavaOnlyArray.of("title", "additionalData.section_0.id"));
+        harness.fireWillDisplay(NotificationPayloads.notification(NotificationPayloads.Size.NESTED_4KB, "id-2"));
+        long projectedBytes = EventMetrics.measure(harness.lastPayload(WILL_DISPLAY)).bytes;
+
+        assertTrue(fullBytes + " -> " + projectedBytes, projectedBytes * 20 < fullBytes);
+    }
+
+    @Test
+    public void clearingTheProjectionSendsEveryFieldAgain() {
+        harness.module.setNotificationFieldProjection(WILL_DISPLAY, JavaOnlyArray.of("title"));
+        harness.module.setNotificationFieldProjection(WILL_DISPLAY, null);
+
+        harness.fireWillDisplay(NotificationPayloads.notification(NotificationPayloads.Size.PLAIN_200B));
+
+        ReadableMap payload = harness.lastPayload(WILL_DISPLAY);
+        assertTrue(payload.hasKey("body"));
+        assertTrue(payload.hasKey("rawPayload"));
+    }
+
+    private static Set<String> keys(String... keys) {
+        return new HashSet<>(Arrays.asList(keys));
+    }
+
+    private static Set<String> keys(ReadableMap map) {
+        return map.toHashMap().keySet();
+    }
+}
@@ -0,0 +1,169 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.onesignal.inAppMessages.IInAppMessageClickListener;
+import com.onesignal.inAppMessages.IInAppMessageLifecycleListener;
+import com.onesignal.notifications.INotificationClickListener;
+import com.onesignal.notifications.INotificationLifecycleListener;
+import com.onesignal.notifications.IPermissionObserver;
+import com.onesignal.user.state.IUserStateObserver;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Registers, removes and re-creates module instances from many threads at once, then checks that every SDK
+ * listener ended up registered exactly as often as the surviving instance asked for: once.
+ */
+public class RNOneSignalRegistryStressTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = Integer.getInteger("onesignal.stress.rounds", 2000);
+
+    private RNOneSignalHarness harness;
+    private final List<RNOneSignal> extraModules = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        harness = new RNOneSignalHarness();
+        // Duplicate deliveries must show up in the counts below, not be filtered out.
+        harness.module.setNotificationDeduplication(0, 0);
+    }
+
+    @After
+    public void tearDown() {
+        for (RNOneSignal module : extraModules) {
+            module.invalidate();
+        }
+        harness.close();
+    }
+
+    @Test
+    public void concurrentAddAndRemoveNeverRegistersTwice() throws Exception {
+        RNOneSignal module = harness.module;
+        runConcurrently(thread -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                if (thread == 0 && i % 10 == 0) {
+                    module.onHostDestroy();
+                } else {
+                    module.addNotificationClickListener();
+                    module.addNotificationForegroundLifecycleListener();
+                    module.addInAppMessageClickListener();
+                    module.addInAppMessagesLifecycleListener();
+                    module.addPermissionObserver();
+                }
+            }
+        });
+
+        assertAtMostOnce();
+        module.addNotificationClickListener();
+        module.addNotificationForegroundLifecycleListener();
+        module.addInAppMessageClickListener();
+        module.addInAppMessagesLifecycleListener();
+        module.addUserStateObserver();
+        assertRegisteredOnce();
+    }
+
+    @Test
+    public void concurrentReloadsLeaveOnlyTheLastInstanceRegistered() throws Exception {
+        int reloadsPerThread = Math.max(ROUNDS / 100, 5);
+        runConcurrently(thread -> {
+            for (int i = 0; i < reloadsPerThread; i++) {
+                RNOneSignal module = harness.newModule();
+                extraModules.add(module);
+                module.initialize(RNOneSignalHarness.APP_ID);
+                module.addNotificationClickListener();
+                module.addNotificationForegroundLifecycleListener();
+                module.addInAppMessageClickListener();
+                module.addInAppMessagesLifecycleListener();
+                module.addUserStateObserver();
+            }
+        });
+
+        assertRegisteredOnce();
+
+        harness.fireNotificationClick(SdkFakes.notificationClickEvent(
+                NotificationPayloads.notification(NotificationPayloads.Size.PLAIN_200B), null, null));
+        assertEquals(1, harness.emittedCount("onNotificationClicked"));
+    }
+
+    @Test
+    public void sdkCallsCanReenterTheRegistry() {
+        ListenerRegistry registry = new ListenerRegistry();
+        boolean[] reentered = new boolean[2];
+        Runnable noop = () -> {};
+
+        boolean added = registry.register(
+                ListenerRegistry.SdkListener.NOTIFICATION_CLICK,
+                () -> {
+                    // An SDK that calls straight back sees the listener as registered already.
+                    reentered[0] = registry.register(ListenerRegistry.SdkListener.NOTIFICATION_CLICK, noop, noop);
+                    reentered[1] = registry.register(ListenerRegistry.SdkListener.STATE_OBSERVERS, noop, noop);
+                },
+                noop);
+
+        assertTrue(added);
+        assertFalse(reentered[0]);
+        assertTrue(reentered[1]);
+        assertTrue(registry.unregister(ListenerRegistry.SdkListener.NOTIFICATION_CLICK));
+        assertTrue(registry.isRegistered(ListenerRegistry.SdkListener.STATE_OBSERVERS));
+    }
+
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    private void runConcurrently(Worker worker) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            new Thread(() -> {
+                        try {
+                            start.await();
+                            worker.run(thread);
+                        } catch (Throwable e) {
+                            failures.add(e);
+                        } finally {
+                            done.countDown();
+                        }
+                    })
+                    .start();
+        }
+        assertTrue("workers did not finish", done.await(60, TimeUnit.SECONDS));
+        assertTrue("worker failures: " + failures, failures.isEmpty());
+    }
+
+    private void assertAtMostOnce() {
+        for (Class<?> type : listenerTypes()) {
+            int count = harness.sdk.listeners(type).size();
+            assertTrue(type.getSimpleName() + " registered " + count + " times", count <= 1);
+        }
+    }
+
+    private void assertRegisteredOnce() {
+        for (Class<?> type : listenerTypes()) {
+            assertEquals(type.getSimpleName(), 1, harness.sdk.listeners(type).size());
+        }
+    }
+
+    private static Class<?>[] listenerTypes() {
+        return new Class<?>[] {
+            INotificationClickListener.class,
+            INotificationLifecycleListener.class,
+            IInAppMessageClickListener.class,
+            IInAppMessageLifecycleListener.class,
+            IPermissionObserver.class,
+            IUserStateObserver.class
+        };
+    }
+}
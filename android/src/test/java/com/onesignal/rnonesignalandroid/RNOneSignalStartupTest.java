@@ -0,0 +1,138 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.ContextWrapper;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableMap;
+import com.onesignal.notifications.INotificationLifecycleListener;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Test;
+
+public class RNOneSignalStartupTest {
+    private RNOneSignalHarness harness;
+
+    @After
+    public void tearDown() {
+        harness.close();
+        RNOneSignalInitializer.reset();
+    }
+
+    @Test
+    public void initializesFromJsWithoutNativeInitialization() {
+        harness = new RNOneSignalHarness();
+
+        assertEquals(1, harness.sdk.callCount("OneSignal.initWithContext"));
+        assertEquals("js", startup().getString("mode"));
+    }
+
+    @Test
+    public void attachesToANativeInitialization() {
+        harness = new RNOneSignalHarness(
+                sdk -> RNOneSignalInitializer.initialize(new ContextWrapper(null), RNOneSignalHarness.APP_ID, sdk));
+        harness.awaitOperations();
+
+        assertEquals(1, harness.sdk.callCount("OneSignal.initWithContext"));
+        ReadableMap startup = startup();
+        assertEquals("native", startup.getString("mode"));
+        assertTrue(startup.getDouble("initializeMs") >= 0);
+    }
+
+    @Test
+    public void initializeDoesNotWaitForARunningNativeInitialization() {
+        CountDownLatch release = new CountDownLatch(1);
+        harness = new RNOneSignalHarness(sdk -> RNOneSignalInitializer.initialize(
+                new ContextWrapper(null), RNOneSignalHarness.APP_ID, slowToInitialize(sdk, release)));
+
+        // initialize has returned; what JS does next waits for it on the operations queue.
+        harness.module.addNotificationForegroundLifecycleListener();
+        harness.module.login("user-1");
+        assertEquals(0, harness.sdk.callCount("OneSignal.initWithContext"));
+        assertEquals(0, harness.sdk.listeners(INotificationLifecycleListener.class).size());
+
+        release.countDown();
+        harness.awaitOperations();
+
+        assertEquals("native", startup().getString("mode"));
+        assertEquals(1, harness.sdk.listeners(INotificationLifecycleListener.class).size());
+        List<String> calls = harness.sdk.callLog();
+        assertTrue(calls.indexOf("OneSignal.initWithContext") < calls.indexOf("OneSignal.login"));
+    }
+
+    @Test
+    public void readsWaitForAPendingInitialize() {
+        CountDownLatch release = new CountDownLatch(1);
+        harness = new RNOneSignalHarness(sdk -> {
+            sdk.stub("INotificationsManager.getCanRequestPermission", true);
+            sdk.stub("IPushSubscription.getId", "push-1");
+            RNOneSignalInitializer.initialize(
+                    new ContextWrapper(null), RNOneSignalHarness.APP_ID, slowToInitialize(sdk, release));
+        });
+
+        AtomicReference<Object> canRequest = new AtomicReference<>();
+        harness.module.canRequestNotificationPermission(capture(canRequest));
+        assertNull(harness.module.getPushSubscriptionIdSync());
+        assertFalse(harness.module.getOptedInSync());
+        assertNull(canRequest.get());
+        assertEquals(0, harness.sdk.callCount("INotificationsManager.getCanRequestPermission"));
+        assertEquals(0, harness.sdk.callCount("IPushSubscription.getId"));
+
+        release.countDown();
+        harness.awaitOperations();
+
+        assertEquals(true, canRequest.get());
+        assertEquals("push-1", harness.module.getPushSubscriptionIdSync());
+    }
+
+    @Test
+    public void initializesAgainFromJsWhenTheAppIdDiffers() throws InterruptedException {
+        harness = new RNOneSignalHarness(sdk -> RNOneSignalInitializer.initialize(
+                new ContextWrapper(null), "11111111-1111-4111-8111-111111111111", sdk));
+
+        // JS does not wait for a native initialization with another app ID, which may still be running.
+        long deadline = System.currentTimeMillis() + 2000;
+        while (harness.sdk.callCount("OneSignal.initWithContext") < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(2, harness.sdk.callCount("OneSignal.initWithContext"));
+        assertEquals("js", startup().getString("mode"));
+    }
+
+    /** {@code sdk}, with an initWithContext that waits for {@code release} first. */
+    private static OneSignalSdk slowToInitialize(OneSignalSdk sdk, CountDownLatch release) {
+        return (OneSignalSdk) Proxy.newProxyInstance(
+                OneSignalSdk.class.getClassLoader(), new Class<?>[] {OneSignalSdk.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("initWithContext")) {
+                        release.await();
+                    }
+                    try {
+                        return method.invoke(sdk, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static Promise capture(AtomicReference<Object> resolved) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("resolve", (SdkFakes.Answer) args -> {
+            resolved.set(args[0]);
+            return null;
+        });
+        return SdkFakes.fake(Promise.class, values);
+    }
+
+    private ReadableMap startup() {
+        return harness.nativeMetrics().getMap("startup");
+    }
+}
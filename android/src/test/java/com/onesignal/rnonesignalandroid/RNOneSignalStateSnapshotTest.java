@@ -0,0 +1,118 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableMap;
+import com.onesignal.user.state.IUserStateObserver;
+import com.onesignal.user.state.UserChangedState;
+import com.onesignal.user.state.UserState;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RNOneSignalStateSnapshotTest {
+    private RNOneSignalHarness harness;
+
+    @Before
+    public void setUp() {
+        harness = new RNOneSignalHarness(sdk -> sdk.stub("IUserManager.getOnesignalId", "onesignal-1")
+                .stub("IUserManager.getExternalId", "user-1")
+                .stub("IUserManager.getTags", Collections.singletonMap("level", "1")));
+    }
+
+    @After
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Test
+    public void idsFollowALoginBeforeTheSdkReportsTheUser() {
+        // The SDK switches its local user as soon as login is called, long before the backend confirms it.
+        harness.sdk.stub("IUserManager.getOnesignalId", "local-2").stub("IUserManager.getExternalId", "user-2");
+        harness.module.login("user-2");
+
+        assertEquals("user-2", resolve(harness.module::getExternalId));
+        assertEquals("local-2", resolve(harness.module::getOnesignalId));
+        assertEquals("user-2", harness.module.getExternalIdSync());
+
+        fireUserStateChange("onesignal-2", "user-2");
+        assertEquals("onesignal-2", harness.module.getOnesignalIdSync());
+    }
+
+    @Test
+    public void idsFollowALogout() {
+        harness.sdk.stub("IUserManager.getOnesignalId", "local-3").stub("IUserManager.getExternalId", "");
+        harness.module.logout();
+
+        assertEquals(null, resolve(harness.module::getExternalId));
+        assertEquals("local-3", harness.module.getOnesignalIdSync());
+    }
+
+    @Test
+    public void idsAreKeptWhenLoggingInAsTheSameUser() {
+        harness.module.login("user-1");
+        harness.awaitOperations();
+
+        assertEquals("onesignal-1", harness.module.getOnesignalIdSync());
+        assertEquals("user-1", harness.module.getExternalIdSync());
+    }
+
+    @Test
+    public void tagsAreReadAgainAfterALogin() {
+        assertEquals("1", getTags().getString("level"));
+
+        harness.sdk.stub("IUserManager.getTags", Collections.singletonMap("level", "2"));
+        assertEquals("1", getTags().getString("level"));
+
+        harness.module.login("user-2");
+        assertEquals("2", getTags().getString("level"));
+    }
+
+    @Test
+    public void tagsAreReadAgainOnceTheUserIsConfirmed() {
+        assertEquals("1", getTags().getString("level"));
+
+        harness.sdk.stub("IUserManager.getTags", Collections.singletonMap("level", "3"));
+        fireUserStateChange("onesignal-1", "user-1");
+
+        assertEquals("3", getTags().getString("level"));
+    }
+
+    private void fireUserStateChange(String onesignalId, String externalId) {
+        UserChangedState state = new UserChangedState(new UserState(onesignalId, externalId));
+        for (IUserStateObserver observer : harness.sdk.listeners(IUserStateObserver.class)) {
+            observer.onUserStateChange(state);
+        }
+    }
+
+    private ReadableMap getTags() {
+        return (ReadableMap) resolve(harness.module::getTags);
+    }
+
+    /** Calls a promise-returning bridge method and waits for what it resolves. */
+    private static Object resolve(Consumer<Promise> method) {
+        CountDownLatch done = new CountDownLatch(1);
+        Object[] resolved = new Object[1];
+        Map<String, Object> values = new HashMap<>();
+        values.put("resolve", (SdkFakes.Answer) args -> {
+            resolved[0] = args[0];
+            done.countDown();
+            return null;
+        });
+        method.accept(SdkFakes.fake(Promise.class, values));
+        try {
+            assertTrue("promise did not resolve", done.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        return resolved[0];
+    }
+}
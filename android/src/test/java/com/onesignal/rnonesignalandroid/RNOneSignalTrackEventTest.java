@@ -0,0 +1,211 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RNOneSignalTrackEventTest {
+    private RNOneSignalHarness harness;
+    // Event names in the order the SDK received them.
+    private final List<String> submitted = new ArrayList<>();
+    private final List<Map<?, ?>> submittedProperties = new ArrayList<>();
+    // Holds the queue's thread inside the SDK call until released.
+    private volatile CountDownLatch sdkGate = new CountDownLatch(0);
+    private final CountDownLatch sdkEntered = new CountDownLatch(1);
+
+    @Before
+    public void setUp() {
+        harness = new RNOneSignalHarness();
+        harness.sdk.stub("IUserManager.trackEvent", (SdkFakes.Answer) args -> {
+            sdkEntered.countDown();
+            sdkGate.await();
+            synchronized (submitted) {
+                submitted.add((String) args[0]);
+                submittedProperties.add((Map<?, ?>) args[1]);
+            }
+            return null;
+        });
+    }
+
+    @After
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Test
+    public void eventsReachTheSdkInCallOrder() {
+        for (int i = 0; i < 500; i++) {
+            harness.module.trackEvent("event-" + i, JavaOnlyMap.of("index", i));
+        }
+        harness.module.trackEvent("no-properties", null);
+
+        harness.module.login("user-2");
+        harness.awaitOperations();
+
+        assertEquals(501, submitted.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals("event-" + i, submitted.get(i));
+        }
+        assertEquals((double) 499, submittedProperties.get(499).get("index"));
+        assertTrue(submittedProperties.get(500).isEmpty());
+        assertEquals(0, (int) harness.module.getRetainedSizes().get("pendingTrackEvents"));
+    }
+
+    @Test
+    public void loginRunsAfterQueuedEventsWithoutWaitingForThem() throws InterruptedException {
+        holdSdk();
+
+        harness.module.trackEvent("in-flight", null);
+        sdkEntered.await(2, TimeUnit.SECONDS);
+        harness.module.trackEvent("before-login", null);
+        long startNanos = System.nanoTime();
+        harness.module.login("user-2");
+        long loginMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        harness.module.trackEvent("after-login", null);
+
+        releaseSdkAndLogout();
+
+        assertTrue("login waited " + loginMs + " ms for the SDK", loginMs < RNOneSignalHarness.STALL_BUDGET_MS);
+        List<String> calls = harness.sdk.callLog();
+        calls.retainAll(Arrays.asList("IUserManager.trackEvent", "OneSignal.login"));
+        assertEquals(
+                Arrays.asList(
+                        "IUserManager.trackEvent",
+                        "IUserManager.trackEvent",
+                        "OneSignal.login",
+                        "IUserManager.trackEvent"),
+                calls);
+        assertEquals(Arrays.asList("in-flight", "before-login", "after-login"), submitted);
+    }
+
+    @Test
+    public void propertiesAreCopiedBeforeTheCallReturns() throws InterruptedException {
+        holdSdk();
+        JavaOnlyMap properties = JavaOnlyMap.of("plan", "pro");
+
+        harness.module.trackEvent("in-flight", null);
+        sdkEntered.await(2, TimeUnit.SECONDS);
+        harness.module.trackEvent("upgrade", properties);
+        properties.putString("plan", "changed after the call");
+
+        releaseSdkAndLogout();
+
+        assertEquals("pro", submittedProperties.get(1).get("plan"));
+    }
+
+    @Test
+    public void aFullQueueDropsTheOldestEventByDefault() throws InterruptedException {
+        holdSdk();
+
+        harness.module.trackEvent("in-flight", null);
+        sdkEntered.await(2, TimeUnit.SECONDS);
+        for (int i = 0; i <= TrackEventQueue.DEFAULT_CAPACITY; i++) {
+            harness.module.trackEvent("event-" + i, null);
+        }
+
+        releaseSdkAndLogout();
+
+        assertEquals("event-1", submitted.get(1));
+        assertCounters(TrackEventQueue.DEFAULT_CAPACITY + 2, 1, TrackEventQueue.DEFAULT_CAPACITY + 1);
+    }
+
+    @Test
+    public void dropOldestKeepsTheNewestEvents() throws InterruptedException {
+        harness.module.setTrackEventQueue(2, "dropOldest");
+        holdSdk();
+
+        harness.module.trackEvent("in-flight", null);
+        sdkEntered.await(2, TimeUnit.SECONDS);
+        harness.module.trackEvent("a", null);
+        harness.module.trackEvent("b", null);
+        harness.module.trackEvent("c", null);
+
+        releaseSdkAndLogout();
+
+        assertEquals(Arrays.asList("in-flight", "b", "c"), submitted);
+        assertCounters(4, 1, 3);
+    }
+
+    @Test
+    public void dropNewestKeepsTheOldestEvents() throws InterruptedException {
+        harness.module.setTrackEventQueue(2, "dropNewest");
+        holdSdk();
+
+        harness.module.trackEvent("in-flight", null);
+        sdkEntered.await(2, TimeUnit.SECONDS);
+        harness.module.trackEvent("a", null);
+        harness.module.trackEvent("b", null);
+        harness.module.trackEvent("c", null);
+
+        releaseSdkAndLogout();
+
+        assertEquals(Arrays.asList("in-flight", "a", "b"), submitted);
+        assertCounters(3, 1, 3);
+    }
+
+    @Test
+    public void blockWaitsForSpaceInsteadOfDropping() throws InterruptedException {
+        harness.module.setTrackEventQueue(1, "block");
+        holdSdk();
+
+        harness.module.trackEvent("in-flight", null);
+        sdkEntered.await(2, TimeUnit.SECONDS);
+        harness.module.trackEvent("a", null);
+        Thread caller = new Thread(() -> harness.module.trackEvent("b", null));
+        caller.start();
+        caller.join(100);
+        assertTrue("caller should wait for space", caller.isAlive());
+
+        sdkGate.countDown();
+        caller.join(2000);
+        harness.module.logout();
+        harness.awaitOperations();
+
+        assertEquals(Arrays.asList("in-flight", "a", "b"), submitted);
+        assertCounters(3, 0, 3);
+    }
+
+    @Test
+    public void unknownPolicyKeepsTheCurrentConfiguration() throws InterruptedException {
+        harness.module.setTrackEventQueue(1, "dropNewest");
+        harness.module.setTrackEventQueue(5, "dropEverything");
+        holdSdk();
+
+        harness.module.trackEvent("in-flight", null);
+        sdkEntered.await(2, TimeUnit.SECONDS);
+        harness.module.trackEvent("a", null);
+        harness.module.trackEvent("b", null);
+
+        releaseSdkAndLogout();
+
+        assertEquals(Arrays.asList("in-flight", "a"), submitted);
+    }
+
+    private void holdSdk() {
+        sdkGate = new CountDownLatch(1);
+    }
+
+    private void releaseSdkAndLogout() {
+        sdkGate.countDown();
+        harness.module.logout();
+        harness.awaitOperations();
+    }
+
+    private void assertCounters(int queued, int dropped, int submittedCount) {
+        Map<String, Object> trackEvents = harness.nativeMetrics().getMap("trackEvents").toHashMap();
+        assertEquals((double) queued, trackEvents.get("queued"));
+        assertEquals((double) dropped, trackEvents.get("dropped"));
+        assertEquals((double) submittedCount, trackEvents.get("submitted"));
+        assertEquals(0.0, trackEvents.get("pending"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.onesignal.rnonesignalandroid;
+
+import static org.junit.Assert.assertEquals;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RNOneSignalTriggerTest {
+    private RNOneSignalHarness harness;
+    private final List<Map<String, String>> added = Collections.synchronizedList(new ArrayList<>());
+    private final List<List<String>> removed = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        harness = new RNOneSignalHarness();
+        harness.awaitOperations();
+        harness.sdk.stub("IInAppMessagesManager.addTriggers", (SdkFakes.Answer) args -> {
+            added.add(new HashMap<>((Map<String, String>) args[0]));
+            return null;
+        });
+        harness.sdk.stub("IInAppMessagesManager.removeTriggers", (SdkFakes.Answer) args -> {
+            List<String> keys = new ArrayList<>((Collection<String>) args[0]);
+            Collections.sort(keys);
+            removed.add(keys);
+            return null;
+        });
+    }
+
+    @After
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Test
+    public void unchangedTriggersAreNotSentAgain() {
+        harness.module.setTriggers(JavaOnlyMap.of("screen", "home", "tab", "feed"));
+        harness.module.setTriggers(JavaOnlyMap.of("tab", "feed", "screen", "home"));
+        harness.awaitOperations();
+
+        assertEquals(1, added.size());
+        assertEquals(JavaOnlyMap.of("screen", "home", "tab", "feed").toHashMap(), new HashMap<>(added.get(0)));
+        assertEquals(0, removed.size());
+    }
+
+    @Test
+    public void onlyChangedAndRemovedKeysAreSent() {
+        harness.module.setTriggers(JavaOnlyMap.of("screen", "home", "tab", "feed", "experiment", "b"));
+        harness.module.setTriggers(JavaOnlyMap.of("screen", "settings", "experiment", "b", "modal", "open"));
+        harness.awaitOperations();
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("screen", "settings");
+        expected.put("modal", "open");
+        assertEquals(expected, added.get(1));
+        assertEquals(Collections.singletonList(Collections.singletonList("tab")), removed);
+        assertEquals(3, (int) harness.module.getRetainedSizes().get("inAppMessageTriggers"));
+    }
+
+    @Test
+    public void nonStringValuesCountAsRemoved() {
+        harness.module.setTriggers(JavaOnlyMap.of("screen", "home", "count", "1"));
+        harness.module.setTriggers(JavaOnlyMap.of("screen", "home", "count", 2));
+        harness.awaitOperations();
+
+        assertEquals(1, added.size());
+        assertEquals(Collections.singletonList(Collections.singletonList("count")), removed);
+    }
+
+    @Test
+    public void incrementalCallsKeepTheMirrorInStep() {
+        harness.module.addTriggers(JavaOnlyMap.of("screen", "home", "tab", "feed"));
+        harness.module.addTrigger("modal", "open");
+        harness.module.removeTriggers(JavaOnlyArray.of("tab"));
+        harness.module.setTriggers(JavaOnlyMap.of("screen", "home", "modal", "open"));
+        harness.awaitOperations();
+
+        // Only the addTriggers call itself; setTriggers found nothing to change.
+        assertEquals(1, added.size());
+
+        harness.module.clearTriggers();
+        harness.module.setTriggers(JavaOnlyMap.of("screen", "home"));
+        harness.awaitOperations();
+
+        assertEquals(Arrays.asList("screen"), new ArrayList<>(added.get(1).keySet()));
+    }
+}
@@ -0,0 +1,170 @@
+package com.onesignal.rnonesignalandroid;
+
+import com.onesignal.inAppMessages.IInAppMessage;
+import com.onesignal.inAppMessages.IInAppMessageClickEvent;
+import com.onesignal.inAppMessages.IInAppMessageClickResult;
+import com.onesignal.inAppMessages.IInAppMessageDidDismissEvent;
+import com.onesignal.inAppMessages.IInAppMessageDidDisplayEvent;
+import com.onesignal.inAppMessages.IInAppMessageWillDismissEvent;
+import com.onesignal.inAppMessages.IInAppMessageWillDisplayEvent;
+import com.onesignal.notifications.IActionButton;
+import com.onesignal.notifications.INotification;
+import com.onesignal.notifications.INotificationClickEvent;
+import com.onesignal.notifications.INotificationClickResult;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * JVM stand-ins for the OneSignal SDK interfaces that RNUtils and RNOneSignal read. Each fake is a dynamic proxy
+ * answering getters from a map keyed by method name, so it keeps compiling when the SDK adds methods; anything
+ * not in the map returns null, 0 or false.
+ */
+final class SdkFakes {
+    private SdkFakes() {}
+
+    /** A value computed from the call's arguments instead of a fixed one. */
+    interface Answer {
+        Object answer(Object[] args) throws Throwable;
+    }
+
+    static <T> T fake(Class<T> type, Map<String, Object> values) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return self == args[0];
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "toString":
+                    return type.getSimpleName() + values;
+                default:
+                    break;
+            }
+
+            Object value = values.get(method.getName());
+            if (value instanceof Answer) {
+                value = ((Answer) value).answer(args != null ? args : new Object[0]);
+            }
+            return value != null ? value : defaultValue(method.getReturnType());
+        });
+        return type.cast(proxy);
+    }
+
+    /** What an unstubbed method returns: null for objects, zero or false for primitives. */
+    static Object defaultValue(Class<?> returnType) {
+        if (!returnType.isPrimitive() || returnType == void.class) {
+            return null;
+        }
+        if (returnType == boolean.class) {
+            return false;
+        }
+        if (returnType == long.class) {
+            return 0L;
+        }
+        if (returnType == double.class) {
+            return 0.0;
+        }
+        if (returnType == float.class) {
+            return 0f;
+        }
+        return 0;
+    }
+
+    static INotification notification(
+            String notificationId, String title, String body, JSONObject additionalData, String rawPayload) {
+        return fake(INotification.class, notificationValues(notificationId, title, body, additionalData, rawPayload));
+    }
+
+    /** The getters of {@link #notification}, for tests that add more before calling {@link #fake}. */
+    static Map<String, Object> notificationValues(
+            String notificationId, String title, String body, JSONObject additionalData, String rawPayload) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("getAndroidNotificationId", 1);
+        values.put("getNotificationId", notificationId);
+        values.put("getTitle", title);
+        values.put("getBody", body);
+        values.put("getSound", "default");
+        values.put("getLockScreenVisibility", 1);
+        values.put("getPriority", 5);
+        values.put("getAdditionalData", additionalData);
+        values.put("getRawPayload", rawPayload);
+        return values;
+    }
+
+    static INotification summaryNotification(String notificationId, String groupKey, List<INotification> children) {
+        JSONObject additionalData = new JSONObject();
+        try {
+            additionalData.put("group", groupKey);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+        Map<String, Object> values = notificationValues(
+                notificationId, children.size() + " new messages", null, additionalData, "{}");
+        values.put("getGroupKey", groupKey);
+        values.put("getGroupMessage", "You have $[notif_count] new messages");
+        values.put("getGroupedNotifications", children);
+        return fake(INotification.class, values);
+    }
+
+    static IActionButton actionButton(String id, String text, String icon) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("getId", id);
+        values.put("getText", text);
+        values.put("getIcon", icon);
+        return fake(IActionButton.class, values);
+    }
+
+    static INotificationClickEvent notificationClickEvent(INotification notification, String actionId, String url) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("getActionId", actionId);
+        result.put("getUrl", url);
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("getNotification", notification);
+        values.put("getResult", fake(INotificationClickResult.class, result));
+        return fake(INotificationClickEvent.class, values);
+    }
+
+    static IInAppMessage inAppMessage(String messageId) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("getMessageId", messageId);
+        return fake(IInAppMessage.class, values);
+    }
+
+    static IInAppMessageClickEvent inAppMessageClickEvent(String messageId, String actionId, String url) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("getActionId", actionId);
+        result.put("getUrl", url);
+        result.put("getClosingMessage", true);
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("getMessage", inAppMessage(messageId));
+        values.put("getResult", fake(IInAppMessageClickResult.class, result));
+        return fake(IInAppMessageClickEvent.class, values);
+    }
+
+    static IInAppMessageWillDisplayEvent inAppMessageWillDisplayEvent(String messageId) {
+        return fake(IInAppMessageWillDisplayEvent.class, messageValues(messageId));
+    }
+
+    static IInAppMessageDidDisplayEvent inAppMessageDidDisplayEvent(String messageId) {
+        return fake(IInAppMessageDidDisplayEvent.class, messageValues(messageId));
+    }
+
+    static IInAppMessageWillDismissEvent inAppMessageWillDismissEvent(String messageId) {
+        return fake(IInAppMessageWillDismissEvent.class, messageValues(messageId));
+    }
+
+    static IInAppMessageDidDismissEvent inAppMessageDidDismissEvent(String messageId) {
+        return fake(IInAppMessageDidDismissEvent.class, messageValues(messageId));
+    }
+
+    private static Map<String, Object> messageValues(String messageId) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("getMessage", inAppMessage(messageId));
+        return values;
+    }
+}
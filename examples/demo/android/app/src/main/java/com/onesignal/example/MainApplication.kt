@@ -6,6 +6,7 @@ import com.facebook.react.ReactApplication
 import com.facebook.react.ReactHost
 import com.facebook.react.ReactNativeApplicationEntryPoint.loadReactNative
 import com.facebook.react.defaults.DefaultReactHost.getDefaultReactHost
+import com.onesignal.rnonesignalandroid.RNOneSignalInitializer
 
 class MainApplication : Application(), ReactApplication {
 
@@ -22,6 +23,9 @@ class MainApplication : Application(), ReactApplication {
 
   override fun onCreate() {
     super.onCreate()
+    // Initializes OneSignal before JS loads when the manifest carries an app ID, see the
+    // "Startup timing" section of the README.
+    RNOneSignalInitializer.initialize(this)
     loadReactNative(this)
   }
 }
@@ -35,6 +35,19 @@ function resolveAppId(): string {
 const apiService = OneSignalApiService.getInstance();
 const preferences = PreferencesService.getInstance();
 
+// Android only; compare builds with and without -PonesignalNativeInitAppId, see the README.
+async function logStartupTiming() {
+  const { startup } = await OneSignal.Debug.getNativeMetrics();
+  if (!startup) return;
+
+  console.log(
+    `OneSignal startup (${startup.mode}): ` +
+      `initWithContext ${startup.initWithContextMs.toFixed(1)} ms, ` +
+      `initialize ${startup.initializeMs.toFixed(1)} ms, ` +
+      `native init lead ${startup.nativeInitLeadMs.toFixed(1)} ms`,
+  );
+}
+
 async function postNotification(type: NotificationType): Promise<boolean> {
   const subscriptionId = await OneSignal.User.pushSubscription.getIdAsync();
   if (!subscriptionId) return false;
@@ -264,6 +277,7 @@ function useOneSignalState(): UseOneSignalReturn {
       OneSignal.User.addEventListener('change', userChangeHandler);
 
       console.log(`OneSignal initialized with app ID: ${nextAppId}`);
+      void logStartupTiming();
 
       const externalId = await OneSignal.User.getExternalId();
       const [pushId, pushOptedIn, hasPerm] = await Promise.all([
@@ -12,4 +12,11 @@
                 OSNotificationClickListener, OSUserStateObserver>
 + (RCTOneSignal *)sharedInstance;
 
+// Click events fired before JS adds the matching listener are buffered and
+// replayed, in order, when the emitter attaches that event.
+- (void)registerClickListeners;
+- (void)attachEvent:(NSString *)eventName;
+- (void)detachAllEvents;
+- (void)setReplayBufferCapacity:(NSUInteger)capacity maxAgeMs:(double)maxAgeMs;
+
 @end
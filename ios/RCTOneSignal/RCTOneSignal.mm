@@ -6,6 +6,21 @@
 
 @implementation RCTOneSignal {
   BOOL didInitialize;
+  BOOL didRegisterClickListeners;
+  NSMutableDictionary<NSString *, NSMutableArray *> *replayBuffers;
+  NSMutableSet<NSString *> *attachedEvents;
+  NSUInteger replayCapacity;
+  double replayMaxAgeMs;
+}
+
+- (instancetype)init {
+  if (self = [super init]) {
+    replayBuffers = [NSMutableDictionary new];
+    attachedEvents = [NSMutableSet new];
+    replayCapacity = 10;
+    replayMaxAgeMs = 60 * 1000;
+  }
+  return self;
 }
 
 + (RCTOneSignal *)sharedInstance {
@@ -28,12 +43,83 @@
   // triggered
   [OneSignal initialize:nil withLaunchOptions:launchOptions];
   didInitialize = true;
+  // Listen for clicks from launch so the one that cold-started the app can be
+  // replayed once JS adds its listener.
+  [self registerClickListeners];
+}
+
+- (void)registerClickListeners {
+  @synchronized(self) {
+    if (didRegisterClickListeners)
+      return;
+    didRegisterClickListeners = true;
+  }
+  [OneSignal.Notifications addClickListener:self];
+  [OneSignal.InAppMessages addClickListener:self];
 }
 
 - (void)sendEvent:(NSString *)eventName withBody:(NSDictionary *)body {
   [RCTOneSignalEventEmitter sendEventWithName:eventName withBody:body];
 }
 
+- (void)sendReplayableEvent:(NSString *)eventName
+                   withBody:(NSDictionary *)body {
+  @synchronized(self) {
+    if (replayCapacity > 0 && ![attachedEvents containsObject:eventName]) {
+      NSMutableArray *buffer = replayBuffers[eventName];
+      if (!buffer) {
+        buffer = [NSMutableArray new];
+        replayBuffers[eventName] = buffer;
+      }
+      [buffer addObject:@{@"body" : body, @"recordedAt" : [NSDate date]}];
+      [self trimReplayBuffer:buffer];
+      return;
+    }
+  }
+  [self sendEvent:eventName withBody:body];
+}
+
+- (void)attachEvent:(NSString *)eventName {
+  // Replay under the lock so a click arriving meanwhile is sent after the
+  // buffered ones.
+  @synchronized(self) {
+    [attachedEvents addObject:eventName];
+    NSMutableArray *buffer = replayBuffers[eventName];
+    [replayBuffers removeObjectForKey:eventName];
+    [self trimReplayBuffer:buffer];
+    for (NSDictionary *event in buffer) {
+      [self sendEvent:eventName withBody:event[@"body"]];
+    }
+  }
+}
+
+- (void)detachAllEvents {
+  @synchronized(self) {
+    [attachedEvents removeAllObjects];
+  }
+}
+
+- (void)setReplayBufferCapacity:(NSUInteger)capacity maxAgeMs:(double)maxAgeMs {
+  @synchronized(self) {
+    replayCapacity = capacity;
+    replayMaxAgeMs = MAX(maxAgeMs, 0);
+    for (NSMutableArray *buffer in replayBuffers.allValues) {
+      [self trimReplayBuffer:buffer];
+    }
+  }
+}
+
+- (void)trimReplayBuffer:(NSMutableArray *)buffer {
+  while (buffer.count > replayCapacity) {
+    [buffer removeObjectAtIndex:0];
+  }
+  while (replayMaxAgeMs > 0 && buffer.count > 0 &&
+         -[buffer.firstObject[@"recordedAt"] timeIntervalSinceNow] * 1000 >=
+             replayMaxAgeMs) {
+    [buffer removeObjectAtIndex:0];
+  }
+}
+
 - (void)onUserStateDidChangeWithState:(OSUserChangedState *_Nonnull)state {
   NSString *onesignalId = state.current.onesignalId;
   NSString *externalId = state.current.externalId;
@@ -96,13 +182,13 @@
 }
 
 - (void)onClickNotification:(OSNotificationClickEvent *_Nonnull)event {
-  [self sendEvent:OSEventString(NotificationClicked)
-         withBody:[event jsonRepresentation]];
+  [self sendReplayableEvent:OSEventString(NotificationClicked)
+                   withBody:[event jsonRepresentation]];
 }
 
 - (void)onClickInAppMessage:(OSInAppMessageClickEvent *_Nonnull)event {
-  [self sendEvent:OSEventString(InAppMessageClicked)
-         withBody:[event jsonRepresentation]];
+  [self sendReplayableEvent:OSEventString(InAppMessageClicked)
+                   withBody:[event jsonRepresentation]];
 }
 
 - (void)onWillDisplayInAppMessage:
@@ -54,6 +54,23 @@ static id OSDecodeNullSentinels(id value) {
   BOOL _hasAddedInAppMessageLifecycleListener;
   NSMutableDictionary *_preventDefaultCache;
   NSMutableDictionary *_notificationWillDisplayCache;
+  double _willDisplayTimeoutMs;
+  BOOL _displayOnWillDisplayTimeout;
+  BOOL _includeRawPayloadOnWillDisplay;
+  BOOL _includeRawPayloadOnClick;
+  NSCache *_rawPayloadCache;
+  NSMutableArray *_batchedEvents;
+  BOOL _eventBatchingEnabled;
+  BOOL _batchFlushScheduled;
+  double _eventBatchIntervalMs;
+  NSMutableDictionary *_pendingTagAdds;
+  NSMutableOrderedSet *_pendingTagRemoves;
+  double _tagCoalescingWindowMs;
+  BOOL _tagFlushScheduled;
+  NSMutableDictionary<NSString *, NSNumber *> *_pendingOutcomeSums;
+  BOOL _outcomeAggregationEnabled;
+  double _outcomeAggregationWindowMs;
+  BOOL _outcomeFlushScheduled;
 }
 
 static RCTOneSignalEventEmitter *_currentInstance = nil;
@@ -64,10 +81,40 @@ static RCTOneSignalEventEmitter *_currentInstance = nil;
 
 RCT_EXPORT_MODULE(OneSignal)
 
+// The queue exported methods run on. The will-display caches are only touched
+// on it, so SDK callbacks and timers hop onto it first.
+@synthesize methodQueue = _methodQueue;
+
 - (instancetype)init {
   if (self = [super init]) {
     _preventDefaultCache = [NSMutableDictionary new];
     _notificationWillDisplayCache = [NSMutableDictionary new];
+    _willDisplayTimeoutMs = 25000;
+    _displayOnWillDisplayTimeout = YES;
+    _includeRawPayloadOnWillDisplay = YES;
+    _includeRawPayloadOnClick = YES;
+    _rawPayloadCache = [NSCache new];
+    _rawPayloadCache.countLimit = 32;
+    _batchedEvents = [NSMutableArray new];
+    _eventBatchingEnabled = NO;
+    _batchFlushScheduled = NO;
+    _eventBatchIntervalMs = 16;
+    _pendingTagAdds = [NSMutableDictionary new];
+    _pendingTagRemoves = [NSMutableOrderedSet new];
+    _tagCoalescingWindowMs = 0;
+    _tagFlushScheduled = NO;
+    _pendingOutcomeSums = [NSMutableDictionary new];
+    _outcomeAggregationEnabled = NO;
+    _outcomeAggregationWindowMs = 0;
+    _outcomeFlushScheduled = NO;
+
+    // The app may not come back from the background; send aggregated
+    // outcomes while it still can.
+    [[NSNotificationCenter defaultCenter]
+        addObserver:self
+           selector:@selector(flushOutcomes)
+               name:UIApplicationDidEnterBackgroundNotification
+             object:nil];
 
     // Clean up previous instance if it exists (handles reload scenario)
     if (_currentInstance != nil && _currentInstance != self) {
@@ -85,6 +132,14 @@ RCT_EXPORT_MODULE(OneSignal)
   [self removeObservers];
   [_preventDefaultCache removeAllObjects];
   [_notificationWillDisplayCache removeAllObjects];
+  [_rawPayloadCache removeAllObjects];
+  [self flushTags];
+  [[NSNotificationCenter defaultCenter] removeObserver:self];
+  [self flushOutcomes];
+  @synchronized(_batchedEvents) {
+    _eventBatchingEnabled = NO;
+    [_batchedEvents removeAllObjects];
+  }
   if (_currentInstance == self) {
     _currentInstance = nil;
   }
@@ -103,30 +158,114 @@ RCT_EXPORT_MODULE(OneSignal)
 #pragma mark Send Event Methods
 
 - (void)emitEventWithName:(NSString *)name body:(NSDictionary *)body {
+  NSString *nativeName = nil;
   if ([name isEqualToString:OSEventString(PermissionChanged)]) {
-    [self emitOnPermissionChanged:body];
+    nativeName = @"onPermissionChanged";
   } else if ([name isEqualToString:OSEventString(SubscriptionChanged)]) {
-    [self emitOnSubscriptionChanged:body];
+    nativeName = @"onSubscriptionChanged";
   } else if ([name isEqualToString:OSEventString(UserStateChanged)]) {
-    [self emitOnUserStateChanged:body];
+    nativeName = @"onUserStateChanged";
   } else if ([name isEqualToString:
                         OSEventString(NotificationWillDisplayInForeground)]) {
-    [self emitOnNotificationWillDisplay:body];
+    if (!_includeRawPayloadOnWillDisplay) {
+      body = [self notificationByRemovingRawPayload:body];
+    }
+    nativeName = @"onNotificationWillDisplay";
   } else if ([name isEqualToString:OSEventString(NotificationClicked)]) {
-    [self emitOnNotificationClicked:body];
+    if (!_includeRawPayloadOnClick && body[@"notification"]) {
+      NSMutableDictionary *clickBody = [body mutableCopy];
+      clickBody[@"notification"] =
+          [self notificationByRemovingRawPayload:body[@"notification"]];
+      body = clickBody;
+    }
+    nativeName = @"onNotificationClicked";
   } else if ([name isEqualToString:OSEventString(InAppMessageClicked)]) {
-    [self emitOnInAppMessageClicked:body];
+    nativeName = @"onInAppMessageClicked";
   } else if ([name isEqualToString:OSEventString(InAppMessageWillDisplay)]) {
-    [self emitOnInAppMessageWillDisplay:body];
+    nativeName = @"onInAppMessageWillDisplay";
   } else if ([name isEqualToString:OSEventString(InAppMessageDidDisplay)]) {
-    [self emitOnInAppMessageDidDisplay:body];
+    nativeName = @"onInAppMessageDidDisplay";
   } else if ([name isEqualToString:OSEventString(InAppMessageWillDismiss)]) {
-    [self emitOnInAppMessageWillDismiss:body];
+    nativeName = @"onInAppMessageWillDismiss";
   } else if ([name isEqualToString:OSEventString(InAppMessageDidDismiss)]) {
+    nativeName = @"onInAppMessageDidDismiss";
+  }
+
+  if (nativeName == nil || [self enqueueBatchedEvent:nativeName body:body]) {
+    return;
+  }
+
+  if ([nativeName isEqualToString:@"onPermissionChanged"]) {
+    [self emitOnPermissionChanged:body];
+  } else if ([nativeName isEqualToString:@"onSubscriptionChanged"]) {
+    [self emitOnSubscriptionChanged:body];
+  } else if ([nativeName isEqualToString:@"onUserStateChanged"]) {
+    [self emitOnUserStateChanged:body];
+  } else if ([nativeName isEqualToString:@"onNotificationWillDisplay"]) {
+    [self emitOnNotificationWillDisplay:body];
+  } else if ([nativeName isEqualToString:@"onNotificationClicked"]) {
+    [self emitOnNotificationClicked:body];
+  } else if ([nativeName isEqualToString:@"onInAppMessageClicked"]) {
+    [self emitOnInAppMessageClicked:body];
+  } else if ([nativeName isEqualToString:@"onInAppMessageWillDisplay"]) {
+    [self emitOnInAppMessageWillDisplay:body];
+  } else if ([nativeName isEqualToString:@"onInAppMessageDidDisplay"]) {
+    [self emitOnInAppMessageDidDisplay:body];
+  } else if ([nativeName isEqualToString:@"onInAppMessageWillDismiss"]) {
+    [self emitOnInAppMessageWillDismiss:body];
+  } else if ([nativeName isEqualToString:@"onInAppMessageDidDismiss"]) {
     [self emitOnInAppMessageDidDismiss:body];
   }
 }
 
+// Queues the event when batching is enabled. Returns NO if the caller should
+// emit it directly.
+- (BOOL)enqueueBatchedEvent:(NSString *)nativeName body:(NSDictionary *)body {
+  @synchronized(_batchedEvents) {
+    if (!_eventBatchingEnabled) {
+      return NO;
+    }
+    [_batchedEvents
+        addObject:@{@"type" : nativeName, @"payload" : body ?: @{}}];
+    if (!_batchFlushScheduled) {
+      _batchFlushScheduled = YES;
+      __weak RCTOneSignalEventEmitter *weakSelf = self;
+      int64_t delay = (int64_t)(_eventBatchIntervalMs * NSEC_PER_MSEC);
+      dispatch_after(dispatch_time(DISPATCH_TIME_NOW, delay),
+                     dispatch_get_main_queue(), ^{
+                       [weakSelf flushBatchedEvents];
+                     });
+    }
+    return YES;
+  }
+}
+
+- (void)flushBatchedEvents {
+  @synchronized(_batchedEvents) {
+    _batchFlushScheduled = NO;
+    if (_batchedEvents.count == 0) {
+      return;
+    }
+    NSArray *events = [_batchedEvents copy];
+    [_batchedEvents removeAllObjects];
+    [self emitOnEventBatch:@{@"events" : events}];
+  }
+}
+
+// Moves rawPayload out of a notification body into the bounded cache read by
+// getNotificationRawPayload.
+- (NSDictionary *)notificationByRemovingRawPayload:(NSDictionary *)notification {
+  NSString *notificationId = notification[@"notificationId"];
+  id rawPayload = notification[@"rawPayload"];
+  if (notificationId && rawPayload) {
+    [_rawPayloadCache setObject:rawPayload forKey:notificationId];
+  }
+
+  NSMutableDictionary *stripped = [notification mutableCopy];
+  [stripped removeObjectForKey:@"rawPayload"];
+  return stripped;
+}
+
 + (void)sendEventWithName:(NSString *)name withBody:(NSDictionary *)body {
   [_currentInstance emitEventWithName:name body:body];
 }
@@ -139,10 +278,51 @@ RCT_EXPORT_METHOD(initialize : (NSString *_Nonnull)appId) {
 }
 
 RCT_EXPORT_METHOD(login : (NSString *)externalId) {
+  // Pending tags and outcomes belong to the user they were recorded for.
+  [self flushTags];
+  [self flushOutcomes];
   [OneSignal login:externalId];
 }
 
-RCT_EXPORT_METHOD(logout) { [OneSignal logout]; }
+// login switches the SDK's local user before it returns, so the profile set
+// right after it goes to the new user.
+RCT_EXPORT_METHOD(loginWithProfile : (NSString *)externalId
+                  profile : (NSDictionary *)profile) {
+  [self flushTags];
+  [self flushOutcomes];
+  [OneSignal login:externalId];
+
+  NSDictionary *aliases = profile[@"aliases"];
+  if ([aliases isKindOfClass:[NSDictionary class]] && aliases.count > 0) {
+    [OneSignal.User addAliases:aliases];
+  }
+  NSDictionary *tags = profile[@"tags"];
+  if ([tags isKindOfClass:[NSDictionary class]] && tags.count > 0) {
+    [OneSignal.User addTags:tags];
+  }
+  NSArray *emails = profile[@"emails"];
+  if ([emails isKindOfClass:[NSArray class]]) {
+    for (NSString *email in emails) {
+      [OneSignal.User addEmail:email];
+    }
+  }
+  NSArray *smsNumbers = profile[@"sms"];
+  if ([smsNumbers isKindOfClass:[NSArray class]]) {
+    for (NSString *smsNumber in smsNumbers) {
+      [OneSignal.User addSms:smsNumber];
+    }
+  }
+  NSString *language = profile[@"language"];
+  if ([language isKindOfClass:[NSString class]]) {
+    [OneSignal.User setLanguage:language];
+  }
+}
+
+RCT_EXPORT_METHOD(logout) {
+  [self flushTags];
+  [self flushOutcomes];
+  [OneSignal logout];
+}
 
 RCT_EXPORT_METHOD(enterLiveActivity : (NSString *)activityId
                   token : (NSString *)token
@@ -260,6 +440,259 @@ RCT_EXPORT_METHOD(setPrivacyConsentGiven : (BOOL)granted) {
   });
 }
 
+RCT_EXPORT_METHOD(setEventBatching : (BOOL)enabled
+                  intervalMs : (double)intervalMs) {
+  @synchronized(_batchedEvents) {
+    _eventBatchIntervalMs = intervalMs > 0 ? intervalMs : 16;
+    _eventBatchingEnabled = enabled;
+  }
+  if (!enabled) {
+    [self flushBatchedEvents];
+  }
+}
+
+// Module methods run in call order on the module's serial method queue, so
+// every earlier call has already been handed to the SDK by the time this runs.
+RCT_EXPORT_METHOD(flushPendingOperations : (RCTPromiseResolveBlock)resolve
+                  reject : (RCTPromiseRejectBlock)reject) {
+  resolve(nil);
+}
+
+// Operation codes for executeBatch, matching OperationBatch.ts and
+// OperationBatch.java.
+typedef NS_ENUM(NSInteger, OSBatchOperation) {
+  OSBatchOperationLogin = 1,
+  OSBatchOperationLogout = 2,
+  OSBatchOperationSetLanguage = 3,
+  OSBatchOperationAddAlias = 4,
+  OSBatchOperationAddAliases = 5,
+  OSBatchOperationRemoveAlias = 6,
+  OSBatchOperationRemoveAliases = 7,
+  OSBatchOperationAddEmail = 8,
+  OSBatchOperationRemoveEmail = 9,
+  OSBatchOperationAddSms = 10,
+  OSBatchOperationRemoveSms = 11,
+  OSBatchOperationAddTag = 12,
+  OSBatchOperationAddTags = 13,
+  OSBatchOperationRemoveTag = 14,
+  OSBatchOperationRemoveTags = 15,
+  OSBatchOperationAddOutcome = 16,
+  OSBatchOperationAddUniqueOutcome = 17,
+  OSBatchOperationAddOutcomeWithValue = 18,
+  OSBatchOperationOptIn = 19,
+  OSBatchOperationOptOut = 20,
+};
+
+// Argument counts for executeBatch, indexed by OSBatchOperation. -1 takes
+// keys and values in pairs, -2 any number.
+static const NSInteger kOSBatchArgumentCounts[] = {
+    0,  // unused
+    1,  // login
+    0,  // logout
+    1,  // setLanguage
+    2,  // addAlias
+    -1, // addAliases
+    1,  // removeAlias
+    -2, // removeAliases
+    1,  // addEmail
+    1,  // removeEmail
+    1,  // addSms
+    1,  // removeSms
+    2,  // addTag
+    -1, // addTags
+    1,  // removeTag
+    -2, // removeTags
+    1,  // addOutcome
+    1,  // addUniqueOutcome
+    2,  // addOutcomeWithValue
+    0,  // optIn
+    0,  // optOut
+};
+static_assert(sizeof(kOSBatchArgumentCounts) / sizeof(NSInteger) ==
+                  OSBatchOperationOptOut + 1,
+              "kOSBatchArgumentCounts must cover every OSBatchOperation");
+
+static NSDictionary *OSBatchPairs(NSArray<NSString *> *args) {
+  NSMutableDictionary *map =
+      [NSMutableDictionary dictionaryWithCapacity:args.count / 2];
+  for (NSUInteger i = 0; i + 1 < args.count; i += 2) {
+    map[args[i]] = args[i + 1];
+  }
+  return map;
+}
+
+// Why an operation cannot be applied, or nil if it can.
+static NSString *OSBatchValidate(NSInteger code, NSArray *args) {
+  NSInteger count = sizeof(kOSBatchArgumentCounts) / sizeof(NSInteger);
+  if (code <= 0 || code >= count) {
+    return [NSString stringWithFormat:@"unknown operation %ld", (long)code];
+  }
+  for (NSUInteger i = 0; i < args.count; i++) {
+    if (![args[i] isKindOfClass:[NSString class]]) {
+      return [NSString
+          stringWithFormat:@"argument %lu is not a string", (unsigned long)i];
+    }
+  }
+  NSInteger expected = kOSBatchArgumentCounts[code];
+  if (expected == -1 && args.count % 2 != 0) {
+    return @"expected keys and values in pairs";
+  }
+  if (expected >= 0 && (NSInteger)args.count != expected) {
+    return [NSString stringWithFormat:@"expected %ld arguments, got %lu",
+                                      (long)expected,
+                                      (unsigned long)args.count];
+  }
+  if (code == OSBatchOperationAddOutcomeWithValue) {
+    NSScanner *scanner = [NSScanner scannerWithString:args[1]];
+    if (![scanner scanDouble:NULL] || !scanner.isAtEnd) {
+      return [NSString
+          stringWithFormat:@"outcome value is not a number: %@", args[1]];
+    }
+  }
+  return nil;
+}
+
+- (void)applyBatchOperation:(NSInteger)code args:(NSArray<NSString *> *)args {
+  switch (code) {
+  case OSBatchOperationLogin:
+    [self login:args[0]];
+    break;
+  case OSBatchOperationLogout:
+    [self logout];
+    break;
+  case OSBatchOperationSetLanguage:
+    [self setLanguage:args[0]];
+    break;
+  case OSBatchOperationAddAlias:
+    [self addAlias:args[0] id:args[1]];
+    break;
+  case OSBatchOperationAddAliases:
+    [self addAliases:OSBatchPairs(args)];
+    break;
+  case OSBatchOperationRemoveAlias:
+    [self removeAlias:args[0]];
+    break;
+  case OSBatchOperationRemoveAliases:
+    [self removeAliases:args];
+    break;
+  case OSBatchOperationAddEmail:
+    [self addEmail:args[0]];
+    break;
+  case OSBatchOperationRemoveEmail:
+    [self removeEmail:args[0]];
+    break;
+  case OSBatchOperationAddSms:
+    [self addSms:args[0]];
+    break;
+  case OSBatchOperationRemoveSms:
+    [self removeSms:args[0]];
+    break;
+  case OSBatchOperationAddTag:
+    [self addTag:args[0] value:args[1]];
+    break;
+  case OSBatchOperationAddTags:
+    [self addTags:OSBatchPairs(args)];
+    break;
+  case OSBatchOperationRemoveTag:
+    [self removeTag:args[0]];
+    break;
+  case OSBatchOperationRemoveTags:
+    [self removeTags:args];
+    break;
+  case OSBatchOperationAddOutcome:
+    [self addOutcome:args[0]];
+    break;
+  case OSBatchOperationAddUniqueOutcome:
+    [self addUniqueOutcome:args[0]];
+    break;
+  case OSBatchOperationAddOutcomeWithValue:
+    [self addOutcomeWithValue:args[0] value:[args[1] doubleValue]];
+    break;
+  case OSBatchOperationOptIn:
+    [self optIn];
+    break;
+  case OSBatchOperationOptOut:
+    [self optOut];
+    break;
+  }
+}
+
+// Applies the calls encoded by OperationBatch.ts in order, through the same
+// methods as the single calls. Resolves with one entry per call: null if it
+// was applied, or why it was skipped.
+RCT_EXPORT_METHOD(executeBatch : (NSArray *)ops
+                  args : (NSArray *)args
+                  resolve : (RCTPromiseResolveBlock)resolve
+                  reject : (RCTPromiseRejectBlock)reject) {
+  if (ops.count % 2 != 0) {
+    reject(@"Error", @"Invalid operation batch: ops must hold a code and an "
+                     @"argument count per operation", nil);
+    return;
+  }
+  // Decode everything first, so a malformed batch applies nothing.
+  NSMutableArray *codes = [NSMutableArray arrayWithCapacity:ops.count / 2];
+  NSMutableArray *operationArgs =
+      [NSMutableArray arrayWithCapacity:ops.count / 2];
+  NSUInteger argIndex = 0;
+  for (NSUInteger i = 0; i < ops.count; i += 2) {
+    NSInteger count = [ops[i + 1] integerValue];
+    if (count < 0 || argIndex + count > args.count) {
+      reject(@"Error",
+             [NSString stringWithFormat:@"Invalid operation batch: operation "
+                                        @"%lu reads past the end of args",
+                                        (unsigned long)i / 2],
+             nil);
+      return;
+    }
+    [codes addObject:ops[i]];
+    [operationArgs
+        addObject:[args subarrayWithRange:NSMakeRange(argIndex, count)]];
+    argIndex += count;
+  }
+  if (argIndex != args.count) {
+    reject(@"Error",
+           [NSString stringWithFormat:@"Invalid operation batch: args holds "
+                                      @"%lu unused values",
+                                      (unsigned long)(args.count - argIndex)],
+           nil);
+    return;
+  }
+
+  NSMutableArray *results = [NSMutableArray arrayWithCapacity:codes.count];
+  for (NSUInteger i = 0; i < codes.count; i++) {
+    NSInteger code = [codes[i] integerValue];
+    NSString *error = OSBatchValidate(code, operationArgs[i]);
+    if (error == nil) {
+      [self applyBatchOperation:code args:operationArgs[i]];
+      [results addObject:[NSNull null]];
+    } else {
+      [OneSignalLog
+          onesignalLog:ONE_S_LL_WARN
+               message:[NSString
+                           stringWithFormat:@"Skipped batch operation %ld: %@",
+                                            (long)code, error]];
+      [results addObject:error];
+    }
+  }
+  // Resolve once every call has reached the SDK, including tag writes and
+  // outcomes still held for coalescing or aggregation.
+  [self flushTags];
+  [self flushOutcomes];
+  resolve(results);
+}
+
+RCT_EXPORT_METHOD(setEventReplayBuffer : (double)capacity
+                  maxAgeMs : (double)maxAgeMs) {
+  [[RCTOneSignal sharedInstance]
+      setReplayBufferCapacity:(NSUInteger)MAX(capacity, 0)
+                     maxAgeMs:maxAgeMs];
+}
+
+RCT_EXPORT_METHOD(setNotificationDeduplication : (double)capacity
+                  windowMs : (double)windowMs) {
+  // Android only, no-op on iOS
+}
+
 RCT_EXPORT_METHOD(setPrivacyConsentRequired : (BOOL)required) {
   [OneSignal setConsentRequired:required];
 }
@@ -273,39 +706,122 @@ RCT_EXPORT_METHOD(setAlertLevel : (double)logLevel) {
   [OneSignal.Debug setAlertLevel:(ONE_S_LOG_LEVEL)(int)logLevel];
 }
 
+// Event pipeline metrics are only collected on Android so far.
+RCT_EXPORT_METHOD(getNativeMetrics : (RCTPromiseResolveBlock)resolve
+                  reject : (RCTPromiseRejectBlock)reject) {
+  resolve(@{@"sinceMs" : @0, @"events" : @{}});
+}
+
+RCT_EXPORT_METHOD(resetNativeMetrics) {
+}
+
 // OneSignal.InAppMessages namespace methods
 RCT_EXPORT_METHOD(getPaused : (RCTPromiseResolveBlock)resolve
                   reject : (RCTPromiseRejectBlock)reject) {
   resolve(@([OneSignal.InAppMessages paused]));
 }
 
+RCT_EXPORT_BLOCKING_SYNCHRONOUS_METHOD(getPausedSync) {
+  return @([OneSignal.InAppMessages paused]);
+}
+
 RCT_EXPORT_METHOD(paused : (BOOL)pause) {
   [OneSignal.InAppMessages paused:pause];
 }
 
+// The triggers last sent to the SDK, so setTriggers can send only what
+// changed. Shared across module instances because the SDK keeps its triggers
+// across JS reloads too.
++ (NSMutableDictionary<NSString *, NSString *> *)triggerMirror {
+  static NSMutableDictionary<NSString *, NSString *> *mirror;
+  static dispatch_once_t onceToken;
+  dispatch_once(&onceToken, ^{
+    mirror = [NSMutableDictionary new];
+  });
+  return mirror;
+}
+
 RCT_EXPORT_METHOD(addTrigger : (NSString *)key value : (NSString *)value) {
+  NSMutableDictionary *mirror = [RCTOneSignalEventEmitter triggerMirror];
+  @synchronized(mirror) {
+    mirror[key] = value;
+  }
   [OneSignal.InAppMessages addTrigger:key withValue:value];
 }
 
 RCT_EXPORT_METHOD(addTriggers : (NSDictionary *)triggers) {
+  NSMutableDictionary *mirror = [RCTOneSignalEventEmitter triggerMirror];
+  @synchronized(mirror) {
+    for (NSString *key in triggers) {
+      if ([triggers[key] isKindOfClass:[NSString class]]) {
+        mirror[key] = triggers[key];
+      }
+    }
+  }
   [OneSignal.InAppMessages addTriggers:triggers];
 }
 
+RCT_EXPORT_METHOD(setTriggers : (NSDictionary *)triggers) {
+  NSMutableDictionary *mirror = [RCTOneSignalEventEmitter triggerMirror];
+  NSMutableDictionary *changed = [NSMutableDictionary new];
+  NSMutableArray *removed = [NSMutableArray new];
+  @synchronized(mirror) {
+    for (NSString *key in triggers) {
+      id value = triggers[key];
+      if ([value isKindOfClass:[NSString class]] &&
+          ![value isEqualToString:mirror[key]]) {
+        changed[key] = value;
+      }
+    }
+    for (NSString *key in mirror) {
+      if (![triggers[key] isKindOfClass:[NSString class]]) {
+        [removed addObject:key];
+      }
+    }
+    [mirror removeObjectsForKeys:removed];
+    [mirror addEntriesFromDictionary:changed];
+  }
+  if (removed.count > 0) {
+    [OneSignal.InAppMessages removeTriggers:removed];
+  }
+  if (changed.count > 0) {
+    [OneSignal.InAppMessages addTriggers:changed];
+  }
+}
+
 RCT_EXPORT_METHOD(removeTrigger : (NSString *)key) {
+  NSMutableDictionary *mirror = [RCTOneSignalEventEmitter triggerMirror];
+  @synchronized(mirror) {
+    [mirror removeObjectForKey:key];
+  }
   [OneSignal.InAppMessages removeTrigger:key];
 }
 
 RCT_EXPORT_METHOD(removeTriggers : (NSArray *)keys) {
+  NSMutableDictionary *mirror = [RCTOneSignalEventEmitter triggerMirror];
+  @synchronized(mirror) {
+    [mirror removeObjectsForKeys:keys];
+  }
   [OneSignal.InAppMessages removeTriggers:keys];
 }
 
-RCT_EXPORT_METHOD(clearTriggers) { [OneSignal.InAppMessages clearTriggers]; }
+RCT_EXPORT_METHOD(clearTriggers) {
+  NSMutableDictionary *mirror = [RCTOneSignalEventEmitter triggerMirror];
+  @synchronized(mirror) {
+    [mirror removeAllObjects];
+  }
+  [OneSignal.InAppMessages clearTriggers];
+}
 
 RCT_EXPORT_METHOD(addInAppMessageClickListener) {
+  // RCTOneSignal listens for clicks from launch; attaching replays any it
+  // buffered before JS was ready.
   if (!_hasAddedInAppMessageClickListener) {
-    [OneSignal.InAppMessages addClickListener:[RCTOneSignal sharedInstance]];
+    [[RCTOneSignal sharedInstance] registerClickListeners];
     _hasAddedInAppMessageClickListener = true;
   }
+  [[RCTOneSignal sharedInstance]
+      attachEvent:OSEventString(InAppMessageClicked)];
 }
 
 RCT_EXPORT_METHOD(addInAppMessagesLifecycleListener) {
@@ -336,6 +852,10 @@ RCT_EXPORT_METHOD(hasNotificationPermission : (RCTPromiseResolveBlock)resolve
   resolve(@([OneSignal.Notifications permission]));
 }
 
+RCT_EXPORT_BLOCKING_SYNCHRONOUS_METHOD(hasNotificationPermissionSync) {
+  return @([OneSignal.Notifications permission]);
+}
+
 RCT_EXPORT_METHOD(canRequestNotificationPermission : (RCTPromiseResolveBlock)
                       resolve
                   reject : (RCTPromiseRejectBlock)reject) {
@@ -383,9 +903,11 @@ RCT_EXPORT_METHOD(permissionNative : (RCTPromiseResolveBlock)resolve
 
 RCT_EXPORT_METHOD(addNotificationClickListener) {
   if (!_hasAddedNotificationClickListener) {
-    [OneSignal.Notifications addClickListener:[RCTOneSignal sharedInstance]];
+    [[RCTOneSignal sharedInstance] registerClickListeners];
     _hasAddedNotificationClickListener = true;
   }
+  [[RCTOneSignal sharedInstance]
+      attachEvent:OSEventString(NotificationClicked)];
 }
 
 RCT_EXPORT_METHOD(addNotificationForegroundLifecycleListener) {
@@ -396,11 +918,95 @@ RCT_EXPORT_METHOD(addNotificationForegroundLifecycleListener) {
 }
 
 - (void)onWillDisplayNotification:(OSNotificationWillDisplayEvent *)event {
-  _notificationWillDisplayCache[event.notification.notificationId] = event;
+  NSString *notificationId = event.notification.notificationId;
+  // Queued before the event is sent, so it is cached by the time JS answers.
+  dispatch_async(self.methodQueue, ^{
+    self->_notificationWillDisplayCache[notificationId] = event;
+  });
   [event preventDefault];
   [RCTOneSignalEventEmitter
       sendEventWithName:@"OneSignal-notificationWillDisplayInForeground"
                withBody:[event.notification jsonRepresentation]];
+
+  if (_willDisplayTimeoutMs > 0) {
+    BOOL displayOnTimeout = _displayOnWillDisplayTimeout;
+    __weak RCTOneSignalEventEmitter *weakSelf = self;
+    dispatch_after(
+        dispatch_time(DISPATCH_TIME_NOW,
+                      (int64_t)(_willDisplayTimeoutMs * NSEC_PER_MSEC)),
+        self.methodQueue, ^{
+          [weakSelf handleWillDisplayTimeout:event
+                            displayOnTimeout:displayOnTimeout];
+        });
+  }
+}
+
+// Applies the default policy if JS has neither displayed nor prevented the
+// notification before the configured deadline. Runs on the method queue.
+- (void)handleWillDisplayTimeout:(OSNotificationWillDisplayEvent *)event
+                displayOnTimeout:(BOOL)displayOnTimeout {
+  NSString *notificationId = event.notification.notificationId;
+  if (_notificationWillDisplayCache[notificationId] != event ||
+      _preventDefaultCache[notificationId] != nil) {
+    return;
+  }
+
+  [_notificationWillDisplayCache removeObjectForKey:notificationId];
+  if (displayOnTimeout) {
+    dispatch_async(dispatch_get_main_queue(), ^{
+      [event.notification display];
+    });
+  }
+}
+
+RCT_EXPORT_METHOD(setNotificationRawPayloadIncluded : (NSString *)eventName
+                  included : (BOOL)included) {
+  if ([eventName isEqualToString:@"onNotificationWillDisplay"]) {
+    _includeRawPayloadOnWillDisplay = included;
+  } else if ([eventName isEqualToString:@"onNotificationClicked"]) {
+    _includeRawPayloadOnClick = included;
+  }
+}
+
+RCT_EXPORT_METHOD(setNotificationFieldProjection : (NSString *)eventName
+                  fields : (NSArray *_Nullable)fields) {
+  // Android only, no-op on iOS
+}
+
+RCT_EXPORT_METHOD(setNotificationJsonEncoding : (NSString *)eventName
+                  minLength : (double)minLength
+                  wholeNotification : (BOOL)wholeNotification) {
+  // Android only, no-op on iOS
+}
+
+RCT_EXPORT_METHOD(setGroupedNotificationLimit : (double)limit) {
+  // Android only, no-op on iOS
+}
+
+RCT_EXPORT_METHOD(getNotificationRawPayload : (NSString *)notificationId
+                  resolve : (RCTPromiseResolveBlock)resolve
+                  reject : (RCTPromiseRejectBlock)reject) {
+  // Resolved as a JSON string, as on Android, rather than the dictionary the
+  // notification carried.
+  id rawPayload = [_rawPayloadCache objectForKey:notificationId];
+  if ([rawPayload isKindOfClass:[NSString class]]) {
+    resolve(rawPayload);
+    return;
+  }
+  NSData *json = rawPayload && [NSJSONSerialization isValidJSONObject:rawPayload]
+                     ? [NSJSONSerialization dataWithJSONObject:rawPayload
+                                                       options:0
+                                                         error:nil]
+                     : nil;
+  resolve(json ? [[NSString alloc] initWithData:json
+                                       encoding:NSUTF8StringEncoding]
+               : [NSNull null]);
+}
+
+RCT_EXPORT_METHOD(setNotificationWillDisplayTimeout : (double)timeoutMs
+                  displayOnTimeout : (BOOL)displayOnTimeout) {
+  _willDisplayTimeoutMs = timeoutMs;
+  _displayOnWillDisplayTimeout = displayOnTimeout;
 }
 
 RCT_EXPORT_METHOD(preventDefault : (NSString *)notificationId) {
@@ -431,6 +1037,14 @@ RCT_EXPORT_METHOD(removeGroupedNotifications : (NSString *)groupId) {
   // Android only, no-op on iOS
 }
 
+RCT_EXPORT_METHOD(removeNotifications : (NSArray *)ids) {
+  // Android only, no-op on iOS
+}
+
+RCT_EXPORT_METHOD(removeGroupedNotificationsBatch : (NSArray *)groupKeys) {
+  // Android only, no-op on iOS
+}
+
 // OneSignal.Session namespace methods
 RCT_EXPORT_METHOD(addOutcome : (NSString *)name) {
   [OneSignal.Session addOutcome:name];
@@ -442,9 +1056,54 @@ RCT_EXPORT_METHOD(addUniqueOutcome : (NSString *)name) {
 
 RCT_EXPORT_METHOD(addOutcomeWithValue : (NSString *)name
                   value : (double)value) {
+  @synchronized(_pendingOutcomeSums) {
+    if (_outcomeAggregationEnabled) {
+      double sum = [_pendingOutcomeSums[name] doubleValue] + value;
+      _pendingOutcomeSums[name] = @(sum);
+      [self scheduleOutcomeFlush];
+      return;
+    }
+  }
   [OneSignal.Session addOutcomeWithValue:name value:@(value)];
 }
 
+RCT_EXPORT_METHOD(setOutcomeAggregation : (BOOL)enabled windowMs : (double)
+                      windowMs) {
+  @synchronized(_pendingOutcomeSums) {
+    _outcomeAggregationEnabled = enabled;
+    _outcomeAggregationWindowMs = MAX(windowMs, 0);
+  }
+  if (!enabled) {
+    [self flushOutcomes];
+  }
+}
+
+RCT_EXPORT_METHOD(flushOutcomes) {
+  @synchronized(_pendingOutcomeSums) {
+    _outcomeFlushScheduled = NO;
+    for (NSString *name in _pendingOutcomeSums) {
+      [OneSignal.Session addOutcomeWithValue:name
+                                       value:_pendingOutcomeSums[name]];
+    }
+    [_pendingOutcomeSums removeAllObjects];
+  }
+}
+
+// Called with _pendingOutcomeSums locked. A window of 0 leaves the flush to
+// backgrounding, login/logout, invalidate or an explicit flushOutcomes.
+- (void)scheduleOutcomeFlush {
+  if (_outcomeFlushScheduled || _outcomeAggregationWindowMs <= 0) {
+    return;
+  }
+  _outcomeFlushScheduled = YES;
+  __weak RCTOneSignalEventEmitter *weakSelf = self;
+  int64_t delay = (int64_t)(_outcomeAggregationWindowMs * NSEC_PER_MSEC);
+  dispatch_after(dispatch_time(DISPATCH_TIME_NOW, delay),
+                 dispatch_get_main_queue(), ^{
+                   [weakSelf flushOutcomes];
+                 });
+}
+
 // OneSignal.User namespace methods
 RCT_EXPORT_METHOD(addUserStateObserver) {
   if (!_hasSetUserStateObserver) {
@@ -489,23 +1148,97 @@ RCT_EXPORT_METHOD(removeSms : (NSString *)smsNumber) {
 }
 
 RCT_EXPORT_METHOD(addTag : (NSString *)key value : (id)value) {
-  [OneSignal.User addTagWithKey:key value:value];
+  if (![self coalesceTagAdds:@{key : value}]) {
+    [OneSignal.User addTagWithKey:key value:value];
+  }
 }
 
 RCT_EXPORT_METHOD(addTags : (NSDictionary *)tags) {
-  [OneSignal.User addTags:tags];
+  if (![self coalesceTagAdds:tags]) {
+    [OneSignal.User addTags:tags];
+  }
 }
 
 RCT_EXPORT_METHOD(removeTag : (NSString *)key) {
-  [OneSignal.User removeTag:key];
+  if (![self coalesceTagRemoves:@[ key ]]) {
+    [OneSignal.User removeTag:key];
+  }
 }
 
 RCT_EXPORT_METHOD(removeTags : (NSArray *)keys) {
-  [OneSignal.User removeTags:keys];
+  if (![self coalesceTagRemoves:keys]) {
+    [OneSignal.User removeTags:keys];
+  }
+}
+
+RCT_EXPORT_METHOD(setTagCoalescingWindow : (double)windowMs) {
+  @synchronized(_pendingTagAdds) {
+    _tagCoalescingWindowMs = MAX(windowMs, 0);
+  }
+  if (windowMs <= 0) {
+    [self flushTags];
+  }
+}
+
+RCT_EXPORT_METHOD(flushTags) {
+  @synchronized(_pendingTagAdds) {
+    _tagFlushScheduled = NO;
+    // A key is never pending in both collections, so order does not matter.
+    if (_pendingTagRemoves.count > 0) {
+      [OneSignal.User removeTags:_pendingTagRemoves.array];
+      [_pendingTagRemoves removeAllObjects];
+    }
+    if (_pendingTagAdds.count > 0) {
+      [OneSignal.User addTags:[_pendingTagAdds copy]];
+      [_pendingTagAdds removeAllObjects];
+    }
+  }
+}
+
+// Merges tag writes while a coalescing window is set (last write per key
+// wins, a remove cancels a pending add). Returns NO if the caller should write
+// through to the SDK.
+- (BOOL)coalesceTagAdds:(NSDictionary *)tags {
+  @synchronized(_pendingTagAdds) {
+    if (_tagCoalescingWindowMs <= 0) {
+      return NO;
+    }
+    [_pendingTagRemoves removeObjectsInArray:tags.allKeys];
+    [_pendingTagAdds addEntriesFromDictionary:tags];
+    [self scheduleTagFlush];
+    return YES;
+  }
+}
+
+- (BOOL)coalesceTagRemoves:(NSArray *)keys {
+  @synchronized(_pendingTagAdds) {
+    if (_tagCoalescingWindowMs <= 0) {
+      return NO;
+    }
+    [_pendingTagAdds removeObjectsForKeys:keys];
+    [_pendingTagRemoves addObjectsFromArray:keys];
+    [self scheduleTagFlush];
+    return YES;
+  }
+}
+
+- (void)scheduleTagFlush {
+  if (_tagFlushScheduled) {
+    return;
+  }
+  _tagFlushScheduled = YES;
+  __weak RCTOneSignalEventEmitter *weakSelf = self;
+  int64_t delay = (int64_t)(_tagCoalescingWindowMs * NSEC_PER_MSEC);
+  dispatch_after(dispatch_time(DISPATCH_TIME_NOW, delay),
+                 dispatch_get_main_queue(), ^{
+                   [weakSelf flushTags];
+                 });
 }
 
 RCT_EXPORT_METHOD(getTags : (RCTPromiseResolveBlock)resolve
                   reject : (RCTPromiseRejectBlock)reject) {
+  // Read your own writes: flush anything still pending first.
+  [self flushTags];
   NSDictionary<NSString *, NSString *> *tags = [OneSignal.User getTags];
   resolve(tags);
 }
@@ -532,6 +1265,16 @@ RCT_EXPORT_METHOD(getExternalId : (RCTPromiseResolveBlock)resolve
   }
 }
 
+RCT_EXPORT_BLOCKING_SYNCHRONOUS_METHOD(getOnesignalIdSync) {
+  NSString *onesignalId = OneSignal.User.onesignalId;
+  return onesignalId.length > 0 ? onesignalId : nil;
+}
+
+RCT_EXPORT_BLOCKING_SYNCHRONOUS_METHOD(getExternalIdSync) {
+  NSString *externalId = OneSignal.User.externalId;
+  return externalId.length > 0 ? externalId : nil;
+}
+
 RCT_EXPORT_METHOD(addAlias : (NSString *)label id : (NSString *)id) {
   [OneSignal.User addAliasWithLabel:label id:id];
 }
@@ -574,6 +1317,20 @@ RCT_EXPORT_METHOD(getPushSubscriptionToken : (RCTPromiseResolveBlock)resolve
   }
 }
 
+RCT_EXPORT_BLOCKING_SYNCHRONOUS_METHOD(getOptedInSync) {
+  return @(OneSignal.User.pushSubscription.optedIn);
+}
+
+RCT_EXPORT_BLOCKING_SYNCHRONOUS_METHOD(getPushSubscriptionIdSync) {
+  NSString *pushId = OneSignal.User.pushSubscription.id;
+  return pushId.length > 0 ? pushId : nil;
+}
+
+RCT_EXPORT_BLOCKING_SYNCHRONOUS_METHOD(getPushSubscriptionTokenSync) {
+  NSString *token = OneSignal.User.pushSubscription.token;
+  return token.length > 0 ? token : nil;
+}
+
 RCT_EXPORT_METHOD(optIn) { [OneSignal.User.pushSubscription optIn]; }
 
 RCT_EXPORT_METHOD(optOut) { [OneSignal.User.pushSubscription optOut]; }
@@ -606,19 +1363,16 @@ RCT_EXPORT_METHOD(displayNotification : (NSString *)notificationId) {
 }
 
 - (void)removeHandlers {
-  if (_hasAddedInAppMessageClickListener) {
-    [OneSignal.InAppMessages removeClickListener:[RCTOneSignal sharedInstance]];
-    _hasAddedInAppMessageClickListener = false;
-  }
+  // The click listeners stay registered on RCTOneSignal so clicks during a
+  // reload are buffered for the next JS context instead of being dropped.
+  [[RCTOneSignal sharedInstance] detachAllEvents];
+  _hasAddedInAppMessageClickListener = false;
   if (_hasAddedInAppMessageLifecycleListener) {
     [OneSignal.InAppMessages
         removeLifecycleListener:[RCTOneSignal sharedInstance]];
     _hasAddedInAppMessageLifecycleListener = false;
   }
-  if (_hasAddedNotificationClickListener) {
-    [OneSignal.Notifications removeClickListener:[RCTOneSignal sharedInstance]];
-    _hasAddedNotificationClickListener = false;
-  }
+  _hasAddedNotificationClickListener = false;
   if (_hasAddedNotificationForegroundLifecycleListener) {
     [OneSignal.Notifications removeForegroundLifecycleListener:self];
     _hasAddedNotificationForegroundLifecycleListener = false;
@@ -638,6 +1392,12 @@ RCT_EXPORT_METHOD(trackEvent : (NSString *)name
   [OneSignal.User trackEventWithName:name properties:decoded];
 }
 
+// Android only: module methods already run off the JS thread on iOS, so
+// trackEvent is not queued here.
+RCT_EXPORT_METHOD(setTrackEventQueue : (double)capacity
+                  overflowPolicy : (NSString *)overflowPolicy) {
+}
+
 - (std::shared_ptr<facebook::react::TurboModule>)getTurboModule:
     (const facebook::react::ObjCTurboModule::InitParams &)params {
   return std::make_shared<facebook::react::NativeOneSignalSpecJSI>(params);
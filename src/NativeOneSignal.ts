@@ -7,13 +7,21 @@ export interface Spec extends TurboModule {
   // OneSignal root
   initialize(appId: string): void;
   login(externalId: string): void;
+  loginWithProfile(externalId: string, profile: Object): void;
   logout(): void;
   setPrivacyConsentRequired(required: boolean): void;
   setPrivacyConsentGiven(granted: boolean): void;
+  setEventBatching(enabled: boolean, intervalMs: number): void;
+  setEventReplayBuffer(capacity: number, maxAgeMs: number): void;
+  setNotificationDeduplication(capacity: number, windowMs: number): void;
+  flushPendingOperations(): Promise<void>;
+  executeBatch(ops: number[], args: string[]): Promise<(string | null)[]>;
 
   // Debug
   setLogLevel(logLevel: number): void;
   setAlertLevel(logLevel: number): void;
+  getNativeMetrics(): Promise<Object>;
+  resetNativeMetrics(): void;
 
   // Live Activities (iOS only, stubs on Android)
   enterLiveActivity(activityId: string, token: string, callback: (result: Object) => void): void;
@@ -31,13 +39,18 @@ export interface Spec extends TurboModule {
   getPushSubscriptionId(): Promise<string | null>;
   getPushSubscriptionToken(): Promise<string | null>;
   getOptedIn(): Promise<boolean>;
+  getPushSubscriptionIdSync(): string | null;
+  getPushSubscriptionTokenSync(): string | null;
+  getOptedInSync(): boolean;
   optIn(): void;
   optOut(): void;
 
   // User
   addUserStateObserver(): void;
   getOnesignalId(): Promise<string | null>;
+  getOnesignalIdSync(): string | null;
   getExternalId(): Promise<string | null>;
+  getExternalIdSync(): string | null;
   setLanguage(language: string): void;
   addAlias(label: string, id: string): void;
   addAliases(aliases: Object): void;
@@ -52,10 +65,14 @@ export interface Spec extends TurboModule {
   addTags(tags: Object): void;
   removeTags(keys: string[]): void;
   getTags(): Promise<Object>;
+  setTagCoalescingWindow(windowMs: number): void;
+  flushTags(): void;
   trackEvent(name: string, properties: Object | null): void;
+  setTrackEventQueue(capacity: number, overflowPolicy: string): void;
 
   // Notifications
   hasNotificationPermission(): Promise<boolean>;
+  hasNotificationPermissionSync(): boolean;
   requestNotificationPermission(fallbackToSettings: boolean): Promise<boolean>;
   canRequestNotificationPermission(): Promise<boolean>;
   registerForProvisionalAuthorization(callback: (accepted: boolean) => void): void;
@@ -66,19 +83,33 @@ export interface Spec extends TurboModule {
   clearAllNotifications(): void;
   removeNotification(id: number): void;
   removeGroupedNotifications(id: string): void;
+  removeNotifications(ids: number[]): void;
+  removeGroupedNotificationsBatch(groupKeys: string[]): void;
   displayNotification(notificationId: string): void;
   preventDefault(notificationId: string): void;
+  setNotificationWillDisplayTimeout(timeoutMs: number, displayOnTimeout: boolean): void;
+  setNotificationFieldProjection(eventName: string, fields: string[] | null): void;
+  setNotificationJsonEncoding(
+    eventName: string,
+    minLength: number,
+    wholeNotification: boolean,
+  ): void;
+  setNotificationRawPayloadIncluded(eventName: string, included: boolean): void;
+  setGroupedNotificationLimit(limit: number): void;
+  getNotificationRawPayload(notificationId: string): Promise<string | null>;
 
   // In-App Messages
   addInAppMessageClickListener(): void;
   addInAppMessagesLifecycleListener(): void;
   addTrigger(key: string, value: string): void;
   addTriggers(triggers: Object): void;
+  setTriggers(triggers: Object): void;
   removeTrigger(key: string): void;
   removeTriggers(keys: string[]): void;
   clearTriggers(): void;
   paused(pause: boolean): void;
   getPaused(): Promise<boolean>;
+  getPausedSync(): boolean;
 
   // Location
   requestLocationPermission(): void;
@@ -89,6 +120,8 @@ export interface Spec extends TurboModule {
   addOutcome(name: string): void;
   addUniqueOutcome(name: string): void;
   addOutcomeWithValue(name: string, value: number): void;
+  setOutcomeAggregation(enabled: boolean, windowMs: number): void;
+  flushOutcomes(): void;
 
   // Events
   readonly onPermissionChanged: EventEmitter<Object>;
@@ -101,6 +134,7 @@ export interface Spec extends TurboModule {
   readonly onInAppMessageDidDisplay: EventEmitter<Object>;
   readonly onInAppMessageWillDismiss: EventEmitter<Object>;
   readonly onInAppMessageDidDismiss: EventEmitter<Object>;
+  readonly onEventBatch: EventEmitter<Object>;
 }
 
 export default TurboModuleRegistry.getEnforcing<Spec>('OneSignal');
@@ -1,8 +1,11 @@
 import { Platform } from 'react-native';
-import { beforeEach, describe, expect, test } from 'vite-plus/test';
+import { beforeEach, describe, expect, test, vi } from 'vite-plus/test';
 
 import { mockRNOneSignal } from '../__mocks__/react-native';
-import OSNotification, { type BaseNotificationData } from './OSNotification';
+import OSNotification, {
+  decodeNotificationData,
+  type BaseNotificationData,
+} from './OSNotification';
 
 const mockPlatform = Platform;
 
@@ -63,6 +66,7 @@ describe('OSNotification', () => {
           ...baseNotificationData,
           groupKey: 'group-1',
           groupMessage: 'group message',
+          groupedNotifications: [{ ...baseNotificationData, notificationId: 'child-1' }],
           ledColor: 'FFFF0000',
           priority: 2,
           smallIcon: 'icon_small',
@@ -78,6 +82,9 @@ describe('OSNotification', () => {
 
         expect(notification.groupKey).toBe('group-1');
         expect(notification.groupMessage).toBe('group message');
+        expect(notification.groupedNotifications).toEqual([
+          { ...baseNotificationData, notificationId: 'child-1' },
+        ]);
         expect(notification.ledColor).toBe('FFFF0000');
         expect(notification.priority).toBe(2);
         expect(notification.smallIcon).toBe('icon_small');
@@ -191,6 +198,70 @@ describe('OSNotification', () => {
     });
   });
 
+  describe('getRawPayload', () => {
+    test('should resolve the rawPayload sent with the event', async () => {
+      const notification = new OSNotification(baseNotificationData);
+
+      await expect(notification.getRawPayload()).resolves.toEqual({ key: 'value' });
+      expect(mockRNOneSignal.getNotificationRawPayload).not.toHaveBeenCalled();
+    });
+
+    test('should fetch rawPayload from native when it was omitted', async () => {
+      mockRNOneSignal.getNotificationRawPayload.mockResolvedValue('{"alert":"hi"}');
+      const { rawPayload: _omitted, ...withoutRawPayload } = baseNotificationData;
+      const notification = new OSNotification(withoutRawPayload);
+
+      await expect(notification.getRawPayload()).resolves.toBe('{"alert":"hi"}');
+      expect(mockRNOneSignal.getNotificationRawPayload).toHaveBeenCalledWith(
+        'test-notification-id',
+      );
+    });
+  });
+
+  describe('JSON-encoded payloads', () => {
+    const { additionalData: _additionalData, ...withoutAdditionalData } = baseNotificationData;
+
+    test('should parse additionalDataJson on first read', () => {
+      const parseSpy = vi.spyOn(JSON, 'parse');
+      const notification = new OSNotification({
+        ...withoutAdditionalData,
+        additionalDataJson: '{"orderId":"42"}',
+      } as BaseNotificationData);
+      expect(parseSpy).not.toHaveBeenCalled();
+
+      expect(notification.additionalData).toEqual({ orderId: '42' });
+      expect(notification.additionalData).toBe(notification.additionalData);
+      expect(parseSpy).toHaveBeenCalledTimes(1);
+      expect(Object.keys(notification)).toContain('additionalData');
+      expect(Object.keys(notification)).not.toContain('additionalDataJson');
+      parseSpy.mockRestore();
+    });
+
+    test('should parse notificationJson into every field', () => {
+      const notification = new OSNotification({
+        notificationJson: JSON.stringify(baseNotificationData),
+      } as unknown as BaseNotificationData);
+
+      expect(notification.title).toBe('Test Title');
+      expect(notification.additionalData).toEqual({ custom: 'data' });
+      expect(notification.notificationId).toBe('test-notification-id');
+    });
+
+    test('should decode plain notification objects', () => {
+      const decoded = decodeNotificationData({
+        ...withoutAdditionalData,
+        additionalDataJson: '{"orderId":"42"}',
+      } as BaseNotificationData);
+
+      expect(decoded.additionalData).toEqual({ orderId: '42' });
+      expect(decoded).not.toHaveProperty('additionalDataJson');
+    });
+
+    test('should return notifications that are not encoded as is', () => {
+      expect(decodeNotificationData(baseNotificationData)).toBe(baseNotificationData);
+    });
+  });
+
   describe('rawPayload types', () => {
     test('should accept object as rawPayload', () => {
       const notificationData = {
@@ -8,7 +8,7 @@ export interface BaseNotificationData {
   sound?: string;
   title?: string;
   launchURL?: string;
-  rawPayload: object | string; // platform bridges return different types
+  rawPayload?: object | string; // platform bridges return different types; absent when opted out
   actionButtons?: object[];
   additionalData?: object;
   notificationId: string;
@@ -17,6 +17,7 @@ export interface BaseNotificationData {
 interface AndroidNotificationData extends BaseNotificationData {
   groupKey?: string;
   groupMessage?: string;
+  groupedNotifications?: OSNotificationData[]; // see Notifications.setGroupedNotificationLimit
   ledColor?: string;
   priority?: number;
   smallIcon?: string;
@@ -46,18 +47,25 @@ interface iOSNotificationData extends BaseNotificationData {
 
 export type OSNotificationData = AndroidNotificationData | iOSNotificationData;
 
+// Android can send large payloads as JSON strings, see Notifications.setJsonPayloadThreshold.
+interface EncodedNotificationData {
+  notificationJson?: string;
+  additionalDataJson?: string;
+}
+
 export default class OSNotification {
   body: string;
   sound?: string;
   title?: string;
   launchURL?: string;
-  rawPayload: object | string; // platform bridges return different types
+  rawPayload?: object | string; // platform bridges return different types; absent when opted out
   actionButtons?: object[];
   additionalData?: object;
   notificationId: string;
   // android only
   groupKey?: string;
   groupMessage?: string;
+  groupedNotifications?: OSNotificationData[];
   ledColor?: string;
   priority?: number;
   smallIcon?: string;
@@ -83,13 +91,22 @@ export default class OSNotification {
   interruptionLevel?: string;
 
   constructor(receivedEvent: OSNotificationData) {
+    const { notificationJson, additionalDataJson } = receivedEvent as EncodedNotificationData;
+    if (notificationJson !== undefined) {
+      receivedEvent = JSON.parse(notificationJson) as OSNotificationData;
+    }
+
     this.body = receivedEvent.body;
     this.sound = receivedEvent.sound;
     this.title = receivedEvent.title;
     this.launchURL = receivedEvent.launchURL;
     this.rawPayload = receivedEvent.rawPayload;
     this.actionButtons = receivedEvent.actionButtons;
-    this.additionalData = receivedEvent.additionalData;
+    if (additionalDataJson !== undefined) {
+      defineLazyAdditionalData(this, additionalDataJson);
+    } else {
+      this.additionalData = receivedEvent.additionalData;
+    }
     this.notificationId = receivedEvent.notificationId;
 
     /* v8 ignore else -- @preserve */
@@ -102,6 +119,7 @@ export default class OSNotification {
       this.bigPicture = receivedEvent.bigPicture;
       this.collapseId = receivedEvent.collapseId;
       this.groupMessage = receivedEvent.groupMessage;
+      this.groupedNotifications = receivedEvent.groupedNotifications;
       this.fromProjectNumber = receivedEvent.fromProjectNumber;
       this.smallIconAccentColor = receivedEvent.smallIconAccentColor;
       this.lockScreenVisibility = receivedEvent.lockScreenVisibility;
@@ -126,6 +144,59 @@ export default class OSNotification {
     RNOneSignal.displayNotification(this.notificationId);
     return;
   }
+
+  /**
+   * Returns the raw payload, fetching it from the native SDK when it was left off the event because
+   * every listener set `includeRawPayload: false`. Resolves to null once the native SDK no longer
+   * holds it.
+   */
+  getRawPayload(): Promise<object | string | null> {
+    if (this.rawPayload !== undefined) {
+      return Promise.resolve(this.rawPayload);
+    }
+    return RNOneSignal.getNotificationRawPayload(this.notificationId);
+  }
+}
+
+/**
+ * Decodes a notification the native module sent as JSON, as the `OSNotification` constructor does,
+ * for events that hand listeners the plain object. Returns `data` itself when nothing is encoded.
+ */
+export function decodeNotificationData(data: OSNotificationData): OSNotificationData {
+  const encoded = data as OSNotificationData & EncodedNotificationData;
+  const { notificationJson, additionalDataJson, ...decoded } = encoded;
+  if (notificationJson !== undefined) {
+    return JSON.parse(notificationJson) as OSNotificationData;
+  }
+  if (additionalDataJson === undefined) {
+    return data;
+  }
+  defineLazyAdditionalData(decoded, additionalDataJson);
+  return decoded;
+}
+
+// Parses on first read, then replaces itself with a plain property.
+function defineLazyAdditionalData(target: { additionalData?: object }, json: string) {
+  const define = (value: object | undefined) =>
+    Object.defineProperty(target, 'additionalData', {
+      value,
+      writable: true,
+      enumerable: true,
+      configurable: true,
+    });
+
+  Object.defineProperty(target, 'additionalData', {
+    enumerable: true,
+    configurable: true,
+    get() {
+      const value = JSON.parse(json) as object;
+      define(value);
+      return value;
+    },
+    set(value: object | undefined) {
+      define(value);
+    },
+  });
 }
 
 const isAndroidNotificationData = (
@@ -0,0 +1,48 @@
+import { describe, expect, test } from 'vite-plus/test';
+
+import OperationBatch from './OperationBatch';
+
+describe('OperationBatch', () => {
+  test('should encode each call as a code and an argument count', () => {
+    const batch = new OperationBatch()
+      .login('user-1')
+      .addEmail('user@example.com')
+      .optIn()
+      .addOutcomeWithValue('purchase', '9.5')
+      .logout();
+
+    expect(batch.size).toBe(5);
+    expect(batch.encode()).toEqual({
+      ops: [1, 1, 8, 1, 19, 0, 18, 2, 2, 0],
+      args: ['user-1', 'user@example.com', 'purchase', '9.5'],
+    });
+  });
+
+  test('should flatten maps into alternating keys and values', () => {
+    const batch = new OperationBatch()
+      .addTags({ level: '2', plan: 'pro' })
+      .addAliases({ crm: '42' })
+      .removeTags(['old']);
+
+    expect(batch.encode()).toEqual({
+      ops: [13, 4, 5, 2, 15, 1],
+      args: ['level', '2', 'plan', 'pro', 'crm', '42', 'old'],
+    });
+  });
+
+  test('should reject outcome values that are not finite numbers', () => {
+    const batch = new OperationBatch();
+
+    expect(() => batch.addOutcomeWithValue('purchase', NaN)).toThrow('finite number');
+    expect(() => batch.addOutcomeWithValue('purchase', Infinity)).toThrow('finite number');
+    expect(() => batch.addOutcomeWithValue('purchase', 'abc')).toThrow('finite number');
+    expect(batch.size).toBe(0);
+  });
+
+  test('should not change when its encoding is modified', () => {
+    const batch = new OperationBatch().removeAlias('crm');
+    batch.encode().ops.push(99);
+
+    expect(batch.encode().ops).toEqual([6, 1]);
+  });
+});
@@ -0,0 +1,147 @@
+// Operation codes, matching OperationBatch.java and RCTOneSignalEventEmitter.mm.
+const LOGIN = 1;
+const LOGOUT = 2;
+const SET_LANGUAGE = 3;
+const ADD_ALIAS = 4;
+const ADD_ALIASES = 5;
+const REMOVE_ALIAS = 6;
+const REMOVE_ALIASES = 7;
+const ADD_EMAIL = 8;
+const REMOVE_EMAIL = 9;
+const ADD_SMS = 10;
+const REMOVE_SMS = 11;
+const ADD_TAG = 12;
+const ADD_TAGS = 13;
+const REMOVE_TAG = 14;
+const REMOVE_TAGS = 15;
+const ADD_OUTCOME = 16;
+const ADD_UNIQUE_OUTCOME = 17;
+const ADD_OUTCOME_WITH_VALUE = 18;
+const OPT_IN = 19;
+const OPT_OUT = 20;
+
+/**
+ * An ordered list of user, subscription and outcome calls for `OneSignal.executeBatch`, which
+ * applies them natively in one bridge call. Each method takes the same arguments as the call of
+ * the same name and returns the batch, so calls can be chained:
+ *
+ *   OneSignal.executeBatch(new OperationBatch().login(id).addTags(tags).optIn());
+ *
+ * The batch is sent as two flat arrays rather than one map per call: `ops` holds a code and an
+ * argument count per call, and `args` every argument as a string.
+ */
+export default class OperationBatch {
+  private readonly ops: number[] = [];
+  private readonly args: string[] = [];
+
+  /** Number of calls in the batch. */
+  get size(): number {
+    return this.ops.length / 2;
+  }
+
+  login(externalId: string): this {
+    return this.push(LOGIN, [externalId]);
+  }
+
+  logout(): this {
+    return this.push(LOGOUT, []);
+  }
+
+  setLanguage(language: string): this {
+    return this.push(SET_LANGUAGE, [language]);
+  }
+
+  addAlias(label: string, id: string): this {
+    return this.push(ADD_ALIAS, [label, id]);
+  }
+
+  addAliases(aliases: Record<string, string>): this {
+    return this.push(ADD_ALIASES, flatten(aliases));
+  }
+
+  removeAlias(label: string): this {
+    return this.push(REMOVE_ALIAS, [label]);
+  }
+
+  removeAliases(labels: string[]): this {
+    return this.push(REMOVE_ALIASES, labels);
+  }
+
+  addEmail(email: string): this {
+    return this.push(ADD_EMAIL, [email]);
+  }
+
+  removeEmail(email: string): this {
+    return this.push(REMOVE_EMAIL, [email]);
+  }
+
+  addSms(smsNumber: string): this {
+    return this.push(ADD_SMS, [smsNumber]);
+  }
+
+  removeSms(smsNumber: string): this {
+    return this.push(REMOVE_SMS, [smsNumber]);
+  }
+
+  addTag(key: string, value: string): this {
+    return this.push(ADD_TAG, [key, value]);
+  }
+
+  addTags(tags: Record<string, string>): this {
+    return this.push(ADD_TAGS, flatten(tags));
+  }
+
+  removeTag(key: string): this {
+    return this.push(REMOVE_TAG, [key]);
+  }
+
+  removeTags(keys: string[]): this {
+    return this.push(REMOVE_TAGS, keys);
+  }
+
+  addOutcome(name: string): this {
+    return this.push(ADD_OUTCOME, [name]);
+  }
+
+  addUniqueOutcome(name: string): this {
+    return this.push(ADD_UNIQUE_OUTCOME, [name]);
+  }
+
+  /** Throws if `value` is not a finite number, which the native SDKs cannot send. */
+  addOutcomeWithValue(name: string, value: string | number): this {
+    const number = Number(value);
+    if (!Number.isFinite(number)) {
+      throw new Error(`Outcome value must be a finite number, got: ${value}`);
+    }
+    return this.push(ADD_OUTCOME_WITH_VALUE, [name, number]);
+  }
+
+  optIn(): this {
+    return this.push(OPT_IN, []);
+  }
+
+  optOut(): this {
+    return this.push(OPT_OUT, []);
+  }
+
+  /** The arrays passed to the native `executeBatch`. */
+  encode(): { ops: number[]; args: string[] } {
+    return { ops: [...this.ops], args: [...this.args] };
+  }
+
+  private push(code: number, args: unknown[]): this {
+    this.ops.push(code, args.length);
+    for (const arg of args) {
+      this.args.push(String(arg));
+    }
+    return this;
+  }
+}
+
+function flatten(map: Record<string, string>): string[] {
+  const flat: string[] = [];
+  for (const key of Object.keys(map)) {
+    flat.push(key, map[key]);
+  }
+  return flat;
+}
@@ -39,6 +39,7 @@ function createMockNativeModule() {
     onInAppMessageDidDisplay: makeEmitter('onInAppMessageDidDisplay'),
     onInAppMessageWillDismiss: makeEmitter('onInAppMessageWillDismiss'),
     onInAppMessageDidDismiss: makeEmitter('onInAppMessageDidDismiss'),
+    onEventBatch: makeEmitter('onEventBatch'),
   };
 
   return { module, callbacks };
@@ -65,7 +66,7 @@ describe('EventManager', () => {
   });
 
   describe('setupListeners', () => {
-    test('should subscribe to all 10 event emitters', () => {
+    test('should subscribe to all 11 event emitters', () => {
       expect(mockModule.onPermissionChanged).toHaveBeenCalledOnce();
       expect(mockModule.onSubscriptionChanged).toHaveBeenCalledOnce();
       expect(mockModule.onUserStateChanged).toHaveBeenCalledOnce();
@@ -76,13 +77,14 @@ describe('EventManager', () => {
       expect(mockModule.onInAppMessageDidDisplay).toHaveBeenCalledOnce();
       expect(mockModule.onInAppMessageWillDismiss).toHaveBeenCalledOnce();
       expect(mockModule.onInAppMessageDidDismiss).toHaveBeenCalledOnce();
+      expect(mockModule.onEventBatch).toHaveBeenCalledOnce();
 
-      expect(callbacks.size).toBe(10);
+      expect(callbacks.size).toBe(11);
     });
 
     test('should store native subscriptions', () => {
       const subscriptions = eventManager['nativeSubscriptions'];
-      expect(subscriptions.length).toBe(10);
+      expect(subscriptions.length).toBe(11);
       subscriptions.forEach((sub) => {
         expect(sub).toHaveProperty('remove');
       });
@@ -324,6 +326,95 @@ describe('EventManager', () => {
 
       expect(handler).toHaveBeenCalledWith(payload);
     });
+
+    test('should decode JSON-encoded additionalData on NOTIFICATION_CLICKED events', () => {
+      const handler = vi.fn();
+      eventManager.addEventListener(NOTIFICATION_CLICKED, handler);
+
+      callbacks.get('onNotificationClicked')!({
+        result: { actionId: 'action-1' },
+        notification: { notificationId: 'test-id', additionalDataJson: '{"orderId":"42"}' },
+      });
+
+      const event = handler.mock.calls[0][0] as NotificationClickEvent;
+      expect(event.result).toEqual({ actionId: 'action-1' });
+      expect(event.notification.additionalData).toEqual({ orderId: '42' });
+    });
+  });
+
+  describe('event batches', () => {
+    test('should dispatch every event in a batch in order', () => {
+      const calls: string[] = [];
+      eventManager.addEventListener(PERMISSION_CHANGED, () => calls.push('permission'));
+      eventManager.addEventListener(SUBSCRIPTION_CHANGED, () => calls.push('subscription'));
+      eventManager.addEventListener(IN_APP_MESSAGE_WILL_DISPLAY, () => calls.push('iamWillDisplay'));
+
+      callbacks.get('onEventBatch')!({
+        events: [
+          { type: 'onInAppMessageWillDisplay', payload: { message: { messageId: 'm' } } },
+          { type: 'onPermissionChanged', payload: getRawPermissionChangedPayload(true) },
+          { type: 'onSubscriptionChanged', payload: pushChangedPayload },
+        ],
+      });
+
+      expect(calls).toEqual(['iamWillDisplay', 'permission', 'subscription']);
+    });
+
+    test('should unwrap batched payloads the same way as direct events', () => {
+      const permissionHandler = vi.fn();
+      const willDisplayHandler = vi.fn();
+      eventManager.addEventListener(PERMISSION_CHANGED, permissionHandler);
+      eventManager.addEventListener(NOTIFICATION_WILL_DISPLAY, willDisplayHandler);
+
+      callbacks.get('onEventBatch')!({
+        events: [
+          { type: 'onPermissionChanged', payload: getRawPermissionChangedPayload(false) },
+          { type: 'onNotificationWillDisplay', payload: rawWillDisplayPayload },
+        ],
+      });
+
+      expect(permissionHandler).toHaveBeenCalledWith(false);
+      expect(willDisplayHandler.mock.calls[0][0]).toBeInstanceOf(NotificationWillDisplayEvent);
+    });
+
+    test('should dispatch every event type carried in a batch', () => {
+      const handlers = {
+        [USER_STATE_CHANGED]: vi.fn(),
+        [NOTIFICATION_CLICKED]: vi.fn(),
+        [IN_APP_MESSAGE_CLICKED]: vi.fn(),
+        [IN_APP_MESSAGE_DID_DISPLAY]: vi.fn(),
+        [IN_APP_MESSAGE_WILL_DISMISS]: vi.fn(),
+        [IN_APP_MESSAGE_DID_DISMISS]: vi.fn(),
+      };
+      Object.entries(handlers).forEach(([eventName, handler]) => {
+        eventManager.addEventListener(eventName as typeof USER_STATE_CHANGED, handler);
+      });
+
+      callbacks.get('onEventBatch')!({
+        events: [
+          'onUserStateChanged',
+          'onNotificationClicked',
+          'onInAppMessageClicked',
+          'onInAppMessageDidDisplay',
+          'onInAppMessageWillDismiss',
+          'onInAppMessageDidDismiss',
+        ].map((type) => ({ type, payload: { type } })),
+      });
+
+      Object.values(handlers).forEach((handler) => {
+        expect(handler).toHaveBeenCalledOnce();
+      });
+    });
+
+    test('should ignore unknown event types in a batch', () => {
+      const handler = vi.fn();
+      eventManager.addEventListener(PERMISSION_CHANGED, handler);
+
+      expect(() => {
+        callbacks.get('onEventBatch')!({ events: [{ type: 'onSomethingElse', payload: {} }] });
+      }).not.toThrow();
+      expect(handler).not.toHaveBeenCalled();
+    });
   });
 
   describe('integration scenarios', () => {
@@ -13,7 +13,7 @@ import {
   USER_STATE_CHANGED,
 } from '../constants/events';
 import type { Spec } from '../NativeOneSignal';
-import OSNotification from '../OSNotification';
+import OSNotification, { decodeNotificationData, type OSNotificationData } from '../OSNotification';
 import type {
   InAppMessageClickEvent,
   InAppMessageDidDismissEvent,
@@ -39,6 +39,10 @@ export interface EventListenerMap {
   [IN_APP_MESSAGE_DID_DISPLAY]: (event: InAppMessageDidDisplayEvent) => void;
 }
 
+interface NativeEventBatch {
+  events: Array<{ type: string; payload: unknown }>;
+}
+
 export default class EventManager {
   private RNOneSignal: Spec;
   private eventListenerArrayMap: Map<string, Array<(event: unknown) => void>>;
@@ -62,38 +66,41 @@ export default class EventManager {
 
     this.nativeSubscriptions.push(
       this.RNOneSignal.onPermissionChanged((payload) => {
-        const typed = payload as { permission: boolean };
-        this.dispatchHandlers(PERMISSION_CHANGED, typed.permission);
+        this.handleNativeEvent('onPermissionChanged', payload);
       }),
       this.RNOneSignal.onSubscriptionChanged((payload) => {
-        this.dispatchHandlers(SUBSCRIPTION_CHANGED, payload);
+        this.handleNativeEvent('onSubscriptionChanged', payload);
       }),
       this.RNOneSignal.onUserStateChanged((payload) => {
-        this.dispatchHandlers(USER_STATE_CHANGED, payload);
+        this.handleNativeEvent('onUserStateChanged', payload);
       }),
       this.RNOneSignal.onNotificationWillDisplay((payload) => {
-        this.dispatchHandlers(
-          NOTIFICATION_WILL_DISPLAY,
-          new NotificationWillDisplayEvent(payload as OSNotification),
-        );
+        this.handleNativeEvent('onNotificationWillDisplay', payload);
       }),
       this.RNOneSignal.onNotificationClicked((payload) => {
-        this.dispatchHandlers(NOTIFICATION_CLICKED, payload);
+        this.handleNativeEvent('onNotificationClicked', payload);
       }),
       this.RNOneSignal.onInAppMessageClicked((payload) => {
-        this.dispatchHandlers(IN_APP_MESSAGE_CLICKED, payload);
+        this.handleNativeEvent('onInAppMessageClicked', payload);
       }),
       this.RNOneSignal.onInAppMessageWillDisplay((payload) => {
-        this.dispatchHandlers(IN_APP_MESSAGE_WILL_DISPLAY, payload);
+        this.handleNativeEvent('onInAppMessageWillDisplay', payload);
       }),
       this.RNOneSignal.onInAppMessageDidDisplay((payload) => {
-        this.dispatchHandlers(IN_APP_MESSAGE_DID_DISPLAY, payload);
+        this.handleNativeEvent('onInAppMessageDidDisplay', payload);
       }),
       this.RNOneSignal.onInAppMessageWillDismiss((payload) => {
-        this.dispatchHandlers(IN_APP_MESSAGE_WILL_DISMISS, payload);
+        this.handleNativeEvent('onInAppMessageWillDismiss', payload);
       }),
       this.RNOneSignal.onInAppMessageDidDismiss((payload) => {
-        this.dispatchHandlers(IN_APP_MESSAGE_DID_DISMISS, payload);
+        this.handleNativeEvent('onInAppMessageDidDismiss', payload);
+      }),
+      // Only fires when batching is enabled with OneSignal.setEventBatching.
+      this.RNOneSignal.onEventBatch((payload) => {
+        const batch = payload as NativeEventBatch;
+        batch.events.forEach((event) => {
+          this.handleNativeEvent(event.type, event.payload);
+        });
       }),
     );
   }
@@ -124,6 +131,50 @@ export default class EventManager {
     }
   }
 
+  private handleNativeEvent(nativeEventName: string, payload: unknown) {
+    switch (nativeEventName) {
+      case 'onPermissionChanged':
+        this.dispatchHandlers(PERMISSION_CHANGED, (payload as { permission: boolean }).permission);
+        break;
+      case 'onSubscriptionChanged':
+        this.dispatchHandlers(SUBSCRIPTION_CHANGED, payload);
+        break;
+      case 'onUserStateChanged':
+        this.dispatchHandlers(USER_STATE_CHANGED, payload);
+        break;
+      case 'onNotificationWillDisplay':
+        this.dispatchHandlers(
+          NOTIFICATION_WILL_DISPLAY,
+          new NotificationWillDisplayEvent(payload as OSNotification),
+        );
+        break;
+      case 'onNotificationClicked': {
+        const clickEvent = payload as { notification: OSNotificationData };
+        const notification = decodeNotificationData(clickEvent.notification);
+        this.dispatchHandlers(
+          NOTIFICATION_CLICKED,
+          notification === clickEvent.notification ? payload : { ...clickEvent, notification },
+        );
+        break;
+      }
+      case 'onInAppMessageClicked':
+        this.dispatchHandlers(IN_APP_MESSAGE_CLICKED, payload);
+        break;
+      case 'onInAppMessageWillDisplay':
+        this.dispatchHandlers(IN_APP_MESSAGE_WILL_DISPLAY, payload);
+        break;
+      case 'onInAppMessageDidDisplay':
+        this.dispatchHandlers(IN_APP_MESSAGE_DID_DISPLAY, payload);
+        break;
+      case 'onInAppMessageWillDismiss':
+        this.dispatchHandlers(IN_APP_MESSAGE_WILL_DISMISS, payload);
+        break;
+      case 'onInAppMessageDidDismiss':
+        this.dispatchHandlers(IN_APP_MESSAGE_DID_DISMISS, payload);
+        break;
+    }
+  }
+
   private dispatchHandlers(eventName: string, payload: unknown) {
     const handlerArray = this.eventListenerArrayMap.get(eventName);
     if (handlerArray) {
@@ -0,0 +1,134 @@
+import { beforeEach, describe, expect, test, vi } from 'vite-plus/test';
+
+import { NOTIFICATION_CLICKED, NOTIFICATION_WILL_DISPLAY } from '../constants/events';
+import NotificationPayloadOptions from './NotificationPayloadOptions';
+
+describe('NotificationPayloadOptions', () => {
+  let mockModule: {
+    setNotificationRawPayloadIncluded: ReturnType<typeof vi.fn>;
+    setNotificationFieldProjection: ReturnType<typeof vi.fn>;
+  };
+  let payloadOptions: NotificationPayloadOptions;
+
+  beforeEach(() => {
+    mockModule = {
+      setNotificationRawPayloadIncluded: vi.fn(),
+      setNotificationFieldProjection: vi.fn(),
+    };
+    payloadOptions = new NotificationPayloadOptions(mockModule as never);
+  });
+
+  test('should not call native while listeners keep the default', () => {
+    payloadOptions.addListener(NOTIFICATION_CLICKED, vi.fn());
+    payloadOptions.addListener(NOTIFICATION_CLICKED, vi.fn(), { includeRawPayload: true });
+
+    expect(mockModule.setNotificationRawPayloadIncluded).not.toHaveBeenCalled();
+  });
+
+  test('should omit rawPayload once every listener opts out', () => {
+    payloadOptions.addListener(NOTIFICATION_WILL_DISPLAY, vi.fn(), { includeRawPayload: false });
+
+    expect(mockModule.setNotificationRawPayloadIncluded).toHaveBeenCalledWith(
+      'onNotificationWillDisplay',
+      false,
+    );
+  });
+
+  test('should include rawPayload again when a listener needs it', () => {
+    payloadOptions.addListener(NOTIFICATION_CLICKED, vi.fn(), { includeRawPayload: false });
+    payloadOptions.addListener(NOTIFICATION_CLICKED, vi.fn());
+
+    expect(mockModule.setNotificationRawPayloadIncluded).toHaveBeenNthCalledWith(
+      1,
+      'onNotificationClicked',
+      false,
+    );
+    expect(mockModule.setNotificationRawPayloadIncluded).toHaveBeenNthCalledWith(
+      2,
+      'onNotificationClicked',
+      true,
+    );
+  });
+
+  test('should recompute when listeners are removed', () => {
+    const optedOut = vi.fn();
+    const needsRawPayload = vi.fn();
+    payloadOptions.addListener(NOTIFICATION_CLICKED, optedOut, { includeRawPayload: false });
+    payloadOptions.addListener(NOTIFICATION_CLICKED, needsRawPayload);
+    mockModule.setNotificationRawPayloadIncluded.mockClear();
+
+    payloadOptions.removeListener(NOTIFICATION_CLICKED, needsRawPayload);
+    expect(mockModule.setNotificationRawPayloadIncluded).toHaveBeenCalledWith(
+      'onNotificationClicked',
+      false,
+    );
+
+    payloadOptions.removeListener(NOTIFICATION_CLICKED, optedOut);
+    expect(mockModule.setNotificationRawPayloadIncluded).toHaveBeenLastCalledWith(
+      'onNotificationClicked',
+      true,
+    );
+  });
+
+  test('should ignore unknown listeners on removal', () => {
+    payloadOptions.removeListener(NOTIFICATION_CLICKED, vi.fn());
+
+    expect(mockModule.setNotificationRawPayloadIncluded).not.toHaveBeenCalled();
+  });
+
+  test('should track each event separately', () => {
+    payloadOptions.addListener(NOTIFICATION_CLICKED, vi.fn(), { includeRawPayload: false });
+    payloadOptions.addListener(NOTIFICATION_WILL_DISPLAY, vi.fn());
+
+    expect(mockModule.setNotificationRawPayloadIncluded).toHaveBeenCalledTimes(1);
+    expect(mockModule.setNotificationRawPayloadIncluded).toHaveBeenCalledWith(
+      'onNotificationClicked',
+      false,
+    );
+  });
+
+  describe('fields', () => {
+    test('should not project while a listener wants every field', () => {
+      payloadOptions.addListener(NOTIFICATION_CLICKED, vi.fn(), { fields: ['title'] });
+      mockModule.setNotificationFieldProjection.mockClear();
+      payloadOptions.addListener(NOTIFICATION_CLICKED, vi.fn());
+
+      expect(mockModule.setNotificationFieldProjection).toHaveBeenCalledWith(
+        'onNotificationClicked',
+        null,
+      );
+    });
+
+    test('should send the union of the fields every listener lists', () => {
+      payloadOptions.addListener(NOTIFICATION_WILL_DISPLAY, vi.fn(), {
+        fields: ['title', 'additionalData.orderId'],
+      });
+      payloadOptions.addListener(NOTIFICATION_WILL_DISPLAY, vi.fn(), {
+        fields: ['notificationId', 'title'],
+      });
+
+      expect(mockModule.setNotificationFieldProjection).toHaveBeenLastCalledWith(
+        'onNotificationWillDisplay',
+        ['additionalData.orderId', 'notificationId', 'title'],
+      );
+    });
+
+    test('should not call native when the projection does not change', () => {
+      payloadOptions.addListener(NOTIFICATION_CLICKED, vi.fn(), { fields: ['title', 'body'] });
+      payloadOptions.addListener(NOTIFICATION_CLICKED, vi.fn(), { fields: ['body'] });
+
+      expect(mockModule.setNotificationFieldProjection).toHaveBeenCalledTimes(1);
+    });
+
+    test('should send every field again once the projecting listeners are removed', () => {
+      const listener = vi.fn();
+      payloadOptions.addListener(NOTIFICATION_CLICKED, listener, { fields: ['title'] });
+      payloadOptions.removeListener(NOTIFICATION_CLICKED, listener);
+
+      expect(mockModule.setNotificationFieldProjection).toHaveBeenLastCalledWith(
+        'onNotificationClicked',
+        null,
+      );
+    });
+  });
+});
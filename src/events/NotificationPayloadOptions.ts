@@ -0,0 +1,87 @@
+import { NOTIFICATION_CLICKED, NOTIFICATION_WILL_DISPLAY } from '../constants/events';
+import type { Spec } from '../NativeOneSignal';
+import type { NotificationListenerOptions } from '../types/notificationEvents';
+
+type NotificationEventName = typeof NOTIFICATION_CLICKED | typeof NOTIFICATION_WILL_DISPLAY;
+
+const NATIVE_EVENT_NAMES: Record<NotificationEventName, string> = {
+  [NOTIFICATION_CLICKED]: 'onNotificationClicked',
+  [NOTIFICATION_WILL_DISPLAY]: 'onNotificationWillDisplay',
+};
+
+/**
+ * Tracks the payload options each notification listener registered and tells the native module what
+ * the listeners of an event need as a whole. `rawPayload` is only left off an event once every
+ * listener for it has opted out. Fields are only projected once every listener lists its fields.
+ */
+export default class NotificationPayloadOptions {
+  private RNOneSignal: Spec;
+  private listenerOptions: Map<NotificationEventName, Map<unknown, NotificationListenerOptions>>;
+  private rawPayloadIncluded: Map<NotificationEventName, boolean>;
+  // Sorted, comma-joined fields last sent to native; absent while every field is sent.
+  private projectedFields: Map<NotificationEventName, string>;
+
+  constructor(RNOneSignal: Spec) {
+    this.RNOneSignal = RNOneSignal;
+    this.listenerOptions = new Map();
+    this.rawPayloadIncluded = new Map();
+    this.projectedFields = new Map();
+  }
+
+  addListener(
+    eventName: NotificationEventName,
+    listener: unknown,
+    options: NotificationListenerOptions = {},
+  ) {
+    const listeners = this.listenerOptions.get(eventName) ?? new Map();
+    listeners.set(listener, options);
+    this.listenerOptions.set(eventName, listeners);
+    this.sync(eventName);
+  }
+
+  removeListener(eventName: NotificationEventName, listener: unknown) {
+    const listeners = this.listenerOptions.get(eventName);
+    if (!listeners?.delete(listener)) {
+      return;
+    }
+    this.sync(eventName);
+  }
+
+  private sync(eventName: NotificationEventName) {
+    const options = [...(this.listenerOptions.get(eventName)?.values() ?? [])];
+    this.syncRawPayload(eventName, options);
+    this.syncFields(eventName, options);
+  }
+
+  private syncRawPayload(eventName: NotificationEventName, options: NotificationListenerOptions[]) {
+    const includeRawPayload =
+      options.length === 0 || options.some((option) => option.includeRawPayload !== false);
+
+    if ((this.rawPayloadIncluded.get(eventName) ?? true) === includeRawPayload) {
+      return;
+    }
+    this.rawPayloadIncluded.set(eventName, includeRawPayload);
+    this.RNOneSignal.setNotificationRawPayloadIncluded(
+      NATIVE_EVENT_NAMES[eventName],
+      includeRawPayload,
+    );
+  }
+
+  private syncFields(eventName: NotificationEventName, options: NotificationListenerOptions[]) {
+    const projected = options.length > 0 && options.every((option) => option.fields !== undefined);
+    const fields = projected
+      ? [...new Set(options.flatMap((option) => option.fields ?? []))].sort()
+      : null;
+
+    const key = fields?.join(',');
+    if (this.projectedFields.get(eventName) === key) {
+      return;
+    }
+    if (key === undefined) {
+      this.projectedFields.delete(eventName);
+    } else {
+      this.projectedFields.set(eventName, key);
+    }
+    this.RNOneSignal.setNotificationFieldProjection(NATIVE_EVENT_NAMES[eventName], fields);
+  }
+}
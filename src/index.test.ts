@@ -17,7 +17,7 @@ import {
 import { IOS_NULL_SENTINEL } from './constants/internal';
 import EventManager, { type EventListenerMap } from './events/EventManager';
 import * as helpers from './helpers';
-import { LogLevel, OneSignal, OSNotificationPermission } from './index';
+import { LogLevel, OneSignal, OperationBatch, OSNotificationPermission } from './index';
 
 const mockPlatform = Platform;
 
@@ -119,6 +119,26 @@ describe('OneSignal', () => {
     });
   });
 
+  describe('loginWithProfile', () => {
+    test('should login with the profile in one call', () => {
+      const profile = {
+        tags: { level: '2' },
+        aliases: { crm: '42' },
+        emails: ['user@example.com'],
+        language: 'de',
+      };
+      OneSignal.loginWithProfile('external-123', profile);
+      expect(mockRNOneSignal.loginWithProfile).toHaveBeenCalledWith('external-123', profile);
+      expect(mockRNOneSignal.login).not.toHaveBeenCalled();
+    });
+
+    test('should not login if native module is not loaded', () => {
+      isNativeLoadedSpy.mockReturnValue(false);
+      OneSignal.loginWithProfile('external-123', { language: 'de' });
+      expect(mockRNOneSignal.loginWithProfile).not.toHaveBeenCalled();
+    });
+  });
+
   describe('logout', () => {
     test('should logout', () => {
       OneSignal.logout();
@@ -158,6 +178,94 @@ describe('OneSignal', () => {
     });
   });
 
+  describe('setEventBatching', () => {
+    test('should enable event batching with the default interval', () => {
+      OneSignal.setEventBatching(true);
+      expect(mockRNOneSignal.setEventBatching).toHaveBeenCalledWith(true, 16);
+    });
+
+    test('should pass a custom interval', () => {
+      OneSignal.setEventBatching(false, 50);
+      expect(mockRNOneSignal.setEventBatching).toHaveBeenCalledWith(false, 50);
+    });
+
+    test('should not set event batching if native module is not loaded', () => {
+      isNativeLoadedSpy.mockReturnValue(false);
+      OneSignal.setEventBatching(true);
+      expect(mockRNOneSignal.setEventBatching).not.toHaveBeenCalled();
+    });
+  });
+
+  describe('setEventReplayBuffer', () => {
+    test('should configure the replay buffer', () => {
+      OneSignal.setEventReplayBuffer(5, 30000);
+      expect(mockRNOneSignal.setEventReplayBuffer).toHaveBeenCalledWith(5, 30000);
+    });
+
+    test('should not configure the replay buffer if native module is not loaded', () => {
+      isNativeLoadedSpy.mockReturnValue(false);
+      OneSignal.setEventReplayBuffer(0, 0);
+      expect(mockRNOneSignal.setEventReplayBuffer).not.toHaveBeenCalled();
+    });
+  });
+
+  describe('setNotificationDeduplication', () => {
+    test('should configure de-duplication', () => {
+      OneSignal.setNotificationDeduplication(64, 30000);
+      expect(mockRNOneSignal.setNotificationDeduplication).toHaveBeenCalledWith(64, 30000);
+    });
+
+    test('should not configure de-duplication if native module is not loaded', () => {
+      isNativeLoadedSpy.mockReturnValue(false);
+      OneSignal.setNotificationDeduplication(0, 0);
+      expect(mockRNOneSignal.setNotificationDeduplication).not.toHaveBeenCalled();
+    });
+  });
+
+  describe('flushPendingOperations', () => {
+    test('should wait for pending native operations', async () => {
+      vi.mocked(mockRNOneSignal.flushPendingOperations).mockResolvedValue(undefined);
+
+      await expect(OneSignal.flushPendingOperations()).resolves.toBeUndefined();
+      expect(mockRNOneSignal.flushPendingOperations).toHaveBeenCalled();
+    });
+
+    test('should reject if native module is not loaded', async () => {
+      isNativeLoadedSpy.mockReturnValue(false);
+      await expect(OneSignal.flushPendingOperations()).rejects.toThrow(
+        'OneSignal native module not loaded',
+      );
+      expect(mockRNOneSignal.flushPendingOperations).not.toHaveBeenCalled();
+    });
+  });
+
+  describe('executeBatch', () => {
+    test('should send the encoded batch in one call', async () => {
+      vi.mocked(mockRNOneSignal.executeBatch).mockResolvedValue([null, 'unknown operation']);
+      const batch = new OperationBatch().login('user-1').addTag('level', '2');
+
+      await expect(OneSignal.executeBatch(batch)).resolves.toEqual([null, 'unknown operation']);
+      expect(mockRNOneSignal.executeBatch).toHaveBeenCalledTimes(1);
+      expect(mockRNOneSignal.executeBatch).toHaveBeenCalledWith(
+        [1, 1, 12, 2],
+        ['user-1', 'level', '2'],
+      );
+    });
+
+    test('should not cross the bridge for an empty batch', async () => {
+      await expect(OneSignal.executeBatch(new OperationBatch())).resolves.toEqual([]);
+      expect(mockRNOneSignal.executeBatch).not.toHaveBeenCalled();
+    });
+
+    test('should reject if native module is not loaded', async () => {
+      isNativeLoadedSpy.mockReturnValue(false);
+      await expect(OneSignal.executeBatch(new OperationBatch().optIn())).rejects.toThrow(
+        'OneSignal native module not loaded',
+      );
+      expect(mockRNOneSignal.executeBatch).not.toHaveBeenCalled();
+    });
+  });
+
   describe('Debug', () => {
     describe('setLogLevel', () => {
       test('should set log level', () => {
@@ -184,6 +292,37 @@ describe('OneSignal', () => {
         expect(mockRNOneSignal.setAlertLevel).not.toHaveBeenCalled();
       });
     });
+
+    describe('getNativeMetrics', () => {
+      test('should get native metrics', async () => {
+        const mockMetrics = { sinceMs: 1000, events: {} };
+        vi.mocked(mockRNOneSignal.getNativeMetrics).mockResolvedValue(mockMetrics);
+
+        const result = await OneSignal.Debug.getNativeMetrics();
+        expect(result).toEqual(mockMetrics);
+        expect(mockRNOneSignal.getNativeMetrics).toHaveBeenCalled();
+      });
+
+      test('should reject if native module is not loaded', async () => {
+        isNativeLoadedSpy.mockReturnValue(false);
+        await expect(OneSignal.Debug.getNativeMetrics()).rejects.toThrow(
+          'OneSignal native module not loaded',
+        );
+      });
+    });
+
+    describe('resetNativeMetrics', () => {
+      test('should reset native metrics', () => {
+        OneSignal.Debug.resetNativeMetrics();
+        expect(mockRNOneSignal.resetNativeMetrics).toHaveBeenCalled();
+      });
+
+      test('should not reset native metrics if native module is not loaded', () => {
+        isNativeLoadedSpy.mockReturnValue(false);
+        OneSignal.Debug.resetNativeMetrics();
+        expect(mockRNOneSignal.resetNativeMetrics).not.toHaveBeenCalled();
+      });
+    });
   });
 
   describe('LiveActivities', () => {
@@ -421,6 +560,20 @@ describe('OneSignal', () => {
       });
     });
 
+    describe('getIdSync', () => {
+      test('should read the value synchronously', () => {
+        vi.mocked(mockRNOneSignal.getPushSubscriptionIdSync).mockReturnValue(PUSH_ID);
+        expect(OneSignal.User.pushSubscription.getIdSync()).toBe(PUSH_ID);
+        expect(mockRNOneSignal.getPushSubscriptionIdSync).toHaveBeenCalled();
+      });
+
+      test('should return null if native module is not loaded', () => {
+        isNativeLoadedSpy.mockReturnValue(false);
+        expect(OneSignal.User.pushSubscription.getIdSync()).toBe(null);
+        expect(mockRNOneSignal.getPushSubscriptionIdSync).not.toHaveBeenCalled();
+      });
+    });
+
     describe('getPushSubscriptionToken (deprecated)', () => {
       test('should return empty string if native module not loaded', () => {
         isNativeLoadedSpy.mockReturnValue(false);
@@ -487,6 +640,34 @@ describe('OneSignal', () => {
       });
     });
 
+    describe('getTokenSync', () => {
+      test('should read the value synchronously', () => {
+        vi.mocked(mockRNOneSignal.getPushSubscriptionTokenSync).mockReturnValue(PUSH_TOKEN);
+        expect(OneSignal.User.pushSubscription.getTokenSync()).toBe(PUSH_TOKEN);
+        expect(mockRNOneSignal.getPushSubscriptionTokenSync).toHaveBeenCalled();
+      });
+
+      test('should return null if native module is not loaded', () => {
+        isNativeLoadedSpy.mockReturnValue(false);
+        expect(OneSignal.User.pushSubscription.getTokenSync()).toBe(null);
+        expect(mockRNOneSignal.getPushSubscriptionTokenSync).not.toHaveBeenCalled();
+      });
+    });
+
+    describe('getOptedInSync', () => {
+      test('should read the value synchronously', () => {
+        vi.mocked(mockRNOneSignal.getOptedInSync).mockReturnValue(true);
+        expect(OneSignal.User.pushSubscription.getOptedInSync()).toBe(true);
+        expect(mockRNOneSignal.getOptedInSync).toHaveBeenCalled();
+      });
+
+      test('should return false if native module is not loaded', () => {
+        isNativeLoadedSpy.mockReturnValue(false);
+        expect(OneSignal.User.pushSubscription.getOptedInSync()).toBe(false);
+        expect(mockRNOneSignal.getOptedInSync).not.toHaveBeenCalled();
+      });
+    });
+
     describe('getOptedInAsync', () => {
       test('should get opted in status', async () => {
         vi.mocked(mockRNOneSignal.getOptedIn).mockResolvedValue(true);
@@ -589,6 +770,20 @@ describe('OneSignal', () => {
       });
     });
 
+    describe('getOnesignalIdSync', () => {
+      test('should read the value synchronously', () => {
+        vi.mocked(mockRNOneSignal.getOnesignalIdSync).mockReturnValue('onesignal-id');
+        expect(OneSignal.User.getOnesignalIdSync()).toBe('onesignal-id');
+        expect(mockRNOneSignal.getOnesignalIdSync).toHaveBeenCalled();
+      });
+
+      test('should return null if native module is not loaded', () => {
+        isNativeLoadedSpy.mockReturnValue(false);
+        expect(OneSignal.User.getOnesignalIdSync()).toBe(null);
+        expect(mockRNOneSignal.getOnesignalIdSync).not.toHaveBeenCalled();
+      });
+    });
+
     describe('getExternalId', () => {
       test('should get external id', async () => {
         const mockId = 'external-id';
@@ -607,6 +802,20 @@ describe('OneSignal', () => {
       });
     });
 
+    describe('getExternalIdSync', () => {
+      test('should read the value synchronously', () => {
+        vi.mocked(mockRNOneSignal.getExternalIdSync).mockReturnValue('external-id');
+        expect(OneSignal.User.getExternalIdSync()).toBe('external-id');
+        expect(mockRNOneSignal.getExternalIdSync).toHaveBeenCalled();
+      });
+
+      test('should return null if native module is not loaded', () => {
+        isNativeLoadedSpy.mockReturnValue(false);
+        expect(OneSignal.User.getExternalIdSync()).toBe(null);
+        expect(mockRNOneSignal.getExternalIdSync).not.toHaveBeenCalled();
+      });
+    });
+
     describe('setLanguage', () => {
       test('should set language', () => {
         OneSignal.User.setLanguage('en');
@@ -810,6 +1019,50 @@ describe('OneSignal', () => {
       });
     });
 
+    describe('setTagCoalescingWindow', () => {
+      test('should set the tag coalescing window', () => {
+        OneSignal.User.setTagCoalescingWindow(250);
+        expect(mockRNOneSignal.setTagCoalescingWindow).toHaveBeenCalledWith(250);
+      });
+
+      test('should not set the window if native module is not loaded', () => {
+        isNativeLoadedSpy.mockReturnValue(false);
+        OneSignal.User.setTagCoalescingWindow(250);
+        expect(mockRNOneSignal.setTagCoalescingWindow).not.toHaveBeenCalled();
+      });
+    });
+
+    describe('flushTags', () => {
+      test('should flush pending tags', () => {
+        OneSignal.User.flushTags();
+        expect(mockRNOneSignal.flushTags).toHaveBeenCalled();
+      });
+
+      test('should not flush tags if native module is not loaded', () => {
+        isNativeLoadedSpy.mockReturnValue(false);
+        OneSignal.User.flushTags();
+        expect(mockRNOneSignal.flushTags).not.toHaveBeenCalled();
+      });
+    });
+
+    describe('setTrackEventQueue', () => {
+      test('should configure the trackEvent queue', () => {
+        OneSignal.User.setTrackEventQueue(200, 'dropOldest');
+        expect(mockRNOneSignal.setTrackEventQueue).toHaveBeenCalledWith(200, 'dropOldest');
+      });
+
+      test('should default to dropping the oldest event', () => {
+        OneSignal.User.setTrackEventQueue(200);
+        expect(mockRNOneSignal.setTrackEventQueue).toHaveBeenCalledWith(200, 'dropOldest');
+      });
+
+      test('should not configure the queue if native module is not loaded', () => {
+        isNativeLoadedSpy.mockReturnValue(false);
+        OneSignal.User.setTrackEventQueue(200);
+        expect(mockRNOneSignal.setTrackEventQueue).not.toHaveBeenCalled();
+      });
+    });
+
     describe('trackEvent', () => {
       test('should track event with name and properties', () => {
         const properties = { key: 'value', count: 42 };
@@ -935,6 +1188,20 @@ describe('OneSignal', () => {
         });
       });
 
+      describe('getPermissionSync', () => {
+        test('should read the value synchronously', () => {
+          vi.mocked(mockRNOneSignal.hasNotificationPermissionSync).mockReturnValue(true);
+          expect(OneSignal.Notifications.getPermissionSync()).toBe(true);
+          expect(mockRNOneSignal.hasNotificationPermissionSync).toHaveBeenCalled();
+        });
+
+        test('should return false if native module is not loaded', () => {
+          isNativeLoadedSpy.mockReturnValue(false);
+          expect(OneSignal.Notifications.getPermissionSync()).toBe(false);
+          expect(mockRNOneSignal.hasNotificationPermissionSync).not.toHaveBeenCalled();
+        });
+      });
+
       describe('requestPermission', () => {
         test('should request permission', async () => {
           vi.mocked(mockRNOneSignal.requestNotificationPermission).mockResolvedValue(true);
@@ -1041,6 +1308,58 @@ describe('OneSignal', () => {
           expect(helpers.isValidCallback).toHaveBeenCalledWith(listener);
         });
 
+        test('should omit rawPayload when every click listener opts out', () => {
+          const listener = vi.fn();
+          OneSignal.Notifications.addEventListener('click', listener, { includeRawPayload: false });
+
+          expect(mockRNOneSignal.setNotificationRawPayloadIncluded).toHaveBeenCalledWith(
+            'onNotificationClicked',
+            false,
+          );
+
+          OneSignal.Notifications.removeEventListener('click', listener);
+          expect(mockRNOneSignal.setNotificationRawPayloadIncluded).toHaveBeenLastCalledWith(
+            'onNotificationClicked',
+            true,
+          );
+        });
+
+        test('should omit rawPayload when every foregroundWillDisplay listener opts out', () => {
+          const listener = vi.fn();
+          OneSignal.Notifications.addEventListener('foregroundWillDisplay', listener, {
+            includeRawPayload: false,
+          });
+
+          expect(mockRNOneSignal.setNotificationRawPayloadIncluded).toHaveBeenCalledWith(
+            'onNotificationWillDisplay',
+            false,
+          );
+
+          OneSignal.Notifications.removeEventListener('foregroundWillDisplay', listener);
+          expect(mockRNOneSignal.setNotificationRawPayloadIncluded).toHaveBeenLastCalledWith(
+            'onNotificationWillDisplay',
+            true,
+          );
+        });
+
+        test('should project the fields click listeners read', () => {
+          const listener = vi.fn();
+          OneSignal.Notifications.addEventListener('click', listener, {
+            fields: ['title', 'additionalData.orderId'],
+          });
+
+          expect(mockRNOneSignal.setNotificationFieldProjection).toHaveBeenCalledWith(
+            'onNotificationClicked',
+            ['additionalData.orderId', 'title'],
+          );
+
+          OneSignal.Notifications.removeEventListener('click', listener);
+          expect(mockRNOneSignal.setNotificationFieldProjection).toHaveBeenLastCalledWith(
+            'onNotificationClicked',
+            null,
+          );
+        });
+
         test('should add permissionChange listener', () => {
           const listener = vi.fn();
           OneSignal.Notifications.addEventListener('permissionChange', listener);
@@ -1087,6 +1406,80 @@ describe('OneSignal', () => {
         });
       });
 
+      describe('getRawPayload', () => {
+        test('should get raw payload from native', async () => {
+          mockRNOneSignal.getNotificationRawPayload.mockResolvedValue('{"alert":"hi"}');
+          const rawPayload = await OneSignal.Notifications.getRawPayload('notification-id');
+
+          expect(mockRNOneSignal.getNotificationRawPayload).toHaveBeenCalledWith('notification-id');
+          expect(rawPayload).toBe('{"alert":"hi"}');
+        });
+
+        test('should reject if native module is not loaded', async () => {
+          isNativeLoadedSpy.mockReturnValue(false);
+          await expect(OneSignal.Notifications.getRawPayload('notification-id')).rejects.toThrow(
+            'OneSignal native module not loaded',
+          );
+        });
+      });
+
+      describe('setForegroundWillDisplayTimeout', () => {
+        test('should set timeout and display on timeout by default', () => {
+          OneSignal.Notifications.setForegroundWillDisplayTimeout(250);
+          expect(mockRNOneSignal.setNotificationWillDisplayTimeout).toHaveBeenCalledWith(250, true);
+        });
+
+        test('should pass the timeout policy', () => {
+          OneSignal.Notifications.setForegroundWillDisplayTimeout(500, false);
+          expect(mockRNOneSignal.setNotificationWillDisplayTimeout).toHaveBeenCalledWith(500, false);
+        });
+
+        test('should not set timeout if native module is not loaded', () => {
+          isNativeLoadedSpy.mockReturnValue(false);
+          OneSignal.Notifications.setForegroundWillDisplayTimeout(250);
+          expect(mockRNOneSignal.setNotificationWillDisplayTimeout).not.toHaveBeenCalled();
+        });
+      });
+
+      describe('setJsonPayloadThreshold', () => {
+        test('should set the threshold for click events', () => {
+          OneSignal.Notifications.setJsonPayloadThreshold('click', 2048);
+          expect(mockRNOneSignal.setNotificationJsonEncoding).toHaveBeenCalledWith(
+            'onNotificationClicked',
+            2048,
+            false,
+          );
+        });
+
+        test('should pass the whole notification option', () => {
+          OneSignal.Notifications.setJsonPayloadThreshold('foregroundWillDisplay', 1024, true);
+          expect(mockRNOneSignal.setNotificationJsonEncoding).toHaveBeenCalledWith(
+            'onNotificationWillDisplay',
+            1024,
+            true,
+          );
+        });
+
+        test('should not set the threshold if native module is not loaded', () => {
+          isNativeLoadedSpy.mockReturnValue(false);
+          OneSignal.Notifications.setJsonPayloadThreshold('click', 2048);
+          expect(mockRNOneSignal.setNotificationJsonEncoding).not.toHaveBeenCalled();
+        });
+      });
+
+      describe('setGroupedNotificationLimit', () => {
+        test('should set the grouped notification limit', () => {
+          OneSignal.Notifications.setGroupedNotificationLimit(10);
+          expect(mockRNOneSignal.setGroupedNotificationLimit).toHaveBeenCalledWith(10);
+        });
+
+        test('should not set the limit if native module is not loaded', () => {
+          isNativeLoadedSpy.mockReturnValue(false);
+          OneSignal.Notifications.setGroupedNotificationLimit(10);
+          expect(mockRNOneSignal.setGroupedNotificationLimit).not.toHaveBeenCalled();
+        });
+      });
+
       describe('clearAll', () => {
         test('should clear all notifications', () => {
           OneSignal.Notifications.clearAll();
@@ -1154,6 +1547,68 @@ describe('OneSignal', () => {
           expect(mockRNOneSignal.removeGroupedNotifications).not.toHaveBeenCalled();
         });
       });
+
+      describe('removeNotifications', () => {
+        const IDS = [1, 2, 3];
+
+        beforeEach(() => {
+          mockPlatform.OS = 'android';
+        });
+
+        test('should remove notifications on Android in one call', () => {
+          OneSignal.Notifications.removeNotifications(IDS);
+          expect(mockRNOneSignal.removeNotifications).toHaveBeenCalledTimes(1);
+          expect(mockRNOneSignal.removeNotifications).toHaveBeenCalledWith(IDS);
+        });
+
+        test('should not remove if native module is not loaded', () => {
+          isNativeLoadedSpy.mockReturnValue(false);
+          OneSignal.Notifications.removeNotifications(IDS);
+
+          expect(mockRNOneSignal.removeNotifications).not.toHaveBeenCalled();
+        });
+
+        test('should log message on iOS', () => {
+          mockPlatform.OS = 'ios';
+          OneSignal.Notifications.removeNotifications(IDS);
+
+          expect(console.warn).toHaveBeenCalledWith(
+            'removeNotifications: this function is not supported on iOS',
+          );
+          expect(mockRNOneSignal.removeNotifications).not.toHaveBeenCalled();
+        });
+      });
+
+      describe('removeGroupedNotificationsBatch', () => {
+        const GROUP_KEYS = ['orders', 'messages'];
+
+        beforeEach(() => {
+          mockPlatform.OS = 'android';
+        });
+
+        test('should remove notification groups on Android in one call', () => {
+          OneSignal.Notifications.removeGroupedNotificationsBatch(GROUP_KEYS);
+          expect(mockRNOneSignal.removeGroupedNotificationsBatch).toHaveBeenCalledTimes(1);
+          expect(mockRNOneSignal.removeGroupedNotificationsBatch).toHaveBeenCalledWith(GROUP_KEYS);
+        });
+
+        test('should not remove if native module is not loaded', () => {
+          isNativeLoadedSpy.mockReturnValue(false);
+          OneSignal.Notifications.removeGroupedNotificationsBatch(GROUP_KEYS);
+
+          expect(mockRNOneSignal.removeGroupedNotificationsBatch).not.toHaveBeenCalled();
+        });
+
+        test('should log message on iOS', () => {
+          mockPlatform.OS = 'ios';
+          OneSignal.Notifications.removeGroupedNotificationsBatch(GROUP_KEYS);
+
+          expect(console.warn).toHaveBeenCalledWith(
+            'removeGroupedNotificationsBatch: this function is not supported on iOS',
+          );
+          expect(mockRNOneSignal.removeGroupedNotificationsBatch).not.toHaveBeenCalled();
+        });
+      });
     });
 
     describe('InAppMessages', () => {
@@ -1276,6 +1731,20 @@ describe('OneSignal', () => {
         });
       });
 
+      describe('setTriggers', () => {
+        test('should set triggers', () => {
+          const triggers = { screen: 'home', tab: 'feed' };
+          OneSignal.InAppMessages.setTriggers(triggers);
+          expect(mockRNOneSignal.setTriggers).toHaveBeenCalledWith(triggers);
+        });
+
+        test('should not set triggers if native module is not loaded', () => {
+          isNativeLoadedSpy.mockReturnValue(false);
+          OneSignal.InAppMessages.setTriggers({ screen: 'home' });
+          expect(mockRNOneSignal.setTriggers).not.toHaveBeenCalled();
+        });
+      });
+
       describe('removeTrigger', () => {
         test('should remove trigger', () => {
           OneSignal.InAppMessages.removeTrigger('key');
@@ -1344,6 +1813,20 @@ describe('OneSignal', () => {
           );
         });
       });
+
+      describe('getPausedSync', () => {
+        test('should read the value synchronously', () => {
+          vi.mocked(mockRNOneSignal.getPausedSync).mockReturnValue(true);
+          expect(OneSignal.InAppMessages.getPausedSync()).toBe(true);
+          expect(mockRNOneSignal.getPausedSync).toHaveBeenCalled();
+        });
+
+        test('should return false if native module is not loaded', () => {
+          isNativeLoadedSpy.mockReturnValue(false);
+          expect(OneSignal.InAppMessages.getPausedSync()).toBe(false);
+          expect(mockRNOneSignal.getPausedSync).not.toHaveBeenCalled();
+        });
+      });
     });
 
     describe('Location', () => {
@@ -1436,6 +1919,37 @@ describe('OneSignal', () => {
           expect(mockRNOneSignal.addOutcomeWithValue).not.toHaveBeenCalled();
         });
       });
+
+      describe('setOutcomeAggregation', () => {
+        test('should enable aggregation with a window', () => {
+          OneSignal.Session.setOutcomeAggregation(true, 5000);
+          expect(mockRNOneSignal.setOutcomeAggregation).toHaveBeenCalledWith(true, 5000);
+        });
+
+        test('should default to aggregating until background', () => {
+          OneSignal.Session.setOutcomeAggregation(true);
+          expect(mockRNOneSignal.setOutcomeAggregation).toHaveBeenCalledWith(true, 0);
+        });
+
+        test('should not set aggregation if native module is not loaded', () => {
+          isNativeLoadedSpy.mockReturnValue(false);
+          OneSignal.Session.setOutcomeAggregation(true);
+          expect(mockRNOneSignal.setOutcomeAggregation).not.toHaveBeenCalled();
+        });
+      });
+
+      describe('flushOutcomes', () => {
+        test('should flush outcomes', () => {
+          OneSignal.Session.flushOutcomes();
+          expect(mockRNOneSignal.flushOutcomes).toHaveBeenCalled();
+        });
+
+        test('should not flush outcomes if native module is not loaded', () => {
+          isNativeLoadedSpy.mockReturnValue(false);
+          OneSignal.Session.flushOutcomes();
+          expect(mockRNOneSignal.flushOutcomes).not.toHaveBeenCalled();
+        });
+      });
     });
   });
 });
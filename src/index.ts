@@ -14,6 +14,7 @@ import {
 } from './constants/events';
 import type { OSNotificationPermission } from './constants/subscription';
 import EventManager from './events/EventManager';
+import NotificationPayloadOptions from './events/NotificationPayloadOptions';
 import NotificationWillDisplayEvent from './events/NotificationWillDisplayEvent';
 import {
   encodeNullsForIOS,
@@ -22,6 +23,7 @@ import {
   isValidCallback,
 } from './helpers';
 import NativeOneSignal from './NativeOneSignal';
+import OperationBatch from './OperationBatch';
 import type {
   InAppMessage,
   InAppMessageClickEvent,
@@ -32,9 +34,10 @@ import type {
   InAppMessageWillDisplayEvent,
 } from './types/inAppMessage';
 import type { LiveActivitySetupOptions } from './types/liveActivities';
+import type { NativeMetrics, TrackEventOverflowPolicy } from './types/metrics';
 import type { NotificationClickEvent, NotificationListeners } from './types/notificationEvents';
 import type { PushSubscriptionChangedState, PushSubscriptionState } from './types/subscription';
-import type { UserChangedState, UserState } from './types/user';
+import type { UserChangedState, UserProfile, UserState } from './types/user';
 
 const RNOneSignal = NativeOneSignal;
 
@@ -45,6 +48,7 @@ if (prev instanceof EventManager) {
 }
 const eventManager = new EventManager(RNOneSignal);
 (globalThis as Record<string, unknown>)[GLOBAL_KEY] = eventManager;
+const notificationPayloadOptions = new NotificationPayloadOptions(RNOneSignal);
 
 /// An enum that declares different types of log levels you can use with the OneSignal SDK, going from the least verbose (none) to verbose (print all comments).
 export enum LogLevel {
@@ -104,6 +108,19 @@ export namespace OneSignal {
     RNOneSignal.login(externalId);
   }
 
+  /**
+   * Logs in and sets the user's tags, aliases, emails, SMS numbers and language in one native call.
+   * The profile is applied to the new user right after the login, in the same SDK operation, rather
+   * than in separate calls that may reach the SDK while it is still switching users.
+   * @param {string} externalId - The external user ID to log in.
+   * @param {UserProfile} profile - What to set on the new user. Every field is optional.
+   */
+  export function loginWithProfile(externalId: string, profile: UserProfile) {
+    if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+    RNOneSignal.loginWithProfile(externalId, profile);
+  }
+
   /**
    * Once (or if) the user is no longer identifiable in your app (i.e. they logged out), the logout method should be
    * called.
@@ -132,6 +149,80 @@ export namespace OneSignal {
     RNOneSignal.setPrivacyConsentGiven(granted);
   }
 
+  /**
+   * Opt in to delivering native events to JS in batches. Events raised within the same interval are sent
+   * across the bridge together and dispatched to listeners in the order they happened, which helps when
+   * many events arrive at once (e.g. a burst of in-app message lifecycle events). Disabling delivers
+   * anything already queued.
+   * @param {boolean} enabled
+   * @param {number} intervalMs - How long to collect events before delivering them. Defaults to one frame.
+   */
+  export function setEventBatching(enabled: boolean, intervalMs = 16) {
+    if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+    RNOneSignal.setEventBatching(enabled, intervalMs);
+  }
+
+  /**
+   * Notification and in-app message clicks that fire before a click listener is added (e.g. the tap that
+   * launched the app) are kept natively and replayed, in order, when the listener is added. Use this to
+   * change how many clicks are kept per event type and how old they may be before they are dropped.
+   * @param {number} capacity - Clicks kept per event type. 0 turns the buffer off. Defaults to 10.
+   * @param {number} maxAgeMs - Clicks older than this are not replayed. 0 means no limit. Defaults to 60000.
+   */
+  export function setEventReplayBuffer(capacity: number, maxAgeMs: number) {
+    if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+    RNOneSignal.setEventReplayBuffer(capacity, maxAgeMs);
+  }
+
+  /**
+   * Android only. A notification's `foregroundWillDisplay` and `click` events are delivered once;
+   * repeats of the same event for the same notification id (e.g. around a JS reload or an FCM
+   * redelivery) are dropped natively and counted as `duplicates` in `getNativeMetrics()`. Clicks on
+   * different action buttons are not repeats. Changing the settings forgets earlier deliveries.
+   * @param {number} capacity - Deliveries remembered. 0 turns de-duplication off. Defaults to 128.
+   * @param {number} windowMs - How long deliveries are remembered, 0 for no limit. Defaults to 60000.
+   */
+  export function setNotificationDeduplication(capacity: number, windowMs: number) {
+    if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+    RNOneSignal.setNotificationDeduplication(capacity, windowMs);
+  }
+
+  /**
+   * Calls that change SDK state (login, logout, tags, aliases, email, SMS, language, triggers,
+   * outcomes, opt-in, trackEvent and notification removal) return before the SDK has processed
+   * them. They are applied one at a time, in the order they were made. Resolves once every such
+   * call made before it has been applied. Consent changes are applied straight away.
+   */
+  export async function flushPendingOperations(): Promise<void> {
+    if (!isNativeModuleLoaded(RNOneSignal)) {
+      return Promise.reject(new Error('OneSignal native module not loaded'));
+    }
+
+    await RNOneSignal.flushPendingOperations();
+  }
+
+  /**
+   * Applies every call in `batch` natively, in order, in one bridge call instead of one per call.
+   * Each call behaves as if it had been made on its own. Resolves once every call has reached the
+   * native SDK, with one entry per call: null if it was applied, or why it was skipped. To get
+   * there, tag writes and outcomes still held for coalescing or aggregation are sent when the batch
+   * ends instead of when their window closes.
+   */
+  export async function executeBatch(batch: OperationBatch): Promise<(string | null)[]> {
+    if (!isNativeModuleLoaded(RNOneSignal)) {
+      return Promise.reject(new Error('OneSignal native module not loaded'));
+    }
+    if (batch.size === 0) {
+      return [];
+    }
+
+    const { ops, args } = batch.encode();
+    return RNOneSignal.executeBatch(ops, args);
+  }
+
   export namespace Debug {
     /**
      * Enable logging to help debug if you run into an issue setting up OneSignal.
@@ -152,6 +243,29 @@ export namespace OneSignal {
 
       RNOneSignal.setAlertLevel(visualLogLevel);
     }
+
+    /**
+     * Counts, serialization time, payload size and SDK-callback-to-emit latency for each
+     * native event, collected since the module loaded or the last resetNativeMetrics call.
+     * Measuring payload sizes costs about as much as building the payload, so it only starts
+     * with the first getNativeMetrics or resetNativeMetrics call. Android only; iOS resolves
+     * with no events.
+     */
+    export async function getNativeMetrics(): Promise<NativeMetrics> {
+      if (!isNativeModuleLoaded(RNOneSignal)) {
+        return Promise.reject(new Error('OneSignal native module not loaded'));
+      }
+
+      const metrics = await RNOneSignal.getNativeMetrics();
+      return metrics as NativeMetrics;
+    }
+
+    /** Clears the numbers returned by getNativeMetrics. */
+    export function resetNativeMetrics() {
+      if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+      RNOneSignal.resetNativeMetrics();
+    }
   }
 
   export namespace LiveActivities {
@@ -317,6 +431,16 @@ export namespace OneSignal {
         return await RNOneSignal.getPushSubscriptionId();
       }
 
+      /**
+       * Synchronous version of {@link getIdAsync}, answered from native in-memory state. Safe to call during
+       * render. Returns null if the native module is not loaded.
+       */
+      export function getIdSync(): string | null {
+        if (!isNativeModuleLoaded(RNOneSignal)) return null;
+
+        return RNOneSignal.getPushSubscriptionIdSync();
+      }
+
       /**
        * @deprecated This method is deprecated. It has been replaced by {@link getTokenAsync}.
        */
@@ -340,6 +464,16 @@ export namespace OneSignal {
         return await RNOneSignal.getPushSubscriptionToken();
       }
 
+      /**
+       * Synchronous version of {@link getTokenAsync}, answered from native in-memory state. Returns null if
+       * the native module is not loaded.
+       */
+      export function getTokenSync(): string | null {
+        if (!isNativeModuleLoaded(RNOneSignal)) return null;
+
+        return RNOneSignal.getPushSubscriptionTokenSync();
+      }
+
       /**
        * @deprecated This method is deprecated. It has been replaced by {@link getOptedInAsync}.
        */
@@ -368,6 +502,16 @@ export namespace OneSignal {
         return await RNOneSignal.getOptedIn();
       }
 
+      /**
+       * Synchronous version of {@link getOptedInAsync}, answered from native in-memory state. Returns false
+       * if the native module is not loaded.
+       */
+      export function getOptedInSync(): boolean {
+        if (!isNativeModuleLoaded(RNOneSignal)) return false;
+
+        return RNOneSignal.getOptedInSync();
+      }
+
       /** Disable the push notification subscription to OneSignal. */
       export function optOut() {
         if (!isNativeModuleLoaded(RNOneSignal)) return;
@@ -416,6 +560,16 @@ export namespace OneSignal {
       return RNOneSignal.getOnesignalId();
     }
 
+    /**
+     * Synchronous version of {@link getOnesignalId}, answered from native in-memory state. Safe to call
+     * during render. Returns null if the native module is not loaded.
+     */
+    export function getOnesignalIdSync(): string | null {
+      if (!isNativeModuleLoaded(RNOneSignal)) return null;
+
+      return RNOneSignal.getOnesignalIdSync();
+    }
+
     /** Get the nullable External Id associated with the user. */
     export async function getExternalId(): Promise<string | null> {
       if (!isNativeModuleLoaded(RNOneSignal)) {
@@ -424,6 +578,16 @@ export namespace OneSignal {
       return RNOneSignal.getExternalId();
     }
 
+    /**
+     * Synchronous version of {@link getExternalId}, answered from native in-memory state. Returns null if
+     * the native module is not loaded.
+     */
+    export function getExternalIdSync(): string | null {
+      if (!isNativeModuleLoaded(RNOneSignal)) return null;
+
+      return RNOneSignal.getExternalIdSync();
+    }
+
     /** Explicitly set a 2-character language code for the user. */
     export function setLanguage(language: string) {
       if (!isNativeModuleLoaded(RNOneSignal)) return;
@@ -543,6 +707,26 @@ export namespace OneSignal {
       return tags as { [key: string]: string };
     }
 
+    /**
+     * Coalesce tag writes natively. While the window is above 0, addTag/addTags/removeTag/removeTags calls
+     * made within the window are merged (the last write per key wins, and a remove cancels a pending add)
+     * and sent to the SDK as a single addTags/removeTags pair when it closes. Pending tags are also written
+     * before getTags, login and logout. Set the window to 0 (the default) to write every call straight through.
+     * @param {number} windowMs
+     */
+    export function setTagCoalescingWindow(windowMs: number) {
+      if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+      RNOneSignal.setTagCoalescingWindow(windowMs);
+    }
+
+    /** Write any tag changes still pending in the coalescing window to the SDK now. */
+    export function flushTags() {
+      if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+      RNOneSignal.flushTags();
+    }
+
     /** Track custom events for the current user. */
     export function trackEvent(name: string, properties: Record<string, unknown> = {}) {
       if (!isNativeModuleLoaded(RNOneSignal)) return;
@@ -559,6 +743,21 @@ export namespace OneSignal {
 
       RNOneSignal.trackEvent(name, payload);
     }
+
+    /**
+     * Android only. trackEvent calls are queued and handed to the SDK in order on a background
+     * thread. Sets how many events the queue holds and what happens when it is full:
+     * 'dropOldest' (default) and 'dropNewest' discard an event, 'block' makes the caller wait,
+     * which holds up every other native module call until there is space.
+     */
+    export function setTrackEventQueue(
+      capacity: number,
+      overflowPolicy: TrackEventOverflowPolicy = 'dropOldest',
+    ) {
+      if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+      RNOneSignal.setTrackEventQueue(capacity, overflowPolicy);
+    }
   }
 
   export namespace Notifications {
@@ -581,6 +780,16 @@ export namespace OneSignal {
       return RNOneSignal.hasNotificationPermission();
     }
 
+    /**
+     * Synchronous version of {@link getPermissionAsync}, answered from native in-memory state. Returns false
+     * if the native module is not loaded.
+     */
+    export function getPermissionSync(): boolean {
+      if (!isNativeModuleLoaded(RNOneSignal)) return false;
+
+      return RNOneSignal.hasNotificationPermissionSync();
+    }
+
     /**
      * Prompt the user for permission to receive push notifications. This will display the native system prompt to request push
      * notification permission. Use the fallbackToSettings parameter to prompt to open the settings app if a user has already
@@ -642,15 +851,17 @@ export namespace OneSignal {
 
     /**
      * Add listeners for notification click and/or lifecycle events. */
-    export function addEventListener(...[event, listener]: NotificationListeners): void {
+    export function addEventListener(...[event, listener, options]: NotificationListeners): void {
       if (!isNativeModuleLoaded(RNOneSignal)) return;
       isValidCallback(listener);
 
       /* v8 ignore else -- @preserve */
       if (event === 'click') {
+        notificationPayloadOptions.addListener(NOTIFICATION_CLICKED, listener, options);
         RNOneSignal.addNotificationClickListener();
         eventManager.addEventListener(NOTIFICATION_CLICKED, listener);
       } else if (event === 'foregroundWillDisplay') {
+        notificationPayloadOptions.addListener(NOTIFICATION_WILL_DISPLAY, listener, options);
         RNOneSignal.addNotificationForegroundLifecycleListener();
         eventManager.addEventListener(NOTIFICATION_WILL_DISPLAY, listener);
       } else if (event === 'permissionChange') {
@@ -666,13 +877,71 @@ export namespace OneSignal {
       /* v8 ignore else -- @preserve */
       if (event === 'click') {
         eventManager.removeEventListener(NOTIFICATION_CLICKED, listener);
+        notificationPayloadOptions.removeListener(NOTIFICATION_CLICKED, listener);
       } else if (event === 'foregroundWillDisplay') {
         eventManager.removeEventListener(NOTIFICATION_WILL_DISPLAY, listener);
+        notificationPayloadOptions.removeListener(NOTIFICATION_WILL_DISPLAY, listener);
       } else if (event === 'permissionChange') {
         eventManager.removeEventListener(PERMISSION_CHANGED, listener);
       }
     }
 
+    /**
+     * Sets how long a `foregroundWillDisplay` listener has to call `display()` or `preventDefault()`
+     * on the event. If neither is called within `timeoutMs`, the notification is displayed when
+     * `displayOnTimeout` is true and dropped otherwise. Defaults to 25 seconds and displaying. A
+     * timeout of 0 waits for the listener without a deadline; on Android, where at most 64 events
+     * wait, for up to 5 minutes.
+     */
+    export function setForegroundWillDisplayTimeout(timeoutMs: number, displayOnTimeout = true) {
+      if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+      RNOneSignal.setNotificationWillDisplayTimeout(timeoutMs, displayOnTimeout);
+    }
+
+    /**
+     * Android only. Sends an event's `additionalData` as one JSON string once its JSON form is at
+     * least `minLength` characters long, and parses it on first read. This is cheaper than building
+     * a deeply nested map on the bridge for large payloads. With `wholeNotification`, the whole
+     * notification is sent as a string instead. A negative `minLength` (the default) turns it off.
+     */
+    export function setJsonPayloadThreshold(
+      event: 'click' | 'foregroundWillDisplay',
+      minLength: number,
+      wholeNotification = false,
+    ) {
+      if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+      RNOneSignal.setNotificationJsonEncoding(
+        event === 'click' ? 'onNotificationClicked' : 'onNotificationWillDisplay',
+        minLength,
+        wholeNotification,
+      );
+    }
+
+    /**
+     * Android only. Caps how many `groupedNotifications` a summary notification carries to JS.
+     * Children beyond the cap are left out, in the order the native SDK lists them. Defaults to 50.
+     */
+    export function setGroupedNotificationLimit(limit: number) {
+      if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+      RNOneSignal.setGroupedNotificationLimit(limit);
+    }
+
+    /**
+     * Returns the raw payload of a recently received notification. Use this when listeners were
+     * added with `includeRawPayload: false`. Resolves to the payload as a JSON string, or to null
+     * once the native SDK no longer holds it.
+     */
+    export function getRawPayload(notificationId: string): Promise<string | null> {
+      if (!isNativeModuleLoaded(RNOneSignal)) {
+        return Promise.reject(new Error('OneSignal native module not loaded'));
+      }
+
+      return RNOneSignal.getNotificationRawPayload(notificationId);
+    }
+
     /**
      * Removes all OneSignal notifications.
      */
@@ -710,6 +979,38 @@ export namespace OneSignal {
         console.warn('removeGroupedNotifications: this function is not supported on iOS');
       }
     }
+
+    /**
+     * Android Only.
+     * Removes several OneSignal notifications by their Android notification integer ids, in one
+     * native call.
+     * @param {number[]} ids - Android notification ids to cancel
+     */
+    export function removeNotifications(ids: number[]) {
+      if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+      if (Platform.OS === 'android') {
+        RNOneSignal.removeNotifications(ids);
+      } else {
+        console.warn('removeNotifications: this function is not supported on iOS');
+      }
+    }
+
+    /**
+     * Android Only.
+     * Removes the OneSignal notifications of several Android notification groups, in one native
+     * call.
+     * @param {string[]} groupKeys - notification group ids to cancel
+     */
+    export function removeGroupedNotificationsBatch(groupKeys: string[]) {
+      if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+      if (Platform.OS === 'android') {
+        RNOneSignal.removeGroupedNotificationsBatch(groupKeys);
+      } else {
+        console.warn('removeGroupedNotificationsBatch: this function is not supported on iOS');
+      }
+    }
   }
 
   export namespace InAppMessages {
@@ -784,6 +1085,17 @@ export namespace OneSignal {
       RNOneSignal.addTriggers(triggers);
     }
 
+    /**
+     * Replace the current user's triggers with `triggers`: keys that are not in it are removed.
+     * Only the keys that were added, changed or removed are sent to the SDK, so calling it again
+     * with the same triggers, such as on every screen change, costs no trigger evaluation.
+     */
+    export function setTriggers(triggers: Record<string, string>) {
+      if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+      RNOneSignal.setTriggers(triggers);
+    }
+
     /** Remove the trigger with the provided key from the current user. */
     export function removeTrigger(key: string) {
       if (!isNativeModuleLoaded(RNOneSignal)) return;
@@ -824,6 +1136,16 @@ export namespace OneSignal {
 
       return RNOneSignal.getPaused();
     }
+
+    /**
+     * Synchronous version of {@link getPaused}, answered from native in-memory state. Returns false if the
+     * native module is not loaded.
+     */
+    export function getPausedSync(): boolean {
+      if (!isNativeModuleLoaded(RNOneSignal)) return false;
+
+      return RNOneSignal.getPausedSync();
+    }
   }
 
   export namespace Location {
@@ -878,6 +1200,29 @@ export namespace OneSignal {
 
       RNOneSignal.addOutcomeWithValue(name, Number(value));
     }
+
+    /**
+     * Aggregate addOutcomeWithValue calls natively. While enabled, values are summed per outcome
+     * name and sent as one call per name when the window closes, when the app goes to the
+     * background, before login and logout, and when the module is torn down. Each send counts
+     * once towards the outcome's "Count", so only enable this where the "Sum" is what matters
+     * (e.g. per-item revenue). addOutcome and addUniqueOutcome are never aggregated.
+     * @param {boolean} enabled
+     * @param {number} windowMs - How long to sum values before sending. 0 (the default) only sends
+     * on the lifecycle points above or flushOutcomes.
+     */
+    export function setOutcomeAggregation(enabled: boolean, windowMs = 0) {
+      if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+      RNOneSignal.setOutcomeAggregation(enabled, windowMs);
+    }
+
+    /** Send any aggregated outcome values to the SDK now. */
+    export function flushOutcomes() {
+      if (!isNativeModuleLoaded(RNOneSignal)) return;
+
+      RNOneSignal.flushOutcomes();
+    }
   }
 }
 
@@ -893,10 +1238,26 @@ export {
   type NotificationClickEvent,
   type PushSubscriptionChangedState,
   type UserChangedState,
+  type UserProfile,
   type UserState,
 };
 
+export { default as OperationBatch } from './OperationBatch';
 export { default as OSNotification } from './OSNotification';
 export type { InAppMessageClickResult } from './types/inAppMessage';
-export type { NotificationClickResult } from './types/notificationEvents';
+export type {
+  NotificationClickResult,
+  NotificationField,
+  NotificationListenerOptions,
+} from './types/notificationEvents';
+export type {
+  CacheMetrics,
+  ForegroundWillDisplayMetrics,
+  HistogramSummary,
+  NativeEventMetrics,
+  NativeMetrics,
+  StartupMetrics,
+  TrackEventOverflowPolicy,
+  TrackEventQueueMetrics,
+} from './types/metrics';
 export type { PushSubscriptionState } from './types/subscription';
@@ -0,0 +1,96 @@
+export interface HistogramSummary {
+  count: number;
+  mean: number;
+  p50: number;
+  p90: number;
+  p99: number;
+  max: number;
+  /**
+   * Bucket i counts values in [2^(i-1), 2^i). Bucket 0 counts zeros and the last bucket
+   * everything larger.
+   */
+  buckets: number[];
+}
+
+export interface NativeEventMetrics {
+  /** Events handed off towards JS. */
+  count: number;
+  /** Events dropped because their payload could not be serialized. */
+  failures: number;
+  /** Notification events dropped as repeats, see `OneSignal.setNotificationDeduplication`. */
+  duplicates: number;
+  /** Time spent building the payload. */
+  conversionMicros: HistogramSummary;
+  /** Time from the SDK callback until the event was handed off towards JS. */
+  emitLatencyMicros: HistogramSummary;
+  /** Keys at every level of the payload. Only measured once getNativeMetrics has been called. */
+  payloadKeys: HistogramSummary;
+  /** Approximate JSON size of the payload. */
+  payloadBytes: HistogramSummary;
+}
+
+export interface NativeMetrics {
+  /** Time covered by these numbers, since the module loaded or the last reset. */
+  sinceMs: number;
+  /** Keyed by native event name, e.g. `onNotificationWillDisplay`. Unfired events are absent. */
+  events: { [eventName: string]: NativeEventMetrics };
+  /** Android only. Counters of the trackEvent queue. */
+  trackEvents?: TrackEventQueueMetrics;
+  /** Android only. How the SDK was initialized; absent until initialize has run. */
+  startup?: StartupMetrics;
+  /** Android only. Display decisions for foreground notifications. */
+  foregroundWillDisplay?: ForegroundWillDisplayMetrics;
+}
+
+export interface ForegroundWillDisplayMetrics {
+  /** Time from the will-display event until JS called display() or preventDefault(). */
+  decisionLatencyMs: HistogramSummary;
+  /** Events JS did not answer before the timeout, see `setForegroundWillDisplayTimeout`. */
+  timeouts: number;
+  /** Events pushed out by newer ones before JS answered; the timeout policy applied to them. */
+  evicted: number;
+  /** Events still waiting for a decision. */
+  pending: number;
+  /** Lookups in the store of events waiting for a decision. */
+  pendingCache: CacheMetrics;
+  /** Lookups in the store of prevented events, kept so a later display() can still show them. */
+  preventedCache: CacheMetrics;
+}
+
+export interface CacheMetrics {
+  /** Lookups that found a live entry. */
+  hits: number;
+  /** Lookups that found nothing, or only an expired entry. */
+  misses: number;
+  /** Entries dropped for age, or pushed out by newer ones. */
+  evictions: number;
+}
+
+export interface StartupMetrics {
+  /**
+   * `native` when RNOneSignalInitializer initialized the SDK before JS loaded, `js` when
+   * OneSignal.initialize did.
+   */
+  mode: 'native' | 'js';
+  /** Time initWithContext took, on whichever thread ran it. */
+  initWithContextMs: number;
+  /** Time the native side of OneSignal.initialize took, including any wait for `native` mode. */
+  initializeMs: number;
+  /** `native` mode only: how long before OneSignal.initialize native initialization finished. */
+  nativeInitLeadMs: number;
+}
+
+export type TrackEventOverflowPolicy = 'dropOldest' | 'dropNewest' | 'block';
+
+export interface TrackEventQueueMetrics {
+  /** Events accepted into the queue. */
+  queued: number;
+  /** Events discarded by the overflow policy or at shutdown. */
+  dropped: number;
+  /** Events handed to the SDK. */
+  submitted: number;
+  /** Events the SDK rejected with an error. */
+  failed: number;
+  /** Events still waiting in the queue. */
+  pending: number;
+}
@@ -3,9 +3,53 @@ import OSNotification from '../OSNotification';
 
 export type NotificationEventName = 'click' | 'foregroundWillDisplay' | 'permissionChange';
 
+/** A notification field, or a key path into `additionalData` such as `additionalData.orderId`. */
+export type NotificationField =
+  | 'notificationId'
+  | 'androidNotificationId'
+  | 'title'
+  | 'body'
+  | 'smallIcon'
+  | 'largeIcon'
+  | 'bigPicture'
+  | 'smallIconAccentColor'
+  | 'launchURL'
+  | 'sound'
+  | 'ledColor'
+  | 'lockScreenVisibility'
+  | 'groupKey'
+  | 'groupMessage'
+  | 'groupedNotifications'
+  | 'fromProjectNumber'
+  | 'collapseId'
+  | 'priority'
+  | 'actionButtons'
+  | 'rawPayload'
+  | 'additionalData'
+  | `additionalData.${string}`;
+
+export interface NotificationListenerOptions {
+  /**
+   * Set to false if this listener does not read `rawPayload`. Once every listener for an event opts
+   * out, the native SDK stops sending it and `OSNotification.getRawPayload()` fetches it on demand.
+   */
+  includeRawPayload?: boolean;
+  /**
+   * Android only. The notification fields this listener reads. Once every listener for an event
+   * lists its fields, the native SDK only reads and sends the fields they list between them, plus
+   * `notificationId`. The other fields are undefined on the event's notification. `rawPayload` is
+   * only sent if listed, and `OSNotification.getRawPayload()` fetches it on demand otherwise.
+   */
+  fields?: NotificationField[];
+}
+
 export type NotificationListeners =
-  | ['click', EventListenerMap['OneSignal-notificationClicked']]
-  | ['foregroundWillDisplay', EventListenerMap['OneSignal-notificationWillDisplayInForeground']]
+  | ['click', EventListenerMap['OneSignal-notificationClicked'], NotificationListenerOptions?]
+  | [
+      'foregroundWillDisplay',
+      EventListenerMap['OneSignal-notificationWillDisplayInForeground'],
+      NotificationListenerOptions?,
+    ]
   | ['permissionChange', EventListenerMap['OneSignal-permissionChanged']];
 
 export interface NotificationClickEvent {
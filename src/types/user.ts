@@ -3,6 +3,15 @@ export interface UserState {
   onesignalId?: string;
 }
 
+/** What `OneSignal.loginWithProfile` applies to the user after logging in. */
+export interface UserProfile {
+  tags?: Record<string, string>;
+  aliases?: Record<string, string>;
+  emails?: string[];
+  sms?: string[];
+  language?: string;
+}
+
 export interface UserChangedState {
   current: UserState;
 }